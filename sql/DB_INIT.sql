@@ -47,6 +47,7 @@ CREATE TABLE users
 (
     id          INT AUTO_INCREMENT,
     mobile      VARCHAR(10) UNIQUE                                               NOT NULL,
+    mobile_reversed VARCHAR(10) AS (REVERSE(mobile)) STORED,
     name        VARCHAR(32) DEFAULT NULL,
     email       VARCHAR(64) DEFAULT NULL,
     oauth_id    VARCHAR(64) UNIQUE                                               NOT NULL,
@@ -74,7 +75,7 @@ CREATE TABLE item
 
 CREATE TABLE orders
 (
-    id                INT AUTO_INCREMENT,
+    id                BIGINT NOT NULL,
     user_id           INT    NOT NULL,
     shop_id           INT    NOT NULL,
     date              TIMESTAMP                              DEFAULT CURRENT_TIMESTAMP,
@@ -97,7 +98,7 @@ CREATE TABLE orders
 CREATE TABLE transactions
 (
     transaction_id      VARCHAR(64)  NOT NULL,
-    order_id            INT          NOT NULL,
+    order_id            BIGINT       NOT NULL,
     bank_transaction_id VARCHAR(64)  NOT NULL,
     currency            VARCHAR(3)   DEFAULT NULL,
     response_code       VARCHAR(10)  NOT NULL,
@@ -133,7 +134,7 @@ CREATE TABLE users_place
 
 CREATE TABLE orders_item
 (
-    order_id INT    NOT NULL,
+    order_id BIGINT NOT NULL,
     item_id  INT    NOT NULL,
     quantity INT    NOT NULL,
     price    DOUBLE NOT NULL,
@@ -144,7 +145,7 @@ CREATE TABLE orders_item
 
 create table orders_status
 (
-    order_id     INT                                         NOT NULL,
+    order_id     BIGINT                                      NOT NULL,
     status       ENUM ('PENDING', 'TXN_FAILURE', 'PLACED',
         'CANCELLED_BY_USER', 'ACCEPTED', 'CANCELLED_BY_SELLER',
         'READY', 'OUT_FOR_DELIVERY', 'COMPLETED',
@@ -189,13 +190,31 @@ CREATE TABLE seller_archive
 
 create table application_log
 (
+    id              BIGINT        NOT NULL AUTO_INCREMENT,
     request_type    ENUM ('GET', 'POST', 'PUT',
         'PATCH', 'DELETE')   NOT NULL,
     endpoint_url    VARCHAR(1024) DEFAULT NULL,
-    request_header  LONGTEXT NOT NULL,
-    request_object  LONGTEXT NOT NULL,
-    response_object LONGTEXT NOT NULL,
-    date            TIMESTAMP     DEFAULT CURRENT_TIMESTAMP
+    user_id         INT           DEFAULT NULL,
+    request_header  LONGBLOB NOT NULL,
+    request_object  LONGBLOB NOT NULL,
+    response_object LONGBLOB NOT NULL,
+    date            DATETIME      NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT application_log_id_date_pk PRIMARY KEY (id, date),
+    INDEX application_log_date_idx (date)
+)
+    PARTITION BY RANGE COLUMNS (date) (
+        PARTITION p_max VALUES LESS THAN (MAXVALUE)
+        );
+
+CREATE TABLE idempotency_key
+(
+    scope       VARCHAR(64) NOT NULL,
+    request_key VARCHAR(64) NOT NULL,
+    response    TEXT        DEFAULT NULL,
+    is_complete TINYINT     NOT NULL DEFAULT 0,
+    date        DATETIME    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT idempotency_key_pk PRIMARY KEY (scope, request_key),
+    INDEX idempotency_key_date_idx (date)
 );
 
 ####################################################
@@ -251,29 +270,18 @@ BEGIN
     IF (NEW.status = 'PLACED') OR (NEW.status = 'PENDING') OR (NEW.status = 'TXN_FAILURE') THEN
         SET NEW.date = CURRENT_TIMESTAMP;
     END IF;
-    IF NEW.rating IS NOT NULL THEN
-        BEGIN
-            DECLARE actual_status ENUM ('PENDING', 'TXN_FAILURE', 'PLACED',
-                'CANCELLED_BY_USER', 'ACCEPTED', 'CANCELLED_BY_SELLER',
-                'READY', 'OUT_FOR_DELIVERY', 'COMPLETED',
-                'DELIVERED', 'REFUND_INITIATED', 'REFUND_COMPLETED') DEFAULT NULL;
-
-            SELECT status
-            INTO actual_status
-            FROM orders
-            where id = NEW.id;
-
-            IF (OLD.rating IS NOT NULL) THEN
-                SIGNAL SQLSTATE '02000' SET MESSAGE_TEXT = 'Error: Rating cannot be updated if already done!';
-            ELSEIF ((actual_status IS NULL) OR ((actual_status != 'COMPLETED') AND
-                                                (actual_status != 'DELIVERED') AND
-                                                (actual_status != 'CANCELLED_BY_USER') AND
-                                                (actual_status != 'CANCELLED_BY_SELLER') AND
-                                                (actual_status != 'REFUND_COMPLETED'))) THEN
-                SIGNAL SQLSTATE '02000' SET MESSAGE_TEXT =
-                        'Error: Rating cannot be updated before the order completes!';
-            END IF;
-        END;
+    # Status changes leave the rating as it is, only rating updates are checked
+    IF NEW.rating IS NOT NULL AND (NEW.status <=> OLD.status) THEN
+        IF (OLD.rating IS NOT NULL) THEN
+            SIGNAL SQLSTATE '02000' SET MESSAGE_TEXT = 'Error: Rating cannot be updated if already done!';
+        ELSEIF ((OLD.status IS NULL) OR ((OLD.status != 'COMPLETED') AND
+                                         (OLD.status != 'DELIVERED') AND
+                                         (OLD.status != 'CANCELLED_BY_USER') AND
+                                         (OLD.status != 'CANCELLED_BY_SELLER') AND
+                                         (OLD.status != 'REFUND_COMPLETED'))) THEN
+            SIGNAL SQLSTATE '02000' SET MESSAGE_TEXT =
+                    'Error: Rating cannot be updated before the order completes!';
+        END IF;
     END IF;
 END;
 $$
@@ -307,14 +315,23 @@ CREATE INDEX shop_place_id_index
 CREATE INDEX users_oauth_id_index
     ON users (oauth_id);
 
+CREATE INDEX users_mobile_reversed_index
+    ON users (mobile_reversed);
+
+CREATE FULLTEXT INDEX users_name_fulltext_index
+    ON users (name) WITH PARSER ngram;
+
 CREATE INDEX items_shop_id_index
     ON item (shop_id);
 
 CREATE INDEX items_name_index
     ON item (name);
 
-CREATE INDEX orders_shop_id_index
-    ON orders (shop_id);
+CREATE INDEX orders_shop_id_date_id_index
+    ON orders (shop_id, date, id);
+
+CREATE INDEX orders_user_id_date_id_index
+    ON orders (user_id, date, id);
 
-CREATE INDEX orders_user_id_index
-    ON orders (user_id);
+CREATE INDEX orders_status_index
+    ON orders (status);
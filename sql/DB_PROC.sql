@@ -3,12 +3,13 @@
 # -1 -> order not taken
 # -2 -> delivery not available
 # -3 -> item unavailable
-# -4 -> secret key mismatch
+# -5 -> order price mismatch
 #  0 (or) actual_delivery_price
 
 DROP PROCEDURE IF EXISTS get_delivery_price;
 DROP PROCEDURE IF EXISTS calculate_price;
 DROP PROCEDURE IF EXISTS verify_pricing;
+DROP PROCEDURE IF EXISTS place_order;
 DROP PROCEDURE IF EXISTS validate_order_status;
 DROP PROCEDURE IF EXISTS order_status_update;
 DROP PROCEDURE IF EXISTS shop_rating_update;
@@ -55,156 +56,61 @@ DELIMITER ;
 ####################################################
 
 DELIMITER $$
-CREATE PROCEDURE calculate_price(
-    IN item_list json,
-    OUT total_price INT
-)
-BEGIN
-    DECLARE item_length BIGINT UNSIGNED DEFAULT JSON_LENGTH(item_list);
-    DECLARE item_index BIGINT UNSIGNED DEFAULT 0;
-    DECLARE item_id INT DEFAULT 0;
-    DECLARE item_quantity INT DEFAULT 0;
-    DECLARE item_price INT;
-    set total_price = 0;
-
-    item_loop:
-    WHILE item_index < item_length DO
-            set item_quantity = JSON_EXTRACT(item_list, CONCAT('$[', item_index, '].quantity'));
-            set item_id = JSON_EXTRACT(item_list, CONCAT('$[', item_index, '].itemId'));
-            set item_price = null;
-
-            select price
-            into item_price
-            from item
-            where item.id = item_id and
-                    item.is_available = 1 and
-                    item.is_delete = 0;
-
-            IF(item_price is null) THEN
-                set total_price = -3;
-                LEAVE item_loop;
-            end if;
-
-            set total_price = total_price + (item_price * item_quantity);
-            SET item_index = item_index + 1;
-        END WHILE item_loop;
-END$$;
-DELIMITER ;
-
-####################################################
-
-DELIMITER $$
-CREATE PROCEDURE verify_pricing(
+CREATE PROCEDURE place_order(
     IN item_list json,
+    IN u_id INT,
     IN s_id INT,
     IN order_type char,
+    IN expected_price INT,
+    IN o_price DOUBLE,
+    IN d_price DOUBLE,
+    IN d_location VARCHAR(128),
+    IN c_info VARCHAR(128),
+    IN o_id BIGINT,
     OUT total_price INT,
     OUT m_id varchar(32)
 )
 BEGIN
+    DECLARE item_count INT DEFAULT JSON_LENGTH(item_list);
+    DECLARE available_count INT DEFAULT 0;
+    DECLARE item_total DOUBLE DEFAULT 0;
+
     CALL get_delivery_price(s_id, order_type, @delivery_price, @merchant_id);
 
-    if(@delivery_price < 0) THEN
+    IF @delivery_price < 0 THEN
         SET total_price = @delivery_price;
     ELSE
-        CALL calculate_price(item_list, total_price);
-
-        if(total_price > 0) THEN
-            SET total_price = total_price + @delivery_price;
-            SET m_id = @merchant_id;
-        END IF;
-    END IF;
-END$$;
-DELIMITER ;
-
-####################################################
+        SELECT COUNT(item.id), SUM(item.price * order_item.quantity)
+        INTO available_count, item_total
+        FROM JSON_TABLE(item_list, '$[*]' COLUMNS (
+                item_id INT PATH '$.itemId',
+                quantity INT PATH '$.quantity')) AS order_item
+                 INNER JOIN item
+                            ON item.id = order_item.item_id AND
+                               item.shop_id = s_id AND
+                               item.is_available = 1 AND
+                               item.is_delete = 0;
+
+        IF available_count < item_count OR item_count = 0 THEN
+            SET total_price = -3;
+        ELSE
+            SET total_price = item_total + @delivery_price;
 
-DELIMITER $$
-CREATE PROCEDURE validate_order_status(
-    IN o_id INT,
-    IN new_status ENUM ('PENDING', 'TXN_FAILURE', 'PLACED',
-        'CANCELLED_BY_USER', 'ACCEPTED', 'CANCELLED_BY_SELLER',
-        'READY', 'OUT_FOR_DELIVERY', 'COMPLETED',
-        'DELIVERED', 'REFUND_INITIATED', 'REFUND_COMPLETED'),
-	IN new_secret_key VARCHAR(10),
-    OUT result INT
-)
-BEGIN
-    DECLARE actual_status ENUM ('PENDING', 'TXN_FAILURE', 'PLACED',
-        'CANCELLED_BY_USER', 'ACCEPTED', 'CANCELLED_BY_SELLER',
-        'READY', 'OUT_FOR_DELIVERY', 'COMPLETED',
-        'DELIVERED', 'REFUND_INITIATED', 'REFUND_COMPLETED') DEFAULT NULL;
-    DECLARE actual_delivery_location VARCHAR(128) DEFAULT NULL;
-    DECLARE actual_secret_key VARCHAR(10) DEFAULT NULL;
-    SET result = 0;
-
-    SELECT status, delivery_location, secret_key
-    INTO actual_status, actual_delivery_location, actual_secret_key
-    from orders
-    where id = o_id;
-
-	case actual_status
-		when 'PENDING' THEN
-			set result = (new_status = 'TXN_FAILURE') OR (new_status = 'PLACED') OR (new_status = 'REFUND_INITIATED');
-		when 'PLACED' THEN
-			set result = (new_status = 'CANCELLED_BY_SELLER') OR (new_status = 'CANCELLED_BY_USER') OR (new_status = 'ACCEPTED');
-		when 'ACCEPTED' THEN
-			IF actual_delivery_location IS NULL THEN
-				set result = (new_status = 'READY') OR (new_status = 'CANCELLED_BY_SELLER');
-			ELSE
-				set result = (new_status = 'OUT_FOR_DELIVERY') OR (new_status = 'CANCELLED_BY_SELLER');
-			END IF;
-		when 'READY' THEN
-			IF new_status = 'COMPLETED' THEN
-				IF actual_secret_key = new_secret_key THEN
-					set result = 1;
-				ELSE
-					set result = -4;
-				END IF;
-			END IF;
-		when 'OUT_FOR_DELIVERY' THEN
-			IF new_status = 'DELIVERED' THEN
-				IF actual_secret_key = new_secret_key THEN
-					set result = 1;
-				ELSE
-					set result = -4;
-				END IF;
-			END IF;
-		ELSE
-			IF actual_status = 'CANCELLED_BY_USER' OR actual_status = 'CANCELLED_BY_SELLER' OR actual_status = 'REFUND_INITIATED' THEN
-				set result = (new_status = 'REFUND_COMPLETED');
-			ELSEIF actual_status IS NULL THEN
-				set result = (new_status = 'TXN_FAILURE') OR (new_status = 'PENDING') OR (new_status = 'PLACED');
-			END IF;
-    END CASE;
-END$$
-DELIMITER ;
+            IF total_price != expected_price THEN
+                SET total_price = -5;
+            ELSE
+                INSERT INTO orders(id, user_id, shop_id, price, delivery_price, delivery_location, cooking_info)
+                VALUES (o_id, u_id, s_id, o_price, d_price, d_location, c_info);
 
-####################################################
+                INSERT INTO orders_item(order_id, item_id, quantity, price)
+                SELECT o_id, order_item.item_id, order_item.quantity, order_item.price
+                FROM JSON_TABLE(item_list, '$[*]' COLUMNS (
+                        item_id INT PATH '$.itemId',
+                        quantity INT PATH '$.quantity',
+                        price DOUBLE PATH '$.price')) AS order_item;
 
-DELIMITER $$
-CREATE PROCEDURE order_status_update(
-    IN o_id INT,
-    IN new_status ENUM ('PENDING', 'TXN_FAILURE', 'PLACED',
-        'CANCELLED_BY_USER', 'ACCEPTED', 'CANCELLED_BY_SELLER',
-        'READY', 'OUT_FOR_DELIVERY', 'COMPLETED',
-        'DELIVERED', 'REFUND_INITIATED', 'REFUND_COMPLETED'),
-	IN new_secret_key VARCHAR(10),
-    OUT result INT
-)
-BEGIN
-	DECLARE gen_secret_key VARCHAR(10) DEFAULT NULL;
-    CALL validate_order_status(o_id, new_status, new_secret_key, result);
-    IF result = 1 THEN
-		IF new_status = 'READY' OR new_status = 'OUT_FOR_DELIVERY' THEN
-            SET new_secret_key = LPAD(FLOOR(RAND() * 999999.99), 6, '0');
-            UPDATE orders
-			set secret_key = new_secret_key, status = new_status
-			where id = o_id;
-		else
-			UPDATE orders
-			set status = new_status
-			where id = o_id;
+                SET m_id = @merchant_id;
+            END IF;
         END IF;
     END IF;
 END$$
@@ -235,11 +141,9 @@ DELIMITER ;
 
 ####################################################
 
-# CALL verify_pricing('[{"itemId":1,"quantity":1},{"itemId":2,"quantity":2}]', 1, 'P', @total_price, @m_id);
+# CALL place_order('[{"itemId":1,"quantity":1,"price":40},{"itemId":2,"quantity":2,"price":60}]', 1, 1, 'P', 160, 160, NULL, NULL, NULL, 1, @total_price, @m_id);
 # select @total_price, @m_id;
 
-# CALL order_status_update(1, 'DELIVERED', '966318', @result);
-# SELECT @result;
 
 # CALL shop_rating_update(1);
 
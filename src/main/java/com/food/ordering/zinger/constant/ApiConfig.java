@@ -23,13 +23,20 @@ public class ApiConfig {
         public static final String BASE_URL = "/order";
         public static final String insertOrder = EMPTY_QUOTES;
         public static final String placeOrder = "/place/{orderId}";
+        public static final String quoteOrder = "/quote";
         public static final String getOrderByUserId = "/customer/{userId}/{pageNum}/{pageCount}";
         public static final String getOrderBySearchQuery = "/{shopId}/{searchItem}/{pageNum}/{pageCount}";
         public static final String getOrderByShopIdPagination = "/seller/{shopId}/{pageNum}/{pageCount}";
+        public static final String getOrderByUserIdCursor = "/customer/{userId}/cursor";
+        public static final String getOrderBySearchQueryCursor = "/{shopId}/{searchItem}/cursor";
+        public static final String getOrderByShopIdCursor = "/seller/{shopId}/cursor";
         public static final String getOrderByShopId = "/seller/{shopId}";
+        public static final String getOrderCountByShopId = "/seller/{shopId}/count";
+        public static final String streamOrderByShopId = "/stream/{shopId}";
         public static final String getOrderById = "/{id}";
         public static final String updateOrderRating = "/rating";
         public static final String updateOrderStatus = "/status";
+        public static final String updateOrderStatusBulk = "/status/bulk";
     }
 
     public static class UserApi {
@@ -56,4 +63,10 @@ public class ApiConfig {
         public static final String updateShopConfiguration = "/config";
         public static final String deleteShop = "/{shopId}";
     }
+
+    public static class AuditApi {
+        public static final String BASE_URL = "/audit";
+        public static final String getMetrics = "/metrics";
+        public static final String getLogs = "/search";
+    }
 }
@@ -15,7 +15,10 @@ public class Column {
     public static final String itemPrice = "item_price";
 
     public static final String orderItemPrice = "order_item_price";
+    public static final String rowType = "row_type";
+    public static final String searchRank = "search_rank";
     public static final String searchQuery = "search_query";
+    public static final String orderCount = "order_count";
 
     public static final class PlaceColumn {
         public static final String tableName = "place";
@@ -145,6 +148,7 @@ public class Column {
 
         public static final String id = "id";
         public static final String mobile = "mobile";
+        public static final String mobileReversed = "mobile_reversed";
         public static final String name = "name";
         public static final String email = "email";
         public static final String oauthId = "oauth_id";
@@ -166,12 +170,33 @@ public class Column {
     public static final class ApplicationLogColumn {
         public static final String tableName = "application_log";
 
+        public static final String id = "id";
         public static final String requestType = "request_type";
         public static final String endpointUrl = "endpoint_url";
+        public static final String userId = "user_id";
         public static final String requestHeader = "request_header";
         public static final String requestObject = "request_object";
         public static final String responseObject = "response_object";
         public static final String date = "date";
     }
 
+    public static final class IdempotencyKeyColumn {
+        public static final String tableName = "idempotency_key";
+
+        public static final String scope = "scope";
+        public static final String requestKey = "request_key";
+        public static final String response = "response";
+        public static final String isComplete = "is_complete";
+        public static final String date = "date";
+    }
+
+    public static final class PartitionColumn {
+        public static final String tableName = "information_schema.partitions";
+
+        public static final String tableSchema = "table_schema";
+        public static final String tableNameColumn = "table_name";
+        public static final String partitionName = "partition_name";
+        public static final String partitionOrdinalPosition = "partition_ordinal_position";
+    }
+
 }
@@ -13,28 +13,57 @@ public class Constant {
     public static final String notificationPayload = "payload";
     public static final String globalNotificationTopic = "global";
 
-    public static final class VerifyPricingProcedure {
-        public static final String procedureName = "verify_pricing";
+    public static final class PlaceOrderProcedure {
+        public static final String procedureName = "place_order";
 
         // I/P parameters
         public static final String itemList = "item_list";
+        public static final String userId = "u_id";
         public static final String shopId = "s_id";
         public static final String orderType = "order_type";
+        public static final String expectedPrice = "expected_price";
+        public static final String price = "o_price";
+        public static final String deliveryPrice = "d_price";
+        public static final String deliveryLocation = "d_location";
+        public static final String cookingInfo = "c_info";
+        public static final String orderId = "o_id";
 
         // O/P parameters
         public static final String totalPrice = "total_price";
         public static final String merchantId = "m_id";
     }
 
-    public static final class OrderStatusUpdate {
-        public static final String procedureName = "order_status_update";
+    public static final class OrderRowType {
+        public static final int order = 0;
+        public static final int item = 1;
+        public static final int status = 2;
+    }
 
-        // I/P parameters
-        public static final String orderId = "o_id";
-        public static final String newStatus = "new_status";
-        public static final String newSecretKey = "new_secret_key";
+    public static final class IdempotencyKey {
+        public static final String header = "Idempotency-Key";
+        public static final int maxLength = 64;
 
-        // O/P parameters
-        public static final String result = "result";
+        public static final String insertOrderScope = "insertOrder:";
+        public static final String placeOrderScope = "placeOrder:";
+    }
+
+    public static final class EventStream {
+        public static final String lastEventIdHeader = "Last-Event-ID";
+        public static final String idSeparator = ".";
+
+        public static final String snapshotEvent = "snapshot";
+        public static final String orderEvent = "order";
+        public static final String heartbeatComment = "heartbeat";
+    }
+
+    public static final class SessionToken {
+        public static final String header = "Authorization";
+        public static final String bearerPrefix = "Bearer ";
+        public static final String requestAttribute = "zinger.sessionToken";
+
+        public static final String version = "1";
+        public static final String fieldSeparator = "|";
+        public static final String listSeparator = ",";
+        public static final String signatureSeparator = ".";
     }
 }
@@ -20,4 +20,8 @@ public class Enums {
     public enum NotificationType {
         URL, NEW_ARRIVAL, USER_ORDER_STATUS, SELLER_ORDER_STATUS
     }
+
+    public enum AuditOverflowPolicy {
+        DROP, BLOCK, SPILL
+    }
 }
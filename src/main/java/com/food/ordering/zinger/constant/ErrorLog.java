@@ -8,6 +8,7 @@ public class ErrorLog {
     public static final String MissingRequestHeader = "Missing Request Header";
     public static final String InvalidHeader = "Invalid Header Values";
     public static final String UnAuthorizedAccess = "Unauthorized Access";
+    public static final String TooManyRequests = "Too Many Requests";
 
     public static final String Success = "Success";
     public static final String Failure = "Failure";
@@ -38,6 +39,10 @@ public class ErrorLog {
     public static final String OrderPriceMismatch = "Order price mismatch";
     public static final String RestaurantNotAcceptingOrders = "Restaurant not accepting orders";
     public static final String TransactionTokenNotAvailable = "Transaction Token Not Available";
+    public static final String InvalidIdempotencyKey = "Invalid Idempotency-Key";
+    public static final String RequestInProgress = "Request with the same Idempotency-Key is in progress";
+    public static final String InvalidBulkRequest = "No orders or too many orders in the request";
+    public static final String InvalidCursor = "Invalid page cursor or page count";
 
     /**********************************************************************/
     /* Place Controller Error Code 1100-1150
@@ -141,6 +146,7 @@ public class ErrorLog {
     public static final Integer ODNU1285 = 1285;
     public static final Integer CE1286 = 1286;
     public static final Integer ODNA1287 = 1287;
+    public static final Integer CE1288 = 1288;
     public static final Integer CE1289 = 1289;
     public static final Integer UDNA1290 = 1290;
     public static final Integer ODNA1291 = 1291;
@@ -154,4 +160,30 @@ public class ErrorLog {
     public static final Integer ODNA1299 = 1299;
     public static final Integer OPM1300 = 1300;
     public static final Integer OIDNU301 = 1301;
+
+    /**********************************************************************/
+    // Idempotency Error Code 1302-1310
+
+    public static final Integer IIK1302 = 1302;
+    public static final Integer RIP1303 = 1303;
+
+    /**********************************************************************/
+    // Bulk Order Status Error Code 1311-1320
+
+    public static final Integer IBR1311 = 1311;
+
+    /**********************************************************************/
+    // Order Cursor Error Code 1321-1330
+
+    public static final Integer IC1321 = 1321;
+
+    /**********************************************************************/
+    // Active Order View Error Code 1331-1340
+
+    public static final Integer CE1331 = 1331;
+
+    /**********************************************************************/
+    // Rate Limit Error Code 1341-1350
+
+    public static final Integer TMR1341 = 1341;
 }
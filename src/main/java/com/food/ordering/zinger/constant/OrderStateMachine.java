@@ -0,0 +1,120 @@
+package com.food.ordering.zinger.constant;
+
+import com.food.ordering.zinger.constant.Enums.OrderStatus;
+import com.food.ordering.zinger.constant.Query.OrderQuery;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+
+import static com.food.ordering.zinger.constant.Enums.OrderStatus.*;
+
+/**
+ * OrderStateMachine is the table of the allowed order status changes, keyed by the new status.
+ * <pre>
+ *   (new order)        -> PENDING, PLACED, TXN_FAILURE
+ *   PENDING            -> PLACED, TXN_FAILURE, REFUND_INITIATED
+ *   PLACED             -> ACCEPTED, CANCELLED_BY_USER, CANCELLED_BY_SELLER
+ *   ACCEPTED           -> READY (pick up), OUT_FOR_DELIVERY (delivery), CANCELLED_BY_SELLER
+ *   READY              -> COMPLETED (secret key)
+ *   OUT_FOR_DELIVERY   -> DELIVERED (secret key)
+ *   CANCELLED_BY_USER, CANCELLED_BY_SELLER, REFUND_INITIATED -> REFUND_COMPLETED
+ * </pre>
+ * A new order has no status (NULL). READY and OUT_FOR_DELIVERY generate the secret key
+ * the customer presents on COMPLETED and DELIVERED.
+ *
+ * @implNote Each transition carries its compare-and-set update, "UPDATE ... WHERE id = ? AND status IN (predecessors)",
+ * so validating and applying a status change is one statement and concurrent changes of the same order
+ * cannot both succeed.
+ */
+public final class OrderStateMachine {
+
+    public enum Guard {
+        NONE, PICK_UP, DELIVERY, SECRET_KEY
+    }
+
+    private static final Map<OrderStatus, Transition> transitions = new EnumMap<>(OrderStatus.class);
+
+    static {
+        add(PENDING, true, Guard.NONE, false);
+        add(PLACED, true, Guard.NONE, false, PENDING);
+        add(TXN_FAILURE, true, Guard.NONE, false, PENDING);
+        add(REFUND_INITIATED, false, Guard.NONE, false, PENDING);
+        add(ACCEPTED, false, Guard.NONE, false, PLACED);
+        add(CANCELLED_BY_USER, false, Guard.NONE, false, PLACED);
+        add(CANCELLED_BY_SELLER, false, Guard.NONE, false, PLACED, ACCEPTED);
+        add(READY, false, Guard.PICK_UP, true, ACCEPTED);
+        add(OUT_FOR_DELIVERY, false, Guard.DELIVERY, true, ACCEPTED);
+        add(COMPLETED, false, Guard.SECRET_KEY, false, READY);
+        add(DELIVERED, false, Guard.SECRET_KEY, false, OUT_FOR_DELIVERY);
+        add(REFUND_COMPLETED, false, Guard.NONE, false, CANCELLED_BY_USER, CANCELLED_BY_SELLER, REFUND_INITIATED);
+    }
+
+    private OrderStateMachine() {
+    }
+
+    private static void add(OrderStatus newStatus, boolean isNewOrderAllowed, Guard guard, boolean isSecretKeyGenerated, OrderStatus... predecessors) {
+        EnumSet<OrderStatus> predecessorSet = EnumSet.noneOf(OrderStatus.class);
+        for (OrderStatus predecessor : predecessors)
+            predecessorSet.add(predecessor);
+        transitions.put(newStatus, new Transition(newStatus, predecessorSet, isNewOrderAllowed, guard, isSecretKeyGenerated));
+    }
+
+    /**
+     * @param newStatus OrderStatus
+     * @return the transition into the given status, null if no status can change into it.
+     */
+    public static Transition getTransition(OrderStatus newStatus) {
+        return newStatus == null ? null : transitions.get(newStatus);
+    }
+
+    public static final class Transition {
+        private final OrderStatus newStatus;
+        private final EnumSet<OrderStatus> predecessors;
+        private final boolean isNewOrderAllowed;
+        private final Guard guard;
+        private final boolean isSecretKeyGenerated;
+        private final String updateQuery;
+
+        private Transition(OrderStatus newStatus, EnumSet<OrderStatus> predecessors, boolean isNewOrderAllowed, Guard guard, boolean isSecretKeyGenerated) {
+            this.newStatus = newStatus;
+            this.predecessors = predecessors;
+            this.isNewOrderAllowed = isNewOrderAllowed;
+            this.guard = guard;
+            this.isSecretKeyGenerated = isSecretKeyGenerated;
+            this.updateQuery = OrderQuery.getUpdateOrderStatus(this);
+        }
+
+        public OrderStatus getNewStatus() {
+            return newStatus;
+        }
+
+        public EnumSet<OrderStatus> getPredecessors() {
+            return EnumSet.copyOf(predecessors);
+        }
+
+        public boolean isNewOrderAllowed() {
+            return isNewOrderAllowed;
+        }
+
+        public Guard getGuard() {
+            return guard;
+        }
+
+        public boolean isSecretKeyGenerated() {
+            return isSecretKeyGenerated;
+        }
+
+        public String getUpdateQuery() {
+            return updateQuery;
+        }
+
+        /**
+         * @param status OrderStatus, null for a new order
+         * @return true if an order in the given status can change into the new status, leaving out the guard.
+         */
+        public boolean isAllowedFrom(OrderStatus status) {
+            return status == null ? isNewOrderAllowed : predecessors.contains(status);
+        }
+    }
+}
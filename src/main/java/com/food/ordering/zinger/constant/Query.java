@@ -1,10 +1,11 @@
 package com.food.ordering.zinger.constant;
 
 import com.food.ordering.zinger.constant.Column.*;
+import com.food.ordering.zinger.constant.Constant.OrderRowType;
 import com.food.ordering.zinger.constant.Enums.OrderStatus;
 import com.food.ordering.zinger.model.ItemModel;
-import com.food.ordering.zinger.model.OrderItemModel;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static com.food.ordering.zinger.constant.Column.OrderItemColumn.*;
@@ -14,20 +15,128 @@ import static com.food.ordering.zinger.constant.Sql.*;
 
 public class Query {
     public static final class AuditLogQuery {
+        public static final String fromDate = "fromDate";
+        public static final String toDate = "toDate";
+        public static final String pageNum = "pageNum";
+        public static final String pageCount = "pageCount";
 
-        public static final String insertLog = INSERT_INTO + ApplicationLogColumn.tableName + LEFT_PARANTHESIS +
+        public static final String getLogs = SELECT +
                 ApplicationLogColumn.requestType + COMMA +
                 ApplicationLogColumn.endpointUrl + COMMA +
+                ApplicationLogColumn.userId + COMMA +
                 ApplicationLogColumn.requestHeader + COMMA +
                 ApplicationLogColumn.requestObject + COMMA +
-                ApplicationLogColumn.responseObject +
-                RIGHT_PARANTHESIS + VALUES + LEFT_PARANTHESIS +
-                COLON + ApplicationLogColumn.requestType +
-                COMMA_COLON + ApplicationLogColumn.endpointUrl +
-                COMMA_COLON + ApplicationLogColumn.requestHeader +
-                COMMA_COLON + ApplicationLogColumn.requestObject +
-                COMMA_COLON + ApplicationLogColumn.responseObject +
-                RIGHT_PARANTHESIS;
+                ApplicationLogColumn.responseObject + COMMA +
+                ApplicationLogColumn.date + FROM + ApplicationLogColumn.tableName + WHERE +
+                ApplicationLogColumn.date + GREATER_THAN_EQUALS + COLON + fromDate + AND +
+                ApplicationLogColumn.date + LESS_THAN + COLON + toDate + AND + LEFT_PARANTHESIS +
+                COLON + ApplicationLogColumn.endpointUrl + IS_NULL + OR +
+                ApplicationLogColumn.endpointUrl + LIKE + COLON + ApplicationLogColumn.endpointUrl + RIGHT_PARANTHESIS + AND + LEFT_PARANTHESIS +
+                COLON + ApplicationLogColumn.userId + IS_NULL + OR +
+                ApplicationLogColumn.userId + EQUALS + COLON + ApplicationLogColumn.userId + RIGHT_PARANTHESIS +
+                ORDER_BY + ApplicationLogColumn.date +
+                LIMIT + COLON + pageCount + OFFSET + COLON + pageNum;
+
+        public static final String maxPartition = "p_max";
+        public static final String partitionPrefix = "p_";
+
+        public static final String getPartitions = SELECT + PartitionColumn.partitionName + FROM + PartitionColumn.tableName + WHERE +
+                PartitionColumn.tableSchema + EQUALS + DATABASE + AND +
+                PartitionColumn.tableNameColumn + EQUALS + SINGLE_QUOTE + ApplicationLogColumn.tableName + SINGLE_QUOTE + AND +
+                PartitionColumn.partitionName + IS_NOT_NULL +
+                ORDER_BY + PartitionColumn.partitionOrdinalPosition;
+
+        /**
+         * Splits the catch-all partition into one partition per day, keeping
+         * the catch-all as the last partition.
+         *
+         * @param partitionNames List, e.g. p_20200131
+         * @param upperBounds    List, exclusive upper bound of each partition, e.g. 2020-02-01
+         * @return the ALTER TABLE statement.
+         */
+        public static String getAddPartitions(List<String> partitionNames, List<String> upperBounds) {
+            StringBuilder addPartitions = new StringBuilder(ALTER_TABLE + ApplicationLogColumn.tableName +
+                    REORGANIZE_PARTITION + maxPartition + INTO + LEFT_PARANTHESIS);
+
+            for (int i = 0; i < partitionNames.size(); i++) {
+                addPartitions.append(PARTITION).append(partitionNames.get(i)).append(VALUES_LESS_THAN)
+                        .append(LEFT_PARANTHESIS).append(SINGLE_QUOTE).append(upperBounds.get(i)).append(SINGLE_QUOTE)
+                        .append(RIGHT_PARANTHESIS).append(COMMA);
+            }
+
+            return addPartitions.append(PARTITION).append(maxPartition).append(VALUES_LESS_THAN)
+                    .append(LEFT_PARANTHESIS).append(MAXVALUE).append(RIGHT_PARANTHESIS)
+                    .append(RIGHT_PARANTHESIS).toString();
+        }
+
+        public static String getDropPartitions(List<String> partitionNames) {
+            return ALTER_TABLE + ApplicationLogColumn.tableName + DROP_PARTITION + String.join(COMMA, partitionNames);
+        }
+
+        public static String getInsertLog(int count) {
+            StringBuilder insertLog = new StringBuilder(INSERT_INTO + ApplicationLogColumn.tableName + LEFT_PARANTHESIS +
+                    ApplicationLogColumn.requestType + COMMA +
+                    ApplicationLogColumn.endpointUrl + COMMA +
+                    ApplicationLogColumn.userId + COMMA +
+                    ApplicationLogColumn.requestHeader + COMMA +
+                    ApplicationLogColumn.requestObject + COMMA +
+                    ApplicationLogColumn.responseObject + COMMA +
+                    ApplicationLogColumn.date +
+                    RIGHT_PARANTHESIS + VALUES);
+
+            for (int i = 0; i < count; i++) {
+                insertLog.append(LEFT_PARANTHESIS)
+                        .append(COLON).append(ApplicationLogColumn.requestType).append(i)
+                        .append(COMMA_COLON).append(ApplicationLogColumn.endpointUrl).append(i)
+                        .append(COMMA_COLON).append(ApplicationLogColumn.userId).append(i)
+                        .append(COMMA_COLON).append(ApplicationLogColumn.requestHeader).append(i)
+                        .append(COMMA_COLON).append(ApplicationLogColumn.requestObject).append(i)
+                        .append(COMMA_COLON).append(ApplicationLogColumn.responseObject).append(i)
+                        .append(COMMA_COLON).append(ApplicationLogColumn.date).append(i)
+                        .append(RIGHT_PARANTHESIS);
+                if (i < count - 1)
+                    insertLog.append(COMMA);
+            }
+
+            return insertLog.toString();
+        }
+    }
+
+    public static final class IdempotencyKeyQuery {
+        public static final String pendingSeconds = "pendingSeconds";
+        public static final String retentionSeconds = "retentionSeconds";
+
+        private static final String byKey = IdempotencyKeyColumn.scope + EQUAL_COLON + IdempotencyKeyColumn.scope + AND +
+                IdempotencyKeyColumn.requestKey + EQUAL_COLON + IdempotencyKeyColumn.requestKey;
+        private static final String ageInSeconds = TIMESTAMPDIFF + LEFT_PARANTHESIS + SECOND + COMMA +
+                IdempotencyKeyColumn.date + COMMA + CURRENT_TIMESTAMP + RIGHT_PARANTHESIS;
+
+        public static final String insertKey = INSERT_IGNORE_INTO + IdempotencyKeyColumn.tableName + LEFT_PARANTHESIS +
+                IdempotencyKeyColumn.scope + COMMA +
+                IdempotencyKeyColumn.requestKey + RIGHT_PARANTHESIS + VALUES + LEFT_PARANTHESIS +
+                COLON + IdempotencyKeyColumn.scope +
+                COMMA_COLON + IdempotencyKeyColumn.requestKey + RIGHT_PARANTHESIS;
+
+        public static final String getKey = SELECT +
+                IdempotencyKeyColumn.response + COMMA +
+                IdempotencyKeyColumn.isComplete + FROM + IdempotencyKeyColumn.tableName + WHERE +
+                byKey;
+
+        public static final String completeKey = UPDATE + IdempotencyKeyColumn.tableName + SET +
+                IdempotencyKeyColumn.response + EQUAL_COLON + IdempotencyKeyColumn.response + COMMA +
+                IdempotencyKeyColumn.isComplete + " = 1" + WHERE +
+                byKey;
+
+        public static final String deleteKey = DELETE_FROM + IdempotencyKeyColumn.tableName + WHERE +
+                byKey;
+
+        public static final String deleteStaleKey = DELETE_FROM + IdempotencyKeyColumn.tableName + WHERE +
+                byKey + AND + LEFT_PARANTHESIS +
+                LEFT_PARANTHESIS + IdempotencyKeyColumn.isComplete + " = 0" + AND + ageInSeconds + GREATER_THAN_EQUALS + COLON + pendingSeconds + RIGHT_PARANTHESIS + OR +
+                ageInSeconds + GREATER_THAN_EQUALS + COLON + retentionSeconds + RIGHT_PARANTHESIS;
+
+        public static final String deleteExpiredKeys = DELETE_FROM + IdempotencyKeyColumn.tableName + WHERE +
+                ageInSeconds + GREATER_THAN_EQUALS + COLON + retentionSeconds;
     }
 
     public static final class PlaceQuery {
@@ -76,6 +185,13 @@ public class Query {
                 ItemColumn.shopId + EQUAL_COLON + ItemColumn.shopId + AND +
                 notDeleted;
 
+        public static final String getItemPricesByShopId = SELECT +
+                ItemColumn.id + COMMA +
+                ItemColumn.price + COMMA +
+                ItemColumn.isAvailable + COMMA +
+                ItemColumn.isDelete + FROM + ItemColumn.tableName + WHERE +
+                ItemColumn.shopId + EQUAL_COLON + ItemColumn.shopId;
+
         public static final String getItemsByName = SELECT +
                 ItemColumn.tableName + DOT + ItemColumn.id + COMMA +
                 ItemColumn.tableName + DOT + ItemColumn.name + COMMA +
@@ -133,375 +249,199 @@ public class Query {
     public static final class OrderQuery {
         public static final String pageNum = "pageNum";
         public static final String pageCount = "pageCount";
-        public static final String getOrderByUserId = SELECT +
-                LHS + DOT + OrderColumn.id + COMMA +
-                LHS + DOT + OrderColumn.date + COMMA +
-                LHS + DOT + OrderColumn.price + COMMA +
-                LHS + DOT + OrderColumn.deliveryPrice + COMMA +
-                LHS + DOT + OrderColumn.deliveryLocation + COMMA +
-                LHS + DOT + OrderColumn.cookingInfo + COMMA +
-                LHS + DOT + OrderColumn.rating + COMMA +
-                LHS + DOT + OrderColumn.feedback + COMMA +
-                LHS + DOT + OrderColumn.secretKey + COMMA +
-                LHS + DOT + TransactionColumn.transactionId + COMMA +
-                LHS + DOT + TransactionColumn.paymentMode + COMMA +
-                LHS + DOT + shopName + COMMA +
-                LHS + DOT + ShopColumn.photoUrl + COMMA +
-                LHS + DOT + shopMobile + COMMA +
-                LHS + DOT + itemName + COMMA +
-                LHS + DOT + itemPrice + COMMA +
-                LHS + DOT + ItemColumn.isVeg + COMMA +
-                LHS + DOT + quantity + COMMA +
-                LHS + DOT + orderItemPrice + COMMA +
-                RHS + DOT + OrderColumn.status + COMMA +
-                RHS + DOT + OrderStatusColumn.updatedTime + FROM + LEFT_PARANTHESIS + SELECT +
-                OrderColumn.tableName + DOT + OrderColumn.id + COMMA +
-                OrderColumn.tableName + DOT + OrderColumn.date + COMMA +
-                OrderColumn.tableName + DOT + OrderColumn.price + COMMA +
-                OrderColumn.tableName + DOT + OrderColumn.deliveryPrice + COMMA +
-                OrderColumn.tableName + DOT + OrderColumn.deliveryLocation + COMMA +
-                OrderColumn.tableName + DOT + OrderColumn.cookingInfo + COMMA +
-                OrderColumn.tableName + DOT + OrderColumn.rating + COMMA +
-                OrderColumn.tableName + DOT + OrderColumn.feedback + COMMA +
-                OrderColumn.tableName + DOT + OrderColumn.secretKey + COMMA +
-                TransactionColumn.tableName + DOT + TransactionColumn.transactionId + COMMA +
-                TransactionColumn.tableName + DOT + TransactionColumn.paymentMode + COMMA +
-                ShopColumn.tableName + DOT + ShopColumn.name + AS + shopName + COMMA +
-                ShopColumn.tableName + DOT + ShopColumn.photoUrl + COMMA +
-                ShopColumn.tableName + DOT + ShopColumn.mobile + AS + shopMobile + COMMA +
-                GROUP_CONCAT + LEFT_PARANTHESIS + ItemColumn.tableName + DOT + ItemColumn.name + RIGHT_PARANTHESIS + AS + itemName + COMMA +
-                GROUP_CONCAT + LEFT_PARANTHESIS + ItemColumn.tableName + DOT + ItemColumn.price + RIGHT_PARANTHESIS + AS + itemPrice + COMMA +
-                GROUP_CONCAT + LEFT_PARANTHESIS + ItemColumn.tableName + DOT + ItemColumn.isVeg + RIGHT_PARANTHESIS + AS + ItemColumn.isVeg + COMMA +
-                GROUP_CONCAT + LEFT_PARANTHESIS + OrderItemColumn.tableName + DOT + quantity + RIGHT_PARANTHESIS + AS + quantity + COMMA +
-                GROUP_CONCAT + LEFT_PARANTHESIS + OrderItemColumn.tableName + DOT + price + RIGHT_PARANTHESIS + AS + orderItemPrice + FROM + OrderColumn.tableName +
-                INNER_JOIN + TransactionColumn.tableName + ON +
-                OrderColumn.tableName + DOT + OrderColumn.id + EQUALS + TransactionColumn.tableName + DOT + TransactionColumn.orderId + AND +
-                OrderColumn.tableName + DOT + OrderColumn.userId + EQUAL_COLON + UserColumn.id +
-                INNER_JOIN + OrderItemColumn.tableName + ON +
-                OrderColumn.tableName + DOT + OrderColumn.id + EQUALS + OrderItemColumn.tableName + DOT + OrderItemColumn.orderId +
-                INNER_JOIN + ItemColumn.tableName + ON +
-                ItemColumn.tableName + DOT + ItemColumn.id + EQUALS + OrderItemColumn.tableName + DOT + itemId +
-                INNER_JOIN + ShopColumn.tableName + ON +
-                ShopColumn.tableName + DOT + ShopColumn.id + EQUALS + OrderColumn.tableName + DOT + OrderColumn.shopId +
-                GROUP_BY + OrderColumn.tableName + DOT + OrderColumn.id + COMMA +
-                TransactionColumn.tableName + DOT + TransactionColumn.transactionId +
-                ORDER_BY + OrderColumn.tableName + DOT + OrderColumn.date + DESC +
-                LIMIT + COLON + pageCount + OFFSET + COLON + pageNum + RIGHT_PARANTHESIS + AS + LHS + COMMA + LEFT_PARANTHESIS + SELECT +
-
-                OrderColumn.tableName + DOT + OrderColumn.id + COMMA +
-                GROUP_CONCAT + LEFT_PARANTHESIS + OrderStatusColumn.tableName + DOT + OrderStatusColumn.status + RIGHT_PARANTHESIS + AS + OrderStatusColumn.status + COMMA +
-                GROUP_CONCAT + LEFT_PARANTHESIS + OrderStatusColumn.tableName + DOT + OrderStatusColumn.updatedTime + RIGHT_PARANTHESIS + AS + OrderStatusColumn.updatedTime + FROM + OrderColumn.tableName +
-                INNER_JOIN + OrderStatusColumn.tableName + ON +
-                OrderStatusColumn.tableName + DOT + OrderStatusColumn.orderId + EQUALS + OrderColumn.tableName + DOT + OrderColumn.id + AND +
-                OrderColumn.tableName + DOT + OrderColumn.userId + EQUAL_COLON + UserColumn.id +
-                GROUP_BY + OrderColumn.tableName + DOT + OrderColumn.id +
-                ORDER_BY + OrderColumn.tableName + DOT + OrderColumn.date + DESC +
-                LIMIT + COLON + pageCount + OFFSET + COLON + pageNum + RIGHT_PARANTHESIS + AS + RHS + WHERE +
-                LHS + DOT + OrderColumn.id + EQUALS + RHS + DOT + OrderColumn.id;
-        public static final String getOrderByShopIdPaginated = SELECT +
-                LHS + DOT + OrderColumn.id + COMMA +
-                LHS + DOT + OrderColumn.date + COMMA +
-                LHS + DOT + OrderColumn.price + COMMA +
-                LHS + DOT + OrderColumn.deliveryPrice + COMMA +
-                LHS + DOT + OrderColumn.deliveryLocation + COMMA +
-                LHS + DOT + OrderColumn.cookingInfo + COMMA +
-                LHS + DOT + OrderColumn.rating + COMMA +
-                LHS + DOT + OrderColumn.feedback + COMMA +
-                LHS + DOT + OrderColumn.secretKey + COMMA +
-                LHS + DOT + TransactionColumn.transactionId + COMMA +
-                LHS + DOT + TransactionColumn.paymentMode + COMMA +
-                LHS + DOT + userName + COMMA +
-                LHS + DOT + userMobile + COMMA +
-                LHS + DOT + itemName + COMMA +
-                LHS + DOT + itemPrice + COMMA +
-                LHS + DOT + ItemColumn.isVeg + COMMA +
-                LHS + DOT + quantity + COMMA +
-                LHS + DOT + orderItemPrice + COMMA +
-                RHS + DOT + OrderColumn.status + COMMA +
-                RHS + DOT + OrderStatusColumn.updatedTime + FROM + LEFT_PARANTHESIS + SELECT +
-                OrderColumn.tableName + DOT + OrderColumn.id + COMMA +
-                OrderColumn.tableName + DOT + OrderColumn.date + COMMA +
-                OrderColumn.tableName + DOT + OrderColumn.price + COMMA +
-                OrderColumn.tableName + DOT + OrderColumn.deliveryPrice + COMMA +
-                OrderColumn.tableName + DOT + OrderColumn.deliveryLocation + COMMA +
-                OrderColumn.tableName + DOT + OrderColumn.cookingInfo + COMMA +
-                OrderColumn.tableName + DOT + OrderColumn.rating + COMMA +
-                OrderColumn.tableName + DOT + OrderColumn.feedback + COMMA +
-                OrderColumn.tableName + DOT + OrderColumn.secretKey + COMMA +
-                TransactionColumn.tableName + DOT + TransactionColumn.transactionId + COMMA +
-                TransactionColumn.tableName + DOT + TransactionColumn.paymentMode + COMMA +
-                UserColumn.tableName + DOT + UserColumn.name + AS + userName + COMMA +
-                UserColumn.tableName + DOT + UserColumn.mobile + AS + userMobile + COMMA +
-                GROUP_CONCAT + LEFT_PARANTHESIS + ItemColumn.tableName + DOT + ItemColumn.name + RIGHT_PARANTHESIS + AS + itemName + COMMA +
-                GROUP_CONCAT + LEFT_PARANTHESIS + ItemColumn.tableName + DOT + ItemColumn.price + RIGHT_PARANTHESIS + AS + itemPrice + COMMA +
-                GROUP_CONCAT + LEFT_PARANTHESIS + ItemColumn.tableName + DOT + ItemColumn.isVeg + RIGHT_PARANTHESIS + AS + ItemColumn.isVeg + COMMA +
-                GROUP_CONCAT + LEFT_PARANTHESIS + OrderItemColumn.tableName + DOT + quantity + RIGHT_PARANTHESIS + AS + quantity + COMMA +
-                GROUP_CONCAT + LEFT_PARANTHESIS + OrderItemColumn.tableName + DOT + price + RIGHT_PARANTHESIS + AS + orderItemPrice + FROM + OrderColumn.tableName +
-                INNER_JOIN + TransactionColumn.tableName + ON +
-                OrderColumn.tableName + DOT + OrderColumn.id + EQUALS + TransactionColumn.tableName + DOT + TransactionColumn.orderId + AND +
-                OrderColumn.tableName + DOT + OrderColumn.shopId + EQUAL_COLON + ShopColumn.id + AND +
-                OrderColumn.tableName + DOT + OrderColumn.status + IN + LEFT_PARANTHESIS +
-                SINGLE_QUOTE + OrderStatus.CANCELLED_BY_SELLER.name() + SINGLE_QUOTE + COMMA +
-                SINGLE_QUOTE + OrderStatus.CANCELLED_BY_USER.name() + SINGLE_QUOTE + COMMA +
-                SINGLE_QUOTE + OrderStatus.COMPLETED.name() + SINGLE_QUOTE + COMMA +
-                SINGLE_QUOTE + OrderStatus.REFUND_INITIATED.name() + SINGLE_QUOTE + COMMA +
-                SINGLE_QUOTE + OrderStatus.REFUND_COMPLETED.name() + SINGLE_QUOTE + COMMA +
-                SINGLE_QUOTE + OrderStatus.DELIVERED.name() + SINGLE_QUOTE + RIGHT_PARANTHESIS +
-                INNER_JOIN + OrderItemColumn.tableName + ON +
-                OrderColumn.tableName + DOT + OrderColumn.id + EQUALS + OrderItemColumn.tableName + DOT + OrderItemColumn.orderId +
-                INNER_JOIN + ItemColumn.tableName + ON +
-                ItemColumn.tableName + DOT + ItemColumn.id + EQUALS + OrderItemColumn.tableName + DOT + itemId +
-                INNER_JOIN + UserColumn.tableName + ON +
-                UserColumn.tableName + DOT + UserColumn.id + EQUALS + OrderColumn.tableName + DOT + OrderColumn.userId +
-                GROUP_BY + OrderColumn.tableName + DOT + OrderColumn.id + COMMA +
-                TransactionColumn.tableName + DOT + TransactionColumn.transactionId +
-                ORDER_BY + OrderColumn.tableName + DOT + OrderColumn.date + DESC +
-                LIMIT + COLON + pageCount + OFFSET + COLON + pageNum + RIGHT_PARANTHESIS + AS + LHS + COMMA + LEFT_PARANTHESIS + SELECT +
-
-                OrderColumn.tableName + DOT + OrderColumn.id + COMMA +
-                GROUP_CONCAT + LEFT_PARANTHESIS + OrderStatusColumn.tableName + DOT + OrderStatusColumn.status + RIGHT_PARANTHESIS + AS + OrderStatusColumn.status + COMMA +
-                GROUP_CONCAT + LEFT_PARANTHESIS + OrderStatusColumn.tableName + DOT + OrderStatusColumn.updatedTime + RIGHT_PARANTHESIS + AS + OrderStatusColumn.updatedTime + FROM + OrderColumn.tableName +
-                INNER_JOIN + OrderStatusColumn.tableName + ON +
-                OrderStatusColumn.tableName + DOT + OrderStatusColumn.orderId + EQUALS + OrderColumn.tableName + DOT + OrderColumn.id + AND +
-                OrderColumn.tableName + DOT + OrderColumn.shopId + EQUAL_COLON + ShopColumn.id + AND +
-                OrderColumn.tableName + DOT + OrderColumn.status + IN + LEFT_PARANTHESIS +
+        public static final String orderIdList = "orderIdList";
+        public static final String cursorDate = "cursorDate";
+        public static final String cursorId = "cursorId";
+        public static final String timeoutMinutes = "timeoutMinutes";
+        public static final String searchOrderId = "searchOrderId";
+        public static final String searchMobilePrefix = "searchMobilePrefix";
+        public static final String searchMobileSuffix = "searchMobileSuffix";
+        private static final String offsetPageLimit = LIMIT + COLON + pageCount + OFFSET + COLON + pageNum;
+        private static final String seekPageLimit = LIMIT + COLON + pageCount;
+        private static final String seekAfterCursor = AND + LEFT_PARANTHESIS +
+                OrderColumn.tableName + DOT + OrderColumn.date + LESS_THAN + COLON + cursorDate + OR + LEFT_PARANTHESIS +
+                OrderColumn.tableName + DOT + OrderColumn.date + EQUAL_COLON + cursorDate + AND +
+                OrderColumn.tableName + DOT + OrderColumn.id + LESS_THAN + COLON + cursorId + RIGHT_PARANTHESIS + RIGHT_PARANTHESIS;
+
+        private static final String orderPage = "order_page";
+
+        private static final String[] orderHeaderColumns = {
+                OrderColumn.price, OrderColumn.deliveryPrice, OrderColumn.deliveryLocation, OrderColumn.cookingInfo,
+                OrderColumn.rating, OrderColumn.feedback, OrderColumn.secretKey,
+                TransactionColumn.transactionId, TransactionColumn.paymentMode,
+                userName, userMobile, UserColumn.notifToken,
+                Column.shopId, shopName, ShopColumn.photoUrl, shopMobile};
+
+        private static final String[] orderItemColumns = {
+                OrderItemColumn.itemId, itemName, itemPrice, ItemColumn.isVeg, OrderItemColumn.quantity, orderItemPrice};
+
+        private static final String[] orderStatusColumns = {
+                OrderStatusColumn.status, OrderStatusColumn.updatedTime};
+
+        private static final String historyStatusCondition = OrderColumn.tableName + DOT + OrderColumn.status + IN + LEFT_PARANTHESIS +
                 SINGLE_QUOTE + OrderStatus.CANCELLED_BY_SELLER.name() + SINGLE_QUOTE + COMMA +
                 SINGLE_QUOTE + OrderStatus.CANCELLED_BY_USER.name() + SINGLE_QUOTE + COMMA +
                 SINGLE_QUOTE + OrderStatus.COMPLETED.name() + SINGLE_QUOTE + COMMA +
                 SINGLE_QUOTE + OrderStatus.REFUND_INITIATED.name() + SINGLE_QUOTE + COMMA +
                 SINGLE_QUOTE + OrderStatus.REFUND_COMPLETED.name() + SINGLE_QUOTE + COMMA +
-                SINGLE_QUOTE + OrderStatus.DELIVERED.name() + SINGLE_QUOTE + RIGHT_PARANTHESIS +
-                GROUP_BY + OrderColumn.tableName + DOT + OrderColumn.id +
-                ORDER_BY + OrderColumn.tableName + DOT + OrderColumn.date + DESC +
-                LIMIT + COLON + pageCount + OFFSET + COLON + pageNum + RIGHT_PARANTHESIS + AS + RHS + WHERE +
-                LHS + DOT + OrderColumn.id + EQUALS + RHS + DOT + OrderColumn.id;
-        public static final String getOrderByShopId = SELECT +
-                LHS + DOT + OrderColumn.id + COMMA +
-                LHS + DOT + OrderColumn.date + COMMA +
-                LHS + DOT + OrderColumn.price + COMMA +
-                LHS + DOT + OrderColumn.deliveryPrice + COMMA +
-                LHS + DOT + OrderColumn.deliveryLocation + COMMA +
-                LHS + DOT + OrderColumn.cookingInfo + COMMA +
-                LHS + DOT + OrderColumn.rating + COMMA +
-                LHS + DOT + OrderColumn.feedback + COMMA +
-                LHS + DOT + OrderColumn.secretKey + COMMA +
-                LHS + DOT + TransactionColumn.transactionId + COMMA +
-                LHS + DOT + TransactionColumn.paymentMode + COMMA +
-                LHS + DOT + userName + COMMA +
-                LHS + DOT + userMobile + COMMA +
-                LHS + DOT + itemName + COMMA +
-                LHS + DOT + itemPrice + COMMA +
-                LHS + DOT + ItemColumn.isVeg + COMMA +
-                LHS + DOT + quantity + COMMA +
-                LHS + DOT + orderItemPrice + COMMA +
-                RHS + DOT + OrderColumn.status + COMMA +
-                RHS + DOT + OrderStatusColumn.updatedTime + FROM + LEFT_PARANTHESIS + SELECT +
-                OrderColumn.tableName + DOT + OrderColumn.id + COMMA +
-                OrderColumn.tableName + DOT + OrderColumn.date + COMMA +
-                OrderColumn.tableName + DOT + OrderColumn.price + COMMA +
-                OrderColumn.tableName + DOT + OrderColumn.deliveryPrice + COMMA +
-                OrderColumn.tableName + DOT + OrderColumn.deliveryLocation + COMMA +
-                OrderColumn.tableName + DOT + OrderColumn.cookingInfo + COMMA +
-                OrderColumn.tableName + DOT + OrderColumn.rating + COMMA +
-                OrderColumn.tableName + DOT + OrderColumn.feedback + COMMA +
-                OrderColumn.tableName + DOT + OrderColumn.secretKey + COMMA +
-                TransactionColumn.tableName + DOT + TransactionColumn.transactionId + COMMA +
-                TransactionColumn.tableName + DOT + TransactionColumn.paymentMode + COMMA +
-                UserColumn.tableName + DOT + UserColumn.name + AS + userName + COMMA +
-                UserColumn.tableName + DOT + UserColumn.mobile + AS + userMobile + COMMA +
-                GROUP_CONCAT + LEFT_PARANTHESIS + ItemColumn.tableName + DOT + ItemColumn.name + RIGHT_PARANTHESIS + AS + itemName + COMMA +
-                GROUP_CONCAT + LEFT_PARANTHESIS + ItemColumn.tableName + DOT + ItemColumn.price + RIGHT_PARANTHESIS + AS + itemPrice + COMMA +
-                GROUP_CONCAT + LEFT_PARANTHESIS + ItemColumn.tableName + DOT + ItemColumn.isVeg + RIGHT_PARANTHESIS + AS + ItemColumn.isVeg + COMMA +
-                GROUP_CONCAT + LEFT_PARANTHESIS + OrderItemColumn.tableName + DOT + quantity + RIGHT_PARANTHESIS + AS + quantity + COMMA +
-                GROUP_CONCAT + LEFT_PARANTHESIS + OrderItemColumn.tableName + DOT + price + RIGHT_PARANTHESIS + AS + orderItemPrice + FROM + OrderColumn.tableName +
-                INNER_JOIN + TransactionColumn.tableName + ON +
-                OrderColumn.tableName + DOT + OrderColumn.id + EQUALS + TransactionColumn.tableName + DOT + TransactionColumn.orderId + AND +
-                OrderColumn.tableName + DOT + OrderColumn.shopId + EQUAL_COLON + ShopColumn.id + AND +
-                OrderColumn.tableName + DOT + OrderColumn.status + IN + LEFT_PARANTHESIS +
-                SINGLE_QUOTE + OrderStatus.PLACED.name() + SINGLE_QUOTE + COMMA +
-                SINGLE_QUOTE + OrderStatus.ACCEPTED.name() + SINGLE_QUOTE + COMMA +
-                SINGLE_QUOTE + OrderStatus.READY.name() + SINGLE_QUOTE + COMMA +
-                SINGLE_QUOTE + OrderStatus.OUT_FOR_DELIVERY.name() + SINGLE_QUOTE + RIGHT_PARANTHESIS +
-                INNER_JOIN + OrderItemColumn.tableName + ON +
-                OrderColumn.tableName + DOT + OrderColumn.id + EQUALS + OrderItemColumn.tableName + DOT + OrderItemColumn.orderId +
-                INNER_JOIN + ItemColumn.tableName + ON +
-                ItemColumn.tableName + DOT + ItemColumn.id + EQUALS + OrderItemColumn.tableName + DOT + itemId +
-                INNER_JOIN + UserColumn.tableName + ON +
-                UserColumn.tableName + DOT + UserColumn.id + EQUALS + OrderColumn.tableName + DOT + OrderColumn.userId +
-                GROUP_BY + OrderColumn.tableName + DOT + OrderColumn.id + COMMA +
-                TransactionColumn.tableName + DOT + TransactionColumn.transactionId +
-                ORDER_BY + OrderColumn.tableName + DOT + OrderColumn.date + RIGHT_PARANTHESIS + AS + LHS + COMMA + LEFT_PARANTHESIS + SELECT +
-
-                OrderColumn.tableName + DOT + OrderColumn.id + COMMA +
-                GROUP_CONCAT + LEFT_PARANTHESIS + OrderStatusColumn.tableName + DOT + OrderStatusColumn.status + RIGHT_PARANTHESIS + AS + OrderStatusColumn.status + COMMA +
-                GROUP_CONCAT + LEFT_PARANTHESIS + OrderStatusColumn.tableName + DOT + OrderStatusColumn.updatedTime + RIGHT_PARANTHESIS + AS + OrderStatusColumn.updatedTime + FROM + OrderColumn.tableName +
-                INNER_JOIN + OrderStatusColumn.tableName + ON +
-                OrderStatusColumn.tableName + DOT + OrderStatusColumn.orderId + EQUALS + OrderColumn.tableName + DOT + OrderColumn.id + AND +
-                OrderColumn.tableName + DOT + OrderColumn.shopId + EQUAL_COLON + ShopColumn.id + AND +
-                OrderColumn.tableName + DOT + OrderColumn.status + IN + LEFT_PARANTHESIS +
+                SINGLE_QUOTE + OrderStatus.DELIVERED.name() + SINGLE_QUOTE + RIGHT_PARANTHESIS;
+
+        private static final String activeStatusCondition = OrderColumn.tableName + DOT + OrderColumn.status + IN + LEFT_PARANTHESIS +
                 SINGLE_QUOTE + OrderStatus.PLACED.name() + SINGLE_QUOTE + COMMA +
                 SINGLE_QUOTE + OrderStatus.ACCEPTED.name() + SINGLE_QUOTE + COMMA +
                 SINGLE_QUOTE + OrderStatus.READY.name() + SINGLE_QUOTE + COMMA +
-                SINGLE_QUOTE + OrderStatus.OUT_FOR_DELIVERY.name() + SINGLE_QUOTE + RIGHT_PARANTHESIS +
-                GROUP_BY + OrderColumn.tableName + DOT + OrderColumn.id +
-                ORDER_BY + OrderColumn.tableName + DOT + OrderColumn.date + RIGHT_PARANTHESIS + AS + RHS + WHERE +
-                LHS + DOT + OrderColumn.id + EQUALS + RHS + DOT + OrderColumn.id;
-        public static final String getOrderByFilterPaginated = SELECT +
-                LHS + DOT + OrderColumn.id + COMMA +
-                LHS + DOT + OrderColumn.date + COMMA +
-                LHS + DOT + OrderColumn.price + COMMA +
-                LHS + DOT + OrderColumn.deliveryPrice + COMMA +
-                LHS + DOT + OrderColumn.deliveryLocation + COMMA +
-                LHS + DOT + OrderColumn.cookingInfo + COMMA +
-                LHS + DOT + OrderColumn.rating + COMMA +
-                LHS + DOT + OrderColumn.feedback + COMMA +
-                LHS + DOT + OrderColumn.secretKey + COMMA +
-                LHS + DOT + TransactionColumn.transactionId + COMMA +
-                LHS + DOT + TransactionColumn.paymentMode + COMMA +
-                LHS + DOT + userName + COMMA +
-                LHS + DOT + userMobile + COMMA +
-                LHS + DOT + itemName + COMMA +
-                LHS + DOT + itemPrice + COMMA +
-                LHS + DOT + ItemColumn.isVeg + COMMA +
-                LHS + DOT + quantity + COMMA +
-                LHS + DOT + orderItemPrice + COMMA +
-                RHS + DOT + OrderColumn.status + COMMA +
-                RHS + DOT + OrderStatusColumn.updatedTime + FROM + LEFT_PARANTHESIS + SELECT +
-                OrderColumn.tableName + DOT + OrderColumn.id + COMMA +
-                OrderColumn.tableName + DOT + OrderColumn.date + COMMA +
-                OrderColumn.tableName + DOT + OrderColumn.price + COMMA +
-                OrderColumn.tableName + DOT + OrderColumn.deliveryPrice + COMMA +
-                OrderColumn.tableName + DOT + OrderColumn.deliveryLocation + COMMA +
-                OrderColumn.tableName + DOT + OrderColumn.cookingInfo + COMMA +
-                OrderColumn.tableName + DOT + OrderColumn.rating + COMMA +
-                OrderColumn.tableName + DOT + OrderColumn.feedback + COMMA +
-                OrderColumn.tableName + DOT + OrderColumn.secretKey + COMMA +
-                TransactionColumn.tableName + DOT + TransactionColumn.transactionId + COMMA +
-                TransactionColumn.tableName + DOT + TransactionColumn.paymentMode + COMMA +
-                UserColumn.tableName + DOT + UserColumn.name + AS + userName + COMMA +
-                UserColumn.tableName + DOT + UserColumn.mobile + AS + userMobile + COMMA +
-                GROUP_CONCAT + LEFT_PARANTHESIS + ItemColumn.tableName + DOT + ItemColumn.name + RIGHT_PARANTHESIS + AS + itemName + COMMA +
-                GROUP_CONCAT + LEFT_PARANTHESIS + ItemColumn.tableName + DOT + ItemColumn.price + RIGHT_PARANTHESIS + AS + itemPrice + COMMA +
-                GROUP_CONCAT + LEFT_PARANTHESIS + ItemColumn.tableName + DOT + ItemColumn.isVeg + RIGHT_PARANTHESIS + AS + ItemColumn.isVeg + COMMA +
-                GROUP_CONCAT + LEFT_PARANTHESIS + OrderItemColumn.tableName + DOT + quantity + RIGHT_PARANTHESIS + AS + quantity + COMMA +
-                GROUP_CONCAT + LEFT_PARANTHESIS + OrderItemColumn.tableName + DOT + price + RIGHT_PARANTHESIS + AS + orderItemPrice + FROM + OrderColumn.tableName +
-                INNER_JOIN + TransactionColumn.tableName + ON +
-                OrderColumn.tableName + DOT + OrderColumn.id + EQUALS + TransactionColumn.tableName + DOT + TransactionColumn.orderId + AND +
-                OrderColumn.tableName + DOT + OrderColumn.shopId + EQUAL_COLON + ShopColumn.id + AND +
-                OrderColumn.tableName + DOT + OrderColumn.status + IN + LEFT_PARANTHESIS +
-                SINGLE_QUOTE + OrderStatus.CANCELLED_BY_SELLER.name() + SINGLE_QUOTE + COMMA +
-                SINGLE_QUOTE + OrderStatus.CANCELLED_BY_USER.name() + SINGLE_QUOTE + COMMA +
-                SINGLE_QUOTE + OrderStatus.COMPLETED.name() + SINGLE_QUOTE + COMMA +
-                SINGLE_QUOTE + OrderStatus.REFUND_INITIATED.name() + SINGLE_QUOTE + COMMA +
-                SINGLE_QUOTE + OrderStatus.REFUND_COMPLETED.name() + SINGLE_QUOTE + COMMA +
-                SINGLE_QUOTE + OrderStatus.DELIVERED.name() + SINGLE_QUOTE + RIGHT_PARANTHESIS +
-                INNER_JOIN + OrderItemColumn.tableName + ON +
-                OrderColumn.tableName + DOT + OrderColumn.id + EQUALS + OrderItemColumn.tableName + DOT + OrderItemColumn.orderId +
-                INNER_JOIN + ItemColumn.tableName + ON +
-                ItemColumn.tableName + DOT + ItemColumn.id + EQUALS + OrderItemColumn.tableName + DOT + itemId +
-                INNER_JOIN + UserColumn.tableName + ON +
-                UserColumn.tableName + DOT + UserColumn.id + EQUALS + OrderColumn.tableName + DOT + OrderColumn.userId + WHERE +
-                OrderColumn.tableName + DOT + OrderColumn.id + LIKE + COLON + searchQuery + OR +
-                UserColumn.tableName + DOT + UserColumn.name + LIKE + COLON + searchQuery + OR +
-                UserColumn.tableName + DOT + UserColumn.mobile + LIKE + COLON + searchQuery +
-                GROUP_BY + OrderColumn.tableName + DOT + OrderColumn.id + COMMA +
-                TransactionColumn.tableName + DOT + TransactionColumn.transactionId +
-                ORDER_BY + OrderColumn.tableName + DOT + OrderColumn.date + DESC +
-                LIMIT + COLON + pageCount + OFFSET + COLON + pageNum + RIGHT_PARANTHESIS + AS + LHS + COMMA + LEFT_PARANTHESIS + SELECT +
-
-                OrderColumn.tableName + DOT + OrderColumn.id + COMMA +
-                GROUP_CONCAT + LEFT_PARANTHESIS + OrderStatusColumn.tableName + DOT + OrderStatusColumn.status + RIGHT_PARANTHESIS + AS + OrderStatusColumn.status + COMMA +
-                GROUP_CONCAT + LEFT_PARANTHESIS + OrderStatusColumn.tableName + DOT + OrderStatusColumn.updatedTime + RIGHT_PARANTHESIS + AS + OrderStatusColumn.updatedTime + FROM + OrderColumn.tableName +
-                INNER_JOIN + OrderStatusColumn.tableName + ON +
-                OrderStatusColumn.tableName + DOT + OrderStatusColumn.orderId + EQUALS + OrderColumn.tableName + DOT + OrderColumn.id + AND +
-                OrderColumn.tableName + DOT + OrderColumn.shopId + EQUAL_COLON + ShopColumn.id + AND +
-                OrderColumn.tableName + DOT + OrderColumn.status + IN + LEFT_PARANTHESIS +
-                SINGLE_QUOTE + OrderStatus.CANCELLED_BY_SELLER.name() + SINGLE_QUOTE + COMMA +
-                SINGLE_QUOTE + OrderStatus.CANCELLED_BY_USER.name() + SINGLE_QUOTE + COMMA +
-                SINGLE_QUOTE + OrderStatus.COMPLETED.name() + SINGLE_QUOTE + COMMA +
-                SINGLE_QUOTE + OrderStatus.REFUND_INITIATED.name() + SINGLE_QUOTE + COMMA +
-                SINGLE_QUOTE + OrderStatus.REFUND_COMPLETED.name() + SINGLE_QUOTE + COMMA +
-                SINGLE_QUOTE + OrderStatus.DELIVERED.name() + SINGLE_QUOTE + RIGHT_PARANTHESIS +
-                INNER_JOIN + UserColumn.tableName + ON +
-                UserColumn.tableName + DOT + UserColumn.id + EQUALS + OrderColumn.tableName + DOT + OrderColumn.userId + WHERE +
-                OrderColumn.tableName + DOT + OrderColumn.id + LIKE + COLON + searchQuery + OR +
-                UserColumn.tableName + DOT + UserColumn.name + LIKE + COLON + searchQuery + OR +
-                UserColumn.tableName + DOT + UserColumn.mobile + LIKE + COLON + searchQuery +
-                GROUP_BY + OrderColumn.tableName + DOT + OrderColumn.id +
-                ORDER_BY + OrderColumn.tableName + DOT + OrderColumn.date + DESC +
-                LIMIT + COLON + pageCount + OFFSET + COLON + pageNum + RIGHT_PARANTHESIS + AS + RHS + WHERE +
-                LHS + DOT + OrderColumn.id + EQUALS + RHS + DOT + OrderColumn.id;
-        public static final String getOrderById = SELECT +
-                LHS + DOT + OrderColumn.id + COMMA +
-                LHS + DOT + OrderColumn.date + COMMA +
-                LHS + DOT + OrderColumn.price + COMMA +
-                LHS + DOT + OrderColumn.deliveryPrice + COMMA +
-                LHS + DOT + OrderColumn.deliveryLocation + COMMA +
-                LHS + DOT + OrderColumn.cookingInfo + COMMA +
-                LHS + DOT + OrderColumn.rating + COMMA +
-                LHS + DOT + OrderColumn.feedback + COMMA +
-                LHS + DOT + OrderColumn.secretKey + COMMA +
-                LHS + DOT + TransactionColumn.transactionId + COMMA +
-                LHS + DOT + TransactionColumn.paymentMode + COMMA +
-                LHS + DOT + userName + COMMA +
-                LHS + DOT + UserColumn.notifToken + COMMA +
-                LHS + DOT + userMobile + COMMA +
-                LHS + DOT + shopName + COMMA +
-                LHS + DOT + ShopColumn.photoUrl + COMMA +
-                LHS + DOT + shopMobile + COMMA +
-                LHS + DOT + shopId + COMMA +
-                LHS + DOT + itemName + COMMA +
-                LHS + DOT + itemPrice + COMMA +
-                LHS + DOT + ItemColumn.isVeg + COMMA +
-                LHS + DOT + quantity + COMMA +
-                LHS + DOT + orderItemPrice + COMMA +
-                RHS + DOT + OrderColumn.status + COMMA +
-                RHS + DOT + OrderStatusColumn.updatedTime + FROM + LEFT_PARANTHESIS + SELECT +
-                OrderColumn.tableName + DOT + OrderColumn.id + COMMA +
-                OrderColumn.tableName + DOT + OrderColumn.date + COMMA +
-                OrderColumn.tableName + DOT + OrderColumn.price + COMMA +
-                OrderColumn.tableName + DOT + OrderColumn.deliveryPrice + COMMA +
-                OrderColumn.tableName + DOT + OrderColumn.deliveryLocation + COMMA +
-                OrderColumn.tableName + DOT + OrderColumn.cookingInfo + COMMA +
-                OrderColumn.tableName + DOT + OrderColumn.rating + COMMA +
-                OrderColumn.tableName + DOT + OrderColumn.feedback + COMMA +
-                OrderColumn.tableName + DOT + OrderColumn.secretKey + COMMA +
-                TransactionColumn.tableName + DOT + TransactionColumn.transactionId + COMMA +
-                TransactionColumn.tableName + DOT + TransactionColumn.paymentMode + COMMA +
-                UserColumn.tableName + DOT + UserColumn.name + AS + userName + COMMA +
-                UserColumn.tableName + DOT + UserColumn.notifToken + COMMA +
-                UserColumn.tableName + DOT + UserColumn.mobile + AS + userMobile + COMMA +
-                ShopColumn.tableName + DOT + ShopColumn.id + AS + shopId + COMMA +
-                ShopColumn.tableName + DOT + ShopColumn.name + AS + shopName + COMMA +
-                ShopColumn.tableName + DOT + ShopColumn.photoUrl + COMMA +
-                ShopColumn.tableName + DOT + ShopColumn.mobile + AS + shopMobile + COMMA +
-                GROUP_CONCAT + LEFT_PARANTHESIS + ItemColumn.tableName + DOT + ItemColumn.name + RIGHT_PARANTHESIS + AS + itemName + COMMA +
-                GROUP_CONCAT + LEFT_PARANTHESIS + ItemColumn.tableName + DOT + ItemColumn.price + RIGHT_PARANTHESIS + AS + itemPrice + COMMA +
-                GROUP_CONCAT + LEFT_PARANTHESIS + ItemColumn.tableName + DOT + ItemColumn.isVeg + RIGHT_PARANTHESIS + AS + ItemColumn.isVeg + COMMA +
-                GROUP_CONCAT + LEFT_PARANTHESIS + OrderItemColumn.tableName + DOT + quantity + RIGHT_PARANTHESIS + AS + quantity + COMMA +
-                GROUP_CONCAT + LEFT_PARANTHESIS + OrderItemColumn.tableName + DOT + price + RIGHT_PARANTHESIS + AS + orderItemPrice + FROM + OrderColumn.tableName +
-                INNER_JOIN + TransactionColumn.tableName + ON +
-                OrderColumn.tableName + DOT + OrderColumn.id + EQUALS + TransactionColumn.tableName + DOT + TransactionColumn.orderId + AND +
-                OrderColumn.tableName + DOT + OrderColumn.id + EQUAL_COLON + OrderColumn.id +
-                INNER_JOIN + OrderItemColumn.tableName + ON +
-                OrderColumn.tableName + DOT + OrderColumn.id + EQUALS + OrderItemColumn.tableName + DOT + OrderItemColumn.orderId +
-                INNER_JOIN + ItemColumn.tableName + ON +
-                ItemColumn.tableName + DOT + ItemColumn.id + EQUALS + OrderItemColumn.tableName + DOT + itemId +
-                INNER_JOIN + UserColumn.tableName + ON +
-                UserColumn.tableName + DOT + UserColumn.id + EQUALS + OrderColumn.tableName + DOT + OrderColumn.userId +
-                INNER_JOIN + ShopColumn.tableName + ON +
-                ShopColumn.tableName + DOT + ShopColumn.id + EQUALS + OrderColumn.tableName + DOT + OrderColumn.shopId +
-                GROUP_BY + OrderColumn.tableName + DOT + OrderColumn.id + COMMA +
-                TransactionColumn.tableName + DOT + TransactionColumn.transactionId + RIGHT_PARANTHESIS + AS + LHS + COMMA + LEFT_PARANTHESIS + SELECT +
-
-                OrderColumn.tableName + DOT + OrderColumn.id + COMMA +
-                GROUP_CONCAT + LEFT_PARANTHESIS + OrderStatusColumn.tableName + DOT + OrderStatusColumn.status + RIGHT_PARANTHESIS + AS + OrderStatusColumn.status + COMMA +
-                GROUP_CONCAT + LEFT_PARANTHESIS + OrderStatusColumn.tableName + DOT + OrderStatusColumn.updatedTime + RIGHT_PARANTHESIS + AS + OrderStatusColumn.updatedTime + FROM + OrderColumn.tableName +
-                INNER_JOIN + OrderStatusColumn.tableName + ON +
-                OrderStatusColumn.tableName + DOT + OrderStatusColumn.orderId + EQUALS + OrderColumn.tableName + DOT + OrderColumn.id + AND +
-                OrderColumn.tableName + DOT + OrderColumn.id + EQUAL_COLON + OrderColumn.id +
-                GROUP_BY + OrderColumn.tableName + DOT + OrderColumn.id + RIGHT_PARANTHESIS + AS + RHS + WHERE +
-                LHS + DOT + OrderColumn.id + EQUALS + RHS + DOT + OrderColumn.id;
+                SINGLE_QUOTE + OrderStatus.OUT_FOR_DELIVERY.name() + SINGLE_QUOTE + RIGHT_PARANTHESIS;
+
+        private static final String userCondition = OrderColumn.tableName + DOT + OrderColumn.userId + EQUAL_COLON + UserColumn.id;
+
+        private static final String shopCondition = OrderColumn.tableName + DOT + OrderColumn.shopId + EQUAL_COLON + ShopColumn.id;
+
+        private static final String searchIdCondition = AND + OrderColumn.tableName + DOT + OrderColumn.id + EQUAL_COLON + searchOrderId;
+
+        private static final String searchMobileCondition = AND + OrderColumn.tableName + DOT + OrderColumn.userId + IN + LEFT_PARANTHESIS + SELECT +
+                UserColumn.tableName + DOT + UserColumn.id + FROM + UserColumn.tableName + WHERE +
+                UserColumn.tableName + DOT + UserColumn.mobile + LIKE + COLON + searchMobilePrefix + OR +
+                UserColumn.tableName + DOT + UserColumn.mobileReversed + LIKE + COLON + searchMobileSuffix + RIGHT_PARANTHESIS;
+
+        private static final String searchNameMatch = MATCH + LEFT_PARANTHESIS + UserColumn.tableName + DOT + UserColumn.name + RIGHT_PARANTHESIS +
+                AGAINST + LEFT_PARANTHESIS + COLON + searchQuery + IN_BOOLEAN_MODE + RIGHT_PARANTHESIS;
+
+        private static final String searchNameCondition = AND + OrderColumn.tableName + DOT + OrderColumn.userId + IN + LEFT_PARANTHESIS + SELECT +
+                UserColumn.tableName + DOT + UserColumn.id + FROM + UserColumn.tableName + WHERE + searchNameMatch + RIGHT_PARANTHESIS;
+
+        private static final String searchHistoryCondition = shopCondition + AND + historyStatusCondition;
+
+        public static final String getOrderByUserId = getOrderRows(userCondition, null, DESC, offsetPageLimit);
+
+        public static final String getOrderByUserIdAfterCursor = getOrderRows(userCondition + seekAfterCursor, null, DESC, seekPageLimit);
+
+        public static final String getOrderByShopIdPaginated = getOrderRows(searchHistoryCondition, null, DESC, offsetPageLimit);
+
+        public static final String getOrderByShopIdPaginatedAfterCursor = getOrderRows(searchHistoryCondition + seekAfterCursor, null, DESC, seekPageLimit);
+
+        public static final String getOrderByShopId = getOrderRows(shopCondition + AND + activeStatusCondition, null, ASC, "");
+
+        public static final String getOrderBySearchId = getOrderRows(searchHistoryCondition + searchIdCondition, null, DESC, "");
+
+        public static final String getOrderBySearchMobile = getOrderRows(searchHistoryCondition + searchMobileCondition, null, DESC, offsetPageLimit);
+
+        public static final String getOrderBySearchMobileAfterCursor = getOrderRows(searchHistoryCondition + searchMobileCondition + seekAfterCursor, null, DESC, seekPageLimit);
+
+        public static final String getOrderBySearchNameRanked = getOrderRows(searchHistoryCondition + searchNameCondition, searchNameMatch, DESC, offsetPageLimit);
+
+        public static final String getOrderBySearchName = getOrderRows(searchHistoryCondition + searchNameCondition, null, DESC, offsetPageLimit);
+
+        public static final String getOrderBySearchNameAfterCursor = getOrderRows(searchHistoryCondition + searchNameCondition + seekAfterCursor, null, DESC, seekPageLimit);
+
+        public static final String getOrderById = getOrderRows(OrderColumn.tableName + DOT + OrderColumn.id + EQUAL_COLON + OrderColumn.id, null, ASC, "");
+
+        public static final String getOrderByIdList = getOrderRows(OrderColumn.tableName + DOT + OrderColumn.id + IN + LEFT_PARANTHESIS + COLON + orderIdList + RIGHT_PARANTHESIS, null, ASC, "");
+
+        public static final String getActiveOrders = getOrderRows(activeStatusCondition, null, ASC, "");
+
+        public static final String getOrderCountByShopId = SELECT + OrderColumn.status + COMMA +
+                COUNT + LEFT_PARANTHESIS + OrderColumn.id + RIGHT_PARANTHESIS + AS + Column.orderCount +
+                FROM + OrderColumn.tableName + WHERE + shopCondition + AND + activeStatusCondition +
+                GROUP_BY + OrderColumn.status;
+
+        /**
+         * Builds the normalized rows of the orders matching the condition, sorted by the search rank if any,
+         * then by (date, id) in the given direction:
+         * <pre>
+         *   row_type 0 -> the order, transaction, user and shop columns
+         *   row_type 1 -> one row per order item, sorted by item_id
+         *   row_type 2 -> one row per status change, sorted by updated_time
+         * </pre>
+         * Every row carries the id, date and search rank of its order and the columns of the other row types are NULL,
+         * see {@link com.food.ordering.zinger.rowMapperLambda.OrderItemListExtractor}.
+         *
+         * @param orderCondition String, the condition on orders, transactions, users and shop
+         * @param searchRank     String, the relevance of an order to the search, highest first. null if not ranked
+         * @param direction      String, ASC or DESC
+         * @param pageLimit      String, LIMIT of the orders, empty for all of them
+         * @return the query
+         * @implNote The orders of the page are selected once, in the CTE, so the page limit applies to
+         * orders instead of rows and the items and statuses are read by the order id.
+         */
+        private static String getOrderRows(String orderCondition, String searchRank, String direction, String pageLimit) {
+            return WITH + orderPage + AS + LEFT_PARANTHESIS + SELECT +
+                    OrderColumn.tableName + DOT + OrderColumn.id + COMMA +
+                    OrderColumn.tableName + DOT + OrderColumn.date + COMMA +
+                    OrderColumn.tableName + DOT + OrderColumn.price + COMMA +
+                    OrderColumn.tableName + DOT + OrderColumn.deliveryPrice + COMMA +
+                    OrderColumn.tableName + DOT + OrderColumn.deliveryLocation + COMMA +
+                    OrderColumn.tableName + DOT + OrderColumn.cookingInfo + COMMA +
+                    OrderColumn.tableName + DOT + OrderColumn.rating + COMMA +
+                    OrderColumn.tableName + DOT + OrderColumn.feedback + COMMA +
+                    OrderColumn.tableName + DOT + OrderColumn.secretKey + COMMA +
+                    TransactionColumn.tableName + DOT + TransactionColumn.transactionId + COMMA +
+                    TransactionColumn.tableName + DOT + TransactionColumn.paymentMode + COMMA +
+                    UserColumn.tableName + DOT + UserColumn.name + AS + userName + COMMA +
+                    UserColumn.tableName + DOT + UserColumn.mobile + AS + userMobile + COMMA +
+                    UserColumn.tableName + DOT + UserColumn.notifToken + COMMA +
+                    ShopColumn.tableName + DOT + ShopColumn.id + AS + Column.shopId + COMMA +
+                    ShopColumn.tableName + DOT + ShopColumn.name + AS + shopName + COMMA +
+                    ShopColumn.tableName + DOT + ShopColumn.photoUrl + COMMA +
+                    ShopColumn.tableName + DOT + ShopColumn.mobile + AS + shopMobile + COMMA +
+                    (searchRank == null ? String.valueOf(0) : searchRank) + AS + Column.searchRank + FROM + OrderColumn.tableName +
+                    INNER_JOIN + TransactionColumn.tableName + ON +
+                    OrderColumn.tableName + DOT + OrderColumn.id + EQUALS + TransactionColumn.tableName + DOT + TransactionColumn.orderId +
+                    INNER_JOIN + UserColumn.tableName + ON +
+                    UserColumn.tableName + DOT + UserColumn.id + EQUALS + OrderColumn.tableName + DOT + OrderColumn.userId +
+                    INNER_JOIN + ShopColumn.tableName + ON +
+                    ShopColumn.tableName + DOT + ShopColumn.id + EQUALS + OrderColumn.tableName + DOT + OrderColumn.shopId + WHERE +
+                    orderCondition +
+                    ORDER_BY + (searchRank == null ? "" : Column.searchRank + DESC + COMMA) +
+                    OrderColumn.tableName + DOT + OrderColumn.date + direction + COMMA + OrderColumn.tableName + DOT + OrderColumn.id + direction +
+                    pageLimit + RIGHT_PARANTHESIS +
+
+                    SELECT + orderPage + DOT + OrderColumn.id + COMMA + orderPage + DOT + OrderColumn.date + COMMA + orderPage + DOT + Column.searchRank +
+                    getColumns(orderPage, orderHeaderColumns) + COMMA + OrderRowType.order + AS + rowType +
+                    getNullColumns(orderItemColumns, true) +
+                    getNullColumns(orderStatusColumns, true) + FROM + orderPage + UNION_ALL +
+
+                    SELECT + orderPage + DOT + OrderColumn.id + COMMA + orderPage + DOT + OrderColumn.date + COMMA + orderPage + DOT + Column.searchRank +
+                    getNullColumns(orderHeaderColumns, false) + COMMA + OrderRowType.item + COMMA +
+                    OrderItemColumn.tableName + DOT + OrderItemColumn.itemId + COMMA +
+                    ItemColumn.tableName + DOT + ItemColumn.name + COMMA +
+                    ItemColumn.tableName + DOT + ItemColumn.price + COMMA +
+                    ItemColumn.tableName + DOT + ItemColumn.isVeg + COMMA +
+                    OrderItemColumn.tableName + DOT + OrderItemColumn.quantity + COMMA +
+                    OrderItemColumn.tableName + DOT + OrderItemColumn.price +
+                    getNullColumns(orderStatusColumns, false) + FROM + orderPage +
+                    INNER_JOIN + OrderItemColumn.tableName + ON +
+                    OrderItemColumn.tableName + DOT + OrderItemColumn.orderId + EQUALS + orderPage + DOT + OrderColumn.id +
+                    INNER_JOIN + ItemColumn.tableName + ON +
+                    ItemColumn.tableName + DOT + ItemColumn.id + EQUALS + OrderItemColumn.tableName + DOT + OrderItemColumn.itemId + UNION_ALL +
+
+                    SELECT + orderPage + DOT + OrderColumn.id + COMMA + orderPage + DOT + OrderColumn.date + COMMA + orderPage + DOT + Column.searchRank +
+                    getNullColumns(orderHeaderColumns, false) + COMMA + OrderRowType.status +
+                    getNullColumns(orderItemColumns, false) +
+                    getColumns(OrderStatusColumn.tableName, orderStatusColumns) + FROM + orderPage +
+                    INNER_JOIN + OrderStatusColumn.tableName + ON +
+                    OrderStatusColumn.tableName + DOT + OrderStatusColumn.orderId + EQUALS + orderPage + DOT + OrderColumn.id +
+
+                    ORDER_BY + Column.searchRank + DESC + COMMA + OrderColumn.date + direction + COMMA + OrderColumn.id + direction + COMMA + rowType + COMMA +
+                    OrderItemColumn.itemId + COMMA + OrderStatusColumn.updatedTime;
+        }
+
+        private static String getColumns(String tableName, String[] columns) {
+            StringBuilder result = new StringBuilder();
+            for (String column : columns)
+                result.append(COMMA).append(tableName).append(DOT).append(column);
+            return result.toString();
+        }
+
+        private static String getNullColumns(String[] columns, boolean isAliased) {
+            StringBuilder result = new StringBuilder();
+            for (String column : columns) {
+                result.append(COMMA).append(NULL);
+                if (isAliased)
+                    result.append(AS).append(column);
+            }
+            return result.toString();
+        }
+
         public static final String getOrderPriceById = SELECT +
                 OrderColumn.id + COMMA +
                 OrderColumn.price + FROM + OrderColumn.tableName + WHERE +
@@ -512,27 +452,6 @@ public class Query {
                 OrderColumn.feedback + EQUAL_COLON + OrderColumn.feedback + WHERE +
                 OrderColumn.id + EQUAL_COLON + OrderColumn.id;
 
-        public static String getInsertOrder(List<OrderItemModel> orderItemModelList) {
-            StringBuilder insertOrderItem = new StringBuilder(INSERT_INTO + OrderItemColumn.tableName + LEFT_PARANTHESIS +
-                    orderId + COMMA +
-                    itemId + COMMA +
-                    OrderItemColumn.quantity + COMMA +
-                    OrderItemColumn.price + RIGHT_PARANTHESIS + VALUES);
-
-            for (int i = 0; i < orderItemModelList.size(); i++) {
-                insertOrderItem.append(LEFT_PARANTHESIS)
-                        .append(COLON).append(orderId).append(i)
-                        .append(COMMA_COLON).append(itemId).append(i)
-                        .append(COMMA_COLON).append(quantity).append(i)
-                        .append(COMMA_COLON).append(price).append(i)
-                        .append(RIGHT_PARANTHESIS);
-                if (i < orderItemModelList.size() - 1)
-                    insertOrderItem.append(COMMA);
-            }
-
-            return insertOrderItem.toString();
-        }
-
         public static String getOrderByStatus(List<OrderStatus> orderStatusList) {
             StringBuilder getOrderByStatus = new StringBuilder(SELECT +
                     OrderColumn.id + COMMA +
@@ -549,6 +468,111 @@ public class Query {
 
             return getOrderByStatus.toString();
         }
+
+        public static final String getNewOrderByAge = SELECT +
+                OrderColumn.id + COMMA +
+                OrderColumn.date + FROM + OrderColumn.tableName + WHERE +
+                OrderColumn.status + IS_NULL + AND +
+                TIMESTAMPDIFF + LEFT_PARANTHESIS + MINUTE + COMMA + OrderColumn.date + COMMA + CURRENT_TIMESTAMP + RIGHT_PARANTHESIS +
+                GREATER_THAN_EQUALS + COLON + timeoutMinutes;
+
+        public static final String getOrderStatusById = SELECT +
+                OrderColumn.status + FROM + OrderColumn.tableName + WHERE +
+                OrderColumn.id + EQUAL_COLON + OrderColumn.id;
+
+        public static final String getOrderStatusByIdList = SELECT +
+                OrderColumn.id + COMMA +
+                OrderColumn.status + FROM + OrderColumn.tableName + WHERE +
+                OrderColumn.id + IN + LEFT_PARANTHESIS + COLON + orderIdList + RIGHT_PARANTHESIS;
+
+        public static String getUpdateOrderStatus(OrderStateMachine.Transition transition) {
+            StringBuilder updateOrderStatus = new StringBuilder(UPDATE + OrderColumn.tableName + SET +
+                    OrderColumn.status + EQUAL_COLON + OrderColumn.status);
+
+            if (transition.isSecretKeyGenerated())
+                updateOrderStatus.append(COMMA).append(OrderColumn.secretKey).append(EQUAL_COLON).append(OrderColumn.secretKey);
+
+            updateOrderStatus.append(WHERE).append(OrderColumn.id).append(EQUAL_COLON).append(OrderColumn.id)
+                    .append(AND).append(LEFT_PARANTHESIS);
+
+            List<OrderStatus> predecessorList = new ArrayList<>(transition.getPredecessors());
+            if (!predecessorList.isEmpty()) {
+                updateOrderStatus.append(OrderColumn.status).append(IN).append(LEFT_PARANTHESIS);
+                for (int i = 0; i < predecessorList.size(); i++) {
+                    updateOrderStatus.append(SINGLE_QUOTE).append(predecessorList.get(i).name()).append(SINGLE_QUOTE);
+                    if (i < predecessorList.size() - 1)
+                        updateOrderStatus.append(COMMA);
+                }
+                updateOrderStatus.append(RIGHT_PARANTHESIS);
+                if (transition.isNewOrderAllowed())
+                    updateOrderStatus.append(OR);
+            }
+            if (transition.isNewOrderAllowed())
+                updateOrderStatus.append(OrderColumn.status).append(IS_NULL);
+            updateOrderStatus.append(RIGHT_PARANTHESIS);
+
+            switch (transition.getGuard()) {
+                case PICK_UP:
+                    updateOrderStatus.append(AND).append(OrderColumn.deliveryLocation).append(IS_NULL);
+                    break;
+                case DELIVERY:
+                    updateOrderStatus.append(AND).append(OrderColumn.deliveryLocation).append(IS_NOT_NULL);
+                    break;
+                case SECRET_KEY:
+                    updateOrderStatus.append(AND).append(OrderColumn.secretKey).append(EQUAL_COLON).append(OrderColumn.secretKey);
+                    break;
+            }
+
+            return updateOrderStatus.toString();
+        }
+
+        public static String getInsertOrders(int orderCount) {
+            StringBuilder insertOrders = new StringBuilder(INSERT_INTO + OrderColumn.tableName + LEFT_PARANTHESIS +
+                    OrderColumn.id + COMMA +
+                    OrderColumn.userId + COMMA +
+                    OrderColumn.shopId + COMMA +
+                    OrderColumn.price + COMMA +
+                    OrderColumn.deliveryPrice + COMMA +
+                    OrderColumn.deliveryLocation + COMMA +
+                    OrderColumn.cookingInfo + RIGHT_PARANTHESIS + VALUES);
+
+            for (int i = 0; i < orderCount; i++) {
+                insertOrders.append(LEFT_PARANTHESIS)
+                        .append(COLON).append(OrderColumn.id).append(i)
+                        .append(COMMA_COLON).append(OrderColumn.userId).append(i)
+                        .append(COMMA_COLON).append(OrderColumn.shopId).append(i)
+                        .append(COMMA_COLON).append(OrderColumn.price).append(i)
+                        .append(COMMA_COLON).append(OrderColumn.deliveryPrice).append(i)
+                        .append(COMMA_COLON).append(OrderColumn.deliveryLocation).append(i)
+                        .append(COMMA_COLON).append(OrderColumn.cookingInfo).append(i)
+                        .append(RIGHT_PARANTHESIS);
+                if (i < orderCount - 1)
+                    insertOrders.append(COMMA);
+            }
+
+            return insertOrders.toString();
+        }
+
+        public static String getInsertOrderItems(int orderItemCount) {
+            StringBuilder insertOrderItems = new StringBuilder(INSERT_INTO + OrderItemColumn.tableName + LEFT_PARANTHESIS +
+                    OrderItemColumn.orderId + COMMA +
+                    OrderItemColumn.itemId + COMMA +
+                    OrderItemColumn.quantity + COMMA +
+                    OrderItemColumn.price + RIGHT_PARANTHESIS + VALUES);
+
+            for (int i = 0; i < orderItemCount; i++) {
+                insertOrderItems.append(LEFT_PARANTHESIS)
+                        .append(COLON).append(OrderItemColumn.orderId).append(i)
+                        .append(COMMA_COLON).append(OrderItemColumn.itemId).append(i)
+                        .append(COMMA_COLON).append(OrderItemColumn.quantity).append(i)
+                        .append(COMMA_COLON).append(OrderItemColumn.price).append(i)
+                        .append(RIGHT_PARANTHESIS);
+                if (i < orderItemCount - 1)
+                    insertOrderItems.append(COMMA);
+            }
+
+            return insertOrderItems.toString();
+        }
     }
 
     public static final class UserInviteQuery {
@@ -588,6 +612,13 @@ public class Query {
                 COMMA_COLON + ConfigurationColumn.merchantId +
                 COMMA_COLON + ConfigurationColumn.deliveryPrice + RIGHT_PARANTHESIS;
 
+        public static final String getConfigurationByShopId = SELECT +
+                ConfigurationColumn.merchantId + COMMA +
+                ConfigurationColumn.deliveryPrice + COMMA +
+                ConfigurationColumn.isDeliveryAvailable + COMMA +
+                ConfigurationColumn.isOrderTaken + FROM + ConfigurationColumn.tableName + WHERE +
+                ConfigurationColumn.shopId + EQUAL_COLON + ConfigurationColumn.shopId;
+
         public static final String getShopByPlaceId = SELECT +
                 ShopColumn.tableName + DOT + ShopColumn.id + COMMA +
                 ShopColumn.tableName + DOT + ShopColumn.name + COMMA +
@@ -16,11 +16,16 @@ public class Sql {
     public static final String EQUALS = " = ";
     public static final String NOT_EQUALS = " != ";
     public static final String LESS_THAN = " < ";
+    public static final String GREATER_THAN_EQUALS = " >= ";
+    public static final String IS_NULL = " IS NULL";
     public static final String PERCENT = "%";
     public static final String LEFT_PARANTHESIS = "(";
     public static final String RIGHT_PARANTHESIS = ")";
     public static final String COMMA = ", ";
     public static final String UNION = " UNION ";
+    public static final String UNION_ALL = " UNION ALL ";
+    public static final String WITH = "WITH ";
+    public static final String NULL = "NULL";
     public static final String SINGLE_QUOTE = "'";
     public static final String DOUBLE_QUOTE = "\"";
     public static final String DUPLICATE_KEY = "DUPLICATE KEY";
@@ -33,6 +38,7 @@ public class Sql {
     public static final String DESC = " DESC";
     public static final String SET = " SET ";
     public static final String INSERT_INTO = "INSERT INTO ";
+    public static final String INSERT_IGNORE_INTO = "INSERT IGNORE INTO ";
     public static final String DELETE_FROM = "DELETE FROM ";
     public static final String CONCATENATION_OPERATOR = " || ";
     public static final String VALUES = " VALUES";
@@ -40,8 +46,22 @@ public class Sql {
     public static final String CURRENT_TIMESTAMP = "CURRENT_TIMESTAMP";
     public static final String TIMESTAMPDIFF = "TIMESTAMPDIFF";
     public static final String MINUTE = "MINUTE";
+    public static final String SECOND = "SECOND";
     public static final String LHS = "LHS";
     public static final String RHS = "RHS";
     public static final String GROUP_CONCAT = "GROUP_CONCAT";
     public static final String GROUP_BY = " GROUP BY ";
+    public static final String COUNT = "COUNT";
+    public static final String ALTER_TABLE = "ALTER TABLE ";
+    public static final String REORGANIZE_PARTITION = " REORGANIZE PARTITION ";
+    public static final String DROP_PARTITION = " DROP PARTITION ";
+    public static final String PARTITION = "PARTITION ";
+    public static final String INTO = " INTO ";
+    public static final String VALUES_LESS_THAN = " VALUES LESS THAN ";
+    public static final String MAXVALUE = "MAXVALUE";
+    public static final String DATABASE = "DATABASE()";
+    public static final String IS_NOT_NULL = " IS NOT NULL";
+    public static final String MATCH = " MATCH ";
+    public static final String AGAINST = " AGAINST ";
+    public static final String IN_BOOLEAN_MODE = " IN BOOLEAN MODE";
 }
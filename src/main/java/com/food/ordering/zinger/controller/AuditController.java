@@ -0,0 +1,31 @@
+package com.food.ordering.zinger.controller;
+
+import com.food.ordering.zinger.model.Response;
+import com.food.ordering.zinger.model.logger.ApplicationLogModel;
+import com.food.ordering.zinger.model.logger.AuditLogMetricsModel;
+import com.food.ordering.zinger.model.logger.AuditLogSearchModel;
+import com.food.ordering.zinger.service.interfaces.AuditService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+import static com.food.ordering.zinger.constant.ApiConfig.AuditApi.*;
+
+@RestController
+@RequestMapping(BASE_URL)
+public class AuditController {
+
+    @Autowired
+    AuditService auditService;
+
+    @GetMapping(value = getMetrics)
+    public Response<AuditLogMetricsModel> getMetrics() {
+        return auditService.getMetrics();
+    }
+
+    @PostMapping(value = getLogs)
+    public Response<List<ApplicationLogModel>> getLogs(@RequestBody AuditLogSearchModel auditLogSearchModel) {
+        return auditService.getLogs(auditLogSearchModel);
+    }
+}
@@ -1,14 +1,23 @@
 package com.food.ordering.zinger.controller;
 
+import com.food.ordering.zinger.constant.Constant.EventStream;
+import com.food.ordering.zinger.constant.Constant.IdempotencyKey;
+import com.food.ordering.zinger.constant.Enums.OrderStatus;
 import com.food.ordering.zinger.model.OrderItemListModel;
 import com.food.ordering.zinger.model.OrderModel;
+import com.food.ordering.zinger.model.OrderPageModel;
+import com.food.ordering.zinger.model.OrderQuoteModel;
+import com.food.ordering.zinger.model.OrderStatusResultModel;
 import com.food.ordering.zinger.model.Response;
 import com.food.ordering.zinger.model.TransactionTokenModel;
 import com.food.ordering.zinger.service.interfaces.OrderService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.Map;
 
 import static com.food.ordering.zinger.constant.ApiConfig.OrderApi.*;
 
@@ -20,13 +29,18 @@ public class OrderController {
     OrderService orderService;
 
     @PostMapping(value = insertOrder)
-    public Response<TransactionTokenModel> insertOrder(@RequestBody OrderItemListModel orderItemList) {
-        return orderService.insertOrder(orderItemList);
+    public Response<TransactionTokenModel> insertOrder(@RequestHeader(value = IdempotencyKey.header, required = false) String idempotencyKey, @RequestBody OrderItemListModel orderItemList) {
+        return orderService.insertOrder(orderItemList, idempotencyKey);
     }
 
     @PostMapping(value = placeOrder)
-    public Response<String> placeOrder(@PathVariable("orderId") Integer orderId) {
-        return orderService.placeOrder(orderId);
+    public Response<String> placeOrder(@RequestHeader(value = IdempotencyKey.header, required = false) String idempotencyKey, @PathVariable("orderId") Long orderId) {
+        return orderService.placeOrder(orderId, idempotencyKey);
+    }
+
+    @PostMapping(value = quoteOrder)
+    public Response<OrderQuoteModel> quoteOrder(@RequestBody OrderItemListModel orderItemList) {
+        return orderService.quoteOrder(orderItemList);
     }
 
     @GetMapping(value = getOrderByUserId)
@@ -44,13 +58,38 @@ public class OrderController {
         return orderService.getOrderByShopIdPagination(shopId, pageNum, pageCount);
     }
 
+    @GetMapping(value = getOrderByUserIdCursor)
+    public Response<OrderPageModel> getOrderByUserIdCursor(@PathVariable("userId") Integer userId, @RequestParam(value = "cursor", required = false) String cursor, @RequestParam("pageCount") Integer pageCount) {
+        return orderService.getOrderByUserIdCursor(userId, cursor, pageCount);
+    }
+
+    @GetMapping(value = getOrderBySearchQueryCursor)
+    public Response<OrderPageModel> getOrderBySearchQueryCursor(@PathVariable("shopId") Integer shopId, @PathVariable("searchItem") String searchItem, @RequestParam(value = "cursor", required = false) String cursor, @RequestParam("pageCount") Integer pageCount) {
+        return orderService.getOrderBySearchQueryCursor(shopId, searchItem, cursor, pageCount);
+    }
+
+    @GetMapping(value = getOrderByShopIdCursor)
+    public Response<OrderPageModel> getOrderByShopIdCursor(@PathVariable("shopId") Integer shopId, @RequestParam(value = "cursor", required = false) String cursor, @RequestParam("pageCount") Integer pageCount) {
+        return orderService.getOrderByShopIdCursor(shopId, cursor, pageCount);
+    }
+
     @GetMapping(value = getOrderByShopId)
     public Response<List<OrderItemListModel>> getOrderByShopId(@PathVariable("shopId") Integer shopId) {
         return orderService.getOrderByShopId(shopId);
     }
 
+    @GetMapping(value = getOrderCountByShopId)
+    public Response<Map<OrderStatus, Integer>> getOrderCountByShopId(@PathVariable("shopId") Integer shopId) {
+        return orderService.getOrderCountByShopId(shopId);
+    }
+
+    @GetMapping(value = streamOrderByShopId, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrderByShopId(@RequestHeader(value = EventStream.lastEventIdHeader, required = false) String lastEventId, @PathVariable("shopId") Integer shopId) {
+        return orderService.streamOrderByShopId(shopId, lastEventId);
+    }
+
     @GetMapping(value = getOrderById)
-    public Response<OrderItemListModel> getOrderById(@PathVariable("id") Integer id) {
+    public Response<OrderItemListModel> getOrderById(@PathVariable("id") Long id) {
         return orderService.getOrderById(id);
     }
 
@@ -63,4 +102,9 @@ public class OrderController {
     public Response<String> updateOrderStatus(@RequestBody OrderModel orderModel) {
         return orderService.updateOrderStatus(orderModel);
     }
+
+    @PatchMapping(value = updateOrderStatusBulk)
+    public Response<List<OrderStatusResultModel>> updateOrderStatusBulk(@RequestBody List<OrderModel> orderModelList) {
+        return orderService.updateOrderStatusBulk(orderModelList);
+    }
 }
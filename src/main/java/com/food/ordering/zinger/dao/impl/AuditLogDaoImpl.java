@@ -1,17 +1,45 @@
 package com.food.ordering.zinger.dao.impl;
 
 import com.food.ordering.zinger.constant.Column.ApplicationLogColumn;
+import com.food.ordering.zinger.constant.Enums.AuditOverflowPolicy;
 import com.food.ordering.zinger.constant.ErrorLog;
 import com.food.ordering.zinger.dao.interfaces.AuditLogDao;
 import com.food.ordering.zinger.model.Response;
 import com.food.ordering.zinger.model.logger.ApplicationLogModel;
+import com.food.ordering.zinger.model.logger.AuditLogMetricsModel;
+import com.food.ordering.zinger.model.logger.AuditLogSearchModel;
+import com.food.ordering.zinger.rowMapperLambda.AuditLogRowMapperLambda;
+import com.food.ordering.zinger.utils.AuditPayloadCodec;
+import com.google.gson.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
-import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.stereotype.Repository;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
 import static com.food.ordering.zinger.constant.Query.AuditLogQuery;
+import static com.food.ordering.zinger.constant.Sql.PERCENT;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
  * AuditLogDao is responsible for CRUD operations in
@@ -20,40 +48,352 @@ import static com.food.ordering.zinger.constant.Query.AuditLogQuery;
  * @implNote Please check corresponding actual table for better understanding.
  * @implNote All endpoint services are audited for both success and error responses
  * invoked here.
+ * @implNote Logs are buffered in a bounded queue and written by a background thread
+ * as multi-row inserts, once "zinger.audit.batch-size" logs are pending or
+ * "zinger.audit.flush-interval-ms" has elapsed. When the queue is full the
+ * "zinger.audit.overflow" policy either drops the log, blocks the request
+ * or spills the log to "zinger.audit.spill-path", which is replayed once the queue drains.
+ * @implNote Headers and bodies are compressed by the AuditPayloadCodec right before
+ * the insert, spilled logs stay readable text.
+ * @implNote This is the default sink, see "zinger.audit.sink".
  */
 @Repository
+@ConditionalOnProperty(name = "zinger.audit.sink", havingValue = "mysql", matchIfMissing = true)
 public class AuditLogDaoImpl implements AuditLogDao {
 
     @Autowired
     NamedParameterJdbcTemplate namedParameterJdbcTemplate;
 
+    @Autowired
+    AuditPayloadCodec auditPayloadCodec;
+
+    @Value("${zinger.audit.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${zinger.audit.batch-size:200}")
+    private int batchSize;
+
+    @Value("${zinger.audit.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Value("${zinger.audit.overflow:DROP}")
+    private AuditOverflowPolicy overflowPolicy;
+
+    @Value("${zinger.audit.spill-path:audit-spill.log}")
+    private String spillPath;
+
+    @Value("${zinger.audit.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs;
+
+    private static final Gson gson = new GsonBuilder()
+            .registerTypeAdapter(Timestamp.class, (JsonSerializer<Timestamp>) (timestamp, type, context) -> new JsonPrimitive(timestamp.getTime()))
+            .registerTypeAdapter(Timestamp.class, (JsonDeserializer<Timestamp>) (json, type, context) -> new Timestamp(json.getAsLong()))
+            .create();
+
+    private final Object spillLock = new Object();
+    private final AtomicLong enqueuedCount = new AtomicLong();
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong spilledCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong totalFlushLatencyNanos = new AtomicLong();
+    private final AtomicLong maxFlushLatencyNanos = new AtomicLong();
+    private volatile long lastFlushLatencyNanos;
+
+    private BlockingQueue<ApplicationLogModel> queue;
+    private Thread writer;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        writer = new Thread(this::drain, "audit-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
     /**
-     * Inserts the HTTP request and response log
+     * Flushes the buffered logs before the datasource is closed.
+     *
+     * @implNote If the writer does not finish within "zinger.audit.shutdown-timeout-ms",
+     * the remaining logs are spilled to disk and replayed on the next start.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.join(shutdownTimeoutMs);
+
+        if (writer.isAlive()) {
+            List<ApplicationLogModel> remaining = new ArrayList<>();
+            queue.drainTo(remaining);
+            if (!remaining.isEmpty())
+                spill(remaining);
+        }
+    }
+
+    /**
+     * Queues the HTTP request and response log
      *
      * @param applicationLogModel ApplicationLogModel
-     * @return success response if the insertion is successful.
+     * @return success response if the log is queued (or) spilled to disk.
+     * @implNote After shutdown has begun the log is written synchronously.
      */
     @Override
     public Response<String> insertLog(ApplicationLogModel applicationLogModel) {
         Response<String> response = new Response<>();
+        if (applicationLogModel.getDate() == null)
+            applicationLogModel.setDate(new Timestamp(System.currentTimeMillis()));
 
-        try {
-            SqlParameterSource parameters = new MapSqlParameterSource()
-                    .addValue(ApplicationLogColumn.requestType, applicationLogModel.getRequestType().name())
-                    .addValue(ApplicationLogColumn.endpointUrl, applicationLogModel.getEndpointUrl())
-                    .addValue(ApplicationLogColumn.requestHeader, applicationLogModel.getRequestHeader())
-                    .addValue(ApplicationLogColumn.requestObject, applicationLogModel.getRequestObject())
-                    .addValue(ApplicationLogColumn.responseObject, applicationLogModel.getResponseObject());
-
-            int responseValue = namedParameterJdbcTemplate.update(AuditLogQuery.insertLog, parameters);
-            if (responseValue > 0) {
-                response.setCode(ErrorLog.CodeSuccess);
-                response.setMessage(ErrorLog.Success);
-                response.setData(ErrorLog.Success);
+        boolean accepted;
+        if (!running) {
+            accepted = flush(Collections.singletonList(applicationLogModel));
+        } else if (queue.offer(applicationLogModel)) {
+            accepted = true;
+        } else if (overflowPolicy == AuditOverflowPolicy.BLOCK) {
+            try {
+                queue.put(applicationLogModel);
+                accepted = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                droppedCount.incrementAndGet();
+                accepted = false;
             }
+        } else if (overflowPolicy == AuditOverflowPolicy.SPILL) {
+            accepted = spill(Collections.singletonList(applicationLogModel));
+        } else {
+            droppedCount.incrementAndGet();
+            accepted = false;
+        }
+
+        // queued while shutdown began, the writer may already have exited
+        if (!running && queue.remove(applicationLogModel))
+            accepted = flush(Collections.singletonList(applicationLogModel));
+
+        if (accepted) {
+            enqueuedCount.incrementAndGet();
+            response.setCode(ErrorLog.CodeSuccess);
+            response.setMessage(ErrorLog.Success);
+            response.setData(ErrorLog.Success);
+        }
+        return response;
+    }
+
+    /**
+     * Gets the queue depth, flush latency and counters of the audit log writer.
+     *
+     * @return the current metrics of the writer.
+     */
+    @Override
+    public Response<AuditLogMetricsModel> getMetrics() {
+        Response<AuditLogMetricsModel> response = new Response<>();
+        AuditLogMetricsModel auditLogMetricsModel = new AuditLogMetricsModel();
+
+        long flushes = flushCount.get();
+        auditLogMetricsModel.setQueueDepth(queue.size());
+        auditLogMetricsModel.setQueueCapacity(queueCapacity);
+        auditLogMetricsModel.setEnqueuedCount(enqueuedCount.get());
+        auditLogMetricsModel.setWrittenCount(writtenCount.get());
+        auditLogMetricsModel.setDroppedCount(droppedCount.get());
+        auditLogMetricsModel.setSpilledCount(spilledCount.get());
+        auditLogMetricsModel.setFailedCount(failedCount.get());
+        auditLogMetricsModel.setFlushCount(flushes);
+        auditLogMetricsModel.setLastFlushLatencyMs(TimeUnit.NANOSECONDS.toMillis(lastFlushLatencyNanos));
+        auditLogMetricsModel.setMaxFlushLatencyMs(TimeUnit.NANOSECONDS.toMillis(maxFlushLatencyNanos.get()));
+        auditLogMetricsModel.setAverageFlushLatencyMs(flushes == 0 ? 0.0 : totalFlushLatencyNanos.get() / (flushes * 1_000_000.0));
+
+        long flushNanos = totalFlushLatencyNanos.get();
+        long rawBytes = auditPayloadCodec.getRawBytes();
+        long storedBytes = auditPayloadCodec.getStoredBytes();
+        long compressNanos = auditPayloadCodec.getCompressNanos();
+        auditLogMetricsModel.setWriteThroughputPerSecond(flushNanos == 0 ? 0.0 : writtenCount.get() * 1e9 / flushNanos);
+        auditLogMetricsModel.setRawPayloadBytes(rawBytes);
+        auditLogMetricsModel.setStoredPayloadBytes(storedBytes);
+        auditLogMetricsModel.setCompressionRatio(storedBytes == 0 ? 0.0 : (double) rawBytes / storedBytes);
+        auditLogMetricsModel.setCompressionThroughputMbPerSecond(compressNanos == 0 ? 0.0 : rawBytes * 1e9 / (compressNanos * 1024.0 * 1024.0));
+
+        response.setCode(ErrorLog.CodeSuccess);
+        response.setMessage(ErrorLog.Success);
+        response.setData(auditLogMetricsModel);
+        return response;
+    }
+
+    /**
+     * Gets the audit logs of the given time range, oldest first.
+     *
+     * @param auditLogSearchModel AuditLogSearchModel
+     * @return the decompressed logs, filtered by the url prefix and user id when given.
+     * @implNote The range is [fromDate, toDate), pageNum starts at 1.
+     */
+    @Override
+    public Response<List<ApplicationLogModel>> getLogs(AuditLogSearchModel auditLogSearchModel) {
+        Response<List<ApplicationLogModel>> response = new Response<>();
+        String endpointUrl = auditLogSearchModel.getEndpointUrl();
+
+        try {
+            MapSqlParameterSource parameters = new MapSqlParameterSource()
+                    .addValue(AuditLogQuery.fromDate, auditLogSearchModel.getFromDate())
+                    .addValue(AuditLogQuery.toDate, auditLogSearchModel.getToDate())
+                    .addValue(ApplicationLogColumn.endpointUrl, endpointUrl == null || endpointUrl.isEmpty() ? null : endpointUrl + PERCENT)
+                    .addValue(ApplicationLogColumn.userId, auditLogSearchModel.getUserId())
+                    .addValue(AuditLogQuery.pageCount, auditLogSearchModel.getPageCount())
+                    .addValue(AuditLogQuery.pageNum, (auditLogSearchModel.getPageNum() - 1) * auditLogSearchModel.getPageCount());
+
+            List<ApplicationLogModel> applicationLogModelList = namedParameterJdbcTemplate.query(AuditLogQuery.getLogs, parameters,
+                    AuditLogRowMapperLambda.applicationLogRowMapperLambda(auditPayloadCodec));
+
+            response.setCode(ErrorLog.CodeSuccess);
+            response.setMessage(ErrorLog.Success);
+            response.setData(applicationLogModelList);
         } catch (Exception e) {
             System.err.println(e.getClass().getName() + ": " + e.getMessage());
         }
         return response;
     }
+
+    /**
+     * Background loop collecting logs into batches, until shutdown
+     * has begun and the queue is empty.
+     */
+    private void drain() {
+        List<ApplicationLogModel> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                ApplicationLogModel applicationLogModel = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (applicationLogModel != null) {
+                    batch.add(applicationLogModel);
+                    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+
+                    while (batch.size() < batchSize) {
+                        queue.drainTo(batch, batchSize - batch.size());
+                        long remaining = deadline - System.nanoTime();
+                        if (batch.size() >= batchSize || remaining <= 0 || !running)
+                            break;
+
+                        applicationLogModel = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                        if (applicationLogModel == null)
+                            break;
+                        batch.add(applicationLogModel);
+                    }
+
+                    flush(batch);
+                    batch.clear();
+                } else if (running) {
+                    replaySpill();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                System.err.println(e.getClass().getName() + ": " + e.getMessage());
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Inserts the batch as one multi-row insert.
+     *
+     * @param batch List
+     * @return true if the batch is written (or) spilled to disk.
+     */
+    private boolean flush(List<ApplicationLogModel> batch) {
+        long start = System.nanoTime();
+
+        try {
+            MapSqlParameterSource parameters = new MapSqlParameterSource();
+            for (int i = 0; i < batch.size(); i++) {
+                ApplicationLogModel applicationLogModel = batch.get(i);
+                parameters.addValue(ApplicationLogColumn.requestType + i, applicationLogModel.getRequestType().name())
+                        .addValue(ApplicationLogColumn.endpointUrl + i, applicationLogModel.getEndpointUrl())
+                        .addValue(ApplicationLogColumn.userId + i, applicationLogModel.getUserId())
+                        .addValue(ApplicationLogColumn.requestHeader + i, auditPayloadCodec.compress(applicationLogModel.getRequestHeader()))
+                        .addValue(ApplicationLogColumn.requestObject + i, auditPayloadCodec.compress(applicationLogModel.getRequestObject()))
+                        .addValue(ApplicationLogColumn.responseObject + i, auditPayloadCodec.compress(applicationLogModel.getResponseObject()))
+                        .addValue(ApplicationLogColumn.date + i, applicationLogModel.getDate());
+            }
+
+            namedParameterJdbcTemplate.update(AuditLogQuery.getInsertLog(batch.size()), parameters);
+            writtenCount.addAndGet(batch.size());
+            return true;
+        } catch (Exception e) {
+            System.err.println(e.getClass().getName() + ": " + e.getMessage());
+            failedCount.addAndGet(batch.size());
+            return overflowPolicy == AuditOverflowPolicy.SPILL && spill(batch);
+        } finally {
+            long latency = System.nanoTime() - start;
+            lastFlushLatencyNanos = latency;
+            totalFlushLatencyNanos.addAndGet(latency);
+            maxFlushLatencyNanos.accumulateAndGet(latency, Math::max);
+            flushCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Appends the logs to the spill file, one JSON document per line.
+     *
+     * @param applicationLogModelList List
+     * @return true if the logs are written to disk.
+     */
+    private boolean spill(List<ApplicationLogModel> applicationLogModelList) {
+        synchronized (spillLock) {
+            try (BufferedWriter bufferedWriter = Files.newBufferedWriter(Paths.get(spillPath), UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (ApplicationLogModel applicationLogModel : applicationLogModelList) {
+                    bufferedWriter.write(gson.toJson(applicationLogModel));
+                    bufferedWriter.newLine();
+                }
+                spilledCount.addAndGet(applicationLogModelList.size());
+                return true;
+            } catch (IOException e) {
+                System.err.println(e.getClass().getName() + ": " + e.getMessage());
+                droppedCount.addAndGet(applicationLogModelList.size());
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Writes the spilled logs back to the database while the queue is idle.
+     *
+     * @implNote The spill file is moved aside before it is read, so that
+     * concurrent spills go to a fresh file. A replay file left behind by a
+     * crash is picked up first.
+     */
+    private void replaySpill() throws IOException {
+        Path spillFile = Paths.get(spillPath);
+        Path replayFile = Paths.get(spillPath + ".replay");
+
+        if (!Files.exists(replayFile)) {
+            synchronized (spillLock) {
+                if (!Files.exists(spillFile))
+                    return;
+                Files.move(spillFile, replayFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+
+        List<ApplicationLogModel> batch = new ArrayList<>(batchSize);
+        try (BufferedReader bufferedReader = Files.newBufferedReader(replayFile, UTF_8)) {
+            String line;
+            while ((line = bufferedReader.readLine()) != null) {
+                if (line.isEmpty())
+                    continue;
+                batch.add(gson.fromJson(line, ApplicationLogModel.class));
+                if (batch.size() >= batchSize) {
+                    replay(batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty())
+            replay(batch);
+        Files.delete(replayFile);
+    }
+
+    private void replay(List<ApplicationLogModel> batch) {
+        if (!flush(batch) && overflowPolicy != AuditOverflowPolicy.SPILL)
+            spill(batch);
+    }
 }
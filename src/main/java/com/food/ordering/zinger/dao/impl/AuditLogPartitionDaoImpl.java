@@ -0,0 +1,110 @@
+package com.food.ordering.zinger.dao.impl;
+
+import com.food.ordering.zinger.dao.interfaces.AuditLogPartitionDao;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.food.ordering.zinger.constant.Query.AuditLogQuery;
+
+/**
+ * AuditLogPartitionDao maintains the daily partitions of the
+ * Application_log table in MySQL.
+ *
+ * @implNote Partition "p_yyyyMMdd" holds the logs of that day and the last partition,
+ * "p_max", catches everything beyond. Partitions for today and the next
+ * "zinger.audit.partition.future-days" days are split off "p_max" ahead of time, while it
+ * is still empty, so the split is a metadata change.
+ * @implNote Partitions older than "zinger.audit.partition.retention-days" are dropped,
+ * which removes their rows without a DELETE.
+ */
+@Repository
+public class AuditLogPartitionDaoImpl implements AuditLogPartitionDao {
+
+    private static final DateTimeFormatter nameFormatter = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    @Autowired
+    NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Value("${zinger.audit.partition.enabled:true}")
+    private boolean enabled;
+
+    @Value("${zinger.audit.partition.retention-days:30}")
+    private int retentionDays;
+
+    @Value("${zinger.audit.partition.future-days:7}")
+    private int futureDays;
+
+    /**
+     * Creates the missing partitions up to "future-days" ahead and
+     * drops the partitions past the retention.
+     *
+     * @implNote Does nothing if the table is not partitioned.
+     */
+    @Override
+    public void maintainPartitions() {
+        if (!enabled)
+            return;
+
+        try {
+            List<String> partitionNames = namedParameterJdbcTemplate.queryForList(AuditLogQuery.getPartitions,
+                    new MapSqlParameterSource(), String.class);
+            if (!partitionNames.contains(AuditLogQuery.maxPartition))
+                return;
+
+            LocalDate today = LocalDate.now();
+            LocalDate lastDay = null;
+            Set<LocalDate> days = new HashSet<>();
+            List<String> expiredPartitions = new ArrayList<>();
+
+            for (String partitionName : partitionNames) {
+                LocalDate day = toDay(partitionName);
+                if (day == null)
+                    continue;
+                days.add(day);
+                if (lastDay == null || day.isAfter(lastDay))
+                    lastDay = day;
+                if (retentionDays > 0 && day.isBefore(today.minusDays(retentionDays)))
+                    expiredPartitions.add(partitionName);
+            }
+
+            List<String> newPartitions = new ArrayList<>();
+            List<String> upperBounds = new ArrayList<>();
+            LocalDate day = lastDay == null || lastDay.isBefore(today) ? today : lastDay.plusDays(1);
+            for (; !day.isAfter(today.plusDays(futureDays)); day = day.plusDays(1)) {
+                if (days.contains(day))
+                    continue;
+                newPartitions.add(AuditLogQuery.partitionPrefix + day.format(nameFormatter));
+                upperBounds.add(day.plusDays(1).toString());
+            }
+
+            if (!newPartitions.isEmpty())
+                namedParameterJdbcTemplate.getJdbcOperations().execute(AuditLogQuery.getAddPartitions(newPartitions, upperBounds));
+
+            if (!expiredPartitions.isEmpty())
+                namedParameterJdbcTemplate.getJdbcOperations().execute(AuditLogQuery.getDropPartitions(expiredPartitions));
+        } catch (Exception e) {
+            System.err.println(e.getClass().getName() + ": " + e.getMessage());
+        }
+    }
+
+    private static LocalDate toDay(String partitionName) {
+        if (!partitionName.startsWith(AuditLogQuery.partitionPrefix) || partitionName.equals(AuditLogQuery.maxPartition))
+            return null;
+        try {
+            return LocalDate.parse(partitionName.substring(AuditLogQuery.partitionPrefix.length()), nameFormatter);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,792 @@
+package com.food.ordering.zinger.dao.impl;
+
+import com.food.ordering.zinger.constant.ErrorLog;
+import com.food.ordering.zinger.dao.interfaces.AuditLogDao;
+import com.food.ordering.zinger.model.Response;
+import com.food.ordering.zinger.model.logger.ApplicationLogModel;
+import com.food.ordering.zinger.model.logger.AuditLogMetricsModel;
+import com.food.ordering.zinger.model.logger.AuditLogSearchModel;
+import com.food.ordering.zinger.utils.AuditPayloadCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpMethod;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * AuditSegmentLogDaoImpl keeps the audit logs in local, memory-mapped,
+ * append-only segment files instead of the Application_log table.
+ * It is enabled with "zinger.audit.sink=segment".
+ * <p>
+ * Segment layout: magic, version, then records of
+ * length | timestamp | userId | requestType | endpointUrl | header | request | response,
+ * where the payloads are stored as written by the AuditPayloadCodec. A zero length
+ * marks the end of the data, the length of a record is written after its body.
+ * <p>
+ * Every "zinger.audit.segment.index-interval" records form an index block holding
+ * the offsets, the time range and a bloom filter of the user ids and url prefixes
+ * of its records, so a search only reads the blocks that may match.
+ *
+ * @implNote A segment is sealed once it is full or older than "zinger.audit.segment.max-age-minutes",
+ * its index is then written next to it as ".idx" and the file is truncated to its data. Sealed segments are
+ * dropped after "zinger.audit.segment.retention-hours", or when the segment files exceed
+ * "zinger.audit.segment.retention-bytes", the active segment counting with its preallocated size.
+ * @implNote Segments left without an index by a crash are scanned and sealed on startup.
+ */
+@Repository
+@ConditionalOnProperty(name = "zinger.audit.sink", havingValue = "segment")
+public class AuditSegmentLogDaoImpl implements AuditLogDao {
+
+    private static final int magic = 0x5A41554C;
+    private static final int version = 1;
+    private static final int headerBytes = 8;
+    private static final int bloomWords = 4;
+    private static final int maxPrefixDepth = 4;
+    private static final int noUser = -1;
+    private static final byte noRequestType = -1;
+    private static final String segmentSuffix = ".seg";
+    private static final String indexSuffix = ".idx";
+    private static final HttpMethod[] requestTypes = HttpMethod.values();
+
+    @Autowired
+    AuditPayloadCodec auditPayloadCodec;
+
+    @Value("${zinger.audit.segment.path:audit-segments}")
+    private String segmentPath;
+
+    @Value("${zinger.audit.segment.size-bytes:67108864}")
+    private int segmentBytes;
+
+    @Value("${zinger.audit.segment.max-age-minutes:60}")
+    private long maxAgeMinutes;
+
+    @Value("${zinger.audit.segment.retention-hours:72}")
+    private long retentionHours;
+
+    @Value("${zinger.audit.segment.retention-bytes:0}")
+    private long retentionBytes;
+
+    @Value("${zinger.audit.segment.index-interval:64}")
+    private int indexInterval;
+
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong rotatedCount = new AtomicLong();
+    private final AtomicLong totalAppendNanos = new AtomicLong();
+
+    private Path directory;
+    private Segment active;
+    private long sequence;
+    private boolean closed;
+
+    @PostConstruct
+    public void start() throws IOException {
+        directory = Paths.get(segmentPath);
+        Files.createDirectories(directory);
+
+        List<Path> segmentFiles = new ArrayList<>();
+        try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(directory, "*" + segmentSuffix)) {
+            directoryStream.forEach(segmentFiles::add);
+        }
+        segmentFiles.sort(null);
+
+        for (Path segmentFile : segmentFiles) {
+            try {
+                Segment segment = recover(segmentFile);
+                segments.add(segment);
+                sequence = Math.max(sequence, segment.sequence);
+            } catch (IOException | RuntimeException e) {
+                System.err.println(e.getClass().getName() + ": " + e.getMessage());
+            }
+        }
+
+        synchronized (this) {
+            active = open(++sequence);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        closed = true;
+        if (active != null) {
+            seal(active);
+            active = null;
+        }
+    }
+
+    /**
+     * Appends the HTTP request and response log to the active segment.
+     *
+     * @param applicationLogModel ApplicationLogModel
+     * @return success response if the log is written.
+     * @implNote The payloads are compressed before the segment lock is taken.
+     */
+    @Override
+    public Response<String> insertLog(ApplicationLogModel applicationLogModel) {
+        Response<String> response = new Response<>();
+        long start = System.nanoTime();
+        if (applicationLogModel.getDate() == null)
+            applicationLogModel.setDate(new Timestamp(System.currentTimeMillis()));
+
+        ByteBuffer record = encode(applicationLogModel);
+        if (record.remaining() + 4 > segmentBytes - headerBytes - 4) {
+            droppedCount.incrementAndGet();
+            return response;
+        }
+
+        try {
+            append(record, applicationLogModel);
+            writtenCount.incrementAndGet();
+            totalAppendNanos.addAndGet(System.nanoTime() - start);
+
+            response.setCode(ErrorLog.CodeSuccess);
+            response.setMessage(ErrorLog.Success);
+            response.setData(ErrorLog.Success);
+        } catch (IOException | RuntimeException e) {
+            System.err.println(e.getClass().getName() + ": " + e.getMessage());
+            failedCount.incrementAndGet();
+        }
+        return response;
+    }
+
+    /**
+     * Gets the counters of the segment store.
+     *
+     * @return the current metrics of the store.
+     */
+    @Override
+    public Response<AuditLogMetricsModel> getMetrics() {
+        Response<AuditLogMetricsModel> response = new Response<>();
+        AuditLogMetricsModel auditLogMetricsModel = new AuditLogMetricsModel();
+
+        long written = writtenCount.get();
+        long appendNanos = totalAppendNanos.get();
+        long rawBytes = auditPayloadCodec.getRawBytes();
+        long storedBytes = auditPayloadCodec.getStoredBytes();
+        long compressNanos = auditPayloadCodec.getCompressNanos();
+        long diskBytes = 0;
+        for (Segment segment : segments)
+            diskBytes += segment.fileBytes;
+
+        auditLogMetricsModel.setQueueDepth(0);
+        auditLogMetricsModel.setQueueCapacity(0);
+        auditLogMetricsModel.setEnqueuedCount(written);
+        auditLogMetricsModel.setWrittenCount(written);
+        auditLogMetricsModel.setDroppedCount(droppedCount.get());
+        auditLogMetricsModel.setSpilledCount(0L);
+        auditLogMetricsModel.setFailedCount(failedCount.get());
+        auditLogMetricsModel.setFlushCount(rotatedCount.get());
+        auditLogMetricsModel.setWriteThroughputPerSecond(appendNanos == 0 ? 0.0 : written * 1e9 / appendNanos);
+        auditLogMetricsModel.setRawPayloadBytes(rawBytes);
+        auditLogMetricsModel.setStoredPayloadBytes(storedBytes);
+        auditLogMetricsModel.setCompressionRatio(storedBytes == 0 ? 0.0 : (double) rawBytes / storedBytes);
+        auditLogMetricsModel.setCompressionThroughputMbPerSecond(compressNanos == 0 ? 0.0 : rawBytes * 1e9 / (compressNanos * 1024.0 * 1024.0));
+        auditLogMetricsModel.setSegmentCount(segments.size());
+        auditLogMetricsModel.setSegmentBytes(diskBytes);
+
+        response.setCode(ErrorLog.CodeSuccess);
+        response.setMessage(ErrorLog.Success);
+        response.setData(auditLogMetricsModel);
+        return response;
+    }
+
+    /**
+     * Gets the audit logs of the given time range, oldest segment first.
+     *
+     * @param auditLogSearchModel AuditLogSearchModel
+     * @return the decompressed logs, filtered by the url prefix and user id when given.
+     * @implNote Segments and index blocks outside the range, or whose bloom filter
+     * rules out the user id or url prefix, are skipped without being read.
+     */
+    @Override
+    public Response<List<ApplicationLogModel>> getLogs(AuditLogSearchModel auditLogSearchModel) {
+        Response<List<ApplicationLogModel>> response = new Response<>();
+        long from = auditLogSearchModel.getFromDate().getTime();
+        long to = auditLogSearchModel.getToDate().getTime();
+        String endpointUrl = auditLogSearchModel.getEndpointUrl();
+        if (endpointUrl != null && endpointUrl.isEmpty())
+            endpointUrl = null;
+        Integer userId = auditLogSearchModel.getUserId();
+
+        SearchCursor cursor = new SearchCursor();
+        cursor.skip = (auditLogSearchModel.getPageNum() - 1) * auditLogSearchModel.getPageCount();
+        cursor.limit = auditLogSearchModel.getPageCount();
+        cursor.result = new ArrayList<>(cursor.limit);
+
+        long[] probes = new long[2];
+        int probeCount = 0;
+        if (userId != null)
+            probes[probeCount++] = userKey(userId);
+        int prefixHash = queryPrefixHash(endpointUrl);
+        if (prefixHash != 0)
+            probes[probeCount++] = prefixKey(prefixHash);
+
+        try {
+            for (Segment segment : segments) {
+                SegmentSnapshot snapshot = segment.snapshot();
+                if (snapshot == null || snapshot.end <= headerBytes)
+                    continue;
+                if (snapshot.blocks.length > 0 && snapshot.tailOffset == snapshot.end &&
+                        (snapshot.maxTimestamp < from || snapshot.minTimestamp >= to))
+                    continue;
+
+                ByteBuffer buffer = snapshot.buffer != null ? snapshot.buffer : map(segment.file, snapshot.end);
+                for (IndexBlock block : snapshot.blocks) {
+                    if (block.maxTimestamp < from || block.minTimestamp >= to || !block.mightContain(probes, probeCount))
+                        continue;
+                    if (scan(buffer, block.offset, block.end, from, to, endpointUrl, userId, cursor))
+                        break;
+                }
+                if (cursor.isFull() || scan(buffer, snapshot.tailOffset, snapshot.end, from, to, endpointUrl, userId, cursor))
+                    break;
+            }
+
+            response.setCode(ErrorLog.CodeSuccess);
+            response.setMessage(ErrorLog.Success);
+            response.setData(cursor.result);
+        } catch (IOException | RuntimeException e) {
+            System.err.println(e.getClass().getName() + ": " + e.getMessage());
+        }
+        return response;
+    }
+
+    /**
+     * Seals the active segment once it is too old and drops the sealed
+     * segments falling outside the retention limits.
+     */
+    @Scheduled(fixedDelayString = "${zinger.audit.segment.retention-check-ms:60000}")
+    public void enforceRetention() {
+        synchronized (this) {
+            if (active != null && active.isExpired(System.currentTimeMillis(), TimeUnit.MINUTES.toMillis(maxAgeMinutes)))
+                rotate();
+        }
+
+        long now = System.currentTimeMillis();
+        long oldest = now - TimeUnit.HOURS.toMillis(retentionHours);
+        long totalBytes = 0;
+        for (Segment segment : segments)
+            totalBytes += segment.fileBytes;
+
+        for (Segment segment : segments) {
+            if (!segment.sealed)
+                break;
+            boolean expired = retentionHours > 0 && segment.maxTimestamp() < oldest;
+            boolean oversized = retentionBytes > 0 && totalBytes > retentionBytes;
+            if (!expired && !oversized)
+                break;
+
+            segments.remove(segment);
+            totalBytes -= segment.fileBytes;
+            try {
+                Files.deleteIfExists(segment.file);
+                Files.deleteIfExists(indexFile(segment.file));
+            } catch (IOException e) {
+                System.err.println(e.getClass().getName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**************************************************************************/
+
+    private synchronized void append(ByteBuffer record, ApplicationLogModel applicationLogModel) throws IOException {
+        if (closed)
+            throw new IOException("Audit segment store is closed");
+        if (active == null)
+            active = open(++sequence);
+
+        int length = record.remaining();
+        if (active.end + 4 + length + 4 > segmentBytes || active.isExpired(System.currentTimeMillis(), TimeUnit.MINUTES.toMillis(maxAgeMinutes)))
+            rotate();
+
+        Segment segment = active;
+        int offset = segment.end;
+        MappedByteBuffer buffer = segment.writeBuffer;
+        buffer.position(offset + 4);
+        buffer.put(record);
+        buffer.putInt(offset, length);
+
+        segment.index(offset, offset + 4 + length, applicationLogModel.getDate().getTime(),
+                applicationLogModel.getUserId(), applicationLogModel.getEndpointUrl(), indexInterval);
+    }
+
+    /**
+     * Seals the active segment and opens the next one. If the next one cannot
+     * be created, it is retried on the next append.
+     */
+    private void rotate() {
+        seal(active);
+        active = null;
+        try {
+            active = open(++sequence);
+            rotatedCount.incrementAndGet();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Segment open(long sequence) throws IOException {
+        Path file = directory.resolve(String.format("audit-%020d", sequence) + segmentSuffix);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            Segment segment = new Segment(sequence, file);
+            segment.writeBuffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+            segment.writeBuffer.putInt(0, magic);
+            segment.writeBuffer.putInt(4, version);
+            segment.end = headerBytes;
+            segment.fileBytes = segmentBytes;
+            segment.createdAt = System.currentTimeMillis();
+            segments.add(segment);
+            return segment;
+        }
+    }
+
+    /**
+     * Closes the open index block, persists the index and flushes the segment.
+     */
+    private void seal(Segment segment) {
+        segment.closeBlock();
+        segment.writeBuffer.force();
+        segment.sealed = true;
+        segment.writeBuffer = null;
+        truncate(segment);
+        try {
+            writeIndex(segment);
+        } catch (IOException e) {
+            System.err.println(e.getClass().getName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Gives back the preallocated space after the end of a sealed segment. Searches
+     * only read before the end, so the mappings they still hold stay valid.
+     */
+    private static void truncate(Segment segment) {
+        try (FileChannel channel = FileChannel.open(segment.file, StandardOpenOption.WRITE)) {
+            if (channel.size() > segment.end)
+                channel.truncate(segment.end);
+            segment.fileBytes = channel.size();
+        } catch (IOException e) {
+            System.err.println(e.getClass().getName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Loads a segment left by a previous run, rebuilding its index if it
+     * was not sealed cleanly.
+     */
+    private Segment recover(Path segmentFile) throws IOException {
+        String name = segmentFile.getFileName().toString();
+        long sequence = Long.parseLong(name.substring(name.indexOf('-') + 1, name.length() - segmentSuffix.length()));
+        Segment segment = new Segment(sequence, segmentFile);
+        segment.fileBytes = Files.size(segmentFile);
+
+        Path indexFile = indexFile(segmentFile);
+        if (Files.exists(indexFile)) {
+            try (DataInputStream inputStream = new DataInputStream(Files.newInputStream(indexFile))) {
+                if (inputStream.readInt() == magic && inputStream.readInt() == version) {
+                    segment.end = inputStream.readInt();
+                    IndexBlock[] blocks = new IndexBlock[inputStream.readInt()];
+                    for (int i = 0; i < blocks.length; i++)
+                        blocks[i] = IndexBlock.read(inputStream);
+                    segment.blocks = blocks;
+                    segment.sealed = true;
+                    truncate(segment);
+                    return segment;
+                }
+            } catch (IOException e) {
+                System.err.println(e.getClass().getName() + ": " + e.getMessage());
+            }
+        }
+
+        ByteBuffer buffer = map(segmentFile, Files.size(segmentFile));
+        if (buffer.limit() < headerBytes || buffer.getInt(0) != magic)
+            throw new IOException("Not an audit segment: " + segmentFile);
+
+        int offset = headerBytes;
+        while (offset + 4 <= buffer.limit()) {
+            int length = buffer.getInt(offset);
+            if (length <= 0 || offset + 4 + length > buffer.limit())
+                break;
+            RecordHeader header = RecordHeader.read(buffer, offset + 4);
+            segment.index(offset, offset + 4 + length, header.timestamp,
+                    header.userId == noUser ? null : header.userId, header.endpointUrl, indexInterval);
+            offset += 4 + length;
+        }
+        segment.end = offset;
+        segment.closeBlock();
+        segment.sealed = true;
+        truncate(segment);
+        writeIndex(segment);
+        return segment;
+    }
+
+    private void writeIndex(Segment segment) throws IOException {
+        Path indexFile = indexFile(segment.file);
+        Path temporaryFile = Paths.get(indexFile + ".tmp");
+        try (DataOutputStream outputStream = new DataOutputStream(Files.newOutputStream(temporaryFile))) {
+            outputStream.writeInt(magic);
+            outputStream.writeInt(version);
+            outputStream.writeInt(segment.end);
+            outputStream.writeInt(segment.blocks.length);
+            for (IndexBlock block : segment.blocks)
+                block.write(outputStream);
+        }
+        Files.move(temporaryFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads the records in [offset, end) and collects those matching the filters.
+     *
+     * @return true once the page is full.
+     */
+    private boolean scan(ByteBuffer buffer, int offset, int end, long from, long to,
+                         String endpointUrl, Integer userId, SearchCursor cursor) {
+        while (offset + 4 <= end && !cursor.isFull()) {
+            int length = buffer.getInt(offset);
+            if (length <= 0)
+                break;
+
+            RecordHeader header = RecordHeader.read(buffer, offset + 4);
+            boolean matches = header.timestamp >= from && header.timestamp < to &&
+                    (userId == null || header.userId == userId) &&
+                    (endpointUrl == null || (header.endpointUrl != null && header.endpointUrl.startsWith(endpointUrl)));
+
+            if (matches) {
+                if (cursor.skip > 0)
+                    cursor.skip--;
+                else
+                    cursor.result.add(decode(buffer, header));
+            }
+            offset += 4 + length;
+        }
+        return cursor.isFull();
+    }
+
+    private ByteBuffer encode(ApplicationLogModel applicationLogModel) {
+        byte[] endpointUrl = applicationLogModel.getEndpointUrl() == null ? null : applicationLogModel.getEndpointUrl().getBytes(UTF_8);
+        if (endpointUrl != null && endpointUrl.length > Short.MAX_VALUE)
+            endpointUrl = Arrays.copyOf(endpointUrl, Short.MAX_VALUE);
+        byte[] requestHeader = auditPayloadCodec.compress(applicationLogModel.getRequestHeader());
+        byte[] requestObject = auditPayloadCodec.compress(applicationLogModel.getRequestObject());
+        byte[] responseObject = auditPayloadCodec.compress(applicationLogModel.getResponseObject());
+
+        ByteBuffer record = ByteBuffer.allocate(8 + 4 + 1 + 2 + 12 + length(endpointUrl) +
+                length(requestHeader) + length(requestObject) + length(responseObject));
+        record.putLong(applicationLogModel.getDate().getTime());
+        record.putInt(applicationLogModel.getUserId() == null ? noUser : applicationLogModel.getUserId());
+        record.put(applicationLogModel.getRequestType() == null ? noRequestType : (byte) applicationLogModel.getRequestType().ordinal());
+        record.putShort((short) (endpointUrl == null ? -1 : endpointUrl.length));
+        if (endpointUrl != null)
+            record.put(endpointUrl);
+        putBytes(record, requestHeader);
+        putBytes(record, requestObject);
+        putBytes(record, responseObject);
+        record.flip();
+        return record;
+    }
+
+    private ApplicationLogModel decode(ByteBuffer buffer, RecordHeader header) {
+        ApplicationLogModel applicationLogModel = new ApplicationLogModel();
+        applicationLogModel.setDate(new Timestamp(header.timestamp));
+        applicationLogModel.setUserId(header.userId == noUser ? null : header.userId);
+        applicationLogModel.setRequestType(header.requestType == noRequestType ? null : requestTypes[header.requestType]);
+        applicationLogModel.setEndpointUrl(header.endpointUrl);
+
+        int[] position = {header.payloadOffset};
+        applicationLogModel.setRequestHeader(auditPayloadCodec.decompress(getBytes(buffer, position)));
+        applicationLogModel.setRequestObject(auditPayloadCodec.decompress(getBytes(buffer, position)));
+        applicationLogModel.setResponseObject(auditPayloadCodec.decompress(getBytes(buffer, position)));
+        return applicationLogModel;
+    }
+
+    private static int length(byte[] bytes) {
+        return bytes == null ? 0 : bytes.length;
+    }
+
+    private static void putBytes(ByteBuffer record, byte[] bytes) {
+        record.putInt(bytes == null ? -1 : bytes.length);
+        if (bytes != null)
+            record.put(bytes);
+    }
+
+    private static byte[] getBytes(ByteBuffer buffer, int[] position) {
+        int length = buffer.getInt(position[0]);
+        position[0] += 4;
+        if (length < 0)
+            return null;
+
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++)
+            bytes[i] = buffer.get(position[0] + i);
+        position[0] += length;
+        return bytes;
+    }
+
+    private static ByteBuffer map(Path file, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, channel.size()));
+        }
+    }
+
+    private static Path indexFile(Path segmentFile) {
+        String name = segmentFile.getFileName().toString();
+        return segmentFile.resolveSibling(name.substring(0, name.length() - segmentSuffix.length()) + indexSuffix);
+    }
+
+    private static long userKey(int userId) {
+        return mix(userId * 0x9E3779B97F4A7C15L + 1);
+    }
+
+    private static long prefixKey(int prefixHash) {
+        return mix(prefixHash * 0xC2B2AE3D27D4EB4FL + 2);
+    }
+
+    private static long mix(long key) {
+        key = (key ^ (key >>> 33)) * 0xFF51AFD7ED558CCDL;
+        key = (key ^ (key >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return key ^ (key >>> 33);
+    }
+
+    /**
+     * Hash of the deepest complete path prefix of the searched url, e.g.
+     * "/order/seller" for "/order/seller/1" or "/order/sel". Every url starting
+     * with the searched one shares this prefix.
+     *
+     * @return the hash, 0 if there is no usable prefix.
+     */
+    private static int queryPrefixHash(String endpointUrl) {
+        if (endpointUrl == null)
+            return 0;
+
+        int hash = 0, prefixHash = 0, depth = 0;
+        for (int i = 0; i < endpointUrl.length() && depth < maxPrefixDepth; i++) {
+            char c = endpointUrl.charAt(i);
+            if (c == '/' && i > 0) {
+                prefixHash = hash;
+                depth++;
+            }
+            hash = 31 * hash + c;
+        }
+        return prefixHash;
+    }
+
+    /**************************************************************************/
+
+    private static final class Segment {
+        private final long sequence;
+        private final Path file;
+        private volatile boolean sealed;
+        private volatile MappedByteBuffer writeBuffer;
+        private volatile IndexBlock[] blocks = new IndexBlock[0];
+        private volatile int end;
+        private volatile long fileBytes;
+        private long createdAt;
+        private IndexBlock openBlock;
+
+        private Segment(long sequence, Path file) {
+            this.sequence = sequence;
+            this.file = file;
+        }
+
+        private boolean isExpired(long now, long maxAgeMs) {
+            return !sealed && end > headerBytes && now - createdAt >= maxAgeMs;
+        }
+
+        private long maxTimestamp() {
+            long maxTimestamp = Long.MIN_VALUE;
+            for (IndexBlock block : blocks)
+                maxTimestamp = Math.max(maxTimestamp, block.maxTimestamp);
+            return maxTimestamp;
+        }
+
+        /**
+         * Adds the record to the open index block, closing it once it holds "interval" records.
+         * The end is published after the record is written and before the block is closed,
+         * so readers never see a record before it is complete, nor a block past the end.
+         */
+        private void index(int offset, int recordEnd, long timestamp, Integer userId, String endpointUrl, int interval) {
+            if (openBlock == null) {
+                openBlock = new IndexBlock();
+                openBlock.offset = offset;
+                openBlock.minTimestamp = timestamp;
+                openBlock.maxTimestamp = timestamp;
+            }
+
+            openBlock.minTimestamp = Math.min(openBlock.minTimestamp, timestamp);
+            openBlock.maxTimestamp = Math.max(openBlock.maxTimestamp, timestamp);
+            openBlock.end = recordEnd;
+            openBlock.count++;
+            if (userId != null)
+                openBlock.add(userKey(userId));
+            if (endpointUrl != null) {
+                int hash = 0, depth = 0;
+                for (int i = 0; i < endpointUrl.length() && depth < maxPrefixDepth; i++) {
+                    char c = endpointUrl.charAt(i);
+                    if (c == '/' && i > 0) {
+                        openBlock.add(prefixKey(hash));
+                        depth++;
+                    }
+                    hash = 31 * hash + c;
+                }
+                if (depth < maxPrefixDepth)
+                    openBlock.add(prefixKey(hash));
+            }
+
+            end = recordEnd;
+            if (openBlock.count >= interval)
+                closeBlock();
+        }
+
+        private void closeBlock() {
+            if (openBlock == null)
+                return;
+            IndexBlock[] closed = Arrays.copyOf(blocks, blocks.length + 1);
+            closed[blocks.length] = openBlock;
+            blocks = closed;
+            openBlock = null;
+        }
+
+        /**
+         * Consistent view for a search: the closed blocks, plus the records after
+         * the last closed block (the open block) which are scanned linearly.
+         * The writer publishes the end before a block closing at it, and the blocks are read
+         * here before the end, so the tail never starts past the end.
+         */
+        private SegmentSnapshot snapshot() {
+            SegmentSnapshot snapshot = new SegmentSnapshot();
+            MappedByteBuffer buffer = writeBuffer;
+            snapshot.buffer = buffer == null ? null : buffer.duplicate();
+            snapshot.blocks = blocks;
+            snapshot.end = end;
+            snapshot.tailOffset = snapshot.blocks.length == 0 ? headerBytes : snapshot.blocks[snapshot.blocks.length - 1].end;
+            snapshot.minTimestamp = Long.MAX_VALUE;
+            snapshot.maxTimestamp = Long.MIN_VALUE;
+            for (IndexBlock block : snapshot.blocks) {
+                snapshot.minTimestamp = Math.min(snapshot.minTimestamp, block.minTimestamp);
+                snapshot.maxTimestamp = Math.max(snapshot.maxTimestamp, block.maxTimestamp);
+            }
+            return snapshot;
+        }
+    }
+
+    private static final class SegmentSnapshot {
+        private ByteBuffer buffer;
+        private IndexBlock[] blocks;
+        private int tailOffset;
+        private int end;
+        private long minTimestamp;
+        private long maxTimestamp;
+    }
+
+    private static final class IndexBlock {
+        private int offset;
+        private int end;
+        private int count;
+        private long minTimestamp;
+        private long maxTimestamp;
+        private final long[] bloom = new long[bloomWords];
+
+        private void add(long key) {
+            int bits = bloomWords * 64;
+            setBit((int) (key & (bits - 1)));
+            setBit((int) ((key >>> 32) & (bits - 1)));
+        }
+
+        private void setBit(int bit) {
+            bloom[bit >>> 6] |= 1L << (bit & 63);
+        }
+
+        private boolean hasBit(int bit) {
+            return (bloom[bit >>> 6] & (1L << (bit & 63))) != 0;
+        }
+
+        private boolean mightContain(long[] keys, int keyCount) {
+            int bits = bloomWords * 64;
+            for (int i = 0; i < keyCount; i++) {
+                if (!hasBit((int) (keys[i] & (bits - 1))) || !hasBit((int) ((keys[i] >>> 32) & (bits - 1))))
+                    return false;
+            }
+            return true;
+        }
+
+        private void write(DataOutputStream outputStream) throws IOException {
+            outputStream.writeInt(offset);
+            outputStream.writeInt(end);
+            outputStream.writeInt(count);
+            outputStream.writeLong(minTimestamp);
+            outputStream.writeLong(maxTimestamp);
+            for (long word : bloom)
+                outputStream.writeLong(word);
+        }
+
+        private static IndexBlock read(DataInputStream inputStream) throws IOException {
+            IndexBlock block = new IndexBlock();
+            block.offset = inputStream.readInt();
+            block.end = inputStream.readInt();
+            block.count = inputStream.readInt();
+            block.minTimestamp = inputStream.readLong();
+            block.maxTimestamp = inputStream.readLong();
+            for (int i = 0; i < bloomWords; i++)
+                block.bloom[i] = inputStream.readLong();
+            return block;
+        }
+    }
+
+    private static final class RecordHeader {
+        private long timestamp;
+        private int userId;
+        private byte requestType;
+        private String endpointUrl;
+        private int payloadOffset;
+
+        private static RecordHeader read(ByteBuffer buffer, int position) {
+            RecordHeader header = new RecordHeader();
+            header.timestamp = buffer.getLong(position);
+            header.userId = buffer.getInt(position + 8);
+            header.requestType = buffer.get(position + 12);
+            short length = buffer.getShort(position + 13);
+            position += 15;
+            if (length >= 0) {
+                byte[] endpointUrl = new byte[length];
+                for (int i = 0; i < length; i++)
+                    endpointUrl[i] = buffer.get(position + i);
+                header.endpointUrl = new String(endpointUrl, UTF_8);
+                position += length;
+            }
+            header.payloadOffset = position;
+            return header;
+        }
+    }
+
+    private static final class SearchCursor {
+        private int skip;
+        private int limit;
+        private List<ApplicationLogModel> result;
+
+        private boolean isFull() {
+            return result.size() >= limit;
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.food.ordering.zinger.dao.impl;
+
+import com.food.ordering.zinger.constant.Column.IdempotencyKeyColumn;
+import com.food.ordering.zinger.constant.Constant.IdempotencyKey;
+import com.food.ordering.zinger.constant.ErrorLog;
+import com.food.ordering.zinger.constant.Query.IdempotencyKeyQuery;
+import com.food.ordering.zinger.dao.interfaces.IdempotencyKeyDao;
+import com.food.ordering.zinger.model.Response;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * IdempotencyKeyDao makes retried requests carrying the same "Idempotency-Key"
+ * header return the response of the first request, without doing the work again.
+ * <p>
+ * A key is claimed with a pending row in the idempotency_key table before the request runs,
+ * the row is completed with the JSON response on success and deleted on failure,
+ * so that a failed request can be retried with the same key.
+ *
+ * @implNote Keys are scoped by the caller (e.g. "insertOrder:" + userId),
+ * a key reused in another scope is a different key.
+ * @implNote Responses are also kept in memory for "zinger.idempotency.ttl-seconds",
+ * for at most "zinger.idempotency.max-size" keys. A duplicate arriving while the
+ * first request is running waits up to "zinger.idempotency.wait-ms" for its response.
+ * A duplicate served by another instance gets "RIP1303" until the first one completes.
+ * @implNote Pending rows older than "zinger.idempotency.pending-timeout-seconds"
+ * (e.g. left by a crash) can be claimed again, completed rows are kept for
+ * "zinger.idempotency.retention-hours".
+ * @implNote Completing the row is tried "zinger.idempotency.complete-attempts" times. If it still fails
+ * the failure is thrown and the row is left pending, as the request has already done its work.
+ */
+@Repository
+public class IdempotencyKeyDaoImpl implements IdempotencyKeyDao {
+
+    private static final Gson gson = new GsonBuilder().create();
+
+    @Autowired
+    NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Value("${zinger.idempotency.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    @Value("${zinger.idempotency.max-size:10000}")
+    private int maxSize;
+
+    @Value("${zinger.idempotency.wait-ms:10000}")
+    private long waitMs;
+
+    @Value("${zinger.idempotency.pending-timeout-seconds:60}")
+    private long pendingTimeoutSeconds;
+
+    @Value("${zinger.idempotency.retention-hours:24}")
+    private long retentionHours;
+
+    @Value("${zinger.idempotency.complete-attempts:3}")
+    private int completeAttempts;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Runs the request once per idempotency key.
+     *
+     * @param scope        String
+     * @param requestKey   String, the header value, null runs the request as is.
+     * @param responseType Type of the response, used to read a stored response back.
+     * @param request      Supplier<Response<T>>
+     * @return the response of the first request made with the key.
+     * @implNote The pending row is deleted only by the request that claimed it, a failed
+     * claim must not delete the row of the request running with the same key.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Response<T> execute(String scope, String requestKey, Type responseType, Supplier<Response<T>> request) {
+        if (requestKey == null)
+            return request.get();
+
+        if (requestKey.isEmpty() || requestKey.length() > IdempotencyKey.maxLength) {
+            Response<T> response = new Response<>();
+            response.setCode(ErrorLog.IIK1302);
+            response.setMessage(ErrorLog.InvalidIdempotencyKey);
+            return response;
+        }
+
+        String entryKey = scope + requestKey;
+        Entry entry = entries.get(entryKey);
+        if (entry != null && entry.isExpired(System.nanoTime())) {
+            entries.remove(entryKey, entry);
+            entry = null;
+        }
+        if (entry != null)
+            return (Response<T>) await(entry);
+
+        Entry ownEntry = new Entry(System.nanoTime() + TimeUnit.SECONDS.toNanos(ttlSeconds));
+        if (hasCapacity()) {
+            entry = entries.putIfAbsent(entryKey, ownEntry);
+            if (entry != null)
+                return (Response<T>) await(entry);
+        }
+
+        Response<T> response;
+        boolean isClaimed = false;
+        try {
+            response = claim(scope, requestKey, responseType);
+            if (response == null) {
+                isClaimed = true;
+                response = request.get();
+                if (response.getCode().equals(ErrorLog.CodeSuccess)) {
+                    // the work is done, the key must not be released from here on
+                    isClaimed = false;
+                    complete(scope, requestKey, response);
+                } else
+                    release(scope, requestKey);
+            }
+        } catch (RuntimeException e) {
+            entries.remove(entryKey, ownEntry);
+            ownEntry.response.completeExceptionally(e);
+            if (isClaimed)
+                release(scope, requestKey);
+            throw e;
+        }
+
+        ownEntry.response.complete(response);
+        if (!response.getCode().equals(ErrorLog.CodeSuccess))
+            entries.remove(entryKey, ownEntry);
+
+        return response;
+    }
+
+    /**
+     * Deletes the keys older than the retention.
+     */
+    @Override
+    public void deleteExpiredKeys() {
+        try {
+            MapSqlParameterSource parameters = new MapSqlParameterSource()
+                    .addValue(IdempotencyKeyQuery.retentionSeconds, TimeUnit.HOURS.toSeconds(retentionHours));
+            namedParameterJdbcTemplate.update(IdempotencyKeyQuery.deleteExpiredKeys, parameters);
+        } catch (Exception e) {
+            System.err.println(e.getClass().getName() + ": " + e.getMessage());
+        }
+
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> entry.isExpired(now));
+    }
+
+    /**************************************************/
+
+    /**
+     * Claims the key with a pending row.
+     *
+     * @return null if the key is claimed, otherwise the stored response,
+     * or "RIP1303" if the key is pending on another request.
+     */
+    private <T> Response<T> claim(String scope, String requestKey, Type responseType) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue(IdempotencyKeyColumn.scope, scope)
+                .addValue(IdempotencyKeyColumn.requestKey, requestKey)
+                .addValue(IdempotencyKeyQuery.pendingSeconds, pendingTimeoutSeconds)
+                .addValue(IdempotencyKeyQuery.retentionSeconds, TimeUnit.HOURS.toSeconds(retentionHours));
+
+        if (namedParameterJdbcTemplate.update(IdempotencyKeyQuery.insertKey, parameters) > 0)
+            return null;
+
+        if (namedParameterJdbcTemplate.update(IdempotencyKeyQuery.deleteStaleKey, parameters) > 0 &&
+                namedParameterJdbcTemplate.update(IdempotencyKeyQuery.insertKey, parameters) > 0)
+            return null;
+
+        List<String> storedResponses = namedParameterJdbcTemplate.query(IdempotencyKeyQuery.getKey, parameters, (rs, rownum) ->
+                rs.getInt(IdempotencyKeyColumn.isComplete) == 1 ? rs.getString(IdempotencyKeyColumn.response) : null);
+
+        if (!storedResponses.isEmpty() && storedResponses.get(0) != null)
+            return gson.fromJson(storedResponses.get(0), responseType);
+
+        Response<T> response = new Response<>();
+        response.setCode(ErrorLog.RIP1303);
+        response.setMessage(ErrorLog.RequestInProgress);
+        return response;
+    }
+
+    /**
+     * Stores the response on the pending row.
+     *
+     * @throws RuntimeException the failure of the last attempt, if no attempt succeeds.
+     */
+    private void complete(String scope, String requestKey, Response<?> response) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue(IdempotencyKeyColumn.scope, scope)
+                .addValue(IdempotencyKeyColumn.requestKey, requestKey)
+                .addValue(IdempotencyKeyColumn.response, gson.toJson(response));
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                namedParameterJdbcTemplate.update(IdempotencyKeyQuery.completeKey, parameters);
+                return;
+            } catch (RuntimeException e) {
+                System.err.println(e.getClass().getName() + ": " + e.getMessage());
+                if (attempt >= completeAttempts)
+                    throw e;
+            }
+        }
+    }
+
+    private void release(String scope, String requestKey) {
+        try {
+            MapSqlParameterSource parameters = new MapSqlParameterSource()
+                    .addValue(IdempotencyKeyColumn.scope, scope)
+                    .addValue(IdempotencyKeyColumn.requestKey, requestKey);
+            namedParameterJdbcTemplate.update(IdempotencyKeyQuery.deleteKey, parameters);
+        } catch (Exception e) {
+            System.err.println(e.getClass().getName() + ": " + e.getMessage());
+        }
+    }
+
+    private Response<?> await(Entry entry) {
+        try {
+            return entry.response.get(waitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            System.err.println(e.getClass().getName() + ": " + e.getMessage());
+        }
+
+        Response<?> response = new Response<>();
+        response.setCode(ErrorLog.RIP1303);
+        response.setMessage(ErrorLog.RequestInProgress);
+        return response;
+    }
+
+    private boolean hasCapacity() {
+        if (entries.size() < maxSize)
+            return true;
+
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> entry.response.isDone() && entry.isExpired(now));
+        return entries.size() < maxSize;
+    }
+
+    private static final class Entry {
+        private final CompletableFuture<Response<?>> response = new CompletableFuture<>();
+        private final long expiresAt;
+
+        private Entry(long expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return response.isDone() && expiresAt - now <= 0;
+        }
+    }
+}
@@ -9,6 +9,7 @@ import com.food.ordering.zinger.model.Response;
 import com.food.ordering.zinger.model.UserModel;
 import com.food.ordering.zinger.rowMapperLambda.UserRowMapperLambda;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.core.namedparam.SqlParameterSource;
@@ -31,7 +32,8 @@ public class InterceptorDaoImpl implements InterceptorDao {
      *
      * @param requestHeaderModel RequestHeaderModel
      * @return success response if the user details exist (or)
-     * matches with the SUPER_ADMIN credentials
+     * matches with the SUPER_ADMIN credentials, empty response if
+     * the user details definitely do not exist.
      */
     @Override
     public Response<UserModel> validateUser(RequestHeaderModel requestHeaderModel) {
@@ -45,6 +47,8 @@ public class InterceptorDaoImpl implements InterceptorDao {
                     .addValue(UserColumn.role, requestHeaderModel.getRole());
 
             userModel = namedParameterJdbcTemplate.queryForObject(UserQuery.validateUser, parameters, UserRowMapperLambda.userIdRowMapperLambda);
+        } catch (EmptyResultDataAccessException e) {
+            response.setCode(ErrorLog.CodeEmpty);
         } catch (Exception e) {
             System.err.println(e.getClass().getName() + ": " + e.getMessage());
         } finally {
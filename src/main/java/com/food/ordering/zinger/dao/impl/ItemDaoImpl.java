@@ -6,6 +6,7 @@ import com.food.ordering.zinger.constant.Enums.Priority;
 import com.food.ordering.zinger.constant.ErrorLog;
 import com.food.ordering.zinger.constant.Query.ItemQuery;
 import com.food.ordering.zinger.dao.interfaces.ItemDao;
+import com.food.ordering.zinger.dao.interfaces.PriceBookDao;
 import com.food.ordering.zinger.model.ItemModel;
 import com.food.ordering.zinger.model.Response;
 import com.food.ordering.zinger.rowMapperLambda.ItemRowMapperLambda;
@@ -16,7 +17,9 @@ import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static com.food.ordering.zinger.constant.ErrorLog.*;
 import static com.food.ordering.zinger.constant.Sql.PERCENT;
@@ -40,6 +43,9 @@ public class ItemDaoImpl implements ItemDao {
     @Autowired
     NamedParameterJdbcTemplate namedParameterJdbcTemplate;
 
+    @Autowired
+    PriceBookDao priceBookDao;
+
     /**
      * Inserts the list of item details for the shop.
      * Authorized by SHOP_OWNER and workers(SELLER/DELIVERY) only.
@@ -64,6 +70,7 @@ public class ItemDaoImpl implements ItemDao {
             }
 
             int responseValue = namedParameterJdbcTemplate.update(ItemQuery.getInsertItem(itemModelList), parameter);
+            itemModelList.stream().map(itemModel -> itemModel.getShopModel().getId()).distinct().forEach(priceBookDao::evictShop);
             if (responseValue > 0) {
                 response.setCode(ErrorLog.CodeSuccess);
                 response.setMessage(ErrorLog.Success);
@@ -175,6 +182,7 @@ public class ItemDaoImpl implements ItemDao {
 
             namedParameterJdbcTemplate.update(ItemQuery.updateItem, parameters);
         }
+        priceBookDao.evictItems(itemModelList.stream().map(ItemModel::getId).collect(Collectors.toList()));
         response.setCode(CodeSuccess);
         response.setMessage(Success);
         response.setData(Success);
@@ -198,6 +206,7 @@ public class ItemDaoImpl implements ItemDao {
                     .addValue(ItemColumn.id, itemId);
 
             int responseValue = namedParameterJdbcTemplate.update(ItemQuery.deleteItem, parameters);
+            priceBookDao.evictItems(Collections.singletonList(itemId));
             if (responseValue > 0) {
                 response.setCode(ErrorLog.CodeSuccess);
                 response.setMessage(ErrorLog.Success);
@@ -34,6 +34,8 @@ public class NotifyDaoImpl implements NotifyDao {
     @Value("${firebase.credential.path}")
     private String credentialFile;
 
+    private static final int maxBatchMessages = 500;
+
     private FirebaseMessaging firebaseMessaging;
 
     /**
@@ -146,30 +148,10 @@ public class NotifyDaoImpl implements NotifyDao {
         if (response.getCode().equals(ErrorLog.CodeSuccess)) {
             OrderItemListModel orderItemListModel = response.getData();
 
-            NotificationModel notificationModel = new NotificationModel();
-            notificationModel.setTitle("");
-            notificationModel.setMessage("");
-            notificationModel.setType(Enums.NotificationType.SELLER_ORDER_STATUS);
-
-            CustomerPayLoad customerPayLoad = new CustomerPayLoad();
-            OrderModel orderModel = orderItemListModel.getTransactionModel().getOrderModel();
-            List<OrderStatusModel> orderStatusModel = orderItemListModel.getOrderStatusModel();
-            customerPayLoad.setOrderId(orderModel.getId());
-            customerPayLoad.setOrderStatus(orderStatusModel.get(orderStatusModel.size() - 1).getOrderStatus());
-            customerPayLoad.setShopName(orderModel.getShopModel().getName());
-            customerPayLoad.setSecretKey(orderModel.getSecretKey());
-
-            Gson gson = new GsonBuilder().create();
-            String jsonPayload = gson.toJson(customerPayLoad);
-            notificationModel.setPayload(jsonPayload);
+            sendMulticast(getOrderStatusNotification(orderItemListModel, true), orderItemListModel.getTransactionModel().getOrderModel().getUserModel().getNotificationToken());
 
-            sendMulticast(notificationModel, orderItemListModel.getTransactionModel().getOrderModel().getUserModel().getNotificationToken());
-
-            customerPayLoad.setSecretKey(null);
-            jsonPayload = gson.toJson(customerPayLoad);
-            notificationModel.setPayload(jsonPayload);
             ShopModel shopModel = orderItemListModel.getTransactionModel().getOrderModel().getShopModel();
-            sendTopicMessage(notificationModel, "zinger" + shopModel.getId());
+            sendTopicMessage(getOrderStatusNotification(orderItemListModel, false), "zinger" + shopModel.getId());
         }
     }
 
@@ -184,34 +166,118 @@ public class NotifyDaoImpl implements NotifyDao {
     public void notifyOrderStatusToSeller(Response<OrderItemListModel> response) {
         if (response.getCode().equals(ErrorLog.CodeSuccess)) {
             OrderItemListModel orderItemListModel = response.getData();
-            List<OrderStatusModel> orderStatusModelList = response.getData().getOrderStatusModel();
-
-            NotificationModel notificationModel = new NotificationModel();
-            notificationModel.setTitle("");
-            notificationModel.setMessage("");
-            notificationModel.setType(Enums.NotificationType.USER_ORDER_STATUS);
-
-            SellerPayLoad sellerPayLoad = new SellerPayLoad();
-            sellerPayLoad.setOrderId(orderItemListModel.getTransactionModel().getOrderModel().getId());
-            sellerPayLoad.setAmount(orderItemListModel.getTransactionModel().getOrderModel().getPrice());
-            sellerPayLoad.setUserName(orderItemListModel.getTransactionModel().getOrderModel().getUserModel().getName());
-            sellerPayLoad.setOrderStatus(orderStatusModelList.get(orderStatusModelList.size() - 1).getOrderStatus());
-            if (orderItemListModel.getTransactionModel().getOrderModel().getDeliveryLocation() != null)
-                sellerPayLoad.setOrderType(Constant.deliveryOrderFlag);
-            else
-                sellerPayLoad.setOrderType(Constant.pickUpOrderFlag);
-
-            ArrayList<String> itemList = new ArrayList<>();
-            orderItemListModel.getOrderItemsList().forEach(orderItemModel ->
-                    itemList.add(orderItemModel.getItemModel().getName() + " * " + orderItemModel.getQuantity()));
-            sellerPayLoad.setItemList(itemList);
-
-            Gson gson = new GsonBuilder().create();
-            String jsonPayload = gson.toJson(sellerPayLoad);
-            notificationModel.setPayload(jsonPayload);
 
             ShopModel shopModel = orderItemListModel.getTransactionModel().getOrderModel().getShopModel();
-            sendTopicMessage(notificationModel, "zinger" + shopModel.getId());
+            sendTopicMessage(getSellerOrderStatusNotification(orderItemListModel), "zinger" + shopModel.getId());
+        }
+    }
+
+    /**
+     * Send the order status notifications of many orders at once. Orders cancelled by the customer
+     * are notified to the seller, the rest to the customer and the sellers of the shop, as in
+     * notifyOrderStatusToSeller and notifyOrderStatus.
+     *
+     * @param response Response<List<OrderItemListModel>>
+     * @implNote All the messages are sent with FCM sendAll, in batches of up to 500 messages.
+     */
+    @Override
+    public void notifyOrderStatusBulk(Response<List<OrderItemListModel>> response) {
+        if (!response.getCode().equals(ErrorLog.CodeSuccess))
+            return;
+
+        List<Message> messageList = new ArrayList<>();
+        for (OrderItemListModel orderItemListModel : response.getData()) {
+            List<OrderStatusModel> orderStatusModelList = orderItemListModel.getOrderStatusModel();
+            String topic = "zinger" + orderItemListModel.getTransactionModel().getOrderModel().getShopModel().getId();
+
+            if (orderStatusModelList.get(orderStatusModelList.size() - 1).getOrderStatus() == Enums.OrderStatus.CANCELLED_BY_USER) {
+                messageList.add(getMessageBuilder(getSellerOrderStatusNotification(orderItemListModel)).setTopic(topic).build());
+            } else {
+                NotificationModel notificationModel = getOrderStatusNotification(orderItemListModel, true);
+                List<String> fcmTokenList = orderItemListModel.getTransactionModel().getOrderModel().getUserModel().getNotificationToken();
+                if (fcmTokenList != null) {
+                    for (String fcmToken : fcmTokenList)
+                        messageList.add(getMessageBuilder(notificationModel).setToken(fcmToken).build());
+                }
+                messageList.add(getMessageBuilder(getOrderStatusNotification(orderItemListModel, false)).setTopic(topic).build());
+            }
         }
+
+        try {
+            if (firebaseMessaging == null)
+                firebaseMessaging = FirebaseMessaging.getInstance();
+            for (int i = 0; i < messageList.size(); i += maxBatchMessages)
+                firebaseMessaging.sendAll(messageList.subList(i, Math.min(i + maxBatchMessages, messageList.size())));
+        } catch (FirebaseMessagingException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static Message.Builder getMessageBuilder(NotificationModel notificationModel) {
+        return Message.builder()
+                .putData(Constant.notificationTitle, notificationModel.getTitle())
+                .putData(Constant.notificationMessage, notificationModel.getMessage())
+                .putData(Constant.notificationType, notificationModel.getType().name())
+                .putData(Constant.notificationPayload, notificationModel.getPayload());
+    }
+
+    /**
+     * Builds the order status notification of the customer, or of the sellers without the secret key.
+     *
+     * @param orderItemListModel OrderItemListModel
+     * @param withSecretKey      boolean
+     * @return the notification
+     */
+    private static NotificationModel getOrderStatusNotification(OrderItemListModel orderItemListModel, boolean withSecretKey) {
+        NotificationModel notificationModel = new NotificationModel();
+        notificationModel.setTitle("");
+        notificationModel.setMessage("");
+        notificationModel.setType(Enums.NotificationType.SELLER_ORDER_STATUS);
+
+        CustomerPayLoad customerPayLoad = new CustomerPayLoad();
+        OrderModel orderModel = orderItemListModel.getTransactionModel().getOrderModel();
+        List<OrderStatusModel> orderStatusModel = orderItemListModel.getOrderStatusModel();
+        customerPayLoad.setOrderId(orderModel.getId());
+        customerPayLoad.setOrderStatus(orderStatusModel.get(orderStatusModel.size() - 1).getOrderStatus());
+        customerPayLoad.setShopName(orderModel.getShopModel().getName());
+        customerPayLoad.setSecretKey(withSecretKey ? orderModel.getSecretKey() : null);
+
+        Gson gson = new GsonBuilder().create();
+        notificationModel.setPayload(gson.toJson(customerPayLoad));
+        return notificationModel;
+    }
+
+    /**
+     * Builds the notification of the sellers when customer places or cancels an order.
+     *
+     * @param orderItemListModel OrderItemListModel
+     * @return the notification
+     */
+    private static NotificationModel getSellerOrderStatusNotification(OrderItemListModel orderItemListModel) {
+        List<OrderStatusModel> orderStatusModelList = orderItemListModel.getOrderStatusModel();
+
+        NotificationModel notificationModel = new NotificationModel();
+        notificationModel.setTitle("");
+        notificationModel.setMessage("");
+        notificationModel.setType(Enums.NotificationType.USER_ORDER_STATUS);
+
+        SellerPayLoad sellerPayLoad = new SellerPayLoad();
+        sellerPayLoad.setOrderId(orderItemListModel.getTransactionModel().getOrderModel().getId());
+        sellerPayLoad.setAmount(orderItemListModel.getTransactionModel().getOrderModel().getPrice());
+        sellerPayLoad.setUserName(orderItemListModel.getTransactionModel().getOrderModel().getUserModel().getName());
+        sellerPayLoad.setOrderStatus(orderStatusModelList.get(orderStatusModelList.size() - 1).getOrderStatus());
+        if (orderItemListModel.getTransactionModel().getOrderModel().getDeliveryLocation() != null)
+            sellerPayLoad.setOrderType(Constant.deliveryOrderFlag);
+        else
+            sellerPayLoad.setOrderType(Constant.pickUpOrderFlag);
+
+        ArrayList<String> itemList = new ArrayList<>();
+        orderItemListModel.getOrderItemsList().forEach(orderItemModel ->
+                itemList.add(orderItemModel.getItemModel().getName() + " * " + orderItemModel.getQuantity()));
+        sellerPayLoad.setItemList(itemList);
+
+        Gson gson = new GsonBuilder().create();
+        notificationModel.setPayload(gson.toJson(sellerPayLoad));
+        return notificationModel;
     }
 }
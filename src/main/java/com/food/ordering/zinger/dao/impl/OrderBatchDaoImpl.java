@@ -0,0 +1,335 @@
+package com.food.ordering.zinger.dao.impl;
+
+import com.food.ordering.zinger.constant.Column.OrderColumn;
+import com.food.ordering.zinger.constant.Column.OrderItemColumn;
+import com.food.ordering.zinger.constant.Enums.Priority;
+import com.food.ordering.zinger.constant.ErrorLog;
+import com.food.ordering.zinger.constant.Query.OrderQuery;
+import com.food.ordering.zinger.dao.interfaces.OrderBatchDao;
+import com.food.ordering.zinger.dao.interfaces.PriceBookDao;
+import com.food.ordering.zinger.model.*;
+import com.food.ordering.zinger.utils.IdGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * OrderBatchDao is the group commit write path of new orders.
+ * Concurrent orders are collected by a background thread into batches of up to
+ * "zinger.order.group-commit.batch-size" orders, or whatever arrived within
+ * "zinger.order.group-commit.max-wait-ms" of the first one, and each batch is
+ * verified and inserted in a single transaction.
+ * <p>
+ * A batch is verified against the rows read in its transaction, with the rules of the
+ * "place_order" procedure, then inserted with one multi-row insert into the orders table
+ * and one into the orders_item table. The order ids are handed back to the waiting callers.
+ *
+ * @implNote Disabled unless "zinger.order.group-commit.enabled" is true.
+ * @implNote null is returned whenever the order was not decided by a batch, i.e. the path is
+ * disabled or stopping, the queue is full, the batch was rolled back or the outcome is left to
+ * "place_order". The caller then inserts the order on its own, a rolled back batch
+ * inserts nothing, so no order is written twice.
+ * @implNote A caller waits at most "zinger.order.group-commit.wait-timeout-ms". An order not yet taken
+ * into a batch by then is withdrawn and inserted by the caller, an order already in a batch whose
+ * outcome is still unknown fails the request instead, as it may have been written.
+ */
+@Repository
+public class OrderBatchDaoImpl implements OrderBatchDao {
+
+    @Autowired
+    NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    PriceBookDao priceBookDao;
+
+    @Autowired
+    IdGenerator idGenerator;
+
+    @Value("${zinger.order.group-commit.enabled:false}")
+    private boolean enabled;
+
+    @Value("${zinger.order.group-commit.batch-size:50}")
+    private int batchSize;
+
+    @Value("${zinger.order.group-commit.max-wait-ms:5}")
+    private long maxWaitMs;
+
+    @Value("${zinger.order.group-commit.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${zinger.order.group-commit.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs;
+
+    @Value("${zinger.order.group-commit.wait-timeout-ms:5000}")
+    private long waitTimeoutMs;
+
+    private BlockingQueue<PendingOrder> queue;
+    private Thread writer;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled)
+            return;
+
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        writer = new Thread(this::drain, "order-batch-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writer == null)
+            return;
+
+        running = false;
+        writer.join(shutdownTimeoutMs);
+    }
+
+    /**
+     * Queues the order for the next batch and waits for the batch to commit.
+     *
+     * @param orderItemListModel OrderItemListModel
+     * @return merchant id of the shop if the order is inserted, the order id is set on the order model.
+     * null if the order was not written and has to be inserted by the caller, a failure response
+     * if the batch holding the order did not complete in time.
+     */
+    @Override
+    public Response<String> insertOrderWithItems(OrderItemListModel orderItemListModel) {
+        if (!running)
+            return null;
+
+        PendingOrder pendingOrder = new PendingOrder(orderItemListModel);
+        if (!queue.offer(pendingOrder))
+            return null;
+
+        // the writer may have drained the queue for the last time in between
+        if (!running && queue.remove(pendingOrder))
+            return null;
+
+        Response<String> response = await(pendingOrder);
+        if (response != null || pendingOrder.state.compareAndSet(PendingOrder.queued, PendingOrder.withdrawn))
+            return response;
+
+        // the order is in a batch being written, wait once more for its outcome
+        response = await(pendingOrder);
+        if (response == null && !pendingOrder.response.isDone()) {
+            response = new Response<>();
+            response.setCode(ErrorLog.ODNU1295);
+            response.setMessage(ErrorLog.OrderDetailNotUpdated);
+            response.prioritySet(Priority.HIGH);
+        }
+        return response;
+    }
+
+    /**************************************************/
+
+    /**
+     * Background loop collecting orders into batches, until shutdown
+     * has begun and the queue is empty.
+     */
+    private void drain() {
+        List<PendingOrder> batch = new ArrayList<>(batchSize);
+
+        try {
+            drain(batch);
+        } finally {
+            // the writer is gone, the orders it did not write are left to their callers
+            running = false;
+            queue.drainTo(batch);
+            for (PendingOrder pendingOrder : batch)
+                pendingOrder.response.complete(null);
+        }
+    }
+
+    private void drain(List<PendingOrder> batch) {
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingOrder pendingOrder = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (pendingOrder == null)
+                    continue;
+
+                batch.add(pendingOrder);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    pendingOrder = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (pendingOrder == null)
+                        break;
+                    batch.add(pendingOrder);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<PendingOrder> queuedBatch) {
+        List<PendingOrder> batch = new ArrayList<>(queuedBatch.size());
+        for (PendingOrder pendingOrder : queuedBatch)
+            if (pendingOrder.state.compareAndSet(PendingOrder.queued, PendingOrder.taken))
+                batch.add(pendingOrder);
+        if (batch.isEmpty())
+            return;
+
+        List<Response<String>> responseList = null;
+        try {
+            responseList = transactionTemplate.execute(status -> insertBatch(batch));
+        } catch (Exception e) {
+            System.err.println(e.getClass().getName() + ": " + e.getMessage());
+        }
+
+        for (int i = 0; i < batch.size(); i++)
+            batch.get(i).response.complete(responseList == null ? null : responseList.get(i));
+    }
+
+    /**
+     * @return the response of the batch, null if it is not known within the timeout
+     * or the order was not written.
+     */
+    private Response<String> await(PendingOrder pendingOrder) {
+        try {
+            return pendingOrder.response.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            System.err.println(e.getClass().getName() + ": " + e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Verifies the batch and inserts the orders that pass, along with their items.
+     *
+     * @param batch List<PendingOrder>
+     * @return the response of each order, in the same order, null for the orders left to the caller.
+     * @implNote The order ids come from the IdGenerator, so the orders and their items are
+     * bound together up front and no generated key is read back between the two inserts.
+     */
+    private List<Response<String>> insertBatch(List<PendingOrder> batch) {
+        List<OrderItemListModel> orderItemListModelList = new ArrayList<>(batch.size());
+        for (PendingOrder pendingOrder : batch)
+            orderItemListModelList.add(pendingOrder.orderItemListModel);
+
+        List<Response<OrderQuoteModel>> quoteResponseList = priceBookDao.getVerifiedQuotes(orderItemListModelList);
+        List<Response<String>> responseList = new ArrayList<>(batch.size());
+        List<Integer> acceptedList = new ArrayList<>(batch.size());
+
+        for (int i = 0; i < batch.size(); i++) {
+            Response<String> response = toResponse(quoteResponseList.get(i), orderItemListModelList.get(i).getTransactionModel().getOrderModel());
+            if (response != null && response.getCode().equals(ErrorLog.CodeSuccess))
+                acceptedList.add(i);
+            responseList.add(response);
+        }
+
+        if (acceptedList.isEmpty())
+            return responseList;
+
+        MapSqlParameterSource orderParameters = new MapSqlParameterSource();
+        MapSqlParameterSource orderItemParameters = new MapSqlParameterSource();
+        List<Long> orderIdList = new ArrayList<>(acceptedList.size());
+        int orderItemCount = 0;
+
+        for (int i = 0; i < acceptedList.size(); i++) {
+            OrderItemListModel orderItemListModel = orderItemListModelList.get(acceptedList.get(i));
+            OrderModel orderModel = orderItemListModel.getTransactionModel().getOrderModel();
+            Long orderId = idGenerator.nextId();
+            orderIdList.add(orderId);
+
+            orderParameters.addValue(OrderColumn.id + i, orderId)
+                    .addValue(OrderColumn.userId + i, orderModel.getUserModel().getId())
+                    .addValue(OrderColumn.shopId + i, orderModel.getShopModel().getId())
+                    .addValue(OrderColumn.price + i, orderModel.getPrice())
+                    .addValue(OrderColumn.deliveryPrice + i, orderModel.getDeliveryPrice())
+                    .addValue(OrderColumn.deliveryLocation + i, orderModel.getDeliveryLocation())
+                    .addValue(OrderColumn.cookingInfo + i, orderModel.getCookingInfo());
+
+            for (OrderItemModel orderItemModel : orderItemListModel.getOrderItemsList()) {
+                orderItemParameters.addValue(OrderItemColumn.orderId + orderItemCount, orderId)
+                        .addValue(OrderItemColumn.itemId + orderItemCount, orderItemModel.getItemModel().getId())
+                        .addValue(OrderItemColumn.quantity + orderItemCount, orderItemModel.getQuantity())
+                        .addValue(OrderItemColumn.price + orderItemCount, orderItemModel.getPrice());
+                orderItemCount++;
+            }
+        }
+
+        namedParameterJdbcTemplate.update(OrderQuery.getInsertOrders(acceptedList.size()), orderParameters);
+        namedParameterJdbcTemplate.update(OrderQuery.getInsertOrderItems(orderItemCount), orderItemParameters);
+
+        for (int i = 0; i < acceptedList.size(); i++)
+            orderItemListModelList.get(acceptedList.get(i)).getTransactionModel().getOrderModel().setId(orderIdList.get(i));
+
+        return responseList;
+    }
+
+    /**
+     * Maps the verified quote to the response "place_order" would have given.
+     *
+     * @param quoteResponse Response<OrderQuoteModel>
+     * @param orderModel    OrderModel
+     * @return merchant id of the shop if the order can be inserted,
+     * null if the outcome is left to "place_order" (e.g. the shop has no configuration).
+     */
+    private static Response<String> toResponse(Response<OrderQuoteModel> quoteResponse, OrderModel orderModel) {
+        Integer code = quoteResponse.getCode();
+        if (!code.equals(ErrorLog.CodeSuccess) && !code.equals(ErrorLog.RNAOC1266) &&
+                !code.equals(ErrorLog.DONA1263) && !code.equals(ErrorLog.INA1296))
+            return null;
+
+        Response<String> response = new Response<>();
+        response.setCode(quoteResponse.getCode());
+        response.setMessage(quoteResponse.getMessage());
+
+        if (quoteResponse.getCode().equals(ErrorLog.CodeSuccess)) {
+            if (orderModel.getPrice() != null && quoteResponse.getData().getTotalPrice() == orderModel.getPrice().intValue()) {
+                response.setData(quoteResponse.getData().getMerchantId());
+            } else {
+                response.setCode(ErrorLog.OPM1300);
+                response.setMessage(ErrorLog.OrderPriceMismatch);
+                response.prioritySet(Priority.HIGH);
+            }
+        }
+
+        return response;
+    }
+
+    private static final class PendingOrder {
+        private static final int queued = 0;
+        private static final int taken = 1;
+        private static final int withdrawn = 2;
+
+        private final AtomicInteger state = new AtomicInteger(queued);
+        private final OrderItemListModel orderItemListModel;
+        private final CompletableFuture<Response<String>> response = new CompletableFuture<>();
+
+        private PendingOrder(OrderItemListModel orderItemListModel) {
+            this.orderItemListModel = orderItemListModel;
+        }
+    }
+}
@@ -2,32 +2,53 @@ package com.food.ordering.zinger.dao.impl;
 
 import com.food.ordering.zinger.constant.Column;
 import com.food.ordering.zinger.constant.Column.OrderColumn;
-import com.food.ordering.zinger.constant.Column.OrderItemColumn;
 import com.food.ordering.zinger.constant.Constant;
 import com.food.ordering.zinger.constant.Enums.OrderStatus;
 import com.food.ordering.zinger.constant.Enums.Priority;
 import com.food.ordering.zinger.constant.ErrorLog;
+import com.food.ordering.zinger.constant.OrderStateMachine;
+import com.food.ordering.zinger.constant.OrderStateMachine.Guard;
+import com.food.ordering.zinger.constant.OrderStateMachine.Transition;
 import com.food.ordering.zinger.constant.Query.OrderQuery;
+import com.food.ordering.zinger.dao.interfaces.OrderBatchDao;
 import com.food.ordering.zinger.dao.interfaces.OrderDao;
+import com.food.ordering.zinger.dao.interfaces.PriceBookDao;
 import com.food.ordering.zinger.dao.interfaces.TransactionDao;
 import com.food.ordering.zinger.exception.GenericException;
 import com.food.ordering.zinger.model.*;
 import com.food.ordering.zinger.rowMapperLambda.OrderRowMapperLambda;
+import com.food.ordering.zinger.utils.ActiveOrderView;
 import com.food.ordering.zinger.utils.Helper;
+import com.food.ordering.zinger.utils.IdGenerator;
+import com.food.ordering.zinger.utils.JdbcOperationRegistry;
+import com.food.ordering.zinger.utils.OrderCache;
+import com.food.ordering.zinger.utils.OrderCursor;
 import com.food.ordering.zinger.utils.PaymentResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.core.namedparam.SqlParameterSource;
-import org.springframework.jdbc.core.simple.SimpleJdbcCall;
-import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static com.food.ordering.zinger.constant.Column.OrderColumn.*;
 import static com.food.ordering.zinger.constant.Sql.PERCENT;
@@ -54,75 +75,91 @@ public class OrderDaoImpl implements OrderDao {
     @Autowired
     PaymentResponse paymentResponse;
 
+    @Autowired
+    JdbcOperationRegistry jdbcOperationRegistry;
+
+    @Autowired
+    PriceBookDao priceBookDao;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    OrderBatchDao orderBatchDao;
+
+    @Autowired
+    IdGenerator idGenerator;
+
+    @Autowired
+    OrderCache orderCache;
+
+    @Autowired
+    ApplicationEventPublisher applicationEventPublisher;
+
+    @Autowired
+    ActiveOrderView activeOrderView;
+
+    @Value("${zinger.order.new-order-timeout-minutes:30}")
+    long newOrderTimeoutMinutes;
+
     /**
      * Insert order method
-     * -> checks for availability of each item and calculates the total order amount.
-     * -> Fetches transaction token from the payment gateway
-     * -> Order is inserted into the orders's table
+     * -> Validates the shop configuration and the items, prices the order and inserts
+     * the order along with its items, all within the "place_order" procedure.
+     * With "zinger.order.group-commit.enabled" concurrent orders are verified and inserted
+     * together by the OrderBatchDao instead.
+     * -> Fetches transaction token from the payment gateway for the new order
      * -> Transaction token along with orderId returned to the user
      *
      * @param orderItemListModel OrderItemModelList
      * @return Transaction token and orderId returned to the user
+     * @implNote No transaction or connection is held while the payment gateway is called,
+     * the order is committed first and marked TXN_FAILURE if the transaction token is not available.
      */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Response<TransactionTokenModel> insertOrder(OrderItemListModel orderItemListModel) throws GenericException {
         /*
-         *   1. Verify the amount and availability of the items using verify order
+         *   1. Reject the cart early from the price book, then verify, price and insert the order
+         *      in its own transaction, batched with concurrent orders when group commit is enabled
          *   2. Generate the transaction token from payment gateway
-         *   3. Insert the order
+         *   3. Mark the order as TXN_FAILURE if there is no token
          * */
 
         Response<TransactionTokenModel> response = new Response<>();
         TransactionTokenModel transactionTokenModel = new TransactionTokenModel();
         OrderModel orderModel = orderItemListModel.getTransactionModel().getOrderModel();
 
-        Response<String> verifyPricingResponse = verifyPricing(orderItemListModel);
-        if (verifyPricingResponse.getCode().equals(ErrorLog.CodeSuccess)) {
+        Response<String> placeOrderResponse = verifyQuote(orderItemListModel);
+        if (placeOrderResponse == null)
+            placeOrderResponse = orderBatchDao.insertOrderWithItems(orderItemListModel);
+        if (placeOrderResponse == null)
+            placeOrderResponse = transactionTemplate.execute(status -> insertOrderWithItems(orderItemListModel));
+        if (placeOrderResponse.getCode().equals(ErrorLog.CodeSuccess)) {
 
-            String merchantId = verifyPricingResponse.getData();
-            Response<String> initiateTransactionResponse = paymentResponse.initiateTransaction(orderModel, merchantId);
+            String merchantId = placeOrderResponse.getData();
+            Response<String> initiateTransactionResponse = initiateTransaction(orderModel, merchantId);
             if (initiateTransactionResponse.getCode().equals(ErrorLog.CodeSuccess)) {
+                transactionTokenModel.setOrderId(orderModel.getId());
+                transactionTokenModel.setTransactionToken(initiateTransactionResponse.getData());
 
-                MapSqlParameterSource parameter = new MapSqlParameterSource()
-                        .addValue(userId, orderModel.getUserModel().getId())
-                        .addValue(shopId, orderModel.getShopModel().getId())
-                        .addValue(price, orderModel.getPrice())
-                        .addValue(deliveryPrice, orderModel.getDeliveryPrice())
-                        .addValue(deliveryLocation, orderModel.getDeliveryLocation())
-                        .addValue(cookingInfo, orderModel.getCookingInfo());
-
-                SimpleJdbcInsert simpleJdbcInsert = new SimpleJdbcInsert(namedParameterJdbcTemplate.getJdbcTemplate());
-                simpleJdbcInsert.withTableName(tableName).usingGeneratedKeyColumns(Column.OrderColumn.id);
-                Number responseValue = simpleJdbcInsert.executeAndReturnKey(parameter);
-
-                if (responseValue.intValue() <= 0) {
-                    response.setCode(ErrorLog.ODNU1275);
-                    response.setMessage(ErrorLog.OrderDetailNotUpdated);
-                    response.prioritySet(Priority.HIGH);
-                } else {
-                    orderItemListModel.getTransactionModel().getOrderModel().setId(responseValue.intValue());
-                    Response<String> orderInsertResponse = insertOrderItem(orderItemListModel);
-                    if (orderInsertResponse.getCode().equals(ErrorLog.CodeSuccess)) {
-                        transactionTokenModel.setOrderId(responseValue.intValue());
-                        transactionTokenModel.setTransactionToken(initiateTransactionResponse.getData());
-
-                        response.setCode(orderInsertResponse.getCode());
-                        response.setMessage(orderInsertResponse.getMessage());
-                        response.setData(transactionTokenModel);
-                        response.prioritySet(Priority.LOW);
-                    } else {
-                        response.setCode(ErrorLog.OIDNU301);
-                        response.setMessage(ErrorLog.OrderItemDetailNotUpdated);
-                        response.prioritySet(Priority.HIGH);
-                    }
-                }
+                response.setCode(ErrorLog.CodeSuccess);
+                response.setMessage(ErrorLog.Success);
+                response.setData(transactionTokenModel);
+                response.prioritySet(Priority.LOW);
             } else {
+                OrderModel failedOrderModel = new OrderModel();
+                failedOrderModel.setId(orderModel.getId());
+                failedOrderModel.setOrderStatus(OrderStatus.TXN_FAILURE);
+                transactionTemplate.execute(status -> updateOrderStatus(failedOrderModel));
+
                 response.setCode(ErrorLog.TTNA1271);
                 response.setMessage(ErrorLog.TransactionTokenNotAvailable);
             }
         } else {
-            response.setCode(verifyPricingResponse.getCode());
-            response.setMessage(verifyPricingResponse.getMessage());
+            response.setCode(placeOrderResponse.getCode());
+            response.setMessage(placeOrderResponse.getMessage());
+            response.prioritySet(placeOrderResponse.priorityGet());
         }
 
         if (!response.getCode().equals(ErrorLog.CodeSuccess))
@@ -131,38 +168,6 @@ public class OrderDaoImpl implements OrderDao {
         return response;
     }
 
-    /**
-     * Insert order item inserts all the items in orderItemModels list in the OrderItem table
-     *
-     * @param orderItemModelList OrderItemModelList
-     * @return success response if insert operation was successful otherwise failure response is returned
-     */
-    public Response<String> insertOrderItem(OrderItemListModel orderItemModelList) {
-        Response<String> response = new Response<>();
-        Integer orderId = orderItemModelList.getTransactionModel().getOrderModel().getId();
-
-        try {
-            MapSqlParameterSource parameter = new MapSqlParameterSource();
-            for (int i = 0; i < orderItemModelList.getOrderItemsList().size(); i++) {
-                OrderItemModel orderItemModel = orderItemModelList.getOrderItemsList().get(i);
-                parameter.addValue(OrderItemColumn.orderId + i, orderId)
-                        .addValue(OrderItemColumn.itemId + i, orderItemModel.getItemModel().getId())
-                        .addValue(OrderItemColumn.quantity + i, orderItemModel.getQuantity())
-                        .addValue(OrderItemColumn.price + i, orderItemModel.getPrice());
-            }
-
-            int result = namedParameterJdbcTemplate.update(OrderQuery.getInsertOrder(orderItemModelList.getOrderItemsList()), parameter);
-            if (result > 0) {
-                response.setCode(ErrorLog.CodeSuccess);
-                response.setMessage(ErrorLog.Success);
-                response.setData(ErrorLog.Success);
-            }
-        } catch (Exception e) {
-            System.err.println(e.getClass().getName() + ": " + e.getMessage());
-        }
-        return response;
-    }
-
     /**************************************************/
 
     /**
@@ -171,11 +176,14 @@ public class OrderDaoImpl implements OrderDao {
      * -> If the transaction status is success or pending then the transaction details are inserted into the transaction table
      * -> The order status is updated to PLACED or PENDING accordingly.
      *
-     * @param orderId Integer
+     * @param orderId Long
      * @return success response if insert operation was successful otherwise failure response is returned
+     * @implNote The payment gateway is called outside of any transaction, the transaction details
+     * and the order status are then written together in one short transaction.
      */
     @Override
-    public Response<String> placeOrder(Integer orderId) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Response<String> placeOrder(Long orderId) {
         /*
          *   1. verify the transaction status api and
          *   2. Insert the transaction in the transaction table
@@ -186,24 +194,29 @@ public class OrderDaoImpl implements OrderDao {
             Response<TransactionModel> verifyOrderResponse = verifyOrderFromPaymentGateway(orderId, Constant.transactionFlag);
 
             if (verifyOrderResponse.getCode().equals(ErrorLog.CodeSuccess)) {
-                Response<String> insertTransactionResponse = transactionDao.insertTransactionDetails(verifyOrderResponse.getData());
-
-                if (insertTransactionResponse.getCode().equals(ErrorLog.CodeSuccess)) {
-                    Response<String> updateOrderStatusResponse = updateOrderStatus(verifyOrderResponse.getData().getOrderModel());
-
-                    if (updateOrderStatusResponse.getCode().equals(ErrorLog.CodeSuccess)) {
-                        response.setCode(ErrorLog.CodeSuccess);
-                        response.setMessage(ErrorLog.Success);
-                        response.setData(ErrorLog.Success);
-                        response.prioritySet(Priority.LOW);
+                response = transactionTemplate.execute(status -> {
+                    Response<String> updateResponse = new Response<>();
+                    Response<String> insertTransactionResponse = transactionDao.insertTransactionDetails(verifyOrderResponse.getData());
+
+                    if (insertTransactionResponse.getCode().equals(ErrorLog.CodeSuccess)) {
+                        Response<String> updateOrderStatusResponse = updateOrderStatus(verifyOrderResponse.getData().getOrderModel());
+
+                        if (updateOrderStatusResponse.getCode().equals(ErrorLog.CodeSuccess)) {
+                            updateResponse.setCode(ErrorLog.CodeSuccess);
+                            updateResponse.setMessage(ErrorLog.Success);
+                            updateResponse.setData(ErrorLog.Success);
+                            updateResponse.prioritySet(Priority.LOW);
+                        } else {
+                            status.setRollbackOnly();
+                            updateResponse.setCode(ErrorLog.ODNU1156);
+                            updateResponse.setMessage(ErrorLog.OrderDetailNotUpdated);
+                        }
                     } else {
-                        response.setCode(ErrorLog.ODNU1156);
-                        response.setMessage(ErrorLog.OrderDetailNotUpdated);
+                        updateResponse.setCode(ErrorLog.TDNU1264);
+                        updateResponse.setMessage(ErrorLog.TransactionDetailNotUpdated);
                     }
-                } else {
-                    response.setCode(ErrorLog.TDNU1264);
-                    response.setMessage(ErrorLog.TransactionDetailNotUpdated);
-                }
+                    return updateResponse;
+                });
             } else {
                 response.setCode(ErrorLog.ODNA1167);
                 response.setMessage(ErrorLog.OrderDetailNotAvailable);
@@ -240,7 +253,7 @@ public class OrderDaoImpl implements OrderDao {
                     .addValue(OrderQuery.pageNum, (pageNum - 1) * pageCount)
                     .addValue(OrderQuery.pageCount, pageCount);
 
-            orderItemListModelList = namedParameterJdbcTemplate.query(OrderQuery.getOrderByUserId, parameter, OrderRowMapperLambda.OrderByUserIdRowMapperLambda);
+            orderItemListModelList = namedParameterJdbcTemplate.query(OrderQuery.getOrderByUserId, parameter, OrderRowMapperLambda.OrderByUserIdExtractor);
         } catch (Exception e) {
             response.setCode(ErrorLog.CE1270);
             System.err.println(e.getClass().getName() + ": " + e.getMessage());
@@ -258,6 +271,8 @@ public class OrderDaoImpl implements OrderDao {
     /**
      * This method is responsible for searching orders received by a given shop based on a customer name,mobile or order id in a paginated manner.
      * The pageCount determines number of rows to be returned and pageNum determines the offset.
+     * A number is looked up as an order id first and as the start or the end of a customer mobile if no order has that id,
+     * anything else is matched against the customer names and the best matches come first.
      *
      * @param shopId     Integer
      * @param searchItem String
@@ -271,13 +286,27 @@ public class OrderDaoImpl implements OrderDao {
         List<OrderItemListModel> orderItemListModelList = null;
 
         try {
+            String searchTerm = searchItem.trim();
             MapSqlParameterSource parameter = new MapSqlParameterSource()
-                    .addValue(Column.searchQuery, PERCENT + searchItem + PERCENT)
                     .addValue(Column.ShopColumn.id, shopId)
                     .addValue(OrderQuery.pageNum, (pageNum - 1) * pageCount)
                     .addValue(OrderQuery.pageCount, pageCount);
 
-            orderItemListModelList = namedParameterJdbcTemplate.query(OrderQuery.getOrderByFilterPaginated, parameter, OrderRowMapperLambda.OrderBySearchQueryRowMapperLambda);
+            if (isNumber(searchTerm)) {
+                List<OrderItemListModel> searchIdList = getOrderBySearchId(shopId, searchTerm);
+                if (!searchIdList.isEmpty())
+                    orderItemListModelList = pageNum == 1 ? searchIdList : new ArrayList<>();
+                else
+                    orderItemListModelList = namedParameterJdbcTemplate.query(OrderQuery.getOrderBySearchMobile,
+                            addSearchMobile(parameter, searchTerm), OrderRowMapperLambda.OrderBySearchQueryExtractor);
+            } else {
+                String searchPhrase = getSearchPhrase(searchTerm);
+                if (searchPhrase == null)
+                    orderItemListModelList = new ArrayList<>();
+                else
+                    orderItemListModelList = namedParameterJdbcTemplate.query(OrderQuery.getOrderBySearchNameRanked,
+                            parameter.addValue(Column.searchQuery, searchPhrase), OrderRowMapperLambda.OrderBySearchQueryExtractor);
+            }
         } catch (Exception e) {
             response.setCode(ErrorLog.CE1269);
             System.err.println(e.getClass().getName() + ": " + e.getMessage());
@@ -314,7 +343,7 @@ public class OrderDaoImpl implements OrderDao {
                     .addValue(OrderQuery.pageNum, (pageNum - 1) * pageCount)
                     .addValue(OrderQuery.pageCount, pageCount);
 
-            orderItemListModelList = namedParameterJdbcTemplate.query(OrderQuery.getOrderByShopIdPaginated, parameter, OrderRowMapperLambda.OrderBySearchQueryRowMapperLambda);
+            orderItemListModelList = namedParameterJdbcTemplate.query(OrderQuery.getOrderByShopIdPaginated, parameter, OrderRowMapperLambda.OrderBySearchQueryExtractor);
 
         } catch (Exception e) {
             response.setCode(ErrorLog.CE1274);
@@ -330,11 +359,189 @@ public class OrderDaoImpl implements OrderDao {
         return response;
     }
 
+    /**
+     * This method is responsible for fetching orders placed by a given user one page at a time. The first page is fetched
+     * without a cursor, every next page with the cursor returned along with the previous one.
+     *
+     * @param userId    Integer
+     * @param cursor    OrderCursor, null for the first page
+     * @param pageCount Integer
+     * @return Returns the orders along with transaction details and orderItem details, and the cursor of the next page.
+     */
+    @Override
+    public Response<OrderPageModel> getOrderByUserIdCursor(Integer userId, OrderCursor cursor, Integer pageCount) {
+        MapSqlParameterSource parameter = new MapSqlParameterSource()
+                .addValue(Column.UserColumn.id, userId);
+
+        return getOrderPage(OrderQuery.getOrderByUserId, OrderQuery.getOrderByUserIdAfterCursor, parameter, cursor, pageCount,
+                OrderRowMapperLambda.OrderByUserIdExtractor, ErrorLog.CE1270);
+    }
+
+    /**
+     * This method is responsible for searching orders received by a given shop based on a customer name,mobile or order id
+     * one page at a time, see {@link #getOrderBySearchQuery(Integer, String, Integer, Integer)} and
+     * {@link #getOrderByUserIdCursor(Integer, OrderCursor, Integer)}.
+     *
+     * @param shopId     Integer
+     * @param searchItem String
+     * @param cursor     OrderCursor, null for the first page
+     * @param pageCount  Integer
+     * @return Returns the orders along with transaction details and orderItem details, and the cursor of the next page.
+     * @implNote The name matches are sorted by date instead of relevance, the cursor can only seek on (date, id).
+     */
+    @Override
+    public Response<OrderPageModel> getOrderBySearchQueryCursor(Integer shopId, String searchItem, OrderCursor cursor, Integer pageCount) {
+        String searchTerm = searchItem.trim();
+        MapSqlParameterSource parameter = new MapSqlParameterSource()
+                .addValue(Column.ShopColumn.id, shopId);
+
+        if (isNumber(searchTerm)) {
+            if (cursor == null) {
+                Response<OrderPageModel> response = new Response<>();
+                try {
+                    List<OrderItemListModel> searchIdList = getOrderBySearchId(shopId, searchTerm);
+                    if (!searchIdList.isEmpty()) {
+                        response.setCode(ErrorLog.CodeSuccess);
+                        response.setMessage(ErrorLog.Success);
+                        response.setData(new OrderPageModel(searchIdList, null));
+                        response.prioritySet(Priority.LOW);
+                        return response;
+                    }
+                } catch (Exception e) {
+                    response.setCode(ErrorLog.CE1269);
+                    System.err.println(e.getClass().getName() + ": " + e.getMessage());
+                    return response;
+                }
+            }
+
+            return getOrderPage(OrderQuery.getOrderBySearchMobile, OrderQuery.getOrderBySearchMobileAfterCursor, addSearchMobile(parameter, searchTerm),
+                    cursor, pageCount, OrderRowMapperLambda.OrderBySearchQueryExtractor, ErrorLog.CE1269);
+        }
+
+        String searchPhrase = getSearchPhrase(searchTerm);
+        if (searchPhrase == null) {
+            Response<OrderPageModel> response = new Response<>();
+            response.setCode(ErrorLog.CodeEmpty);
+            response.setMessage(ErrorLog.Success);
+            response.setData(new OrderPageModel(new ArrayList<>(), null));
+            response.prioritySet(Priority.LOW);
+            return response;
+        }
+
+        return getOrderPage(OrderQuery.getOrderBySearchName, OrderQuery.getOrderBySearchNameAfterCursor, parameter.addValue(Column.searchQuery, searchPhrase),
+                cursor, pageCount, OrderRowMapperLambda.OrderBySearchQueryExtractor, ErrorLog.CE1269);
+    }
+
+    /**
+     * @return the order of the shop with the given id, looked up through the primary key. Empty if there is none
+     * or the search term is too long to be an id.
+     */
+    private List<OrderItemListModel> getOrderBySearchId(Integer shopId, String searchTerm) {
+        long orderId;
+        try {
+            orderId = Long.parseLong(searchTerm);
+        } catch (NumberFormatException e) {
+            return new ArrayList<>();
+        }
+
+        MapSqlParameterSource parameter = new MapSqlParameterSource()
+                .addValue(Column.ShopColumn.id, shopId)
+                .addValue(OrderQuery.searchOrderId, orderId);
+        return namedParameterJdbcTemplate.query(OrderQuery.getOrderBySearchId, parameter, OrderRowMapperLambda.OrderBySearchQueryExtractor);
+    }
+
+    /**
+     * The start of a mobile is matched on the mobile index and the end on the index of the reversed mobile,
+     * both as prefix searches.
+     */
+    private static MapSqlParameterSource addSearchMobile(MapSqlParameterSource parameter, String searchTerm) {
+        return parameter.addValue(OrderQuery.searchMobilePrefix, searchTerm + PERCENT)
+                .addValue(OrderQuery.searchMobileSuffix, new StringBuilder(searchTerm).reverse() + PERCENT);
+    }
+
+    /**
+     * @return the search term as a quoted phrase of the full text search, without the boolean mode operators.
+     * null if nothing is left to search.
+     */
+    private static String getSearchPhrase(String searchTerm) {
+        String searchPhrase = searchTerm.replaceAll("[+\\-<>()~*\"@]", " ").trim();
+        return searchPhrase.isEmpty() ? null : "\"" + searchPhrase + "\"";
+    }
+
+    private static boolean isNumber(String searchTerm) {
+        if (searchTerm.isEmpty())
+            return false;
+        for (int i = 0; i < searchTerm.length(); i++)
+            if (searchTerm.charAt(i) < '0' || searchTerm.charAt(i) > '9')
+                return false;
+        return true;
+    }
+
+    /**
+     * This method is responsible for fetching the order history of the shop one page at a time,
+     * see {@link #getOrderByShopIdPagination(Integer, Integer, Integer)} and {@link #getOrderByUserIdCursor(Integer, OrderCursor, Integer)}.
+     *
+     * @param shopId    Integer
+     * @param cursor    OrderCursor, null for the first page
+     * @param pageCount Integer
+     * @return Returns the orders along with transaction details and orderItem details, and the cursor of the next page.
+     */
+    @Override
+    public Response<OrderPageModel> getOrderByShopIdCursor(Integer shopId, OrderCursor cursor, Integer pageCount) {
+        MapSqlParameterSource parameter = new MapSqlParameterSource()
+                .addValue(Column.ShopColumn.id, shopId);
+
+        return getOrderPage(OrderQuery.getOrderByShopIdPaginated, OrderQuery.getOrderByShopIdPaginatedAfterCursor, parameter, cursor, pageCount,
+                OrderRowMapperLambda.OrderBySearchQueryExtractor, ErrorLog.CE1274);
+    }
+
+    /**
+     * Fetches one page of orders sorted by (date, id) descending. The first page is the offset query at offset 0,
+     * the next pages seek past the cursor, so a page costs the same however deep it is.
+     *
+     * @return Returns the page, its nextCursor is null on the last page.
+     */
+    private Response<OrderPageModel> getOrderPage(String firstPageQuery, String afterCursorQuery, MapSqlParameterSource parameter, OrderCursor cursor,
+                                                  Integer pageCount, ResultSetExtractor<List<OrderItemListModel>> orderExtractor, Integer errorCode) {
+        Response<OrderPageModel> response = new Response<>();
+        List<OrderItemListModel> orderItemListModelList = null;
+
+        try {
+            parameter.addValue(OrderQuery.pageCount, pageCount);
+            if (cursor == null) {
+                parameter.addValue(OrderQuery.pageNum, 0);
+                orderItemListModelList = namedParameterJdbcTemplate.query(firstPageQuery, parameter, orderExtractor);
+            } else {
+                parameter.addValue(OrderQuery.cursorDate, cursor.getDate())
+                        .addValue(OrderQuery.cursorId, cursor.getId());
+                orderItemListModelList = namedParameterJdbcTemplate.query(afterCursorQuery, parameter, orderExtractor);
+            }
+        } catch (Exception e) {
+            response.setCode(errorCode);
+            System.err.println(e.getClass().getName() + ": " + e.getMessage());
+        } finally {
+            if (orderItemListModelList != null) {
+                String nextCursor = null;
+                if (orderItemListModelList.size() == pageCount) {
+                    OrderModel lastOrder = orderItemListModelList.get(orderItemListModelList.size() - 1).getTransactionModel().getOrderModel();
+                    nextCursor = new OrderCursor(lastOrder.getDate(), lastOrder.getId()).encode();
+                }
+
+                response.setCode(orderItemListModelList.isEmpty() ? ErrorLog.CodeEmpty : ErrorLog.CodeSuccess);
+                response.setMessage(ErrorLog.Success);
+                response.setData(new OrderPageModel(orderItemListModelList, nextCursor));
+                response.prioritySet(Priority.LOW);
+            }
+        }
+        return response;
+    }
+
     /**
      * This method is responsible for fetching orders with status PLACED, ACCEPTED, READY
      *
      * @param shopId Integer
      * @return Returns all the orders along with transaction details and orderItem details
+     * @implNote Served from the ActiveOrderView, the database is read only until the view is built.
      */
     @Override
     public Response<List<OrderItemListModel>> getOrderByShopId(Integer shopId) {
@@ -342,9 +549,12 @@ public class OrderDaoImpl implements OrderDao {
         Response<List<OrderItemListModel>> response = new Response<>();
         List<OrderItemListModel> orderItemListModelList = null;
         try {
-            MapSqlParameterSource parameter = new MapSqlParameterSource()
-                    .addValue(Column.ShopColumn.id, shopId);
-            orderItemListModelList = namedParameterJdbcTemplate.query(OrderQuery.getOrderByShopId, parameter, OrderRowMapperLambda.OrderBySearchQueryRowMapperLambda);
+            orderItemListModelList = activeOrderView.getOrderByShopId(shopId);
+            if (orderItemListModelList == null) {
+                MapSqlParameterSource parameter = new MapSqlParameterSource()
+                        .addValue(Column.ShopColumn.id, shopId);
+                orderItemListModelList = namedParameterJdbcTemplate.query(OrderQuery.getOrderByShopId, parameter, OrderRowMapperLambda.OrderBySearchQueryExtractor);
+            }
         } catch (Exception e) {
             response.setCode(ErrorLog.CE1274);
             System.err.println(e.getClass().getName() + ": " + e.getMessage());
@@ -359,23 +569,73 @@ public class OrderDaoImpl implements OrderDao {
         return response;
     }
 
+    /**
+     * This method is responsible for counting the orders of the shop in each of the status PLACED, ACCEPTED, READY
+     * and OUT_FOR_DELIVERY, for the seller dashboard.
+     *
+     * @param shopId Integer
+     * @return Returns the number of orders in each status, 0 for the statuses without orders
+     * @implNote Served from the ActiveOrderView, the database is read only until the view is built.
+     */
+    @Override
+    public Response<Map<OrderStatus, Integer>> getOrderCountByShopId(Integer shopId) {
+        Response<Map<OrderStatus, Integer>> response = new Response<>();
+        Map<OrderStatus, Integer> orderCountMap = null;
+
+        try {
+            orderCountMap = activeOrderView.getOrderCountByShopId(shopId);
+            if (orderCountMap == null) {
+                Map<OrderStatus, Integer> orderCountByStatus = new EnumMap<>(OrderStatus.class);
+                for (OrderStatus orderStatus : ActiveOrderView.activeStatuses)
+                    orderCountByStatus.put(orderStatus, 0);
+
+                MapSqlParameterSource parameter = new MapSqlParameterSource()
+                        .addValue(Column.ShopColumn.id, shopId);
+                namedParameterJdbcTemplate.query(OrderQuery.getOrderCountByShopId, parameter, (RowCallbackHandler) rs ->
+                        orderCountByStatus.put(OrderStatus.valueOf(rs.getString(status)), rs.getInt(Column.orderCount)));
+                orderCountMap = orderCountByStatus;
+            }
+        } catch (Exception e) {
+            response.setCode(ErrorLog.CE1331);
+            System.err.println(e.getClass().getName() + ": " + e.getMessage());
+        } finally {
+            if (orderCountMap != null) {
+                response.setCode(ErrorLog.CodeSuccess);
+                response.setMessage(ErrorLog.Success);
+                response.setData(orderCountMap);
+                response.prioritySet(Priority.LOW);
+            }
+        }
+        return response;
+    }
+
     /**
      * This method is responsible for fetching orders with given orderId along with its transaction details
      *
-     * @param orderId Integer
+     * @param orderId Long
      * @return Returns all transaction and order details if orderId is found in the database
+     * @implNote Read through the OrderCache, the writes of this dao and the TransactionDao evict the order.
      */
     @Override
-    public Response<OrderItemListModel> getOrderById(Integer orderId) {
+    public Response<OrderItemListModel> getOrderById(Long orderId) {
         Response<OrderItemListModel> response = new Response<>();
-        OrderItemListModel orderItemListModel = null;
+        OrderItemListModel orderItemListModel = orderCache.get(orderId);
 
         try {
-            MapSqlParameterSource parameter = new MapSqlParameterSource()
-                    .addValue(Column.OrderColumn.id, orderId);
+            if (orderItemListModel == null) {
+                long version = orderCache.getVersion(orderId);
+                MapSqlParameterSource parameter = new MapSqlParameterSource()
+                        .addValue(Column.OrderColumn.id, orderId);
 
-            orderItemListModel = namedParameterJdbcTemplate.queryForObject(OrderQuery.getOrderById, parameter,
-                    OrderRowMapperLambda.OrderByIdRowMapper);
+                List<OrderItemListModel> orderItemListModelList = namedParameterJdbcTemplate.query(OrderQuery.getOrderById, parameter,
+                        OrderRowMapperLambda.OrderByIdExtractor);
+                if (orderItemListModelList.isEmpty()) {
+                    response.setCode(ErrorLog.CE1279);
+                } else {
+                    orderItemListModel = orderItemListModelList.get(0);
+                    orderCache.put(orderId, version, orderItemListModel);
+                }
+            }
         } catch (Exception e) {
             response.setCode(ErrorLog.CE1279);
             System.err.println(ErrorLog.OrderDetailNotAvailable);
@@ -390,6 +650,39 @@ public class OrderDaoImpl implements OrderDao {
         return response;
     }
 
+    /**
+     * This method is responsible for fetching the orders with the given ids along with their transaction details
+     *
+     * @param orderIdList List<Long>
+     * @return Returns all transaction and order details of the orders found in the database
+     * @implNote One query for all the orders, used to notify the orders of a bulk status update.
+     */
+    @Override
+    public Response<List<OrderItemListModel>> getOrderByIdList(List<Long> orderIdList) {
+        Response<List<OrderItemListModel>> response = new Response<>();
+        List<OrderItemListModel> orderItemListModelList = null;
+
+        try {
+            MapSqlParameterSource parameter = new MapSqlParameterSource()
+                    .addValue(OrderQuery.orderIdList, orderIdList);
+
+            if (!orderIdList.isEmpty())
+                orderItemListModelList = namedParameterJdbcTemplate.query(OrderQuery.getOrderByIdList, parameter,
+                        OrderRowMapperLambda.OrderByIdExtractor);
+        } catch (Exception e) {
+            response.setCode(ErrorLog.CE1279);
+            System.err.println(e.getClass().getName() + ": " + e.getMessage());
+        } finally {
+            if (orderItemListModelList != null && !orderItemListModelList.isEmpty()) {
+                response.setCode(ErrorLog.CodeSuccess);
+                response.setMessage(ErrorLog.Success);
+                response.setData(orderItemListModelList);
+            }
+        }
+
+        return response;
+    }
+
     /**
      * This method is responsible for fetching orders with status passed in the orderStatusList
      *
@@ -421,10 +714,10 @@ public class OrderDaoImpl implements OrderDao {
     /**
      * This method responsible for fetching orders with given orderId
      *
-     * @param id Integer
+     * @param id Long
      * @return order details if orderId is found in the database
      */
-    public Response<OrderModel> getOrderPriceById(Integer id) {
+    public Response<OrderModel> getOrderPriceById(Long id) {
         Response<OrderModel> response = new Response<>();
         OrderModel orderModel = null;
 
@@ -467,6 +760,7 @@ public class OrderDaoImpl implements OrderDao {
 
             int updateStatus = namedParameterJdbcTemplate.update(OrderQuery.updateOrderRating, parameter);
             if (updateStatus > 0) {
+                orderCache.evictOrder(orderModel.getId());
                 response.setCode(ErrorLog.CodeSuccess);
                 response.setMessage(ErrorLog.Success);
                 response.setData(ErrorLog.Success);
@@ -490,6 +784,10 @@ public class OrderDaoImpl implements OrderDao {
      *
      * @param orderModel the order model
      * @return success response is returned if update operation is successful
+     * @implNote The change is one compare-and-set update from the OrderStateMachine, it succeeds only
+     * if the order is still in one of the allowed previous states. The order is read again only
+     * to tell a secret key mismatch from an invalid status when a secret key guarded update fails.
+     * @implNote A successful change is published as an OrderStatusEventModel, the OrderStream receives it once committed.
      */
     @Override
     public Response<String> updateOrderStatus(OrderModel orderModel) {
@@ -497,28 +795,26 @@ public class OrderDaoImpl implements OrderDao {
         response.prioritySet(Priority.HIGH);
 
         try {
-            SimpleJdbcCall jdbcCall = new SimpleJdbcCall(namedParameterJdbcTemplate.getJdbcTemplate())
-                    .withProcedureName(Constant.OrderStatusUpdate.procedureName);
-
-            SqlParameterSource in = new MapSqlParameterSource()
-                    .addValue(Constant.OrderStatusUpdate.orderId, orderModel.getId())
-                    .addValue(Constant.OrderStatusUpdate.newStatus, orderModel.getOrderStatus())
-                    .addValue(Constant.OrderStatusUpdate.newSecretKey, orderModel.getSecretKey());
+            Transition transition = OrderStateMachine.getTransition(orderModel.getOrderStatus());
+            if (transition == null) {
+                response.setCode(ErrorLog.IOS1282);
+                response.setMessage(ErrorLog.InvalidOrderStatus);
+                return response;
+            }
 
-            Map<String, Object> out = jdbcCall.execute(in);
-            Integer result = (Integer) out.get(Constant.OrderStatusUpdate.result);
+            int updateStatus = namedParameterJdbcTemplate.update(transition.getUpdateQuery(), getOrderStatusParameter(transition, orderModel));
 
-            if (result == 1) {
-                if (orderModel.getOrderStatus().equals(OrderStatus.CANCELLED_BY_USER) ||
-                        orderModel.getOrderStatus().equals(OrderStatus.CANCELLED_BY_SELLER) ||
-                        orderModel.getOrderStatus().equals(OrderStatus.REFUND_INITIATED))
+            if (updateStatus > 0) {
+                orderCache.evictOrder(orderModel.getId());
+                applicationEventPublisher.publishEvent(new OrderStatusEventModel(orderModel.getId(), orderModel.getOrderStatus()));
+                if (isRefundInitiated(orderModel.getOrderStatus()))
                     paymentResponse.initiateRefund();
 
                 response.setCode(ErrorLog.CodeSuccess);
                 response.setMessage(ErrorLog.Success);
                 response.setData(ErrorLog.Success);
                 response.prioritySet(Priority.LOW);
-            } else if (result == -4) {
+            } else if (transition.getGuard() == Guard.SECRET_KEY && transition.isAllowedFrom(getOrderStatusById(orderModel.getId()))) {
                 response.setCode(ErrorLog.SKM1281);
                 response.setMessage(ErrorLog.SecretKeyMismatch);
             } else {
@@ -533,10 +829,222 @@ public class OrderDaoImpl implements OrderDao {
         return response;
     }
 
+    /**
+     * Update the status of many orders
+     * -> Each order is checked and updated as in updateOrderStatus
+     * -> The orders moving into the same status are updated with one batch of compare-and-set updates
+     * -> If new state is CANCELLED_BY_SELLER or CANCELLED_BY_USER then refund is initiated
+     *
+     * @param orderModelList List<OrderModel>
+     * @return the result of each order, in the order of the request
+     * @implNote Each batch runs in a transaction of its own, a failed batch fails only its orders.
+     * No transaction is held around the batches, so a failed batch cannot roll back the ones already committed.
+     * The orders whose update did not apply are read again in one query, to tell a secret key
+     * mismatch from an invalid status. An order repeated in the request is an invalid status.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Response<List<OrderStatusResultModel>> updateOrderStatusBulk(List<OrderModel> orderModelList) {
+        Response<List<OrderStatusResultModel>> response = new Response<>();
+        List<OrderStatusResultModel> resultList = new ArrayList<>(orderModelList.size());
+        Map<OrderStatus, List<Integer>> batchMap = new EnumMap<>(OrderStatus.class);
+        Set<Long> orderIdSet = new HashSet<>();
+
+        for (int i = 0; i < orderModelList.size(); i++) {
+            OrderModel orderModel = orderModelList.get(i);
+            OrderStatusResultModel result = new OrderStatusResultModel(orderModel.getId(), orderModel.getOrderStatus());
+            resultList.add(result);
+
+            if (orderModel.getId() == null || OrderStateMachine.getTransition(orderModel.getOrderStatus()) == null || !orderIdSet.add(orderModel.getId()))
+                setResult(result, ErrorLog.IOS1282, ErrorLog.InvalidOrderStatus);
+            else
+                batchMap.computeIfAbsent(orderModel.getOrderStatus(), orderStatus -> new ArrayList<>()).add(i);
+        }
+
+        List<Integer> notAppliedList = new ArrayList<>();
+        for (Map.Entry<OrderStatus, List<Integer>> batch : batchMap.entrySet()) {
+            Transition transition = OrderStateMachine.getTransition(batch.getKey());
+            List<Integer> indexList = batch.getValue();
+            MapSqlParameterSource[] parameters = new MapSqlParameterSource[indexList.size()];
+            for (int i = 0; i < indexList.size(); i++)
+                parameters[i] = getOrderStatusParameter(transition, orderModelList.get(indexList.get(i)));
+
+            try {
+                int[] updateStatus = transactionTemplate.execute(transactionStatus ->
+                        namedParameterJdbcTemplate.batchUpdate(transition.getUpdateQuery(), parameters));
+
+                for (int i = 0; i < indexList.size(); i++) {
+                    if (updateStatus[i] > 0) {
+                        orderCache.evictOrder(orderModelList.get(indexList.get(i)).getId());
+                        applicationEventPublisher.publishEvent(new OrderStatusEventModel(orderModelList.get(indexList.get(i)).getId(), transition.getNewStatus()));
+                        if (isRefundInitiated(transition.getNewStatus()))
+                            paymentResponse.initiateRefund();
+                        setResult(resultList.get(indexList.get(i)), ErrorLog.CodeSuccess, ErrorLog.Success);
+                    } else {
+                        notAppliedList.add(indexList.get(i));
+                    }
+                }
+            } catch (Exception e) {
+                for (Integer index : indexList)
+                    setResult(resultList.get(index), ErrorLog.CE1284, ErrorLog.Failure);
+                System.err.println(e.getClass().getName() + ": " + e.getMessage());
+            }
+        }
+
+        if (!notAppliedList.isEmpty()) {
+            List<Long> orderIdList = new ArrayList<>(notAppliedList.size());
+            for (Integer index : notAppliedList)
+                orderIdList.add(orderModelList.get(index).getId());
+            Map<Long, OrderStatus> orderStatusMap = getOrderStatusByIdList(orderIdList);
+
+            for (Integer index : notAppliedList) {
+                OrderModel orderModel = orderModelList.get(index);
+                Transition transition = OrderStateMachine.getTransition(orderModel.getOrderStatus());
+                if (transition.getGuard() == Guard.SECRET_KEY && orderStatusMap.containsKey(orderModel.getId()) &&
+                        transition.isAllowedFrom(orderStatusMap.get(orderModel.getId())))
+                    setResult(resultList.get(index), ErrorLog.SKM1281, ErrorLog.SecretKeyMismatch);
+                else
+                    setResult(resultList.get(index), ErrorLog.IOS1282, ErrorLog.InvalidOrderStatus);
+            }
+        }
+
+        boolean isAllUpdated = true;
+        for (OrderStatusResultModel result : resultList)
+            isAllUpdated &= result.getCode().equals(ErrorLog.CodeSuccess);
+
+        response.setCode(ErrorLog.CodeSuccess);
+        response.setMessage(ErrorLog.Success);
+        response.setData(resultList);
+        response.prioritySet(isAllUpdated ? Priority.LOW : Priority.HIGH);
+        return response;
+    }
+
+    /**
+     * This is a helper method to bind the compare-and-set update of a status change.
+     *
+     * @param transition Transition
+     * @param orderModel OrderModel
+     * @return the parameters of the update query of the transition.
+     */
+    private static MapSqlParameterSource getOrderStatusParameter(Transition transition, OrderModel orderModel) {
+        MapSqlParameterSource parameter = new MapSqlParameterSource()
+                .addValue(id, orderModel.getId())
+                .addValue(status, transition.getNewStatus().name());
+
+        if (transition.isSecretKeyGenerated())
+            parameter.addValue(secretKey, Helper.generateSecretKey());
+        else if (transition.getGuard() == Guard.SECRET_KEY)
+            parameter.addValue(secretKey, orderModel.getSecretKey());
+
+        return parameter;
+    }
+
+    private static boolean isRefundInitiated(OrderStatus orderStatus) {
+        return orderStatus == OrderStatus.CANCELLED_BY_USER ||
+                orderStatus == OrderStatus.CANCELLED_BY_SELLER ||
+                orderStatus == OrderStatus.REFUND_INITIATED;
+    }
+
+    private static void setResult(OrderStatusResultModel result, Integer code, String message) {
+        result.setCode(code);
+        result.setMessage(message);
+    }
+
+    /**
+     * This is a helper method to fetch the current status of many orders.
+     *
+     * @param orderIdList List<Long>
+     * @return the status of each order found, null for the new orders. Empty if the orders could not be read.
+     */
+    private Map<Long, OrderStatus> getOrderStatusByIdList(List<Long> orderIdList) {
+        Map<Long, OrderStatus> orderStatusMap = new HashMap<>();
+
+        try {
+            MapSqlParameterSource parameter = new MapSqlParameterSource()
+                    .addValue(OrderQuery.orderIdList, orderIdList);
+
+            namedParameterJdbcTemplate.query(OrderQuery.getOrderStatusByIdList, parameter, (RowCallbackHandler) rs -> {
+                String orderStatus = rs.getString(status);
+                orderStatusMap.put(rs.getLong(id), orderStatus == null ? null : OrderStatus.valueOf(orderStatus));
+            });
+        } catch (Exception e) {
+            orderStatusMap.clear();
+            System.err.println(e.getClass().getName() + ": " + e.getMessage());
+        }
+
+        return orderStatusMap;
+    }
+
+    /**
+     * This is a helper method to fetch the current status of an order.
+     *
+     * @param orderId Long
+     * @return the status of the order, null if the order is new or not found.
+     */
+    private OrderStatus getOrderStatusById(Long orderId) {
+        MapSqlParameterSource parameter = new MapSqlParameterSource()
+                .addValue(id, orderId);
+
+        List<String> statusList = namedParameterJdbcTemplate.queryForList(OrderQuery.getOrderStatusById, parameter, String.class);
+        if (statusList.isEmpty() || statusList.get(0) == null)
+            return null;
+        return OrderStatus.valueOf(statusList.get(0));
+    }
+
+    /**
+     * Applies a committed status change to the ActiveOrderView, from the order read again.
+     *
+     * @param orderStatusEventModel OrderStatusEventModel
+     * @implNote The order is read from the database, the OrderCache is evicted again only after this runs.
+     * @implNote Runs before the OrderStream picks up the same change, so a snapshot taken
+     * after an event already contains its change.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusEventModel orderStatusEventModel) {
+        if (!activeOrderView.isEnabled())
+            return;
+
+        try {
+            MapSqlParameterSource parameter = new MapSqlParameterSource()
+                    .addValue(Column.OrderColumn.id, orderStatusEventModel.getOrderId());
+
+            List<OrderItemListModel> orderItemListModelList = namedParameterJdbcTemplate.query(OrderQuery.getOrderById, parameter,
+                    OrderRowMapperLambda.OrderByIdExtractor);
+            if (!orderItemListModelList.isEmpty())
+                activeOrderView.putOrder(orderItemListModelList.get(0));
+        } catch (Exception e) {
+            System.err.println(e.getClass().getName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * This method is a helper function to build the ActiveOrderView from the active orders of all the shops,
+     * and to repair it afterwards. The number of orders the view was wrong about is logged.
+     */
+    @Override
+    public void repairActiveOrderView() {
+        if (!activeOrderView.isEnabled())
+            return;
+
+        try {
+            long sequence = activeOrderView.getSequence();
+            List<OrderItemListModel> orderItemListModelList = namedParameterJdbcTemplate.query(OrderQuery.getActiveOrders,
+                    OrderRowMapperLambda.OrderByIdExtractor);
+
+            int driftCount = activeOrderView.rebuild(orderItemListModelList, sequence);
+            if (driftCount > 0)
+                System.err.println("ActiveOrderView: repaired " + driftCount + " orders");
+        } catch (Exception e) {
+            System.err.println(e.getClass().getName() + ": " + e.getMessage());
+        }
+    }
+
     /**
      * This method is a helper function to update the order status
      */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void updatePendingOrder() {
         List<OrderStatus> orderStatuses = new ArrayList<>();
         orderStatuses.add(OrderStatus.PENDING);
@@ -546,6 +1054,7 @@ public class OrderDaoImpl implements OrderDao {
             List<OrderModel> orderModelList = pendingOrderResponse.getData();
 
             if (orderModelList != null && !orderModelList.isEmpty()) {
+                List<TransactionModel> transactionModelList = new ArrayList<>();
                 for (OrderModel orderModel : orderModelList) {
                     Response<TransactionModel> transactionModelResponse = verifyOrderFromPaymentGateway(orderModel.getId(), Constant.transactionFlag);
 
@@ -560,19 +1069,49 @@ public class OrderDaoImpl implements OrderDao {
                             transactionModelResponse.getData().getOrderModel().setOrderStatus(OrderStatus.REFUND_INITIATED);
                     }
 
-                    if (!transactionModelResponse.getData().getOrderModel().getOrderStatus().equals(OrderStatus.PENDING)) {
-                        updateOrderStatus(transactionModelResponse.getData().getOrderModel());
-                        transactionDao.updatePendingTransaction(transactionModelResponse.getData());
-                    }
+                    if (!transactionModelResponse.getData().getOrderModel().getOrderStatus().equals(OrderStatus.PENDING))
+                        transactionModelList.add(transactionModelResponse.getData());
                 }
+
+                updateOrdersAndTransactions(transactionModelList);
             }
         }
     }
 
+    /**
+     * This method fails the orders left without a status, when the checkout stopped between
+     * committing the order and marking it TXN_FAILURE or placing it.
+     *
+     * @implNote Only orders older than "zinger.order.new-order-timeout-minutes" are failed, which must
+     * exceed the lifetime of the transaction token so that no payment can still be made for them.
+     * The compare-and-set update of TXN_FAILURE applies only while the order has no status.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void updateTimedOutNewOrder() {
+        List<OrderModel> orderModelList = null;
+
+        try {
+            MapSqlParameterSource parameter = new MapSqlParameterSource()
+                    .addValue(OrderQuery.timeoutMinutes, newOrderTimeoutMinutes);
+            orderModelList = namedParameterJdbcTemplate.query(OrderQuery.getNewOrderByAge, parameter, OrderRowMapperLambda.orderByStatusRowMapperLambda);
+        } catch (Exception e) {
+            System.err.println(e.getClass().getName() + ": " + e.getMessage());
+        }
+
+        if (orderModelList == null || orderModelList.isEmpty())
+            return;
+
+        for (OrderModel orderModel : orderModelList)
+            orderModel.setOrderStatus(OrderStatus.TXN_FAILURE);
+        updateOrderStatusBulk(orderModelList);
+    }
+
     /**
      * This is a helper method to update the refund order
      */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void updatedRefundOrder() {
         List<OrderStatus> orderStatuses = new ArrayList<>();
         orderStatuses.add(OrderStatus.REFUND_INITIATED);
@@ -584,29 +1123,66 @@ public class OrderDaoImpl implements OrderDao {
             List<OrderModel> orderModelList = pendingOrderResponse.getData();
 
             if (orderModelList != null && !orderModelList.isEmpty()) {
+                List<TransactionModel> transactionModelList = new ArrayList<>();
                 for (OrderModel orderModel : orderModelList) {
                     Response<TransactionModel> transactionModelResponse = verifyOrderFromPaymentGateway(orderModel.getId(), Constant.refundFlag);
 
                     if (!transactionModelResponse.getData().getOrderModel().getOrderStatus().equals(OrderStatus.REFUND_INITIATED) &&
                             !transactionModelResponse.getData().getOrderModel().getOrderStatus().equals(OrderStatus.CANCELLED_BY_SELLER) &&
-                            !transactionModelResponse.getData().getOrderModel().getOrderStatus().equals(OrderStatus.CANCELLED_BY_USER)) {
-                        updateOrderStatus(transactionModelResponse.getData().getOrderModel());
-                        transactionDao.updatePendingTransaction(transactionModelResponse.getData());
-                    }
+                            !transactionModelResponse.getData().getOrderModel().getOrderStatus().equals(OrderStatus.CANCELLED_BY_USER))
+                        transactionModelList.add(transactionModelResponse.getData());
                 }
+
+                updateOrdersAndTransactions(transactionModelList);
             }
         }
     }
 
+    /**
+     * Writes the gateway status of the orders swept by the scheduled tasks, with one batch
+     * for the transactions and one bulk status update for the orders.
+     *
+     * @param transactionModelList List<TransactionModel>
+     * @implNote The transactions are written first, if the status update fails the orders keep
+     * their status and are swept again, rewriting the same transaction details.
+     */
+    private void updateOrdersAndTransactions(List<TransactionModel> transactionModelList) {
+        if (transactionModelList.isEmpty())
+            return;
+
+        List<OrderModel> orderModelList = new ArrayList<>(transactionModelList.size());
+        for (TransactionModel transactionModel : transactionModelList)
+            orderModelList.add(transactionModel.getOrderModel());
+
+        transactionDao.updatePendingTransactions(transactionModelList);
+        updateOrderStatusBulk(orderModelList);
+    }
+
+    /**
+     * Fetches the transaction token, a gateway error is treated as no token.
+     *
+     * @param orderModel OrderModel
+     * @param merchantId String
+     * @return the transaction token response of the payment gateway.
+     */
+    private Response<String> initiateTransaction(OrderModel orderModel, String merchantId) {
+        try {
+            return paymentResponse.initiateTransaction(orderModel, merchantId);
+        } catch (Exception e) {
+            System.err.println(e.getClass().getName() + ": " + e.getMessage());
+            return new Response<>();
+        }
+    }
+
     /**
      * This method contacts the payment gateway to check the status of transaction or status of refund.
      * If Flag is 1 then refund Status is checked else transaction status is checked.
      *
-     * @param orderId Integer
+     * @param orderId Long
      * @param flag    Integer
      * @return returns the status of the order after contacting the payment gateway
      */
-    private Response<TransactionModel> verifyOrderFromPaymentGateway(Integer orderId, String flag) {
+    private Response<TransactionModel> verifyOrderFromPaymentGateway(Long orderId, String flag) {
         Response<TransactionModel> response = new Response<>();
         TransactionModel transactionModel;
 
@@ -642,32 +1218,96 @@ public class OrderDaoImpl implements OrderDao {
 
 
     /**
-     * This is a helper method used to verify order details and check if the order can be accepted by the seller.
+     * Rejects the cart from the price book, before "place_order" is called.
+     *
+     * @param orderItemListModel OrderItemListModel
+     * @return the failure response if the price book proves the cart cannot be ordered,
+     * null if the cart has to be verified by "place_order".
+     * @implNote The price book is cached per instance, so a rejection from the cached book is checked
+     * again against a book read now. Only a rejection confirmed by the database is final, the cached
+     * book of the shop is evicted if it was stale. Any other outcome falls through to the procedure.
+     */
+    private Response<String> verifyQuote(OrderItemListModel orderItemListModel) {
+        if (getQuoteRejection(priceBookDao.getQuote(orderItemListModel), orderItemListModel) == null)
+            return null;
+
+        Response<String> response;
+        try {
+            response = getQuoteRejection(priceBookDao.getVerifiedQuotes(Collections.singletonList(orderItemListModel)).get(0), orderItemListModel);
+        } catch (Exception e) {
+            System.err.println(e.getClass().getName() + ": " + e.getMessage());
+            return null;
+        }
+
+        if (response == null)
+            priceBookDao.evictShop(orderItemListModel.getTransactionModel().getOrderModel().getShopModel().getId());
+        return response;
+    }
+
+    /**
+     * @return the failure response if the quote proves the cart cannot be ordered, null otherwise.
+     */
+    private static Response<String> getQuoteRejection(Response<OrderQuoteModel> quoteResponse, OrderItemListModel orderItemListModel) {
+        Integer code = quoteResponse.getCode();
+        Response<String> response = new Response<>();
+
+        if (code.equals(ErrorLog.CodeSuccess)) {
+            Double price = orderItemListModel.getTransactionModel().getOrderModel().getPrice();
+            if (price != null && quoteResponse.getData().getTotalPrice() == price.intValue())
+                return null;
+
+            response.setCode(ErrorLog.OPM1300);
+            response.setMessage(ErrorLog.OrderPriceMismatch);
+            response.prioritySet(Priority.HIGH);
+            return response;
+        }
+
+        if (code.equals(ErrorLog.RNAOC1266) || code.equals(ErrorLog.DONA1263) || code.equals(ErrorLog.INA1296)) {
+            response.setCode(code);
+            response.setMessage(quoteResponse.getMessage());
+            return response;
+        }
+
+        return null;
+    }
+
+    /**
+     * This is a helper method which verifies the order and inserts it in one database call.
      * -> Checks if the restaurant is accepting orders currently
      * -> Checks if the delivery option is available if the order type is delivery
-     * -> Checks if all items are available in a given shop
+     * -> Checks if all items are available in the given shop
      * -> Checks the total price of the order
+     * -> Inserts the order and its items
      *
      * @param orderItemListModel OrderItemListModel
-     * @return returns the status of the order after contacting the payment gateway
+     * @return merchant id of the shop if the order is inserted, the order id is set on the order model.
+     * @implNote The items are joined as a set (JSON_TABLE) inside the procedure, instead of one query per item.
+     * @implNote The order id is taken from the IdGenerator and passed in, the procedure inserts
+     * the order and its items without reading back a generated key.
      */
-    private Response<String> verifyPricing(OrderItemListModel orderItemListModel) {
+    private Response<String> insertOrderWithItems(OrderItemListModel orderItemListModel) {
         Response<String> response = new Response<>();
+        OrderModel orderModel = orderItemListModel.getTransactionModel().getOrderModel();
 
-        String orderTypeFlag = (orderItemListModel.getTransactionModel().getOrderModel().getDeliveryLocation() == null) ? Constant.pickUpOrderFlag : Constant.deliveryOrderFlag;
+        String orderTypeFlag = (orderModel.getDeliveryLocation() == null) ? Constant.pickUpOrderFlag : Constant.deliveryOrderFlag;
         String inputJson = Helper.toOrderItemJsonString(orderItemListModel.getOrderItemsList());
-
-        SimpleJdbcCall jdbcCall = new SimpleJdbcCall(namedParameterJdbcTemplate.getJdbcTemplate())
-                .withProcedureName(Constant.VerifyPricingProcedure.procedureName);
+        Long orderId = idGenerator.nextId();
 
         SqlParameterSource in = new MapSqlParameterSource()
-                .addValue(Constant.VerifyPricingProcedure.itemList, inputJson)
-                .addValue(Constant.VerifyPricingProcedure.shopId, orderItemListModel.getTransactionModel().getOrderModel().getShopModel().getId())
-                .addValue(Constant.VerifyPricingProcedure.orderType, orderTypeFlag);
-
-        Map<String, Object> out = jdbcCall.execute(in);
-        Integer totalPrice = (Integer) out.get(Constant.VerifyPricingProcedure.totalPrice);
-        String merchantId = (String) out.get(Constant.VerifyPricingProcedure.merchantId);
+                .addValue(Constant.PlaceOrderProcedure.itemList, inputJson)
+                .addValue(Constant.PlaceOrderProcedure.userId, orderModel.getUserModel().getId())
+                .addValue(Constant.PlaceOrderProcedure.shopId, orderModel.getShopModel().getId())
+                .addValue(Constant.PlaceOrderProcedure.orderType, orderTypeFlag)
+                .addValue(Constant.PlaceOrderProcedure.expectedPrice, orderModel.getPrice().intValue())
+                .addValue(Constant.PlaceOrderProcedure.price, orderModel.getPrice())
+                .addValue(Constant.PlaceOrderProcedure.deliveryPrice, orderModel.getDeliveryPrice())
+                .addValue(Constant.PlaceOrderProcedure.deliveryLocation, orderModel.getDeliveryLocation())
+                .addValue(Constant.PlaceOrderProcedure.cookingInfo, orderModel.getCookingInfo())
+                .addValue(Constant.PlaceOrderProcedure.orderId, orderId);
+
+        Map<String, Object> out = jdbcOperationRegistry.getPlaceOrderCall().execute(in);
+        Integer totalPrice = (Integer) out.get(Constant.PlaceOrderProcedure.totalPrice);
+        String merchantId = (String) out.get(Constant.PlaceOrderProcedure.merchantId);
 
         if (totalPrice != null) {
             if (totalPrice < 0) {
@@ -684,12 +1324,14 @@ public class OrderDaoImpl implements OrderDao {
                         response.setCode(ErrorLog.INA1296);
                         response.setMessage(ErrorLog.ItemsNotAvailable);
                         break;
+                    case -5:
+                        response.setCode(ErrorLog.OPM1300);
+                        response.setMessage(ErrorLog.OrderPriceMismatch);
+                        response.prioritySet(Priority.HIGH);
+                        break;
                 }
-            } else if (totalPrice != orderItemListModel.getTransactionModel().getOrderModel().getPrice().intValue()) {
-                response.setCode(ErrorLog.OPM1300);
-                response.setMessage(ErrorLog.OrderPriceMismatch);
-                response.prioritySet(Priority.HIGH);
             } else {
+                orderModel.setId(orderId);
                 response.setCode(ErrorLog.CodeSuccess);
                 response.setMessage(ErrorLog.Success);
                 response.setData(merchantId);
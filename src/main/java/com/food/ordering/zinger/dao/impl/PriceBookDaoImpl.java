@@ -0,0 +1,326 @@
+package com.food.ordering.zinger.dao.impl;
+
+import com.food.ordering.zinger.constant.Column.ConfigurationColumn;
+import com.food.ordering.zinger.constant.Column.ItemColumn;
+import com.food.ordering.zinger.constant.Enums.Priority;
+import com.food.ordering.zinger.constant.ErrorLog;
+import com.food.ordering.zinger.constant.Query.ItemQuery;
+import com.food.ordering.zinger.constant.Query.ShopQuery;
+import com.food.ordering.zinger.dao.interfaces.PriceBookDao;
+import com.food.ordering.zinger.model.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PriceBookDao keeps the price book of each shop in memory, i.e. the
+ * configuration (merchant id, delivery price, delivery and order flags)
+ * and the price and availability of every item of the shop.
+ * A cart is quoted from the price book with the same rules as
+ * the "place_order" procedure, so a warm book prices a cart
+ * without hitting the database.
+ *
+ * @implNote A shop is loaded on the first quote and expires after
+ * "zinger.price-book.ttl-seconds", at most "zinger.price-book.max-size" shops are kept.
+ * @implNote Every write to the item or configurations table must call
+ * {@link #evictShop(Integer)} or {@link #evictItems(List)}. The TTL only bounds
+ * how stale another instance of the service can be.
+ * @implNote The quote is advisory, "place_order" still verifies the
+ * price against the database before an order is inserted.
+ */
+@Repository
+public class PriceBookDaoImpl implements PriceBookDao {
+
+    @Autowired
+    NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Value("${zinger.price-book.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${zinger.price-book.max-size:1000}")
+    private int maxSize;
+
+    private final ConcurrentHashMap<Integer, ShopPriceBook> priceBooks = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, Integer> itemShops = new ConcurrentHashMap<>();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    /**
+     * Prices the cart from the price book of its shop.
+     *
+     * @param orderItemListModel OrderItemListModel
+     * @return the quote, along with the error code "place_order" would have
+     * returned if the cart is not orderable.
+     */
+    @Override
+    public Response<OrderQuoteModel> getQuote(OrderItemListModel orderItemListModel) {
+        Response<OrderQuoteModel> response = new Response<>();
+
+        try {
+            Integer shopId = orderItemListModel.getTransactionModel().getOrderModel().getShopModel().getId();
+            response = quote(getPriceBook(shopId), orderItemListModel);
+        } catch (Exception e) {
+            response.setCode(ErrorLog.CE1288);
+            System.err.println(e.getClass().getName() + ": " + e.getMessage());
+        }
+
+        return response;
+    }
+
+    /**
+     * Prices the carts from rows read now, bypassing the cached price books.
+     *
+     * @param orderItemListModelList List<OrderItemListModel>
+     * @return the quote of each cart, in the same order.
+     * @implNote Each shop is read once per call, within the caller's transaction.
+     * Database errors are thrown to the caller.
+     */
+    @Override
+    public List<Response<OrderQuoteModel>> getVerifiedQuotes(List<OrderItemListModel> orderItemListModelList) {
+        Map<Integer, ShopPriceBook> priceBooks = new HashMap<>();
+        List<Response<OrderQuoteModel>> responseList = new ArrayList<>(orderItemListModelList.size());
+
+        for (OrderItemListModel orderItemListModel : orderItemListModelList) {
+            Integer shopId = orderItemListModel.getTransactionModel().getOrderModel().getShopModel().getId();
+            ShopPriceBook priceBook = priceBooks.containsKey(shopId) ? priceBooks.get(shopId) : load(shopId);
+            priceBooks.put(shopId, priceBook);
+            responseList.add(quote(priceBook, orderItemListModel));
+        }
+
+        return responseList;
+    }
+
+    /**
+     * Drops the price book of the given shop.
+     *
+     * @param shopId Integer
+     * @implNote When invoked inside a transaction, the shop is evicted
+     * again after completion, so that a quote racing with the update
+     * cannot re-cache the old rows.
+     */
+    @Override
+    public void evictShop(Integer shopId) {
+        if (shopId == null)
+            return;
+
+        remove(shopId);
+        runAfterCompletion(() -> remove(shopId));
+    }
+
+    /**
+     * Drops the price books holding any of the given items.
+     *
+     * @param itemIdList List<Integer>
+     * @implNote The items are looked up again after completion,
+     * as the book of their shop may have been loaded in between.
+     */
+    @Override
+    public void evictItems(List<Integer> itemIdList) {
+        removeItems(itemIdList);
+        runAfterCompletion(() -> removeItems(itemIdList));
+    }
+
+    /**************************************************/
+
+    /**
+     * Prices the cart with the rules of the "place_order" procedure.
+     *
+     * @param priceBook          ShopPriceBook, null if the shop has no configuration.
+     * @param orderItemListModel OrderItemListModel
+     * @return the quote, along with the error code "place_order" would have
+     * returned if the cart is not orderable.
+     */
+    private static Response<OrderQuoteModel> quote(ShopPriceBook priceBook, OrderItemListModel orderItemListModel) {
+        Response<OrderQuoteModel> response = new Response<>();
+        OrderModel orderModel = orderItemListModel.getTransactionModel().getOrderModel();
+
+        if (priceBook == null) {
+            response.setCode(ErrorLog.SDNA1265);
+            response.setMessage(ErrorLog.ShopDetailNotAvailable);
+            return response;
+        }
+
+        OrderQuoteModel orderQuoteModel = new OrderQuoteModel();
+        orderQuoteModel.setShopId(orderModel.getShopModel().getId());
+        orderQuoteModel.setMerchantId(priceBook.merchantId);
+        response.setData(orderQuoteModel);
+
+        if (!priceBook.isOrderTaken) {
+            response.setCode(ErrorLog.RNAOC1266);
+            response.setMessage(ErrorLog.RestaurantNotAcceptingOrders);
+            return response;
+        }
+
+        if (orderModel.getDeliveryLocation() != null) {
+            if (!priceBook.isDeliveryAvailable) {
+                response.setCode(ErrorLog.DONA1263);
+                response.setMessage(ErrorLog.DeliveryOptionNotAvailable);
+                return response;
+            }
+            // get_delivery_price hands the delivery price over as an INT
+            orderQuoteModel.setDeliveryPrice((double) Math.round(priceBook.deliveryPrice));
+        }
+
+        List<OrderItemModel> orderItemModelList = orderItemListModel.getOrderItemsList();
+        double itemPrice = 0;
+        if (orderItemModelList != null) {
+            for (OrderItemModel orderItemModel : orderItemModelList) {
+                Integer itemId = orderItemModel.getItemModel().getId();
+                ItemPrice item = itemId == null ? null : priceBook.items.get(itemId);
+                if (item == null || !item.isOrderable)
+                    orderQuoteModel.getUnavailableItemIdList().add(itemId);
+                else if (orderItemModel.getQuantity() != null)
+                    itemPrice += item.price * orderItemModel.getQuantity();
+            }
+        }
+
+        if (orderItemModelList == null || orderItemModelList.isEmpty() || !orderQuoteModel.getUnavailableItemIdList().isEmpty()) {
+            response.setCode(ErrorLog.INA1296);
+            response.setMessage(ErrorLog.ItemsNotAvailable);
+            return response;
+        }
+
+        orderQuoteModel.setItemPrice(itemPrice);
+        orderQuoteModel.setTotalPrice((int) Math.round(itemPrice + orderQuoteModel.getDeliveryPrice()));
+
+        response.setCode(ErrorLog.CodeSuccess);
+        response.setMessage(ErrorLog.Success);
+        response.prioritySet(Priority.LOW);
+        return response;
+    }
+
+    private ShopPriceBook getPriceBook(Integer shopId) {
+        ShopPriceBook priceBook = priceBooks.get(shopId);
+        if (priceBook != null) {
+            if (priceBook.expiresAt - System.nanoTime() > 0)
+                return priceBook;
+            priceBooks.remove(shopId, priceBook);
+        }
+
+        long evictions = evictionCount.get();
+        priceBook = load(shopId);
+        if (priceBook == null)
+            return null;
+
+        if (priceBooks.size() >= maxSize) {
+            purgeExpired();
+            if (priceBooks.size() >= maxSize)
+                return priceBook;
+        }
+
+        for (Integer itemId : priceBook.items.keySet())
+            itemShops.put(itemId, shopId);
+
+        /*
+         *   A book loaded while an eviction ran may hold the old rows,
+         *   the eviction either removes it after the put or is seen below.
+         * */
+        priceBooks.put(shopId, priceBook);
+        if (evictionCount.get() != evictions)
+            priceBooks.remove(shopId, priceBook);
+
+        return priceBook;
+    }
+
+    private ShopPriceBook load(Integer shopId) {
+        SqlParameterSource configurationParameters = new MapSqlParameterSource()
+                .addValue(ConfigurationColumn.shopId, shopId);
+
+        List<ShopPriceBook> priceBookList = namedParameterJdbcTemplate.query(ShopQuery.getConfigurationByShopId, configurationParameters, (rs, rownum) ->
+                new ShopPriceBook(rs.getString(ConfigurationColumn.merchantId),
+                        rs.getDouble(ConfigurationColumn.deliveryPrice),
+                        rs.getInt(ConfigurationColumn.isDeliveryAvailable) == 1,
+                        rs.getInt(ConfigurationColumn.isOrderTaken) == 1,
+                        System.nanoTime() + TimeUnit.SECONDS.toNanos(ttlSeconds)));
+
+        if (priceBookList.isEmpty())
+            return null;
+
+        ShopPriceBook priceBook = priceBookList.get(0);
+        SqlParameterSource itemParameters = new MapSqlParameterSource()
+                .addValue(ItemColumn.shopId, shopId);
+
+        namedParameterJdbcTemplate.query(ItemQuery.getItemPricesByShopId, itemParameters, rs -> {
+            priceBook.items.put(rs.getInt(ItemColumn.id), new ItemPrice(rs.getDouble(ItemColumn.price),
+                    rs.getInt(ItemColumn.isAvailable) == 1 && rs.getInt(ItemColumn.isDelete) == 0));
+        });
+
+        return priceBook;
+    }
+
+    private void removeItems(List<Integer> itemIdList) {
+        Set<Integer> shopIds = new HashSet<>();
+        for (Integer itemId : itemIdList) {
+            Integer shopId = itemId == null ? null : itemShops.get(itemId);
+            if (shopId != null)
+                shopIds.add(shopId);
+        }
+
+        // an item of a shop being loaded right now is not mapped yet
+        evictionCount.incrementAndGet();
+        for (Integer shopId : shopIds)
+            remove(shopId);
+    }
+
+    private void runAfterCompletion(Runnable runnable) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    runnable.run();
+                }
+            });
+        }
+    }
+
+    private void remove(Integer shopId) {
+        evictionCount.incrementAndGet();
+        priceBooks.remove(shopId);
+    }
+
+    private void purgeExpired() {
+        long now = System.nanoTime();
+        priceBooks.values().removeIf(priceBook -> priceBook.expiresAt - now <= 0);
+    }
+
+    private static final class ShopPriceBook {
+        private final String merchantId;
+        private final double deliveryPrice;
+        private final boolean isDeliveryAvailable;
+        private final boolean isOrderTaken;
+        private final long expiresAt;
+        private final Map<Integer, ItemPrice> items = new HashMap<>();
+
+        private ShopPriceBook(String merchantId, double deliveryPrice, boolean isDeliveryAvailable, boolean isOrderTaken, long expiresAt) {
+            this.merchantId = merchantId;
+            this.deliveryPrice = deliveryPrice;
+            this.isDeliveryAvailable = isDeliveryAvailable;
+            this.isOrderTaken = isOrderTaken;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class ItemPrice {
+        private final double price;
+        private final boolean isOrderable;
+
+        private ItemPrice(double price, boolean isOrderable) {
+            this.price = price;
+            this.isOrderable = isOrderable;
+        }
+    }
+}
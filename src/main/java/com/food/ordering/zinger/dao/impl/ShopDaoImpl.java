@@ -5,6 +5,7 @@ import com.food.ordering.zinger.constant.Column.ShopColumn;
 import com.food.ordering.zinger.constant.Enums.Priority;
 import com.food.ordering.zinger.constant.ErrorLog;
 import com.food.ordering.zinger.constant.Query.ShopQuery;
+import com.food.ordering.zinger.dao.interfaces.PriceBookDao;
 import com.food.ordering.zinger.dao.interfaces.ShopDao;
 import com.food.ordering.zinger.exception.GenericException;
 import com.food.ordering.zinger.model.ConfigurationModel;
@@ -13,11 +14,11 @@ import com.food.ordering.zinger.model.ShopConfigurationModel;
 import com.food.ordering.zinger.model.ShopModel;
 import com.food.ordering.zinger.rowMapperLambda.ShopRowMapperLambda;
 import com.food.ordering.zinger.utils.Helper;
+import com.food.ordering.zinger.utils.JdbcOperationRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.core.namedparam.SqlParameterSource;
-import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -44,6 +45,12 @@ public class ShopDaoImpl implements ShopDao {
     @Autowired
     NamedParameterJdbcTemplate namedParameterJdbcTemplate;
 
+    @Autowired
+    JdbcOperationRegistry jdbcOperationRegistry;
+
+    @Autowired
+    PriceBookDao priceBookDao;
+
     /**
      * Inserts the shop details.
      * Authorized by SUPER_ADMIN only.
@@ -69,9 +76,7 @@ public class ShopDaoImpl implements ShopDao {
                 .addValue(ShopColumn.closingTime, shopModel.getClosingTime())
                 .addValue(ShopColumn.isDelete, 0);
 
-        SimpleJdbcInsert simpleJdbcInsert = new SimpleJdbcInsert(namedParameterJdbcTemplate.getJdbcTemplate());
-        simpleJdbcInsert.withTableName(ShopColumn.tableName).usingGeneratedKeyColumns(ShopColumn.id);
-        Number responseValue = simpleJdbcInsert.executeAndReturnKey(parameters);
+        Number responseValue = jdbcOperationRegistry.getShopInsert().executeAndReturnKey(parameters);
 
         if (responseValue.intValue() > 0) {
             configurationModel.getShopModel().setId(responseValue.intValue());
@@ -213,6 +218,7 @@ public class ShopDaoImpl implements ShopDao {
                     .addValue(ShopColumn.id, configurationModel.getShopModel().getId());
 
             int responseResult = namedParameterJdbcTemplate.update(ShopQuery.updateShop, parameters);
+            priceBookDao.evictShop(configurationModel.getShopModel().getId());
             if (responseResult > 0) {
                 response.setCode(ErrorLog.CodeSuccess);
                 response.setMessage(ErrorLog.Success);
@@ -243,6 +249,7 @@ public class ShopDaoImpl implements ShopDao {
                     .addValue(ShopColumn.id, shopId);
 
             int responseValue = namedParameterJdbcTemplate.update(ShopQuery.deleteShop, parameters);
+            priceBookDao.evictShop(shopId);
             if (responseValue > 0) {
                 response.setCode(ErrorLog.CodeSuccess);
                 response.setMessage(ErrorLog.Success);
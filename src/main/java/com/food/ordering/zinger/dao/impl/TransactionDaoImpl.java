@@ -6,11 +6,14 @@ import com.food.ordering.zinger.constant.Query.TransactionQuery;
 import com.food.ordering.zinger.dao.interfaces.TransactionDao;
 import com.food.ordering.zinger.model.Response;
 import com.food.ordering.zinger.model.TransactionModel;
+import com.food.ordering.zinger.utils.OrderCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 import static com.food.ordering.zinger.constant.Column.TransactionColumn.*;
 
 /**
@@ -23,6 +26,9 @@ public class TransactionDaoImpl implements TransactionDao {
     @Autowired
     NamedParameterJdbcTemplate namedParameterJdbcTemplate;
 
+    @Autowired
+    OrderCache orderCache;
+
     /**
      * This is a helper method to insert transaction details in the transaction table
      *
@@ -49,6 +55,7 @@ public class TransactionDaoImpl implements TransactionDao {
             int transactionResult = namedParameterJdbcTemplate.update(TransactionQuery.insertTransaction, parameter);
 
             if (transactionResult > 0) {
+                orderCache.evictOrder(transactionModel.getOrderModel().getId());
                 response.setCode(ErrorLog.CodeSuccess);
                 response.setMessage(ErrorLog.Success);
             }
@@ -74,8 +81,42 @@ public class TransactionDaoImpl implements TransactionDao {
                     .addValue(transactionId, transactionModel.getTransactionId());
 
             namedParameterJdbcTemplate.update(TransactionQuery.updateTransaction, parameter);
+            evictOrder(transactionModel);
+        } catch (Exception e) {
+            System.err.println(e.getClass().getName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * This is a helper method to update the transaction details of many orders in one batch
+     *
+     * @param transactionModelList List<TransactionModel>
+     */
+    @Override
+    public void updatePendingTransactions(List<TransactionModel> transactionModelList) {
+        if (transactionModelList.isEmpty())
+            return;
+
+        try {
+            MapSqlParameterSource[] parameters = new MapSqlParameterSource[transactionModelList.size()];
+            for (int i = 0; i < transactionModelList.size(); i++) {
+                TransactionModel transactionModel = transactionModelList.get(i);
+                parameters[i] = new MapSqlParameterSource()
+                        .addValue(responseCode, transactionModel.getResponseCode())
+                        .addValue(responseMessage, transactionModel.getResponseMessage())
+                        .addValue(transactionId, transactionModel.getTransactionId());
+            }
+
+            namedParameterJdbcTemplate.batchUpdate(TransactionQuery.updateTransaction, parameters);
+            for (TransactionModel transactionModel : transactionModelList)
+                evictOrder(transactionModel);
         } catch (Exception e) {
             System.err.println(e.getClass().getName() + ": " + e.getMessage());
         }
     }
+
+    private void evictOrder(TransactionModel transactionModel) {
+        if (transactionModel.getOrderModel() != null)
+            orderCache.evictOrder(transactionModel.getOrderModel().getId());
+    }
 }
@@ -10,18 +10,21 @@ import com.food.ordering.zinger.constant.Query.UserPlaceQuery;
 import com.food.ordering.zinger.constant.Query.UserQuery;
 import com.food.ordering.zinger.constant.Query.UserShopQuery;
 import com.food.ordering.zinger.dao.interfaces.UserDao;
+import com.food.ordering.zinger.interceptor.RequestHeaderCache;
+import com.food.ordering.zinger.interceptor.SessionTokenCodec;
 import com.food.ordering.zinger.model.*;
 import com.food.ordering.zinger.model.notification.UserNotificationModel;
 import com.food.ordering.zinger.rowMapperLambda.UserRowMapperLambda;
+import com.food.ordering.zinger.utils.JdbcOperationRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.core.namedparam.SqlParameterSource;
-import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import static com.food.ordering.zinger.constant.ErrorLog.*;
@@ -49,6 +52,15 @@ public class UserDaoImpl implements UserDao {
     @Autowired
     NotifyDaoImpl notifyDaoImpl;
 
+    @Autowired
+    RequestHeaderCache requestHeaderCache;
+
+    @Autowired
+    SessionTokenCodec sessionTokenCodec;
+
+    @Autowired
+    JdbcOperationRegistry jdbcOperationRegistry;
+
     /**
      * Customer Authentication
      * Handles both Login/Register process.
@@ -57,6 +69,7 @@ public class UserDaoImpl implements UserDao {
      * @return whether the user credentials exist, along with the
      * details of the user and place he(she) belongs.
      * @implNote If the user credentials doesn't exist, then registration process is executed.
+     * @implNote A signed session token is attached when session tokens are enabled.
      */
     @Override
     public Response<UserPlaceModel> loginRegisterCustomer(UserModel user) {
@@ -98,6 +111,7 @@ public class UserDaoImpl implements UserDao {
                 } else {
                     Number responseValue = insertUser(user);
                     if (responseValue != null && responseValue.intValue() > 0) {
+                        requestHeaderCache.evictUser(responseValue.intValue());
                         user.setId(responseValue.intValue());
                         user.setMobile(null);
                         user.setOauthId(null);
@@ -120,6 +134,11 @@ public class UserDaoImpl implements UserDao {
             System.err.println(e.getClass().getName() + ": " + e.getMessage());
         }
 
+        if (response.getData() != null && response.getData().getUserModel() != null) {
+            UserModel userModel = response.getData().getUserModel();
+            response.getData().setSessionToken(sessionTokenCodec.issue(userModel.getId(), userModel.getRole(), Collections.emptyList()));
+        }
+
         return response;
     }
 
@@ -140,9 +159,7 @@ public class UserDaoImpl implements UserDao {
                     .addValue(UserColumn.role, userModel.getRole().name())
                     .addValue(UserColumn.isDelete, 0);
 
-            SimpleJdbcInsert simpleJdbcInsert = new SimpleJdbcInsert(namedParameterJdbcTemplate.getJdbcTemplate());
-            simpleJdbcInsert.withTableName(UserColumn.tableName).usingGeneratedKeyColumns(UserColumn.id);
-            return simpleJdbcInsert.executeAndReturnKey(parameters);
+            return jdbcOperationRegistry.getUserInsert().executeAndReturnKey(parameters);
         } catch (Exception e) {
             System.err.println(e.getClass().getName() + ": " + e.getMessage());
         }
@@ -156,6 +173,7 @@ public class UserDaoImpl implements UserDao {
      * @param user UserModel
      * @return whether the user credentials matches with our database,
      * along with the details of the seller and shop he(she) works.
+     * @implNote The signed session token, when enabled, carries the ids of these shops.
      */
     @Override
     public Response<UserShopListModel> verifySeller(UserModel user) {
@@ -178,7 +196,9 @@ public class UserDaoImpl implements UserDao {
                 userShopListModel.setUserModel(sellerLoginResponseList.get(0).getUserModel());
 
                 List<ShopConfigurationModel> shopConfigurationModelList = new ArrayList<>();
+                List<Integer> shopIdList = new ArrayList<>();
                 for (SellerLoginResponse sellerLoginResponse : sellerLoginResponseList) {
+                    shopIdList.add(sellerLoginResponse.getShopModel().getId());
                     ShopConfigurationModel shopConfigurationModel = new ShopConfigurationModel();
                     shopConfigurationModel.setShopModel(sellerLoginResponse.getShopModel());
                     shopConfigurationModel.setConfigurationModel(sellerLoginResponse.getConfigurationModel());
@@ -186,6 +206,8 @@ public class UserDaoImpl implements UserDao {
                     shopConfigurationModelList.add(shopConfigurationModel);
                 }
                 userShopListModel.setShopModelList(shopConfigurationModelList);
+                userShopListModel.setSessionToken(sessionTokenCodec.issue(userShopListModel.getUserModel().getId(),
+                        userShopListModel.getUserModel().getRole(), shopIdList));
 
                 response.prioritySet(Priority.LOW);
                 response.setCode(CodeSuccess);
@@ -242,10 +264,13 @@ public class UserDaoImpl implements UserDao {
      *
      * @param user UserModel
      * @return success response if the update is successful.
+     * @implNote Cached request headers of the user are evicted, since
+     * the oauth id is part of the cache key.
      */
     @Override
     public Response<String> updateUser(UserModel user) {
         Response<String> response = new Response<>();
+        requestHeaderCache.evictUser(user.getId());
 
         SqlParameterSource parameters = new MapSqlParameterSource()
                 .addValue(UserColumn.name, user.getName())
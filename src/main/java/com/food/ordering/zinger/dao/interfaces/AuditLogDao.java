@@ -2,7 +2,15 @@ package com.food.ordering.zinger.dao.interfaces;
 
 import com.food.ordering.zinger.model.Response;
 import com.food.ordering.zinger.model.logger.ApplicationLogModel;
+import com.food.ordering.zinger.model.logger.AuditLogMetricsModel;
+import com.food.ordering.zinger.model.logger.AuditLogSearchModel;
+
+import java.util.List;
 
 public interface AuditLogDao {
     Response<String> insertLog(ApplicationLogModel applicationLogModel);
+
+    Response<AuditLogMetricsModel> getMetrics();
+
+    Response<List<ApplicationLogModel>> getLogs(AuditLogSearchModel auditLogSearchModel);
 }
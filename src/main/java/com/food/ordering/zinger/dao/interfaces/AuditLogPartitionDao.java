@@ -0,0 +1,5 @@
+package com.food.ordering.zinger.dao.interfaces;
+
+public interface AuditLogPartitionDao {
+    void maintainPartitions();
+}
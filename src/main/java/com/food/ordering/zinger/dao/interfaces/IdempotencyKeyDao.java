@@ -0,0 +1,12 @@
+package com.food.ordering.zinger.dao.interfaces;
+
+import com.food.ordering.zinger.model.Response;
+
+import java.lang.reflect.Type;
+import java.util.function.Supplier;
+
+public interface IdempotencyKeyDao {
+    <T> Response<T> execute(String scope, String requestKey, Type responseType, Supplier<Response<T>> request);
+
+    void deleteExpiredKeys();
+}
@@ -4,6 +4,8 @@ import com.food.ordering.zinger.model.OrderItemListModel;
 import com.food.ordering.zinger.model.Response;
 import com.food.ordering.zinger.model.notification.NotificationModel;
 
+import java.util.List;
+
 public interface NotifyDao {
 
 
@@ -12,4 +14,6 @@ public interface NotifyDao {
     void notifyOrderStatusToSeller(Response<OrderItemListModel> response);
 
     void notifyOrderStatus(Response<OrderItemListModel> response);
+
+    void notifyOrderStatusBulk(Response<List<OrderItemListModel>> response);
 }
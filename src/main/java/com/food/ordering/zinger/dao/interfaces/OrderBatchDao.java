@@ -0,0 +1,8 @@
+package com.food.ordering.zinger.dao.interfaces;
+
+import com.food.ordering.zinger.model.OrderItemListModel;
+import com.food.ordering.zinger.model.Response;
+
+public interface OrderBatchDao {
+    Response<String> insertOrderWithItems(OrderItemListModel orderItemListModel);
+}
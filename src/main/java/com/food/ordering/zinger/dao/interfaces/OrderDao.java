@@ -1,17 +1,22 @@
 package com.food.ordering.zinger.dao.interfaces;
 
+import com.food.ordering.zinger.constant.Enums.OrderStatus;
 import com.food.ordering.zinger.exception.GenericException;
 import com.food.ordering.zinger.model.OrderItemListModel;
 import com.food.ordering.zinger.model.OrderModel;
+import com.food.ordering.zinger.model.OrderPageModel;
+import com.food.ordering.zinger.model.OrderStatusResultModel;
 import com.food.ordering.zinger.model.Response;
 import com.food.ordering.zinger.model.TransactionTokenModel;
+import com.food.ordering.zinger.utils.OrderCursor;
 
 import java.util.List;
+import java.util.Map;
 
 public interface OrderDao {
     Response<TransactionTokenModel> insertOrder(OrderItemListModel orderItemListModel) throws GenericException;
 
-    Response<String> placeOrder(Integer orderId);
+    Response<String> placeOrder(Long orderId);
 
     /**************************************************/
 
@@ -21,9 +26,19 @@ public interface OrderDao {
 
     Response<List<OrderItemListModel>> getOrderByShopIdPagination(Integer shopId, Integer pageNum, Integer pageCount);
 
+    Response<OrderPageModel> getOrderByUserIdCursor(Integer userId, OrderCursor cursor, Integer pageCount);
+
+    Response<OrderPageModel> getOrderBySearchQueryCursor(Integer shopId, String searchItem, OrderCursor cursor, Integer pageCount);
+
+    Response<OrderPageModel> getOrderByShopIdCursor(Integer shopId, OrderCursor cursor, Integer pageCount);
+
     Response<List<OrderItemListModel>> getOrderByShopId(Integer shopId);
 
-    Response<OrderItemListModel> getOrderById(Integer orderId);
+    Response<Map<OrderStatus, Integer>> getOrderCountByShopId(Integer shopId);
+
+    Response<OrderItemListModel> getOrderById(Long orderId);
+
+    Response<List<OrderItemListModel>> getOrderByIdList(List<Long> orderIdList);
 
     /**************************************************/
 
@@ -31,9 +46,15 @@ public interface OrderDao {
 
     Response<String> updateOrderStatus(OrderModel orderModel);
 
+    Response<List<OrderStatusResultModel>> updateOrderStatusBulk(List<OrderModel> orderModelList);
+
     /**************************************************/
 
     void updatePendingOrder();
 
+    void updateTimedOutNewOrder();
+
     void updatedRefundOrder();
+
+    void repairActiveOrderView();
 }
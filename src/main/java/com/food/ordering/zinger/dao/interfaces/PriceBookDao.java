@@ -0,0 +1,17 @@
+package com.food.ordering.zinger.dao.interfaces;
+
+import com.food.ordering.zinger.model.OrderItemListModel;
+import com.food.ordering.zinger.model.OrderQuoteModel;
+import com.food.ordering.zinger.model.Response;
+
+import java.util.List;
+
+public interface PriceBookDao {
+    Response<OrderQuoteModel> getQuote(OrderItemListModel orderItemListModel);
+
+    List<Response<OrderQuoteModel>> getVerifiedQuotes(List<OrderItemListModel> orderItemListModelList);
+
+    void evictShop(Integer shopId);
+
+    void evictItems(List<Integer> itemIdList);
+}
@@ -3,8 +3,12 @@ package com.food.ordering.zinger.dao.interfaces;
 import com.food.ordering.zinger.model.Response;
 import com.food.ordering.zinger.model.TransactionModel;
 
+import java.util.List;
+
 public interface TransactionDao {
     Response<String> insertTransactionDetails(TransactionModel transactionModel);
 
     void updatePendingTransaction(TransactionModel transactionModel);
+
+    void updatePendingTransactions(List<TransactionModel> transactionModelList);
 }
@@ -0,0 +1,113 @@
+package com.food.ordering.zinger.interceptor;
+
+import com.food.ordering.zinger.model.RequestHeaderModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RequestHeaderCache holds the outcome of the request header(RH)
+ * validation, so that a warm cache authenticates a request
+ * without hitting the Users table.
+ *
+ * @implNote Entries are keyed by (oauthId, id, role) and expire after
+ * "zinger.auth.cache.ttl-seconds". Invalid headers are cached as well,
+ * but only for "zinger.auth.cache.negative-ttl-seconds".
+ * @implNote The cache never grows beyond "zinger.auth.cache.max-size",
+ * once full new entries are simply not cached until expired ones are purged.
+ * @implNote Every write that changes the identity of a user must call
+ * {@link #evictUser(Integer)}.
+ */
+@Component
+public class RequestHeaderCache {
+
+    @Value("${zinger.auth.cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${zinger.auth.cache.negative-ttl-seconds:30}")
+    private long negativeTtlSeconds;
+
+    @Value("${zinger.auth.cache.max-size:50000}")
+    private int maxSize;
+
+    private final ConcurrentHashMap<RequestHeaderModel, Entry> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Looks up the validation result of the given request header.
+     *
+     * @param requestHeaderModel RequestHeaderModel
+     * @return true if the header is known to be valid, false if it is known
+     * to be invalid and null if the database has to be consulted.
+     */
+    public Boolean get(RequestHeaderModel requestHeaderModel) {
+        Entry entry = cache.get(requestHeaderModel);
+        if (entry == null)
+            return null;
+
+        if (entry.expiresAt - System.nanoTime() <= 0) {
+            cache.remove(requestHeaderModel, entry);
+            return null;
+        }
+        return entry.valid;
+    }
+
+    /**
+     * Caches the validation result of the given request header.
+     *
+     * @param requestHeaderModel RequestHeaderModel
+     * @param valid              boolean
+     */
+    public void put(RequestHeaderModel requestHeaderModel, boolean valid) {
+        if (cache.size() >= maxSize) {
+            purgeExpired();
+            if (cache.size() >= maxSize)
+                return;
+        }
+
+        long ttl = valid ? ttlSeconds : negativeTtlSeconds;
+        cache.put(requestHeaderModel, new Entry(valid, System.nanoTime() + TimeUnit.SECONDS.toNanos(ttl)));
+    }
+
+    /**
+     * Removes every cached header of the given user.
+     *
+     * @param userId Integer
+     * @implNote When invoked inside a transaction, the user is evicted
+     * again after commit, so that a request racing with the update
+     * cannot re-cache the old row.
+     */
+    public void evictUser(Integer userId) {
+        if (userId == null)
+            return;
+
+        cache.keySet().removeIf(key -> userId.equals(key.getId()));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.keySet().removeIf(key -> userId.equals(key.getId()));
+                }
+            });
+        }
+    }
+
+    private void purgeExpired() {
+        long now = System.nanoTime();
+        cache.values().removeIf(entry -> entry.expiresAt - now <= 0);
+    }
+
+    private static final class Entry {
+        private final boolean valid;
+        private final long expiresAt;
+
+        private Entry(boolean valid, long expiresAt) {
+            this.valid = valid;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.food.ordering.zinger.interceptor;
+
+import com.food.ordering.zinger.constant.Enums.UserRole;
+import com.food.ordering.zinger.utils.PathPrefixTrie;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.food.ordering.zinger.constant.ApiConfig.*;
+import static com.food.ordering.zinger.constant.ApiConfig.ItemApi.insertItem;
+import static com.food.ordering.zinger.constant.ApiConfig.ItemApi.updateItem;
+import static com.food.ordering.zinger.constant.ApiConfig.ShopApi.updateShopConfiguration;
+import static com.food.ordering.zinger.constant.ApiConfig.UserApi.loginRegisterCustomer;
+import static com.food.ordering.zinger.constant.ApiConfig.UserApi.verifySeller;
+import static org.springframework.http.HttpMethod.*;
+
+/**
+ * RoutePermissionMatcher resolves the permission required by a request
+ * from its http method and url prefix.
+ *
+ * @implNote The rules are compiled once into a trie per http method.
+ * When several role prefixes match a request, the strongest role wins
+ * (SUPER_ADMIN over SHOP_OWNER over SELLER), while a whitelisted prefix only
+ * covers the urls no longer role prefix claims. Both are folded into the
+ * longest prefix at startup, so a lookup is a single walk.
+ */
+@Component
+public class RoutePermissionMatcher {
+
+    /**
+     * Permissions in increasing order of precedence.
+     */
+    public enum RoutePermission {
+        AUTHENTICATED(),
+        SELLER(UserRole.SELLER, UserRole.DELIVERY, UserRole.SHOP_OWNER, UserRole.SUPER_ADMIN),
+        SHOP_OWNER(UserRole.SHOP_OWNER, UserRole.SUPER_ADMIN),
+        SUPER_ADMIN(UserRole.SUPER_ADMIN),
+        WHITELIST();
+
+        private final String[] roles;
+
+        RoutePermission(UserRole... userRoles) {
+            roles = new String[userRoles.length];
+            for (int i = 0; i < userRoles.length; i++)
+                roles[i] = userRoles[i].name();
+        }
+
+        public boolean allows(String role) {
+            if (this == AUTHENTICATED || this == WHITELIST)
+                return true;
+            for (String allowedRole : roles) {
+                if (allowedRole.equals(role))
+                    return true;
+            }
+            return false;
+        }
+    }
+
+    private final List<Rule> rules = new ArrayList<>();
+    private final PathPrefixTrie<RoutePermission>[] tries;
+
+    @SuppressWarnings("unchecked")
+    public RoutePermissionMatcher() {
+        rule(POST, UserApi.BASE_URL + loginRegisterCustomer, RoutePermission.WHITELIST);
+        rule(POST, UserApi.BASE_URL + verifySeller, RoutePermission.WHITELIST);
+        rule(GET, EMPTY_QUOTES, RoutePermission.WHITELIST);
+
+        rule(POST, ShopApi.BASE_URL, RoutePermission.SUPER_ADMIN);
+        rule(DELETE, ShopApi.BASE_URL, RoutePermission.SUPER_ADMIN);
+        rule(POST, PlaceApi.BASE_URL, RoutePermission.SUPER_ADMIN);
+        rule(POST, NotifyApi.BASE_URL + NotifyApi.notifyUrl, RoutePermission.SUPER_ADMIN);
+        rule(POST, NotifyApi.BASE_URL + NotifyApi.notifyNewArrival, RoutePermission.SUPER_ADMIN);
+        rule(GET, AuditApi.BASE_URL, RoutePermission.SUPER_ADMIN);
+        rule(POST, AuditApi.BASE_URL, RoutePermission.SUPER_ADMIN);
+
+        rule(PATCH, ShopApi.BASE_URL + updateShopConfiguration, RoutePermission.SHOP_OWNER);
+        rule(GET, UserApi.BASE_URL + "/seller/", RoutePermission.SHOP_OWNER);
+        rule(DELETE, UserApi.BASE_URL + "/seller/", RoutePermission.SHOP_OWNER);
+
+        rule(POST, ItemApi.BASE_URL + insertItem, RoutePermission.SELLER);
+        rule(PATCH, ItemApi.BASE_URL + updateItem, RoutePermission.SELLER);
+        rule(DELETE, ItemApi.BASE_URL + "/delete/", RoutePermission.SELLER);
+        rule(DELETE, ItemApi.BASE_URL + "/undelete/", RoutePermission.SELLER);
+        rule(PATCH, OrderApi.BASE_URL + OrderApi.updateOrderStatusBulk, RoutePermission.SELLER);
+        rule(GET, OrderApi.BASE_URL + "/stream/", RoutePermission.SELLER);
+
+        tries = new PathPrefixTrie[HttpMethod.values().length];
+        for (HttpMethod httpMethod : HttpMethod.values())
+            tries[httpMethod.ordinal()] = new PathPrefixTrie<>();
+
+        for (Rule rule : rules) {
+            RoutePermission permission = rule.permission;
+            for (Rule other : rules) {
+                if (permission != RoutePermission.WHITELIST && other.permission != RoutePermission.WHITELIST
+                        && other.httpMethod == rule.httpMethod && rule.prefix.startsWith(other.prefix)
+                        && other.permission.compareTo(permission) > 0)
+                    permission = other.permission;
+            }
+            tries[rule.httpMethod.ordinal()].put(rule.prefix, permission);
+        }
+    }
+
+    /**
+     * Resolves the permission required for the request.
+     *
+     * @param method String
+     * @param url    String
+     * @return the permission folded into the longest matching prefix,
+     * AUTHENTICATED if no rule matches.
+     */
+    public RoutePermission match(String method, String url) {
+        HttpMethod httpMethod = HttpMethod.resolve(method);
+        if (httpMethod == null)
+            return RoutePermission.AUTHENTICATED;
+
+        RoutePermission permission = tries[httpMethod.ordinal()].match(url);
+        return permission == null ? RoutePermission.AUTHENTICATED : permission;
+    }
+
+    private void rule(HttpMethod httpMethod, String prefix, RoutePermission permission) {
+        rules.add(new Rule(httpMethod, prefix, permission));
+    }
+
+    private static final class Rule {
+        private final HttpMethod httpMethod;
+        private final String prefix;
+        private final RoutePermission permission;
+
+        private Rule(HttpMethod httpMethod, String prefix, RoutePermission permission) {
+            this.httpMethod = httpMethod;
+            this.prefix = prefix;
+            this.permission = permission;
+        }
+    }
+}
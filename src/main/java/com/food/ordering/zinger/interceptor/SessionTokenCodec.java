@@ -0,0 +1,153 @@
+package com.food.ordering.zinger.interceptor;
+
+import com.food.ordering.zinger.constant.Constant.SessionToken;
+import com.food.ordering.zinger.constant.Enums.UserRole;
+import com.food.ordering.zinger.model.SessionTokenModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * SessionTokenCodec issues and verifies the stateless session tokens
+ * handed out during login.
+ * <p>
+ * A token is "payload.signature", both base64url encoded, where the payload is
+ * "version|userId|role|shopId,shopId,..|expiresAt" and the signature is the
+ * HMAC-SHA256 of the encoded payload with "zinger.session.secret".
+ *
+ * @implNote Tokens are disabled when no secret is configured, clients then
+ * keep authenticating with the oauth_id, id and role headers.
+ * @implNote A token stays valid until it expires, so role or shop changes
+ * are picked up on the next login (at most "zinger.session.ttl-seconds" later).
+ */
+@Component
+public class SessionTokenCodec {
+
+    private static final String algorithm = "HmacSHA256";
+    private static final Pattern fieldPattern = Pattern.compile(Pattern.quote(SessionToken.fieldSeparator));
+
+    @Value("${zinger.session.secret:}")
+    private String secret;
+
+    @Value("${zinger.session.ttl-seconds:86400}")
+    private long ttlSeconds;
+
+    private SecretKeySpec secretKey;
+
+    private final ThreadLocal<Mac> macThreadLocal = ThreadLocal.withInitial(this::newMac);
+
+    @PostConstruct
+    public void init() {
+        if (secret != null && !secret.trim().isEmpty())
+            secretKey = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), algorithm);
+    }
+
+    public boolean isEnabled() {
+        return secretKey != null;
+    }
+
+    /**
+     * Issues a signed token for the given user.
+     *
+     * @param userId     Integer
+     * @param role       UserRole
+     * @param shopIdList List
+     * @return the token, null if tokens are disabled.
+     */
+    public String issue(Integer userId, UserRole role, List<Integer> shopIdList) {
+        if (!isEnabled() || userId == null || role == null)
+            return null;
+
+        StringBuilder payload = new StringBuilder()
+                .append(SessionToken.version).append(SessionToken.fieldSeparator)
+                .append(userId).append(SessionToken.fieldSeparator)
+                .append(role.name()).append(SessionToken.fieldSeparator);
+
+        for (int i = 0; i < shopIdList.size(); i++) {
+            if (i > 0)
+                payload.append(SessionToken.listSeparator);
+            payload.append(shopIdList.get(i));
+        }
+
+        long expiresAt = System.currentTimeMillis() / 1000 + ttlSeconds;
+        payload.append(SessionToken.fieldSeparator).append(expiresAt);
+
+        String encodedPayload = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(payload.toString().getBytes(StandardCharsets.UTF_8));
+        return encodedPayload + SessionToken.signatureSeparator + sign(encodedPayload);
+    }
+
+    /**
+     * Verifies the signature and expiry of the token.
+     *
+     * @param token String
+     * @return the claims of the token, null if the token is
+     * malformed, tampered or expired.
+     */
+    public SessionTokenModel verify(String token) {
+        if (!isEnabled() || token == null)
+            return null;
+
+        int separatorIndex = token.lastIndexOf(SessionToken.signatureSeparator);
+        if (separatorIndex <= 0)
+            return null;
+
+        String encodedPayload = token.substring(0, separatorIndex);
+        byte[] expected = sign(encodedPayload).getBytes(StandardCharsets.US_ASCII);
+        byte[] actual = token.substring(separatorIndex + 1).getBytes(StandardCharsets.US_ASCII);
+        if (!MessageDigest.isEqual(expected, actual))
+            return null;
+
+        try {
+            String payload = new String(Base64.getUrlDecoder().decode(encodedPayload), StandardCharsets.UTF_8);
+            String[] fields = fieldPattern.split(payload, -1);
+            if (fields.length != 5 || !fields[0].equals(SessionToken.version))
+                return null;
+
+            long expiresAt = Long.parseLong(fields[4]);
+            if (expiresAt <= System.currentTimeMillis() / 1000)
+                return null;
+
+            SessionTokenModel sessionTokenModel = new SessionTokenModel();
+            sessionTokenModel.setUserId(Integer.parseInt(fields[1]));
+            sessionTokenModel.setRole(UserRole.valueOf(fields[2]));
+            sessionTokenModel.setExpiresAt(expiresAt);
+
+            List<Integer> shopIdList = new ArrayList<>();
+            if (!fields[3].isEmpty()) {
+                for (String shopId : fields[3].split(SessionToken.listSeparator))
+                    shopIdList.add(Integer.parseInt(shopId));
+            }
+            sessionTokenModel.setShopIdList(shopIdList);
+            return sessionTokenModel;
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getClass().getName() + ": " + e.getMessage());
+        }
+        return null;
+    }
+
+    private String sign(String encodedPayload) {
+        byte[] signature = macThreadLocal.get().doFinal(encodedPayload.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(algorithm);
+            mac.init(secretKey);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
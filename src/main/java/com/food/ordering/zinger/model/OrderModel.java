@@ -6,7 +6,7 @@ import com.food.ordering.zinger.constant.Enums.OrderStatus;
 import java.sql.Timestamp;
 
 public class OrderModel {
-    private Integer id;
+    private Long id;
     private UserModel userModel;
     private ShopModel shopModel;
 
@@ -28,11 +28,11 @@ public class OrderModel {
         shopModel = new ShopModel();
     }
 
-    public Integer getId() {
+    public Long getId() {
         return id;
     }
 
-    public void setId(Integer id) {
+    public void setId(Long id) {
         this.id = id;
     }
 
@@ -0,0 +1,40 @@
+package com.food.ordering.zinger.model;
+
+import java.util.List;
+
+public class OrderPageModel {
+    private List<OrderItemListModel> orderList;
+    private String nextCursor;
+
+    public OrderPageModel() {
+    }
+
+    public OrderPageModel(List<OrderItemListModel> orderList, String nextCursor) {
+        this.orderList = orderList;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<OrderItemListModel> getOrderList() {
+        return orderList;
+    }
+
+    public void setOrderList(List<OrderItemListModel> orderList) {
+        this.orderList = orderList;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderPageModel{" +
+                "orderList=" + orderList +
+                ", nextCursor='" + nextCursor + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,83 @@
+package com.food.ordering.zinger.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class OrderQuoteModel {
+
+    private Integer shopId;
+    private Double itemPrice;
+    private Double deliveryPrice;
+    private Integer totalPrice;
+    private List<Integer> unavailableItemIdList;
+
+    @JsonIgnore
+    private String merchantId;
+
+    public OrderQuoteModel() {
+        itemPrice = 0.0;
+        deliveryPrice = 0.0;
+        unavailableItemIdList = new ArrayList<>();
+    }
+
+    public Integer getShopId() {
+        return shopId;
+    }
+
+    public void setShopId(Integer shopId) {
+        this.shopId = shopId;
+    }
+
+    public Double getItemPrice() {
+        return itemPrice;
+    }
+
+    public void setItemPrice(Double itemPrice) {
+        this.itemPrice = itemPrice;
+    }
+
+    public Double getDeliveryPrice() {
+        return deliveryPrice;
+    }
+
+    public void setDeliveryPrice(Double deliveryPrice) {
+        this.deliveryPrice = deliveryPrice;
+    }
+
+    public Integer getTotalPrice() {
+        return totalPrice;
+    }
+
+    public void setTotalPrice(Integer totalPrice) {
+        this.totalPrice = totalPrice;
+    }
+
+    public List<Integer> getUnavailableItemIdList() {
+        return unavailableItemIdList;
+    }
+
+    public void setUnavailableItemIdList(List<Integer> unavailableItemIdList) {
+        this.unavailableItemIdList = unavailableItemIdList;
+    }
+
+    public String getMerchantId() {
+        return merchantId;
+    }
+
+    public void setMerchantId(String merchantId) {
+        this.merchantId = merchantId;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderQuoteModel{" +
+                "shopId=" + shopId +
+                ", itemPrice=" + itemPrice +
+                ", deliveryPrice=" + deliveryPrice +
+                ", totalPrice=" + totalPrice +
+                ", unavailableItemIdList=" + unavailableItemIdList +
+                '}';
+    }
+}
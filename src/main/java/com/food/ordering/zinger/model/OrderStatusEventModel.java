@@ -0,0 +1,40 @@
+package com.food.ordering.zinger.model;
+
+import com.food.ordering.zinger.constant.Enums;
+
+public class OrderStatusEventModel {
+    private Long orderId;
+    private Enums.OrderStatus orderStatus;
+
+    public OrderStatusEventModel() {
+    }
+
+    public OrderStatusEventModel(Long orderId, Enums.OrderStatus orderStatus) {
+        this.orderId = orderId;
+        this.orderStatus = orderStatus;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public Enums.OrderStatus getOrderStatus() {
+        return orderStatus;
+    }
+
+    public void setOrderStatus(Enums.OrderStatus orderStatus) {
+        this.orderStatus = orderStatus;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderStatusEventModel{" +
+                "orderId=" + orderId +
+                ", orderStatus=" + orderStatus +
+                '}';
+    }
+}
@@ -6,18 +6,18 @@ import com.food.ordering.zinger.constant.Enums;
 import java.sql.Timestamp;
 
 public class OrderStatusModel {
-    private Integer orderId;
+    private Long orderId;
 
     private Enums.OrderStatus status;
 
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd/MM/yyyy HH:mm:ss", timezone = "Asia/Kolkata")
     private Timestamp updatedTime;
 
-    public Integer getOrderId() {
+    public Long getOrderId() {
         return orderId;
     }
 
-    public void setOrderId(Integer orderId) {
+    public void setOrderId(Long orderId) {
         this.orderId = orderId;
     }
 
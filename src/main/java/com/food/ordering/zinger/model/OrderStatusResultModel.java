@@ -0,0 +1,60 @@
+package com.food.ordering.zinger.model;
+
+import com.food.ordering.zinger.constant.Enums;
+
+public class OrderStatusResultModel {
+    private Long orderId;
+    private Enums.OrderStatus orderStatus;
+    private Integer code;
+    private String message;
+
+    public OrderStatusResultModel() {
+    }
+
+    public OrderStatusResultModel(Long orderId, Enums.OrderStatus orderStatus) {
+        this.orderId = orderId;
+        this.orderStatus = orderStatus;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public Enums.OrderStatus getOrderStatus() {
+        return orderStatus;
+    }
+
+    public void setOrderStatus(Enums.OrderStatus orderStatus) {
+        this.orderStatus = orderStatus;
+    }
+
+    public Integer getCode() {
+        return code;
+    }
+
+    public void setCode(Integer code) {
+        this.code = code;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderStatusResultModel{" +
+                "orderId=" + orderId +
+                ", orderStatus=" + orderStatus +
+                ", code=" + code +
+                ", message='" + message + '\'' +
+                '}';
+    }
+}
@@ -1,5 +1,7 @@
 package com.food.ordering.zinger.model;
 
+import java.util.Objects;
+
 public class RequestHeaderModel {
     String oauthId;
     Integer id;
@@ -38,6 +40,21 @@ public class RequestHeaderModel {
         this.id = id;
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RequestHeaderModel that = (RequestHeaderModel) o;
+        return Objects.equals(oauthId, that.oauthId) &&
+                Objects.equals(id, that.id) &&
+                Objects.equals(role, that.role);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(oauthId, id, role);
+    }
+
     @Override
     public String toString() {
         return "RequestHeaderModel{" +
@@ -0,0 +1,59 @@
+package com.food.ordering.zinger.model;
+
+import com.food.ordering.zinger.constant.Enums.UserRole;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SessionTokenModel {
+    private Integer userId;
+    private UserRole role;
+    private List<Integer> shopIdList;
+    private Long expiresAt;
+
+    public SessionTokenModel() {
+        shopIdList = new ArrayList<>();
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Integer userId) {
+        this.userId = userId;
+    }
+
+    public UserRole getRole() {
+        return role;
+    }
+
+    public void setRole(UserRole role) {
+        this.role = role;
+    }
+
+    public List<Integer> getShopIdList() {
+        return shopIdList;
+    }
+
+    public void setShopIdList(List<Integer> shopIdList) {
+        this.shopIdList = shopIdList;
+    }
+
+    public Long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    @Override
+    public String toString() {
+        return "SessionTokenModel{" +
+                "userId=" + userId +
+                ", role=" + role +
+                ", shopIdList=" + shopIdList +
+                ", expiresAt=" + expiresAt +
+                '}';
+    }
+}
@@ -2,14 +2,14 @@ package com.food.ordering.zinger.model;
 
 public class TransactionTokenModel {
 
-    int orderId;
+    Long orderId;
     String transactionToken;
 
-    public int getOrderId() {
+    public Long getOrderId() {
         return orderId;
     }
 
-    public void setOrderId(int orderId) {
+    public void setOrderId(Long orderId) {
         this.orderId = orderId;
     }
 
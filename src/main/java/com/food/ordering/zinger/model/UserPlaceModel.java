@@ -3,6 +3,7 @@ package com.food.ordering.zinger.model;
 public class UserPlaceModel {
     private UserModel userModel;
     private PlaceModel placeModel;
+    private String sessionToken;
 
     public UserPlaceModel() {
     }
@@ -23,6 +24,14 @@ public class UserPlaceModel {
         this.placeModel = placeModel;
     }
 
+    public String getSessionToken() {
+        return sessionToken;
+    }
+
+    public void setSessionToken(String sessionToken) {
+        this.sessionToken = sessionToken;
+    }
+
     @Override
     public String toString() {
         return "UserPlaceModel{" +
@@ -6,6 +6,7 @@ import java.util.List;
 public class UserShopListModel {
     private UserModel userModel;
     private List<ShopConfigurationModel> shopModelList;
+    private String sessionToken;
 
     public UserShopListModel() {
         userModel = new UserModel();
@@ -28,6 +29,14 @@ public class UserShopListModel {
         this.shopModelList = shopModelList;
     }
 
+    public String getSessionToken() {
+        return sessionToken;
+    }
+
+    public void setSessionToken(String sessionToken) {
+        this.sessionToken = sessionToken;
+    }
+
     @Override
     public String toString() {
         return "UserShopListModel{" +
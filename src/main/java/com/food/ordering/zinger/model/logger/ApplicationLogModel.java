@@ -8,6 +8,7 @@ import java.sql.Timestamp;
 public class ApplicationLogModel {
     private HttpMethod requestType;
     private String endpointUrl;
+    private Integer userId;
     private String requestHeader;
     private String requestObject;
     private String responseObject;
@@ -15,6 +16,9 @@ public class ApplicationLogModel {
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd/MM/yyyy HH:mm:ss", timezone = "Asia/Kolkata")
     private Timestamp date;
 
+    public ApplicationLogModel() {
+    }
+
     public ApplicationLogModel(HttpMethod requestType, String endpointUrl, String requestHeader, String requestObject, String responseObject) {
         this.requestType = requestType;
         this.endpointUrl = endpointUrl;
@@ -71,11 +75,20 @@ public class ApplicationLogModel {
         this.date = date;
     }
 
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Integer userId) {
+        this.userId = userId;
+    }
+
     @Override
     public String toString() {
         return "ActivityLogModel{" +
                 "requestType=" + requestType +
                 ", endpointUrl='" + endpointUrl + '\'' +
+                ", userId=" + userId +
                 ", requestHeader='" + requestHeader + '\'' +
                 ", requestObject='" + requestObject + '\'' +
                 ", responseObject='" + responseObject + '\'' +
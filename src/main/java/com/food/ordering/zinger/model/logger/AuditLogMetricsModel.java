@@ -0,0 +1,202 @@
+package com.food.ordering.zinger.model.logger;
+
+import java.util.Map;
+
+public class AuditLogMetricsModel {
+    private Integer queueDepth;
+    private Integer queueCapacity;
+    private Long enqueuedCount;
+    private Long writtenCount;
+    private Long droppedCount;
+    private Long spilledCount;
+    private Long failedCount;
+    private Long flushCount;
+    private Long lastFlushLatencyMs;
+    private Long maxFlushLatencyMs;
+    private Double averageFlushLatencyMs;
+    private Double writeThroughputPerSecond;
+    private Long rawPayloadBytes;
+    private Long storedPayloadBytes;
+    private Double compressionRatio;
+    private Double compressionThroughputMbPerSecond;
+    private Integer segmentCount;
+    private Long segmentBytes;
+    private Map<String, Long> sampledOutCountMap;
+
+    public Integer getQueueDepth() {
+        return queueDepth;
+    }
+
+    public void setQueueDepth(Integer queueDepth) {
+        this.queueDepth = queueDepth;
+    }
+
+    public Integer getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(Integer queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public Long getEnqueuedCount() {
+        return enqueuedCount;
+    }
+
+    public void setEnqueuedCount(Long enqueuedCount) {
+        this.enqueuedCount = enqueuedCount;
+    }
+
+    public Long getWrittenCount() {
+        return writtenCount;
+    }
+
+    public void setWrittenCount(Long writtenCount) {
+        this.writtenCount = writtenCount;
+    }
+
+    public Long getDroppedCount() {
+        return droppedCount;
+    }
+
+    public void setDroppedCount(Long droppedCount) {
+        this.droppedCount = droppedCount;
+    }
+
+    public Long getSpilledCount() {
+        return spilledCount;
+    }
+
+    public void setSpilledCount(Long spilledCount) {
+        this.spilledCount = spilledCount;
+    }
+
+    public Long getFailedCount() {
+        return failedCount;
+    }
+
+    public void setFailedCount(Long failedCount) {
+        this.failedCount = failedCount;
+    }
+
+    public Long getFlushCount() {
+        return flushCount;
+    }
+
+    public void setFlushCount(Long flushCount) {
+        this.flushCount = flushCount;
+    }
+
+    public Long getLastFlushLatencyMs() {
+        return lastFlushLatencyMs;
+    }
+
+    public void setLastFlushLatencyMs(Long lastFlushLatencyMs) {
+        this.lastFlushLatencyMs = lastFlushLatencyMs;
+    }
+
+    public Long getMaxFlushLatencyMs() {
+        return maxFlushLatencyMs;
+    }
+
+    public void setMaxFlushLatencyMs(Long maxFlushLatencyMs) {
+        this.maxFlushLatencyMs = maxFlushLatencyMs;
+    }
+
+    public Double getAverageFlushLatencyMs() {
+        return averageFlushLatencyMs;
+    }
+
+    public void setAverageFlushLatencyMs(Double averageFlushLatencyMs) {
+        this.averageFlushLatencyMs = averageFlushLatencyMs;
+    }
+
+    public Double getWriteThroughputPerSecond() {
+        return writeThroughputPerSecond;
+    }
+
+    public void setWriteThroughputPerSecond(Double writeThroughputPerSecond) {
+        this.writeThroughputPerSecond = writeThroughputPerSecond;
+    }
+
+    public Long getRawPayloadBytes() {
+        return rawPayloadBytes;
+    }
+
+    public void setRawPayloadBytes(Long rawPayloadBytes) {
+        this.rawPayloadBytes = rawPayloadBytes;
+    }
+
+    public Long getStoredPayloadBytes() {
+        return storedPayloadBytes;
+    }
+
+    public void setStoredPayloadBytes(Long storedPayloadBytes) {
+        this.storedPayloadBytes = storedPayloadBytes;
+    }
+
+    public Double getCompressionRatio() {
+        return compressionRatio;
+    }
+
+    public void setCompressionRatio(Double compressionRatio) {
+        this.compressionRatio = compressionRatio;
+    }
+
+    public Double getCompressionThroughputMbPerSecond() {
+        return compressionThroughputMbPerSecond;
+    }
+
+    public void setCompressionThroughputMbPerSecond(Double compressionThroughputMbPerSecond) {
+        this.compressionThroughputMbPerSecond = compressionThroughputMbPerSecond;
+    }
+
+    public Integer getSegmentCount() {
+        return segmentCount;
+    }
+
+    public void setSegmentCount(Integer segmentCount) {
+        this.segmentCount = segmentCount;
+    }
+
+    public Long getSegmentBytes() {
+        return segmentBytes;
+    }
+
+    public void setSegmentBytes(Long segmentBytes) {
+        this.segmentBytes = segmentBytes;
+    }
+
+    public Map<String, Long> getSampledOutCountMap() {
+        return sampledOutCountMap;
+    }
+
+    public void setSampledOutCountMap(Map<String, Long> sampledOutCountMap) {
+        this.sampledOutCountMap = sampledOutCountMap;
+    }
+
+    @Override
+    public String toString() {
+        return "AuditLogMetricsModel{" +
+                "queueDepth=" + queueDepth +
+                ", queueCapacity=" + queueCapacity +
+                ", enqueuedCount=" + enqueuedCount +
+                ", writtenCount=" + writtenCount +
+                ", droppedCount=" + droppedCount +
+                ", spilledCount=" + spilledCount +
+                ", failedCount=" + failedCount +
+                ", flushCount=" + flushCount +
+                ", lastFlushLatencyMs=" + lastFlushLatencyMs +
+                ", maxFlushLatencyMs=" + maxFlushLatencyMs +
+                ", averageFlushLatencyMs=" + averageFlushLatencyMs +
+                ", writeThroughputPerSecond=" + writeThroughputPerSecond +
+                ", rawPayloadBytes=" + rawPayloadBytes +
+                ", storedPayloadBytes=" + storedPayloadBytes +
+                ", compressionRatio=" + compressionRatio +
+                ", compressionThroughputMbPerSecond=" + compressionThroughputMbPerSecond +
+                ", segmentCount=" + segmentCount +
+                ", segmentBytes=" + segmentBytes +
+                ", sampledOutCountMap=" + sampledOutCountMap +
+                '}';
+    }
+}
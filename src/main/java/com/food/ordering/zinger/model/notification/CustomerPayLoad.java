@@ -3,7 +3,7 @@ package com.food.ordering.zinger.model.notification;
 import com.food.ordering.zinger.constant.Enums;
 
 public class CustomerPayLoad {
-    Integer orderId;
+    Long orderId;
     Enums.OrderStatus orderStatus;
     String shopName;
     String secretKey;
@@ -16,11 +16,11 @@ public class CustomerPayLoad {
         this.secretKey = secretKey;
     }
 
-    public Integer getOrderId() {
+    public Long getOrderId() {
         return orderId;
     }
 
-    public void setOrderId(Integer orderId) {
+    public void setOrderId(Long orderId) {
         this.orderId = orderId;
     }
 
@@ -6,7 +6,7 @@ import java.util.ArrayList;
 
 public class SellerPayLoad {
     String userName;
-    Integer orderId;
+    Long orderId;
     Double amount;
     ArrayList<String> itemList;
     String orderType;
@@ -20,11 +20,11 @@ public class SellerPayLoad {
         this.userName = userName;
     }
 
-    public Integer getOrderId() {
+    public Long getOrderId() {
         return orderId;
     }
 
-    public void setOrderId(Integer orderId) {
+    public void setOrderId(Long orderId) {
         this.orderId = orderId;
     }
 
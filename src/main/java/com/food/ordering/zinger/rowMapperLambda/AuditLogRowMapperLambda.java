@@ -0,0 +1,30 @@
+package com.food.ordering.zinger.rowMapperLambda;
+
+import com.food.ordering.zinger.model.logger.ApplicationLogModel;
+import com.food.ordering.zinger.utils.AuditPayloadCodec;
+import org.springframework.http.HttpMethod;
+import org.springframework.jdbc.core.RowMapper;
+
+import static com.food.ordering.zinger.constant.Column.ApplicationLogColumn.*;
+
+public class AuditLogRowMapperLambda {
+    /**
+     * Maps an Application_log row, decompressing the stored payloads.
+     *
+     * @param auditPayloadCodec AuditPayloadCodec
+     * @return row mapper bound to the given codec.
+     */
+    public static RowMapper<ApplicationLogModel> applicationLogRowMapperLambda(AuditPayloadCodec auditPayloadCodec) {
+        return (rs, rownum) -> {
+            ApplicationLogModel applicationLogModel = new ApplicationLogModel();
+            applicationLogModel.setRequestType(HttpMethod.resolve(rs.getString(requestType)));
+            applicationLogModel.setEndpointUrl(rs.getString(endpointUrl));
+            applicationLogModel.setUserId((Integer) rs.getObject(userId));
+            applicationLogModel.setRequestHeader(auditPayloadCodec.decompress(rs.getBytes(requestHeader)));
+            applicationLogModel.setRequestObject(auditPayloadCodec.decompress(rs.getBytes(requestObject)));
+            applicationLogModel.setResponseObject(auditPayloadCodec.decompress(rs.getBytes(responseObject)));
+            applicationLogModel.setDate(rs.getTimestamp(date));
+            return applicationLogModel;
+        };
+    }
+}
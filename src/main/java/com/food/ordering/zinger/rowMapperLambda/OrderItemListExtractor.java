@@ -0,0 +1,92 @@
+package com.food.ordering.zinger.rowMapperLambda;
+
+import com.food.ordering.zinger.constant.Column;
+import com.food.ordering.zinger.constant.Constant.OrderRowType;
+import com.food.ordering.zinger.constant.Enums;
+import com.food.ordering.zinger.model.ItemModel;
+import com.food.ordering.zinger.model.OrderItemListModel;
+import com.food.ordering.zinger.model.OrderItemModel;
+import com.food.ordering.zinger.model.OrderStatusModel;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * OrderItemListExtractor folds the normalized order rows of
+ * {@link com.food.ordering.zinger.constant.Query.OrderQuery} into one OrderItemListModel per order.
+ * The rows of an order are adjacent and start with its order row, which is mapped by the given
+ * row mapper, the item and status rows that follow are appended to it.
+ *
+ * @implNote The result set is read once, front to back, with typed reads by column index, the indexes
+ * are looked up once per result set.
+ */
+public class OrderItemListExtractor implements ResultSetExtractor<List<OrderItemListModel>> {
+
+    private final RowMapper<OrderItemListModel> orderRowMapper;
+
+    public OrderItemListExtractor(RowMapper<OrderItemListModel> orderRowMapper) {
+        this.orderRowMapper = orderRowMapper;
+    }
+
+    @Override
+    public List<OrderItemListModel> extractData(ResultSet rs) throws SQLException {
+        List<OrderItemListModel> orderItemListModelList = new ArrayList<>();
+        if (!rs.next())
+            return orderItemListModelList;
+
+        int rowTypeIndex = rs.findColumn(Column.rowType);
+        int itemNameIndex = rs.findColumn(Column.itemName);
+        int itemPriceIndex = rs.findColumn(Column.itemPrice);
+        int isVegIndex = rs.findColumn(Column.ItemColumn.isVeg);
+        int quantityIndex = rs.findColumn(Column.OrderItemColumn.quantity);
+        int orderItemPriceIndex = rs.findColumn(Column.orderItemPrice);
+        int statusIndex = rs.findColumn(Column.OrderStatusColumn.status);
+        int updatedTimeIndex = rs.findColumn(Column.OrderStatusColumn.updatedTime);
+
+        OrderItemListModel orderItemListModel = null;
+        do {
+            switch (rs.getInt(rowTypeIndex)) {
+                case OrderRowType.order:
+                    orderItemListModel = orderRowMapper.mapRow(rs, orderItemListModelList.size());
+                    orderItemListModel.setOrderItemsList(new ArrayList<>());
+                    orderItemListModel.setOrderStatusModel(new ArrayList<>());
+                    orderItemListModelList.add(orderItemListModel);
+                    break;
+
+                case OrderRowType.item:
+                    if (orderItemListModel == null)
+                        break;
+
+                    ItemModel itemModel = new ItemModel();
+                    itemModel.setName(rs.getString(itemNameIndex));
+                    itemModel.setPrice(rs.getDouble(itemPriceIndex));
+                    itemModel.setIsVeg(rs.getInt(isVegIndex));
+                    itemModel.setShopModel(null);
+
+                    OrderItemModel orderItemModel = new OrderItemModel();
+                    orderItemModel.setOrderModel(null);
+                    orderItemModel.setItemModel(itemModel);
+                    orderItemModel.setQuantity(rs.getInt(quantityIndex));
+                    orderItemModel.setPrice(rs.getDouble(orderItemPriceIndex));
+                    orderItemListModel.getOrderItemsList().add(orderItemModel);
+                    break;
+
+                case OrderRowType.status:
+                    if (orderItemListModel == null)
+                        break;
+
+                    OrderStatusModel orderStatusModel = new OrderStatusModel();
+                    orderStatusModel.setOrderStatus(Enums.OrderStatus.valueOf(rs.getString(statusIndex)));
+                    orderStatusModel.setUpdatedTime(rs.getTimestamp(updatedTimeIndex));
+                    orderItemListModel.getOrderStatusModel().add(orderStatusModel);
+                    break;
+            }
+        } while (rs.next());
+
+        return orderItemListModelList;
+    }
+}
@@ -0,0 +1,36 @@
+package com.food.ordering.zinger.service.impl;
+
+import com.food.ordering.zinger.dao.interfaces.AuditLogDao;
+import com.food.ordering.zinger.model.Response;
+import com.food.ordering.zinger.model.logger.ApplicationLogModel;
+import com.food.ordering.zinger.model.logger.AuditLogMetricsModel;
+import com.food.ordering.zinger.model.logger.AuditLogSearchModel;
+import com.food.ordering.zinger.service.interfaces.AuditService;
+import com.food.ordering.zinger.utils.AuditSamplingPolicy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+public class AuditServiceImpl implements AuditService {
+
+    @Autowired
+    AuditLogDao auditLogDao;
+
+    @Autowired
+    AuditSamplingPolicy auditSamplingPolicy;
+
+    @Override
+    public Response<AuditLogMetricsModel> getMetrics() {
+        Response<AuditLogMetricsModel> response = auditLogDao.getMetrics();
+        if (response.getData() != null)
+            response.getData().setSampledOutCountMap(auditSamplingPolicy.getDroppedCounts());
+        return response;
+    }
+
+    @Override
+    public Response<List<ApplicationLogModel>> getLogs(AuditLogSearchModel auditLogSearchModel) {
+        return auditLogDao.getLogs(auditLogSearchModel);
+    }
+}
@@ -1,36 +1,72 @@
 package com.food.ordering.zinger.service.impl;
 
+import com.food.ordering.zinger.constant.Constant.IdempotencyKey;
+import com.food.ordering.zinger.constant.Enums.OrderStatus;
 import com.food.ordering.zinger.constant.ErrorLog;
+import com.food.ordering.zinger.dao.interfaces.IdempotencyKeyDao;
 import com.food.ordering.zinger.dao.interfaces.NotifyDao;
 import com.food.ordering.zinger.dao.interfaces.OrderDao;
+import com.food.ordering.zinger.dao.interfaces.PriceBookDao;
 import com.food.ordering.zinger.exception.GenericException;
 import com.food.ordering.zinger.model.OrderItemListModel;
 import com.food.ordering.zinger.model.OrderModel;
+import com.food.ordering.zinger.model.OrderPageModel;
+import com.food.ordering.zinger.model.OrderQuoteModel;
+import com.food.ordering.zinger.model.OrderStatusResultModel;
 import com.food.ordering.zinger.model.Response;
 import com.food.ordering.zinger.model.TransactionTokenModel;
 import com.food.ordering.zinger.service.interfaces.OrderService;
+import com.food.ordering.zinger.utils.Helper;
+import com.food.ordering.zinger.utils.OrderCursor;
+import com.food.ordering.zinger.utils.OrderStream;
+import com.google.gson.reflect.TypeToken;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class OrderServiceImpl implements OrderService {
 
+    private static final Type transactionTokenResponseType = new TypeToken<Response<TransactionTokenModel>>() {
+    }.getType();
+    private static final Type stringResponseType = new TypeToken<Response<String>>() {
+    }.getType();
+
     @Autowired
     OrderDao orderDao;
 
     @Autowired
     NotifyDao notifyDao;
 
+    @Autowired
+    PriceBookDao priceBookDao;
+
+    @Autowired
+    IdempotencyKeyDao idempotencyKeyDao;
+
+    @Autowired
+    OrderStream orderStream;
+
+    @Value("${zinger.order.bulk-status.max-size:100}")
+    private int bulkStatusMaxSize;
+
+    @Value("${zinger.order.cursor.max-page-count:100}")
+    private int cursorMaxPageCount;
+
 
     @Override
-    public Response<TransactionTokenModel> insertOrder(OrderItemListModel orderItemListModel) {
+    public Response<TransactionTokenModel> insertOrder(OrderItemListModel orderItemListModel, String idempotencyKey) {
         Response<TransactionTokenModel> response = new Response<>();
         try {
-            response = orderDao.insertOrder(orderItemListModel);
-        } catch (GenericException e) {
-            response = e.getResponse();
+            Integer userId = orderItemListModel.getTransactionModel().getOrderModel().getUserModel().getId();
+            response = idempotencyKeyDao.execute(IdempotencyKey.insertOrderScope + userId, idempotencyKey, transactionTokenResponseType,
+                    () -> tryInsertOrder(orderItemListModel));
         } catch (Exception e) {
             System.err.println(e.getClass().getName() + ": " + e.getMessage());
         }
@@ -38,13 +74,29 @@ public class OrderServiceImpl implements OrderService {
         return response;
     }
 
-    @Override
-    public Response<String> placeOrder(Integer orderId) {
-        Response<String> response = orderDao.placeOrder(orderId);
-        if (response.getCode().equals(ErrorLog.CodeSuccess)) {
-            notifyDao.notifyOrderStatusToSeller(orderDao.getOrderById(orderId));
+    @SuppressWarnings("unchecked")
+    private Response<TransactionTokenModel> tryInsertOrder(OrderItemListModel orderItemListModel) {
+        try {
+            return orderDao.insertOrder(orderItemListModel);
+        } catch (GenericException e) {
+            return e.getResponse();
         }
-        return response;
+    }
+
+    @Override
+    public Response<OrderQuoteModel> quoteOrder(OrderItemListModel orderItemListModel) {
+        return priceBookDao.getQuote(orderItemListModel);
+    }
+
+    @Override
+    public Response<String> placeOrder(Long orderId, String idempotencyKey) {
+        return idempotencyKeyDao.execute(IdempotencyKey.placeOrderScope + orderId, idempotencyKey, stringResponseType, () -> {
+            Response<String> response = orderDao.placeOrder(orderId);
+            if (response.getCode().equals(ErrorLog.CodeSuccess)) {
+                notifyDao.notifyOrderStatusToSeller(orderDao.getOrderById(orderId));
+            }
+            return response;
+        });
     }
 
     @Override
@@ -65,6 +117,30 @@ public class OrderServiceImpl implements OrderService {
         return orderDao.getOrderByShopIdPagination(shopId, pageNum, pageCount);
     }
 
+    @Override
+    public Response<OrderPageModel> getOrderByUserIdCursor(Integer userId, String cursor, Integer pageCount) {
+        OrderCursor orderCursor = decodeCursor(cursor);
+        if (!isValidPage(cursor, orderCursor, pageCount))
+            return getInvalidCursorResponse();
+        return orderDao.getOrderByUserIdCursor(userId, orderCursor, pageCount);
+    }
+
+    @Override
+    public Response<OrderPageModel> getOrderBySearchQueryCursor(Integer shopId, String searchItem, String cursor, Integer pageCount) {
+        OrderCursor orderCursor = decodeCursor(cursor);
+        if (!isValidPage(cursor, orderCursor, pageCount))
+            return getInvalidCursorResponse();
+        return orderDao.getOrderBySearchQueryCursor(shopId, searchItem, orderCursor, pageCount);
+    }
+
+    @Override
+    public Response<OrderPageModel> getOrderByShopIdCursor(Integer shopId, String cursor, Integer pageCount) {
+        OrderCursor orderCursor = decodeCursor(cursor);
+        if (!isValidPage(cursor, orderCursor, pageCount))
+            return getInvalidCursorResponse();
+        return orderDao.getOrderByShopIdCursor(shopId, orderCursor, pageCount);
+    }
+
     @Override
     public Response<List<OrderItemListModel>> getOrderByShopId(Integer shopId) {
         Response<List<OrderItemListModel>> response = orderDao.getOrderByShopId(shopId);
@@ -72,7 +148,17 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
-    public Response<OrderItemListModel> getOrderById(Integer id) {
+    public Response<Map<OrderStatus, Integer>> getOrderCountByShopId(Integer shopId) {
+        return orderDao.getOrderCountByShopId(shopId);
+    }
+
+    @Override
+    public SseEmitter streamOrderByShopId(Integer shopId, String lastEventId) {
+        return orderStream.subscribe(shopId, lastEventId);
+    }
+
+    @Override
+    public Response<OrderItemListModel> getOrderById(Long id) {
         Response<OrderItemListModel> response = orderDao.getOrderById(id);
         try {
             if (response.getCode().equals(ErrorLog.CodeSuccess))
@@ -102,4 +188,44 @@ public class OrderServiceImpl implements OrderService {
         }
         return response;
     }
+
+    @Override
+    public Response<List<OrderStatusResultModel>> updateOrderStatusBulk(List<OrderModel> orderModelList) {
+        if (orderModelList == null || orderModelList.isEmpty() || orderModelList.size() > bulkStatusMaxSize) {
+            Response<List<OrderStatusResultModel>> response = new Response<>();
+            response.setCode(ErrorLog.IBR1311);
+            response.setMessage(ErrorLog.InvalidBulkRequest);
+            return response;
+        }
+
+        Response<List<OrderStatusResultModel>> response = orderDao.updateOrderStatusBulk(orderModelList);
+        if (response.getCode().equals(ErrorLog.CodeSuccess)) {
+            List<Long> orderIdList = new ArrayList<>();
+            for (OrderStatusResultModel result : response.getData()) {
+                if (result.getCode().equals(ErrorLog.CodeSuccess))
+                    orderIdList.add(result.getOrderId());
+            }
+            if (!orderIdList.isEmpty())
+                notifyDao.notifyOrderStatusBulk(orderDao.getOrderByIdList(orderIdList));
+        }
+        return response;
+    }
+
+    private static OrderCursor decodeCursor(String cursor) {
+        return Helper.isNotNull(cursor) ? OrderCursor.decode(cursor) : null;
+    }
+
+    /**
+     * A missing cursor asks for the first page, a cursor that does not decode is rejected.
+     */
+    private boolean isValidPage(String cursor, OrderCursor orderCursor, Integer pageCount) {
+        return (!Helper.isNotNull(cursor) || orderCursor != null) && pageCount != null && pageCount > 0 && pageCount <= cursorMaxPageCount;
+    }
+
+    private static Response<OrderPageModel> getInvalidCursorResponse() {
+        Response<OrderPageModel> response = new Response<>();
+        response.setCode(ErrorLog.IC1321);
+        response.setMessage(ErrorLog.InvalidCursor);
+        return response;
+    }
 }
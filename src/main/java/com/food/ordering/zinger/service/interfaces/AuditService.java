@@ -0,0 +1,14 @@
+package com.food.ordering.zinger.service.interfaces;
+
+import com.food.ordering.zinger.model.Response;
+import com.food.ordering.zinger.model.logger.ApplicationLogModel;
+import com.food.ordering.zinger.model.logger.AuditLogMetricsModel;
+import com.food.ordering.zinger.model.logger.AuditLogSearchModel;
+
+import java.util.List;
+
+public interface AuditService {
+    Response<AuditLogMetricsModel> getMetrics();
+
+    Response<List<ApplicationLogModel>> getLogs(AuditLogSearchModel auditLogSearchModel);
+}
@@ -1,17 +1,25 @@
 package com.food.ordering.zinger.service.interfaces;
 
+import com.food.ordering.zinger.constant.Enums.OrderStatus;
 import com.food.ordering.zinger.model.OrderItemListModel;
 import com.food.ordering.zinger.model.OrderModel;
+import com.food.ordering.zinger.model.OrderPageModel;
+import com.food.ordering.zinger.model.OrderQuoteModel;
+import com.food.ordering.zinger.model.OrderStatusResultModel;
 import com.food.ordering.zinger.model.Response;
 import com.food.ordering.zinger.model.TransactionTokenModel;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.Map;
 
 public interface OrderService {
 
-    Response<TransactionTokenModel> insertOrder(OrderItemListModel orderItemListModel);
+    Response<TransactionTokenModel> insertOrder(OrderItemListModel orderItemListModel, String idempotencyKey);
 
-    Response<String> placeOrder(Integer orderId);
+    Response<OrderQuoteModel> quoteOrder(OrderItemListModel orderItemListModel);
+
+    Response<String> placeOrder(Long orderId, String idempotencyKey);
 
     Response<List<OrderItemListModel>> getOrderByUserId(Integer userId, Integer pageNum, Integer pageCount);
 
@@ -19,11 +27,23 @@ public interface OrderService {
 
     Response<List<OrderItemListModel>> getOrderByShopIdPagination(Integer shopId, Integer pageNum, Integer pageCount);
 
+    Response<OrderPageModel> getOrderByUserIdCursor(Integer userId, String cursor, Integer pageCount);
+
+    Response<OrderPageModel> getOrderBySearchQueryCursor(Integer shopId, String searchItem, String cursor, Integer pageCount);
+
+    Response<OrderPageModel> getOrderByShopIdCursor(Integer shopId, String cursor, Integer pageCount);
+
     Response<List<OrderItemListModel>> getOrderByShopId(Integer shopId);
 
-    Response<OrderItemListModel> getOrderById(Integer id);
+    Response<Map<OrderStatus, Integer>> getOrderCountByShopId(Integer shopId);
+
+    SseEmitter streamOrderByShopId(Integer shopId, String lastEventId);
+
+    Response<OrderItemListModel> getOrderById(Long id);
 
     Response<String> updateOrderRating(OrderModel orderModel);
 
     Response<String> updateOrderStatus(OrderModel orderModel);
+
+    Response<List<OrderStatusResultModel>> updateOrderStatusBulk(List<OrderModel> orderModelList);
 }
@@ -0,0 +1,263 @@
+package com.food.ordering.zinger.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.food.ordering.zinger.constant.Enums.OrderStatus;
+import com.food.ordering.zinger.model.OrderItemListModel;
+import com.food.ordering.zinger.model.OrderModel;
+import com.food.ordering.zinger.model.OrderStatusModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ActiveOrderView holds the PLACED, ACCEPTED, READY and OUT_FOR_DELIVERY orders of every shop,
+ * in the form returned by OrderDao.getOrderByShopId, along with the number of orders in each of these statuses.
+ * <p>
+ * The view is built from the database by {@link #rebuild(List, long)}, at startup and then periodically to repair
+ * any drift, and kept up to date in between by {@link #putOrder(OrderItemListModel)} on every status change.
+ * Until the first build it is not ready and the callers read the database.
+ *
+ * @implNote The statuses of an order only move forward in the order of OrderStatus (see OrderStateMachine),
+ * so an order read before a newer change of its status is recognized and ignored. An order leaving the view
+ * is kept as a tombstone until the next rebuild, so a stale read cannot bring it back.
+ * @implNote A rebuild keeps the orders put since its read began, they are newer than the rows it read.
+ * @implNote Orders are stored as JSON and every read gets its own copy, callers may modify it.
+ */
+@Component
+public class ActiveOrderView {
+
+    public static final EnumSet<OrderStatus> activeStatuses = EnumSet.of(OrderStatus.PLACED, OrderStatus.ACCEPTED,
+            OrderStatus.READY, OrderStatus.OUT_FOR_DELIVERY);
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final Comparator<Entry> entryComparator = Comparator.<Entry>comparingLong(entry -> entry.date)
+            .thenComparingLong(entry -> entry.orderId);
+
+    @Value("${zinger.order.active-view.enabled:true}")
+    private boolean enabled;
+
+    private final ConcurrentHashMap<Integer, ShopView> shopViews = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile boolean ready;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param shopId Integer
+     * @return a copy of the active orders of the shop sorted by (date, id), null if the view is not ready.
+     */
+    public List<OrderItemListModel> getOrderByShopId(Integer shopId) throws IOException {
+        if (!ready)
+            return null;
+
+        List<OrderItemListModel> orderItemListModelList = new ArrayList<>();
+        ShopView shopView = shopViews.get(shopId);
+        if (shopView == null)
+            return orderItemListModelList;
+
+        List<Entry> entryList = new ArrayList<>();
+        synchronized (shopView) {
+            for (Entry entry : shopView.entries.values())
+                if (entry.orderItemList != null)
+                    entryList.add(entry);
+        }
+
+        entryList.sort(entryComparator);
+        for (Entry entry : entryList)
+            orderItemListModelList.add(objectMapper.readValue(entry.orderItemList, OrderItemListModel.class));
+        return orderItemListModelList;
+    }
+
+    /**
+     * @param shopId Integer
+     * @return the number of active orders of the shop in each active status, null if the view is not ready.
+     */
+    public Map<OrderStatus, Integer> getOrderCountByShopId(Integer shopId) {
+        if (!ready)
+            return null;
+
+        Map<OrderStatus, Integer> orderCount = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus orderStatus : activeStatuses)
+            orderCount.put(orderStatus, 0);
+
+        ShopView shopView = shopViews.get(shopId);
+        if (shopView != null) {
+            synchronized (shopView) {
+                orderCount.putAll(shopView.orderCount);
+            }
+        }
+        return orderCount;
+    }
+
+    /**
+     * Applies the latest state of an order, read after its status changed. The order is
+     * added or updated if it is active and dropped otherwise.
+     *
+     * @param orderItemListModel OrderItemListModel, as read by OrderDao.getOrderById
+     */
+    public void putOrder(OrderItemListModel orderItemListModel) throws IOException {
+        if (!enabled)
+            return;
+
+        OrderModel orderModel = orderItemListModel.getTransactionModel().getOrderModel();
+        Integer shopId = orderModel.getShopModel().getId();
+        Entry entry = toEntry(orderItemListModel, sequence.incrementAndGet());
+        if (entry == null)
+            return;
+
+        ShopView shopView = shopViews.computeIfAbsent(shopId, key -> new ShopView());
+        synchronized (shopView) {
+            Entry current = shopView.entries.get(entry.orderId);
+            if (current != null && current.orderStatus.compareTo(entry.orderStatus) > 0)
+                return;
+
+            shopView.entries.put(entry.orderId, entry);
+            shopView.count(current, -1);
+            shopView.count(entry, 1);
+        }
+    }
+
+    /**
+     * @return the current sequence, to be read before the orders of a rebuild are read.
+     */
+    public long getSequence() {
+        return sequence.get();
+    }
+
+    /**
+     * Replaces the view with the active orders read from the database, except for the orders put since then.
+     *
+     * @param orderItemListModelList List<OrderItemListModel>, the active orders of all the shops, along with their shop
+     * @param sequence               long, the sequence read before the orders were read
+     * @return the number of orders the view was wrong about, 0 for the first build.
+     */
+    public int rebuild(List<OrderItemListModel> orderItemListModelList, long sequence) throws IOException {
+        if (!enabled)
+            return 0;
+
+        Map<Integer, Map<Long, Entry>> shopEntries = new HashMap<>();
+        for (OrderItemListModel orderItemListModel : orderItemListModelList) {
+            Integer shopId = orderItemListModel.getTransactionModel().getOrderModel().getShopModel().getId();
+            Entry entry = toEntry(orderItemListModel, sequence);
+            if (entry != null)
+                shopEntries.computeIfAbsent(shopId, key -> new HashMap<>()).put(entry.orderId, entry);
+        }
+
+        Set<Integer> shopIdSet = new HashSet<>(shopViews.keySet());
+        shopIdSet.addAll(shopEntries.keySet());
+
+        int driftCount = 0;
+        for (Integer shopId : shopIdSet) {
+            Map<Long, Entry> readEntries = shopEntries.getOrDefault(shopId, new HashMap<>());
+            Map<Long, Entry> entries = new HashMap<>(readEntries);
+            ShopView shopView = shopViews.computeIfAbsent(shopId, key -> new ShopView());
+
+            synchronized (shopView) {
+                Set<Long> orderIdSet = new HashSet<>(readEntries.keySet());
+                for (Entry current : shopView.entries.values()) {
+                    if (current.sequence > sequence)
+                        entries.put(current.orderId, current);
+                    else
+                        orderIdSet.add(current.orderId);
+                }
+
+                for (Long orderId : orderIdSet) {
+                    Entry current = shopView.entries.get(orderId);
+                    Entry read = readEntries.get(orderId);
+                    if (current != null && current.sequence > sequence)
+                        continue;
+                    if (getActiveStatus(current) != getActiveStatus(read))
+                        driftCount++;
+                }
+
+                shopView.entries = entries;
+                shopView.orderCount.clear();
+                for (Entry entry : entries.values())
+                    shopView.count(entry, 1);
+            }
+        }
+
+        boolean wasReady = ready;
+        ready = true;
+        return wasReady ? driftCount : 0;
+    }
+
+    /**
+     * @return the status of the order, the furthest of the statuses it went through.
+     */
+    public static OrderStatus getOrderStatus(OrderItemListModel orderItemListModel) {
+        OrderStatus orderStatus = null;
+        if (orderItemListModel.getOrderStatusModel() == null)
+            return null;
+
+        for (OrderStatusModel orderStatusModel : orderItemListModel.getOrderStatusModel()) {
+            if (orderStatusModel.getOrderStatus() != null && (orderStatus == null || orderStatusModel.getOrderStatus().compareTo(orderStatus) > 0))
+                orderStatus = orderStatusModel.getOrderStatus();
+        }
+        return orderStatus;
+    }
+
+    /**
+     * Stores the order without its shop and the notification tokens of the customer, as getOrderByShopId returns it.
+     *
+     * @return the entry of the order, a tombstone if it is not active. null if it has no status yet.
+     */
+    private static Entry toEntry(OrderItemListModel orderItemListModel, long sequence) throws IOException {
+        OrderStatus orderStatus = getOrderStatus(orderItemListModel);
+        if (orderStatus == null)
+            return null;
+
+        OrderModel orderModel = orderItemListModel.getTransactionModel().getOrderModel();
+        orderModel.setShopModel(null);
+        if (orderModel.getUserModel() != null)
+            orderModel.getUserModel().setNotificationToken(null);
+
+        byte[] orderItemList = activeStatuses.contains(orderStatus) ? objectMapper.writeValueAsBytes(orderItemListModel) : null;
+        return new Entry(orderModel.getId(), orderModel.getDate() == null ? 0 : orderModel.getDate().getTime(),
+                orderStatus, orderItemList, sequence);
+    }
+
+    private static OrderStatus getActiveStatus(Entry entry) {
+        return entry == null || entry.orderItemList == null ? null : entry.orderStatus;
+    }
+
+    private static final class ShopView {
+        private Map<Long, Entry> entries = new HashMap<>();
+        private final Map<OrderStatus, Integer> orderCount = new EnumMap<>(OrderStatus.class);
+
+        private void count(Entry entry, int delta) {
+            if (entry != null && entry.orderItemList != null)
+                orderCount.merge(entry.orderStatus, delta, Integer::sum);
+        }
+    }
+
+    private static final class Entry {
+        private final long orderId;
+        private final long date;
+        private final OrderStatus orderStatus;
+        private final byte[] orderItemList;
+        private final long sequence;
+
+        private Entry(long orderId, long date, OrderStatus orderStatus, byte[] orderItemList, long sequence) {
+            this.orderId = orderId;
+            this.date = date;
+            this.orderStatus = orderStatus;
+            this.orderItemList = orderItemList;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.food.ordering.zinger.utils;
+
+import org.apache.commons.io.IOUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Adler32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * AuditPayloadCodec compresses the audited headers and bodies before
+ * they are stored in the binary columns of the Application_log table.
+ * <p>
+ * A stored payload starts with a format byte:
+ * 0 -> the rest is the plain UTF-8 text,
+ * 1 -> the rest is a zlib stream, optionally primed with a preset dictionary.
+ *
+ * @implNote The dictionary is "audit-dictionary.txt" from the classpath, or the file
+ * at "zinger.audit.compression.dictionary-path" (e.g. built from real payloads).
+ * The zlib stream records the Adler-32 of its dictionary, so payloads written with
+ * the bundled dictionary stay readable after switching to a custom one.
+ * @implNote Payloads that do not shrink, or are shorter than 64 bytes, are stored as plain text.
+ * @implNote The raw and stored byte counts and the time spent compressing are
+ * accumulated, so that the ratio and throughput on live payloads can be read
+ * from the audit metrics.
+ */
+@Component
+public class AuditPayloadCodec {
+
+    private static final byte plainFormat = 0;
+    private static final byte deflateFormat = 1;
+    private static final int minCompressBytes = 64;
+    private static final String bundledDictionary = "audit-dictionary.txt";
+
+    @Value("${zinger.audit.compression.enabled:true}")
+    private boolean enabled;
+
+    @Value("${zinger.audit.compression.level:6}")
+    private int level;
+
+    @Value("${zinger.audit.compression.dictionary-path:}")
+    private String dictionaryPath;
+
+    private byte[] dictionary;
+    private final Map<Long, byte[]> dictionaries = new HashMap<>();
+    private final ThreadLocal<Deflater> deflaterThreadLocal = ThreadLocal.withInitial(() -> new Deflater(level));
+    private final ThreadLocal<byte[]> bufferThreadLocal = ThreadLocal.withInitial(() -> new byte[8192]);
+    private final LongAdder rawBytes = new LongAdder();
+    private final LongAdder storedBytes = new LongAdder();
+    private final LongAdder compressNanos = new LongAdder();
+
+    @PostConstruct
+    public void init() throws IOException {
+        try (InputStream inputStream = new ClassPathResource(bundledDictionary).getInputStream()) {
+            dictionary = register(IOUtils.toByteArray(inputStream));
+        }
+        if (dictionaryPath != null && !dictionaryPath.trim().isEmpty())
+            dictionary = register(Files.readAllBytes(Paths.get(dictionaryPath.trim())));
+    }
+
+    /**
+     * Compresses the payload.
+     *
+     * @param payload String
+     * @return the stored form of the payload, null if the payload is null.
+     */
+    public byte[] compress(String payload) {
+        if (payload == null)
+            return null;
+
+        long start = System.nanoTime();
+        byte[] plain = payload.getBytes(UTF_8);
+        byte[] stored = encode(plain);
+        compressNanos.add(System.nanoTime() - start);
+        rawBytes.add(plain.length);
+        storedBytes.add(stored.length);
+        return stored;
+    }
+
+    private byte[] encode(byte[] plain) {
+        if (enabled && plain.length >= minCompressBytes) {
+            Deflater deflater = deflaterThreadLocal.get();
+            byte[] buffer = bufferThreadLocal.get();
+            deflater.reset();
+            deflater.setDictionary(dictionary);
+            deflater.setInput(plain);
+            deflater.finish();
+
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream(Math.max(64, plain.length / 4));
+            outputStream.write(deflateFormat);
+            while (!deflater.finished()) {
+                int length = deflater.deflate(buffer);
+                outputStream.write(buffer, 0, length);
+                if (outputStream.size() > plain.length)
+                    break;
+            }
+
+            if (deflater.finished() && outputStream.size() <= plain.length)
+                return outputStream.toByteArray();
+        }
+
+        byte[] stored = new byte[plain.length + 1];
+        stored[0] = plainFormat;
+        System.arraycopy(plain, 0, stored, 1, plain.length);
+        return stored;
+    }
+
+    /**
+     * Restores a payload written by {@link #compress(String)}.
+     *
+     * @param stored byte[]
+     * @return the original payload, null if the payload is null.
+     * @throws IllegalStateException if the payload is corrupt or its dictionary is unknown.
+     */
+    public String decompress(byte[] stored) {
+        if (stored == null || stored.length == 0)
+            return null;
+
+        if (stored[0] == plainFormat)
+            return new String(stored, 1, stored.length - 1, UTF_8);
+
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(stored, 1, stored.length - 1);
+            byte[] buffer = bufferThreadLocal.get();
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream(stored.length * 4);
+
+            while (!inflater.finished()) {
+                int length = inflater.inflate(buffer);
+                if (length == 0) {
+                    if (inflater.needsDictionary()) {
+                        long dictionaryId = inflater.getAdler() & 0xFFFFFFFFL;
+                        byte[] presetDictionary = dictionaries.get(dictionaryId);
+                        if (presetDictionary == null)
+                            throw new IllegalStateException("Unknown audit dictionary " + dictionaryId);
+                        inflater.setDictionary(presetDictionary);
+                    } else if (inflater.needsInput()) {
+                        throw new IllegalStateException("Truncated audit payload");
+                    }
+                }
+                outputStream.write(buffer, 0, length);
+            }
+            return new String(outputStream.toByteArray(), UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    public long getRawBytes() {
+        return rawBytes.sum();
+    }
+
+    public long getStoredBytes() {
+        return storedBytes.sum();
+    }
+
+    public long getCompressNanos() {
+        return compressNanos.sum();
+    }
+
+    private byte[] register(byte[] presetDictionary) {
+        Adler32 adler32 = new Adler32();
+        adler32.update(presetDictionary);
+        dictionaries.put(adler32.getValue(), presetDictionary);
+        return presetDictionary;
+    }
+}
@@ -0,0 +1,36 @@
+package com.food.ordering.zinger.utils;
+
+import com.food.ordering.zinger.model.Response;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * AuditResponseAdvice hands the Response returned by a controller over to the
+ * LoggingFilter as the request attribute "zinger.auditResponse", so that the
+ * audit policy can look at its code and priority without parsing the body.
+ */
+@ControllerAdvice
+public class AuditResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String responseAttribute = "zinger.auditResponse";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return Response.class.isAssignableFrom(returnType.getParameterType());
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (body instanceof Response && request instanceof ServletServerHttpRequest)
+            ((ServletServerHttpRequest) request).getServletRequest().setAttribute(responseAttribute, body);
+        return body;
+    }
+}
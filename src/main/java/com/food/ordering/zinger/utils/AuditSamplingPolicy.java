@@ -0,0 +1,100 @@
+package com.food.ordering.zinger.utils;
+
+import com.food.ordering.zinger.constant.Enums.Priority;
+import com.food.ordering.zinger.constant.ErrorLog;
+import com.food.ordering.zinger.model.Response;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * AuditSamplingPolicy decides, once the response is known, whether a request is audited.
+ * <p>
+ * Always kept: responses whose code is not CodeSuccess, HIGH priority responses,
+ * MEDIUM priority responses and anything that is not a Response (errors, rejections).
+ * Successful LOW priority responses are kept with the probability configured for
+ * the longest matching url prefix in "zinger.audit.sampling.endpoint-rates"
+ * (e.g. "/order/seller:0.05,/user:1"), else "zinger.audit.sampling.default-rate".
+ *
+ * @implNote Sampled out requests are counted per configured prefix ("default"
+ * for the rest) and reported with the audit metrics.
+ */
+@Component
+public class AuditSamplingPolicy {
+
+    private static final String defaultPrefix = "default";
+
+    @Value("${zinger.audit.sampling.default-rate:1.0}")
+    private double defaultRate;
+
+    @Value("${zinger.audit.sampling.endpoint-rates:}")
+    private String endpointRates;
+
+    private final List<SamplingRule> samplingRuleList = new ArrayList<>();
+    private PathPrefixTrie<SamplingRule> samplingRules;
+    private SamplingRule defaultRule;
+
+    @PostConstruct
+    public void init() {
+        defaultRule = newSamplingRule(defaultPrefix, defaultRate);
+        samplingRules = Helper.toPathPrefixTrie(endpointRates, (prefix, rate) -> newSamplingRule(prefix, Double.parseDouble(rate)));
+    }
+
+    /**
+     * Decides whether the request is to be audited.
+     *
+     * @param requestUri String
+     * @param response   Response returned by the controller, null if none
+     * @return true if the request is to be audited.
+     */
+    public boolean shouldKeep(String requestUri, Response<?> response) {
+        if (response == null || !ErrorLog.CodeSuccess.equals(response.getCode()) || response.priorityGet() != Priority.LOW)
+            return true;
+
+        SamplingRule samplingRule = samplingRules.match(requestUri);
+        if (samplingRule == null)
+            samplingRule = defaultRule;
+
+        if (samplingRule.rate >= 1.0 || ThreadLocalRandom.current().nextDouble() < samplingRule.rate)
+            return true;
+
+        samplingRule.droppedCount.increment();
+        return false;
+    }
+
+    /**
+     * Gets the number of sampled out requests.
+     *
+     * @return map of the configured url prefix ("default" for the rest) to its count.
+     */
+    public Map<String, Long> getDroppedCounts() {
+        Map<String, Long> droppedCounts = new LinkedHashMap<>();
+        for (SamplingRule samplingRule : samplingRuleList)
+            droppedCounts.put(samplingRule.name, samplingRule.droppedCount.sum());
+        return droppedCounts;
+    }
+
+    private SamplingRule newSamplingRule(String name, double rate) {
+        SamplingRule samplingRule = new SamplingRule(name, rate);
+        samplingRuleList.add(samplingRule);
+        return samplingRule;
+    }
+
+    private static final class SamplingRule {
+        private final String name;
+        private final double rate;
+        private final LongAdder droppedCount = new LongAdder();
+
+        private SamplingRule(String name, double rate) {
+            this.name = name;
+            this.rate = rate;
+        }
+    }
+}
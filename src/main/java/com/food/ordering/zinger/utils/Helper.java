@@ -2,9 +2,13 @@ package com.food.ordering.zinger.utils;
 
 import com.food.ordering.zinger.model.OrderItemModel;
 
+import java.security.SecureRandom;
 import java.util.List;
+import java.util.function.BiFunction;
 
 public class Helper {
+    private static final SecureRandom secureRandom = new SecureRandom();
+
     public static String toJsonFormattedString(List<String> stringList) {
         String result = "[";
         for (int i = 0; i < stringList.size(); i++) {
@@ -20,7 +24,8 @@ public class Helper {
         String result = "[";
         for (int i = 0; i < orderItemModelList.size(); i++) {
             result += "{\"itemId\" :" + orderItemModelList.get(i).getItemModel().getId() + ",";
-            result += "\"quantity\" :" + orderItemModelList.get(i).getQuantity() + "},";
+            result += "\"quantity\" :" + orderItemModelList.get(i).getQuantity() + ",";
+            result += "\"price\" :" + orderItemModelList.get(i).getPrice() + "},";
         }
         result = result.substring(0, result.length() - 1) + "]";
         return result;
@@ -30,4 +35,33 @@ public class Helper {
     public static Boolean isNotNull(String string) {
         return string != null && string.length() > 0;
     }
+
+    /**
+     * @return a random 6 digit secret key, presented by the customer to complete the order.
+     */
+    public static String generateSecretKey() {
+        return String.format("%06d", secureRandom.nextInt(1000000));
+    }
+
+    /**
+     * Parses per-endpoint settings of the form "prefix:value,prefix:value".
+     *
+     * @param rules  String
+     * @param parser BiFunction converting the prefix and its value
+     * @return trie resolving an url to the value of its longest configured prefix.
+     */
+    public static <V> PathPrefixTrie<V> toPathPrefixTrie(String rules, BiFunction<String, String, V> parser) {
+        PathPrefixTrie<V> pathPrefixTrie = new PathPrefixTrie<>();
+        if (!isNotNull(rules))
+            return pathPrefixTrie;
+
+        for (String rule : rules.split(",")) {
+            int separatorIndex = rule.lastIndexOf(':');
+            if (separatorIndex > 0) {
+                String prefix = rule.substring(0, separatorIndex).trim();
+                pathPrefixTrie.put(prefix, parser.apply(prefix, rule.substring(separatorIndex + 1).trim()));
+            }
+        }
+        return pathPrefixTrie;
+    }
 }
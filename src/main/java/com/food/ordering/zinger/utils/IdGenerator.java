@@ -0,0 +1,17 @@
+package com.food.ordering.zinger.utils;
+
+/**
+ * IdGenerator hands out the ids of rows that are keyed by the application instead of
+ * an auto increment column, so dependent rows can be written without reading back a generated key.
+ * The implementation is chosen with "zinger.id.generator".
+ *
+ * @implNote Ids must be positive, unique across all the nodes sharing the database
+ * and increasing over time, so sorting by id follows the order of creation.
+ */
+public interface IdGenerator {
+
+    /**
+     * @return the next id.
+     */
+    long nextId();
+}
@@ -0,0 +1,87 @@
+package com.food.ordering.zinger.utils;
+
+import com.food.ordering.zinger.constant.Column.ShopColumn;
+import com.food.ordering.zinger.constant.Column.UserColumn;
+import com.food.ordering.zinger.constant.Constant.PlaceOrderProcedure;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlOutParameter;
+import org.springframework.jdbc.core.SqlParameter;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.simple.SimpleJdbcCall;
+import org.springframework.jdbc.core.simple.SimpleJdbcInsert;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.sql.Types;
+
+/**
+ * JdbcOperationRegistry holds the stored procedure calls and generated key
+ * inserts used by the DAOs, compiled once at startup.
+ *
+ * @implNote Parameters and columns are declared explicitly, with procedure and table
+ * metadata access turned off, so no metadata is fetched from the database while
+ * serving requests. Keep the declarations in sync with "DB_PROC.sql" and "DB_INIT.sql",
+ * procedure parameters must be declared in their order.
+ * @implNote Compiled SimpleJdbcCall and SimpleJdbcInsert objects are thread-safe.
+ */
+@Component
+public class JdbcOperationRegistry {
+
+    @Autowired
+    NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    private SimpleJdbcCall placeOrderCall;
+    private SimpleJdbcInsert userInsert;
+    private SimpleJdbcInsert shopInsert;
+
+    @PostConstruct
+    public void compile() {
+        JdbcTemplate jdbcTemplate = namedParameterJdbcTemplate.getJdbcTemplate();
+
+        placeOrderCall = new SimpleJdbcCall(jdbcTemplate)
+                .withProcedureName(PlaceOrderProcedure.procedureName)
+                .withoutProcedureColumnMetaDataAccess()
+                .declareParameters(
+                        new SqlParameter(PlaceOrderProcedure.itemList, Types.VARCHAR),
+                        new SqlParameter(PlaceOrderProcedure.userId, Types.INTEGER),
+                        new SqlParameter(PlaceOrderProcedure.shopId, Types.INTEGER),
+                        new SqlParameter(PlaceOrderProcedure.orderType, Types.CHAR),
+                        new SqlParameter(PlaceOrderProcedure.expectedPrice, Types.INTEGER),
+                        new SqlParameter(PlaceOrderProcedure.price, Types.DOUBLE),
+                        new SqlParameter(PlaceOrderProcedure.deliveryPrice, Types.DOUBLE),
+                        new SqlParameter(PlaceOrderProcedure.deliveryLocation, Types.VARCHAR),
+                        new SqlParameter(PlaceOrderProcedure.cookingInfo, Types.VARCHAR),
+                        new SqlParameter(PlaceOrderProcedure.orderId, Types.BIGINT),
+                        new SqlOutParameter(PlaceOrderProcedure.totalPrice, Types.INTEGER),
+                        new SqlOutParameter(PlaceOrderProcedure.merchantId, Types.VARCHAR));
+        placeOrderCall.compile();
+
+        userInsert = new SimpleJdbcInsert(jdbcTemplate);
+        userInsert.withTableName(UserColumn.tableName)
+                .withoutTableColumnMetaDataAccess()
+                .usingColumns(UserColumn.mobile, UserColumn.oauthId, UserColumn.role, UserColumn.isDelete)
+                .usingGeneratedKeyColumns(UserColumn.id);
+        userInsert.compile();
+
+        shopInsert = new SimpleJdbcInsert(jdbcTemplate);
+        shopInsert.withTableName(ShopColumn.tableName)
+                .withoutTableColumnMetaDataAccess()
+                .usingColumns(ShopColumn.name, ShopColumn.photoUrl, ShopColumn.coverUrls, ShopColumn.mobile,
+                        ShopColumn.placeId, ShopColumn.openingTime, ShopColumn.closingTime, ShopColumn.isDelete)
+                .usingGeneratedKeyColumns(ShopColumn.id);
+        shopInsert.compile();
+    }
+
+    public SimpleJdbcCall getPlaceOrderCall() {
+        return placeOrderCall;
+    }
+
+    public SimpleJdbcInsert getUserInsert() {
+        return userInsert;
+    }
+
+    public SimpleJdbcInsert getShopInsert() {
+        return shopInsert;
+    }
+}
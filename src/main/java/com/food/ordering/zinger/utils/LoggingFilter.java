@@ -1,74 +1,155 @@
 package com.food.ordering.zinger.utils;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.food.ordering.zinger.constant.ApiConfig.OrderApi;
+import com.food.ordering.zinger.constant.Constant.SessionToken;
 import com.food.ordering.zinger.dao.interfaces.AuditLogDao;
+import com.food.ordering.zinger.model.Response;
+import com.food.ordering.zinger.model.SessionTokenModel;
 import com.food.ordering.zinger.model.logger.ApplicationLogModel;
-import org.apache.commons.io.IOUtils;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.util.ContentCachingRequestWrapper;
 import org.springframework.web.util.ContentCachingResponseWrapper;
 
+import javax.annotation.PostConstruct;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.net.URI;
 import java.util.Enumeration;
 
+import static com.food.ordering.zinger.constant.Column.UserColumn.id;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
+/**
+ * LoggingFilter audits every request along with its response.
+ *
+ * @implNote Bodies are stored as captured by the content caching wrappers,
+ * without being parsed, and are cut at "zinger.audit.max-body-bytes".
+ * The cap can be overridden per url prefix with
+ * "zinger.audit.endpoint-max-body-bytes" (e.g. "/order/seller:2048,/menu:1024"),
+ * a truncated body ends with a "...[truncated n bytes]" marker.
+ * @implNote Whether a request is audited at all is decided by the AuditSamplingPolicy.
+ * @implNote The order streams are not audited, their response stays open and would be buffered
+ * for as long as the connection lasts.
+ */
 @Component
 public class LoggingFilter extends OncePerRequestFilter {
 
+    private static final String truncationMarker = "...[truncated %d bytes]";
+    private static final String maskedValue = "****";
+
     @Autowired
     AuditLogDao auditLogDao;
 
     @Autowired
-    private ObjectMapper objectMapper;
+    AuditSamplingPolicy auditSamplingPolicy;
+
+    @Value("${zinger.audit.max-body-bytes:8192}")
+    private int maxBodyBytes;
+
+    @Value("${zinger.audit.endpoint-max-body-bytes:}")
+    private String endpointMaxBodyBytes;
+
+    private PathPrefixTrie<Integer> bodyLimits;
+
+    @PostConstruct
+    public void init() {
+        bodyLimits = Helper.toPathPrefixTrie(endpointMaxBodyBytes, (prefix, value) -> Integer.valueOf(value));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(OrderApi.BASE_URL + "/stream/");
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest httpServletRequest, HttpServletResponse httpServletResponse, FilterChain filterChain) throws ServletException, IOException {
-        ContentCachingRequestWrapper requestWrapper = new ContentCachingRequestWrapper(httpServletRequest);
+        String requestUri = httpServletRequest.getRequestURI();
+        Integer endpointLimit = bodyLimits.match(requestUri);
+        int bodyLimit = endpointLimit != null ? endpointLimit : maxBodyBytes;
+
+        ContentCachingRequestWrapper requestWrapper = new ContentCachingRequestWrapper(httpServletRequest, bodyLimit);
         ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(httpServletResponse);
 
         filterChain.doFilter(requestWrapper, responseWrapper);
 
-        String requestUrl = requestWrapper.getRequestURL().toString();
-        HttpHeaders requestHeaders = new HttpHeaders();
-        Enumeration headerNames = requestWrapper.getHeaderNames();
-        while (headerNames.hasMoreElements()) {
-            String headerName = (String) headerNames.nextElement();
-            requestHeaders.add(headerName, requestWrapper.getHeader(headerName));
+        Object response = requestWrapper.getAttribute(AuditResponseAdvice.responseAttribute);
+        if (!auditSamplingPolicy.shouldKeep(requestUri, response instanceof Response ? (Response<?>) response : null)) {
+            responseWrapper.copyBodyToResponse();
+            return;
         }
-        HttpMethod httpMethod = HttpMethod.valueOf(requestWrapper.getMethod());
-        String requestBody = IOUtils.toString(requestWrapper.getInputStream(), UTF_8);
-        JsonNode requestJson = objectMapper.readTree(requestBody);
-        RequestEntity<JsonNode> requestEntity = new RequestEntity<>(requestJson, requestHeaders, httpMethod, URI.create(requestUrl));
 
-        HttpStatus responseStatus = HttpStatus.valueOf(responseWrapper.getStatusCode());
-        HttpHeaders responseHeaders = new HttpHeaders();
-        for (String headerName : responseWrapper.getHeaderNames())
-            responseHeaders.add(headerName, responseWrapper.getHeader(headerName));
+        byte[] requestBytes = requestWrapper.getContentAsByteArray();
+        String requestBody = toBody(requestBytes, Math.max(requestWrapper.getContentLength(), requestBytes.length), bodyLimit);
+        byte[] responseBytes = responseWrapper.getContentAsByteArray();
+        String responseBody = toBody(responseBytes, responseBytes.length, bodyLimit);
 
-        String responseFromServer = " ";
+        ApplicationLogModel applicationLogModel = new ApplicationLogModel(HttpMethod.resolve(requestWrapper.getMethod()), requestUri,
+                toHeaderString(requestWrapper), requestBody, responseBody);
+        applicationLogModel.setUserId(toUserId(requestWrapper));
+        auditLogDao.insertLog(applicationLogModel);
+        responseWrapper.copyBodyToResponse();
+    }
+
+    /**
+     * Decodes at most "limit" bytes of the captured body.
+     *
+     * @param content     byte[]
+     * @param totalLength int, length of the complete body
+     * @param limit       int
+     * @return body, followed by the truncation marker if it is longer than the limit.
+     */
+    private static String toBody(byte[] content, int totalLength, int limit) {
+        if (totalLength <= limit)
+            return new String(content, 0, Math.min(content.length, totalLength), UTF_8);
+
+        return new String(content, 0, Math.min(content.length, limit), UTF_8) +
+                String.format(truncationMarker, totalLength - limit);
+    }
+
+    /**
+     * Resolves the caller from the verified session token, else from the id header.
+     *
+     * @param request HttpServletRequest
+     * @return the user id, null for anonymous requests.
+     */
+    private static Integer toUserId(HttpServletRequest request) {
+        Object sessionToken = request.getAttribute(SessionToken.requestAttribute);
+        if (sessionToken instanceof SessionTokenModel)
+            return ((SessionTokenModel) sessionToken).getUserId();
+
+        String userId = request.getHeader(id);
         try {
-            String responseBody = IOUtils.toString(responseWrapper.getContentInputStream(), UTF_8);
-            JsonNode responseJson = objectMapper.readTree(responseBody);
-            ResponseEntity<JsonNode> responseEntity = new ResponseEntity<>(responseJson, responseHeaders, responseStatus);
-            responseFromServer = responseEntity.getBody().toString();
-        } catch (Exception e) {
+            return userId == null ? null : Integer.valueOf(userId);
+        } catch (NumberFormatException e) {
+            return null;
         }
+    }
 
-        String requestBodyJson = new String(requestWrapper.getContentAsByteArray(), UTF_8);
-        HttpMethod requestType = requestEntity.getMethod();
-        ApplicationLogModel applicationLogModel = new ApplicationLogModel(requestType, requestEntity.getUrl().getPath(), requestEntity.getHeaders().toString(),
-                requestBodyJson, responseFromServer);
-        auditLogDao.insertLog(applicationLogModel);
-        responseWrapper.copyBodyToResponse();
+    /**
+     * Serializes the request headers in the same layout as HttpHeaders.toString(),
+     * e.g. [id:"1", role:"CUSTOMER"], straight into a single StringBuilder.
+     * The session token is masked, it is a bearer credential.
+     */
+    private static String toHeaderString(HttpServletRequest request) {
+        StringBuilder headers = new StringBuilder(256).append('[');
+        Enumeration<String> headerNames = request.getHeaderNames();
+        boolean first = true;
+
+        while (headerNames.hasMoreElements()) {
+            String headerName = headerNames.nextElement();
+            if (!first)
+                headers.append(", ");
+            headers.append(headerName).append(":\"")
+                    .append(SessionToken.header.equalsIgnoreCase(headerName) ? maskedValue : request.getHeader(headerName))
+                    .append('"');
+            first = false;
+        }
+        return headers.append(']').toString();
     }
 }
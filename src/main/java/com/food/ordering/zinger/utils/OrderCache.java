@@ -0,0 +1,172 @@
+package com.food.ordering.zinger.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.food.ordering.zinger.model.OrderItemListModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * OrderCache holds the details of recently read orders, i.e. the result of
+ * OrderDao.getOrderById, so that tracking an order or notifying a status change
+ * does not run the order detail query every time.
+ * <p>
+ * Every order has a version, bumped by {@link #evictOrder(Long)} on each write to the
+ * order, its status, rating or transaction. An order is cached along with the version
+ * read before it was loaded and is served only while the version is unchanged.
+ *
+ * @implNote The versions are striped over "zinger.order.cache.version-stripes" counters,
+ * a write also drops the other orders sharing its counter, which costs a reload at most.
+ * @implNote When invoked inside a transaction, the version is bumped again after completion,
+ * so that a read racing with the uncommitted write cannot cache the old row.
+ * @implNote Entries expire after "zinger.order.cache.ttl-seconds", which only bounds how stale
+ * another instance of the service can be. At most "zinger.order.cache.max-size" orders are kept,
+ * once full new orders are not cached until expired ones are purged.
+ * @implNote Orders are stored as JSON and every read gets its own copy, callers may modify it.
+ */
+@Component
+public class OrderCache {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Value("${zinger.order.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${zinger.order.cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${zinger.order.cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${zinger.order.cache.version-stripes:4096}")
+    private int versionStripes;
+
+    private AtomicLongArray versions;
+    private final ConcurrentHashMap<Long, Entry> cache = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        versions = new AtomicLongArray(Math.max(1, versionStripes));
+    }
+
+    /**
+     * @param orderId Long
+     * @return the version of the order, to be read before the order is loaded.
+     */
+    public long getVersion(Long orderId) {
+        return versions.get(getStripe(orderId));
+    }
+
+    /**
+     * @param orderId Long
+     * @return a copy of the cached order, null if the order has to be read from the database.
+     */
+    public OrderItemListModel get(Long orderId) {
+        if (!enabled || orderId == null)
+            return null;
+
+        Entry entry = cache.get(orderId);
+        if (entry == null)
+            return null;
+
+        if (entry.version != getVersion(orderId) || entry.expiresAt - System.nanoTime() <= 0) {
+            cache.remove(orderId, entry);
+            return null;
+        }
+
+        try {
+            return objectMapper.readValue(entry.orderItemList, OrderItemListModel.class);
+        } catch (IOException e) {
+            cache.remove(orderId, entry);
+            System.err.println(e.getClass().getName() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Caches the order, unless it has been written since the given version was read.
+     *
+     * @param orderId            Long
+     * @param version            long, the version read before the order was loaded
+     * @param orderItemListModel OrderItemListModel
+     */
+    public void put(Long orderId, long version, OrderItemListModel orderItemListModel) {
+        if (!enabled || orderId == null || version != getVersion(orderId))
+            return;
+
+        if (cache.size() >= maxSize) {
+            purgeExpired();
+            if (cache.size() >= maxSize)
+                return;
+        }
+
+        try {
+            Entry entry = new Entry(objectMapper.writeValueAsBytes(orderItemListModel), version,
+                    System.nanoTime() + TimeUnit.SECONDS.toNanos(ttlSeconds));
+
+            /*
+             *   A write bumping the version between the check above and the put
+             *   either sees the entry and removes it, or is seen below.
+             * */
+            cache.put(orderId, entry);
+            if (version != getVersion(orderId))
+                cache.remove(orderId, entry);
+        } catch (IOException e) {
+            System.err.println(e.getClass().getName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Bumps the version of the order and drops it, to be called after every write to the order.
+     *
+     * @param orderId Long
+     */
+    public void evictOrder(Long orderId) {
+        if (orderId == null)
+            return;
+
+        remove(orderId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    remove(orderId);
+                }
+            });
+        }
+    }
+
+    private void remove(Long orderId) {
+        versions.incrementAndGet(getStripe(orderId));
+        cache.remove(orderId);
+    }
+
+    private int getStripe(Long orderId) {
+        return (int) ((orderId ^ (orderId >>> 32)) & Integer.MAX_VALUE) % versions.length();
+    }
+
+    private void purgeExpired() {
+        long now = System.nanoTime();
+        cache.values().removeIf(entry -> entry.expiresAt - now <= 0);
+    }
+
+    private static final class Entry {
+        private final byte[] orderItemList;
+        private final long version;
+        private final long expiresAt;
+
+        private Entry(byte[] orderItemList, long version, long expiresAt) {
+            this.orderItemList = orderItemList;
+            this.version = version;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.food.ordering.zinger.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Base64;
+
+/**
+ * OrderCursor is the position of the last order of a page in the order history, i.e. its (date, id).
+ * The next page holds the orders before it in "ORDER BY date DESC, id DESC".
+ * <p>
+ * Clients get it as an opaque url safe string and send it back unchanged.
+ *
+ * @implNote The string is the base64url of "epochMillis.id". It is not signed, altering it
+ * only moves the position within the orders the caller is already allowed to read.
+ */
+public final class OrderCursor {
+
+    private static final Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder decoder = Base64.getUrlDecoder();
+    private static final char separator = '.';
+
+    private final Timestamp date;
+    private final Long id;
+
+    public OrderCursor(Timestamp date, Long id) {
+        this.date = date;
+        this.id = id;
+    }
+
+    public Timestamp getDate() {
+        return date;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String encode() {
+        return encoder.encodeToString((date.getTime() + String.valueOf(separator) + id).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @param cursor String
+     * @return the decoded cursor, null if the cursor is malformed.
+     */
+    public static OrderCursor decode(String cursor) {
+        try {
+            String value = new String(decoder.decode(cursor), StandardCharsets.US_ASCII);
+            int separatorIndex = value.indexOf(separator);
+            if (separatorIndex <= 0)
+                return null;
+
+            long epochMillis = Long.parseLong(value.substring(0, separatorIndex));
+            long id = Long.parseLong(value.substring(separatorIndex + 1));
+            return epochMillis < 0 || id <= 0 ? null : new OrderCursor(new Timestamp(epochMillis), id);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
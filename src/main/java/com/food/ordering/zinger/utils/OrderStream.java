@@ -0,0 +1,388 @@
+package com.food.ordering.zinger.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.food.ordering.zinger.constant.Constant.EventStream;
+import com.food.ordering.zinger.constant.ErrorLog;
+import com.food.ordering.zinger.dao.interfaces.OrderDao;
+import com.food.ordering.zinger.model.OrderItemListModel;
+import com.food.ordering.zinger.model.OrderModel;
+import com.food.ordering.zinger.model.OrderStatusEventModel;
+import com.food.ordering.zinger.model.Response;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * OrderStream pushes the active orders of a shop to the seller board over Server-Sent Events,
+ * instead of the board polling OrderDao.getOrderByShopId.
+ * <p>
+ * A new connection first gets a "snapshot" event, the orders returned by OrderDao.getOrderByShopId,
+ * then an "order" event with the details of an order of the shop every time its status changes.
+ * An order that is no longer PLACED, ACCEPTED, READY or OUT_FOR_DELIVERY comes with its new status
+ * and is to be dropped from the board. A "heartbeat" comment is sent every "zinger.order.stream.heartbeat-ms".
+ * <p>
+ * Every event has an id, a client reconnecting with the Last-Event-ID header gets the events it missed
+ * out of the last "zinger.order.stream.replay-size" events of the shop, or a new snapshot if they are gone.
+ *
+ * @implNote Connections are asynchronous requests, an open connection holds no thread. The status changes
+ * are published by OrderDao after commit and written to the connections by a single background thread,
+ * which also sends the heartbeats.
+ * @implNote The changes made on other nodes are not published on this one, every
+ * "zinger.order.stream.snapshot-ms" the shops with open connections get a new snapshot, which bounds
+ * how late such a change shows up (0 disables it).
+ * @implNote When more than "zinger.order.stream.queue-capacity" changes are waiting, the change is dropped
+ * and the stream starts over, every connection is closed and the clients reconnect into a new snapshot,
+ * the ids of the old events are not accepted anymore.
+ */
+@Component
+public class OrderStream {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    OrderDao orderDao;
+
+    @Value("${zinger.order.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${zinger.order.stream.heartbeat-ms:15000}")
+    private long heartbeatMs;
+
+    @Value("${zinger.order.stream.snapshot-ms:60000}")
+    private long snapshotMs;
+
+    @Value("${zinger.order.stream.replay-size:256}")
+    private int replaySize;
+
+    @Value("${zinger.order.stream.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${zinger.order.stream.shutdown-timeout-ms:5000}")
+    private long shutdownTimeoutMs;
+
+    private final ConcurrentHashMap<Integer, ShopStream> shopStreams = new ConcurrentHashMap<>();
+    private final AtomicBoolean isEventLost = new AtomicBoolean();
+    private BlockingQueue<OrderStatusEventModel> queue;
+    private Thread writer;
+    private volatile boolean running;
+    private volatile long streamId;
+
+    @PostConstruct
+    public void start() {
+        streamId = System.currentTimeMillis();
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        writer = new Thread(this::drain, "order-stream-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(shutdownTimeoutMs);
+
+        for (ShopStream shopStream : shopStreams.values())
+            shopStream.close();
+    }
+
+    /**
+     * Opens the stream of the active orders of the shop.
+     *
+     * @param shopId      Integer
+     * @param lastEventId String, the Last-Event-ID header of a reconnecting client, null for a new one
+     * @return the connection, starting with a snapshot, or with the events missed since the given event.
+     */
+    public SseEmitter subscribe(Integer shopId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        ShopStream shopStream = shopStreams.computeIfAbsent(shopId, ShopStream::new);
+        Subscriber subscriber = new Subscriber(emitter, toSequence(lastEventId));
+
+        emitter.onCompletion(() -> shopStream.subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> shopStream.subscribers.remove(subscriber));
+
+        long snapshotSequence = shopStream.add(subscriber);
+        if (snapshotSequence < 0) {
+            subscriber.start(null);
+            return emitter;
+        }
+
+        String snapshot = getSnapshot(shopId);
+        if (snapshot == null)
+            emitter.complete();
+        else
+            subscriber.start(new Event(snapshotSequence, EventStream.snapshotEvent, snapshot));
+        return emitter;
+    }
+
+    /**
+     * Queues the status change for the background thread, once the transaction that made it is committed.
+     *
+     * @param orderStatusEventModel OrderStatusEventModel
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusEventModel orderStatusEventModel) {
+        if (!running || shopStreams.isEmpty())
+            return;
+
+        if (!queue.offer(orderStatusEventModel))
+            isEventLost.set(true);
+    }
+
+    /**************************************************/
+
+    /**
+     * Background loop writing the queued status changes, the heartbeats and the periodic snapshots, until shutdown.
+     */
+    private void drain() {
+        long nextHeartbeat = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(heartbeatMs);
+        long nextSnapshot = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(snapshotMs);
+
+        while (running) {
+            try {
+                long timeout = nextHeartbeat - System.nanoTime();
+                if (snapshotMs > 0)
+                    timeout = Math.min(timeout, nextSnapshot - System.nanoTime());
+
+                OrderStatusEventModel orderStatusEventModel = queue.poll(Math.max(0, timeout), TimeUnit.NANOSECONDS);
+                if (orderStatusEventModel != null)
+                    publish(orderStatusEventModel);
+
+                if (isEventLost.getAndSet(false))
+                    restart();
+
+                if (nextHeartbeat - System.nanoTime() <= 0) {
+                    for (ShopStream shopStream : shopStreams.values())
+                        for (Subscriber subscriber : shopStream.subscribers)
+                            subscriber.heartbeat();
+                    nextHeartbeat = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(heartbeatMs);
+                }
+
+                if (snapshotMs > 0 && nextSnapshot - System.nanoTime() <= 0) {
+                    for (ShopStream shopStream : shopStreams.values()) {
+                        if (shopStream.subscribers.isEmpty())
+                            continue;
+                        String snapshot = getSnapshot(shopStream.shopId);
+                        if (snapshot != null)
+                            shopStream.publish(EventStream.snapshotEvent, snapshot);
+                    }
+                    nextSnapshot = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(snapshotMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (Exception e) {
+                System.err.println(e.getClass().getName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Reads the order once and writes it to the connections of its shop,
+     * leaving out the shop and the notification tokens of the customer as getOrderByShopId does.
+     */
+    private void publish(OrderStatusEventModel orderStatusEventModel) throws IOException {
+        Response<OrderItemListModel> response = orderDao.getOrderById(orderStatusEventModel.getOrderId());
+        if (!response.getCode().equals(ErrorLog.CodeSuccess))
+            return;
+
+        OrderItemListModel orderItemListModel = response.getData();
+        OrderModel orderModel = orderItemListModel.getTransactionModel().getOrderModel();
+        ShopStream shopStream = shopStreams.get(orderModel.getShopModel().getId());
+        if (shopStream == null)
+            return;
+
+        orderModel.setShopModel(null);
+        if (orderModel.getUserModel() != null)
+            orderModel.getUserModel().setNotificationToken(null);
+        shopStream.publish(EventStream.orderEvent, objectMapper.writeValueAsString(orderItemListModel));
+    }
+
+    /**
+     * Closes every connection and drops the events kept for replay, under a new stream id.
+     */
+    private void restart() {
+        streamId = Math.max(streamId + 1, System.currentTimeMillis());
+        for (ShopStream shopStream : shopStreams.values())
+            shopStream.close();
+    }
+
+    /**
+     * @return the orders of the shop as a JSON array, null if they could not be read.
+     */
+    private String getSnapshot(Integer shopId) {
+        Response<List<OrderItemListModel>> response = orderDao.getOrderByShopId(shopId);
+        if (!response.getCode().equals(ErrorLog.CodeSuccess) && !response.getCode().equals(ErrorLog.CodeEmpty))
+            return null;
+
+        try {
+            return objectMapper.writeValueAsString(response.getData() == null ? new ArrayList<>() : response.getData());
+        } catch (IOException e) {
+            System.err.println(e.getClass().getName() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @param lastEventId String, "streamId.sequence"
+     * @return the sequence of the event, -1 if it is not an event of the current stream.
+     */
+    private long toSequence(String lastEventId) {
+        if (lastEventId == null)
+            return -1;
+
+        String prefix = streamId + EventStream.idSeparator;
+        if (!lastEventId.startsWith(prefix))
+            return -1;
+
+        try {
+            return Long.parseLong(lastEventId.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * The connections of a shop and its last events, numbered by a sequence of its own.
+     */
+    private final class ShopStream {
+        private final Integer shopId;
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        private final ArrayDeque<Event> events = new ArrayDeque<>();
+        private long sequence;
+
+        private ShopStream(Integer shopId) {
+            this.shopId = shopId;
+        }
+
+        /**
+         * Adds the connection, along with the events it missed if they are all still kept.
+         *
+         * @return the sequence of the snapshot the connection has to start with, -1 if it resumes without one.
+         */
+        private synchronized long add(Subscriber subscriber) {
+            subscribers.add(subscriber);
+
+            long lastSequence = subscriber.lastSequence;
+            long firstSequence = events.isEmpty() ? sequence + 1 : events.getFirst().sequence;
+            if (lastSequence >= 0 && lastSequence <= sequence && lastSequence + 1 >= firstSequence) {
+                for (Event event : events)
+                    if (event.sequence > lastSequence)
+                        subscriber.pending.add(event);
+                return -1;
+            }
+
+            subscriber.lastSequence = -1;
+            return ++sequence;
+        }
+
+        private void publish(String name, String data) {
+            Event event;
+            synchronized (this) {
+                event = new Event(++sequence, name, data);
+                events.addLast(event);
+                if (events.size() > replaySize)
+                    events.removeFirst();
+            }
+
+            for (Subscriber subscriber : subscribers)
+                subscriber.send(event);
+        }
+
+        private void close() {
+            synchronized (this) {
+                events.clear();
+            }
+
+            for (Subscriber subscriber : subscribers) {
+                subscribers.remove(subscriber);
+                subscriber.emitter.complete();
+            }
+        }
+    }
+
+    /**
+     * A connection. Events are held back until its snapshot is written, and each event
+     * is written at most once, in the order of the sequence.
+     */
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private List<Event> pending = new ArrayList<>();
+        private long lastSequence;
+
+        private Subscriber(SseEmitter emitter, long lastSequence) {
+            this.emitter = emitter;
+            this.lastSequence = lastSequence;
+        }
+
+        private synchronized void start(Event snapshot) {
+            if (snapshot != null)
+                write(snapshot);
+            for (Event event : pending)
+                write(event);
+            pending = null;
+        }
+
+        private synchronized void send(Event event) {
+            if (pending != null)
+                pending.add(event);
+            else
+                write(event);
+        }
+
+        private synchronized void heartbeat() {
+            if (pending != null)
+                return;
+
+            try {
+                emitter.send(SseEmitter.event().comment(EventStream.heartbeatComment));
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+            }
+        }
+
+        private void write(Event event) {
+            if (event.sequence <= lastSequence)
+                return;
+
+            lastSequence = event.sequence;
+            try {
+                emitter.send(SseEmitter.event()
+                        .id(streamId + EventStream.idSeparator + event.sequence)
+                        .name(event.name)
+                        .data(event.data));
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    private static final class Event {
+        private final long sequence;
+        private final String name;
+        private final String data;
+
+        private Event(long sequence, String name, String data) {
+            this.sequence = sequence;
+            this.name = name;
+            this.data = data;
+        }
+    }
+}
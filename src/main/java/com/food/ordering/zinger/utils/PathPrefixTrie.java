@@ -0,0 +1,79 @@
+package com.food.ordering.zinger.utils;
+
+import java.util.Arrays;
+
+/**
+ * PathPrefixTrie maps url prefixes to values and resolves
+ * a request path to the value of its longest matching prefix.
+ *
+ * @param <V> type of the value stored against a prefix
+ * @implNote The trie is populated once during startup, lookups
+ * only walk the characters of the path and never allocate.
+ * @implNote Not thread-safe while being populated, safe for
+ * concurrent lookups once published.
+ */
+public class PathPrefixTrie<V> {
+
+    private final Node<V> root = new Node<>();
+
+    /**
+     * Stores the value against the given prefix,
+     * replacing the value of an identical prefix.
+     *
+     * @param prefix String
+     * @param value  V
+     */
+    public void put(String prefix, V value) {
+        Node<V> node = root;
+        for (int i = 0; i < prefix.length(); i++)
+            node = node.childOrCreate(prefix.charAt(i));
+        node.value = value;
+    }
+
+    /**
+     * Resolves the path to its longest matching prefix.
+     *
+     * @param path String
+     * @return the value of the longest prefix of the path, null if no prefix matches.
+     */
+    public V match(String path) {
+        Node<V> node = root;
+        V value = root.value;
+
+        for (int i = 0; i < path.length(); i++) {
+            node = node.child(path.charAt(i));
+            if (node == null)
+                break;
+            if (node.value != null)
+                value = node.value;
+        }
+        return value;
+    }
+
+    private static final class Node<V> {
+        private char[] keys = new char[0];
+        @SuppressWarnings("unchecked")
+        private Node<V>[] children = (Node<V>[]) new Node[0];
+        private V value;
+
+        private Node<V> child(char key) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == key)
+                    return children[i];
+            }
+            return null;
+        }
+
+        private Node<V> childOrCreate(char key) {
+            Node<V> node = child(key);
+            if (node == null) {
+                node = new Node<>();
+                keys = Arrays.copyOf(keys, keys.length + 1);
+                children = Arrays.copyOf(children, children.length + 1);
+                keys[keys.length - 1] = key;
+                children[children.length - 1] = node;
+            }
+            return node;
+        }
+    }
+}
@@ -7,6 +7,7 @@ import com.food.ordering.zinger.constant.ErrorLog;
 import com.food.ordering.zinger.model.OrderModel;
 import com.food.ordering.zinger.model.Response;
 import com.food.ordering.zinger.model.TransactionModel;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.json.JsonParser;
 import org.springframework.boot.json.JsonParserFactory;
 import org.springframework.context.annotation.Bean;
@@ -20,6 +21,9 @@ import java.util.stream.Collectors;
 
 /**
  * PaymentResponse provides the transaction response code and message.
+ *
+ * @implNote Until a payment gateway is integrated, every gateway call can be delayed by
+ * "zinger.payment.simulated-latency-ms" to load test the checkout against a slow gateway.
  */
 @Configuration
 public class PaymentResponse {
@@ -28,6 +32,9 @@ public class PaymentResponse {
     private String message;
     private String responseValue;
 
+    @Value("${zinger.payment.simulated-latency-ms:0}")
+    private long simulatedLatencyMs;
+
     /**
      * Parse the file "responseStatus.json".
      *
@@ -88,9 +95,10 @@ public class PaymentResponse {
      * @return token fetched from payment gateway is returned
      */
     public Response<String> initiateTransaction(OrderModel orderModel, String merchantId) {
+        simulateLatency();
         Response<String> response = new Response<>();
 
-        Integer orderId = orderModel.getId();
+        Long orderId = orderModel.getId();
 
         //TODO: Make a request to Payment Gateway to get Transaction Token using OrderId & merchantId
         //String transactionToken = getTransactionToken(orderId, merchantId);
@@ -109,7 +117,8 @@ public class PaymentResponse {
      * @param orderId the order id
      * @return the latest transaction data from payment gateway is returned
      */
-    public Response<TransactionModel> getTransactionStatus(Integer orderId) {
+    public Response<TransactionModel> getTransactionStatus(Long orderId) {
+        simulateLatency();
         Response<TransactionModel> transactionModelResponse = new Response<>();
 
         //TODO: Make a request to Payment Gateway to verify Transaction Status using orderId
@@ -137,10 +146,11 @@ public class PaymentResponse {
     /**
      * This method is used for fetching the refund status from the Payment gateway.
      *
-     * @param orderId Integer
+     * @param orderId Long
      * @return the latest transaction data from payment gateway is returned
      */
-    public Response<TransactionModel> getRefundStatus(Integer orderId) {
+    public Response<TransactionModel> getRefundStatus(Long orderId) {
+        simulateLatency();
         Response<TransactionModel> transactionModelResponse = new Response<>();
 
         //TODO: Make a request to Payment Gateway to verify Refund Status using orderId
@@ -172,6 +182,17 @@ public class PaymentResponse {
         //TODO: Make a request to initiate the refund using payment gateway
     }
 
+    private void simulateLatency() {
+        if (simulatedLatencyMs <= 0)
+            return;
+
+        try {
+            Thread.sleep(simulatedLatencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     public String getCode() {
         return code;
     }
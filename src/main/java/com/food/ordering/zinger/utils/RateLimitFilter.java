@@ -0,0 +1,278 @@
+package com.food.ordering.zinger.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.food.ordering.zinger.constant.ApiConfig;
+import com.food.ordering.zinger.constant.ApiConfig.OrderApi;
+import com.food.ordering.zinger.constant.Constant.SessionToken;
+import com.food.ordering.zinger.constant.ErrorLog;
+import com.food.ordering.zinger.interceptor.RequestHeaderCache;
+import com.food.ordering.zinger.interceptor.SessionTokenCodec;
+import com.food.ordering.zinger.model.RequestHeaderModel;
+import com.food.ordering.zinger.model.Response;
+import com.food.ordering.zinger.model.SessionTokenModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.food.ordering.zinger.constant.Column.UserColumn.*;
+
+/**
+ * RateLimitFilter throttles clients with a token bucket per user or per shop
+ * (shopId path variable), before the request reaches the interceptor,
+ * the controllers and the LoggingFilter.
+ * <p>
+ * Route groups and their keys:
+ * "order-seller"   -> /order/seller/{shopId}/..  keyed by shopId
+ * "order-customer" -> /order/customer/..         keyed by the user
+ * "default"        -> every other endpoint       keyed by the user
+ * <p>
+ * Each group is configured with "zinger.rate-limit.{group}.capacity" (burst size)
+ * and "zinger.rate-limit.{group}.refill-per-second". A group with a capacity of 0 falls back
+ * to the default group, a default capacity of 0 disables the limit on its endpoints.
+ *
+ * @implNote A user is the id of a verified session token, or the id header when the
+ * request header cache knows the oauth_id, id and role headers to be valid. Any other
+ * request is keyed by its client address, which is read from
+ * "zinger.rate-limit.client-address-header" only when the request comes from one of
+ * "zinger.rate-limit.trusted-proxies".
+ * @implNote A bucket is one AtomicLong packing the last refill time (ms) and the available
+ * milli-tokens, updated with a CAS loop, so a capacity is limited to what the token bits can hold.
+ * @implNote A group holds at most "zinger.rate-limit.max-keys" buckets. Once full, buckets
+ * that refilled completely are purged, new keys share one overflow bucket until then.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final int tokenBits = 24;
+    private static final long tokenMask = (1L << tokenBits) - 1;
+    private static final long milliTokensPerToken = 1000;
+    private static final long purgeIntervalMillis = 1000;
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    Environment environment;
+
+    @Autowired
+    SessionTokenCodec sessionTokenCodec;
+
+    @Autowired
+    RequestHeaderCache requestHeaderCache;
+
+    private boolean enabled;
+    private int maxKeys;
+    private String clientAddressHeader;
+    private final Set<String> trustedProxies = new HashSet<>();
+    private final long baseNanos = System.nanoTime();
+    private final PathPrefixTrie<RouteGroup> routeGroups = new PathPrefixTrie<>();
+
+    @PostConstruct
+    public void init() {
+        enabled = environment.getProperty("zinger.rate-limit.enabled", Boolean.class, false);
+        maxKeys = environment.getProperty("zinger.rate-limit.max-keys", Integer.class, 100000);
+        clientAddressHeader = environment.getProperty("zinger.rate-limit.client-address-header", "X-Forwarded-For");
+        for (String proxy : environment.getProperty("zinger.rate-limit.trusted-proxies", ApiConfig.EMPTY_QUOTES).split(","))
+            if (!proxy.trim().isEmpty())
+                trustedProxies.add(proxy.trim());
+
+        if (maxKeys <= 0)
+            throw new IllegalStateException("zinger.rate-limit.max-keys must be positive");
+
+        addRouteGroup("default", ApiConfig.EMPTY_QUOTES, false);
+        addRouteGroup("order-seller", OrderApi.BASE_URL + "/seller/", true);
+        addRouteGroup("order-customer", OrderApi.BASE_URL + "/customer/", false);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String url = request.getRequestURI();
+        RouteGroup routeGroup = routeGroups.match(url);
+
+        if (routeGroup != null && routeGroup.buckets != null) {
+            String key = routeGroup.shopKeyed ? getShopKey(url, routeGroup.prefixLength) : getUserKey(request);
+            if (!tryAcquire(routeGroup, key)) {
+                Response<String> tooManyRequests = new Response<>();
+                tooManyRequests.setCode(ErrorLog.TMR1341);
+                tooManyRequests.setMessage(ErrorLog.TooManyRequests);
+
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                objectMapper.writeValue(response.getOutputStream(), tooManyRequests);
+                return;
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private boolean tryAcquire(RouteGroup routeGroup, String key) {
+        long now = (System.nanoTime() - baseNanos) / 1_000_000;
+        AtomicLong bucket = routeGroup.buckets.get(key);
+
+        if (bucket == null) {
+            if (routeGroup.buckets.size() >= maxKeys)
+                purge(routeGroup, now);
+            bucket = routeGroup.buckets.size() < maxKeys
+                    ? routeGroup.buckets.computeIfAbsent(key, k -> new AtomicLong(pack(now, routeGroup.capacity)))
+                    : routeGroup.overflow;
+        }
+
+        while (true) {
+            long state = bucket.get();
+            long last = state >>> tokenBits;
+            long milliTokens = refill(routeGroup, state, now);
+            if (milliTokens < milliTokensPerToken)
+                return false;
+
+            if (bucket.compareAndSet(state, pack(Math.max(now, last), milliTokens - milliTokensPerToken)))
+                return true;
+        }
+    }
+
+    /**
+     * Drops the buckets that are full again, a new bucket for their key would be identical.
+     * Runs at most once a second per group.
+     *
+     * @implNote A token taken from a bucket while it is being dropped is not counted, which
+     * lets its key exceed the limit by one request.
+     */
+    private void purge(RouteGroup routeGroup, long now) {
+        long lastPurge = routeGroup.lastPurge.get();
+        if (now - lastPurge < purgeIntervalMillis || !routeGroup.lastPurge.compareAndSet(lastPurge, now))
+            return;
+
+        routeGroup.buckets.values().removeIf(bucket -> refill(routeGroup, bucket.get(), now) >= routeGroup.capacity);
+    }
+
+    private void addRouteGroup(String name, String urlPrefix, boolean shopKeyed) {
+        String property = "zinger.rate-limit." + name + ".";
+        long capacity = environment.getProperty(property + "capacity", Long.class, 0L);
+        long refillPerSecond = environment.getProperty(property + "refill-per-second", Long.class, 0L);
+
+        if (capacity < 0 || refillPerSecond < 0)
+            throw new IllegalStateException(property + "capacity and " + property + "refill-per-second must not be negative");
+        if (capacity > tokenMask / milliTokensPerToken)
+            throw new IllegalStateException(property + "capacity must not exceed " + tokenMask / milliTokensPerToken);
+        if (capacity > 0 && refillPerSecond == 0)
+            throw new IllegalStateException(property + "refill-per-second must be positive when the group is enabled");
+
+        if (capacity == 0 && !urlPrefix.equals(ApiConfig.EMPTY_QUOTES))
+            return;
+
+        RouteGroup routeGroup = new RouteGroup();
+        routeGroup.shopKeyed = shopKeyed;
+        routeGroup.prefixLength = urlPrefix.length();
+        routeGroup.capacity = capacity * milliTokensPerToken;
+        routeGroup.refillPerMilli = refillPerSecond;
+        if (capacity > 0) {
+            routeGroup.buckets = new ConcurrentHashMap<>();
+            routeGroup.overflow = new AtomicLong(pack(0, routeGroup.capacity));
+        }
+        routeGroups.put(urlPrefix, routeGroup);
+    }
+
+    private String getUserKey(HttpServletRequest request) {
+        String authorization = request.getHeader(SessionToken.header);
+        if (sessionTokenCodec.isEnabled() && authorization != null && authorization.startsWith(SessionToken.bearerPrefix)) {
+            SessionTokenModel sessionTokenModel = sessionTokenCodec.verify(authorization.substring(SessionToken.bearerPrefix.length()));
+            if (sessionTokenModel != null)
+                return "user:" + sessionTokenModel.getUserId();
+        }
+
+        String userId = request.getHeader(id);
+        if (userId != null && request.getHeader(oauthId) != null && request.getHeader(role) != null) {
+            try {
+                RequestHeaderModel requestHeaderModel = new RequestHeaderModel(request.getHeader(oauthId), Integer.parseInt(userId), request.getHeader(role));
+                if (Boolean.TRUE.equals(requestHeaderCache.get(requestHeaderModel)))
+                    return "user:" + requestHeaderModel.getId();
+            } catch (NumberFormatException e) {
+                // keyed by the client address, the interceptor rejects the request
+            }
+        }
+
+        return "address:" + getClientAddress(request);
+    }
+
+    /**
+     * @return the remote address, or the rightmost address of the client address header
+     * that is not a trusted proxy when the request comes from a trusted proxy.
+     */
+    private String getClientAddress(HttpServletRequest request) {
+        String clientAddress = request.getRemoteAddr();
+        String forwarded = request.getHeader(clientAddressHeader);
+        if (forwarded == null || !trustedProxies.contains(clientAddress))
+            return clientAddress;
+
+        String[] addresses = forwarded.split(",");
+        for (int i = addresses.length - 1; i >= 0; i--) {
+            String address = addresses[i].trim();
+            if (address.isEmpty())
+                continue;
+            clientAddress = address;
+            if (!trustedProxies.contains(address))
+                break;
+        }
+        return clientAddress;
+    }
+
+    private static String getShopKey(String url, int from) {
+        int to = url.indexOf('/', from);
+        return "shop:" + url.substring(from, to < 0 ? url.length() : to);
+    }
+
+    private static final class RouteGroup {
+        private boolean shopKeyed;
+        private int prefixLength;
+        private long capacity;
+        private long refillPerMilli;
+        private ConcurrentHashMap<String, AtomicLong> buckets;
+        private AtomicLong overflow;
+        private final AtomicLong lastPurge = new AtomicLong();
+    }
+
+    private static long pack(long last, long milliTokens) {
+        return (last << tokenBits) | milliTokens;
+    }
+
+    /**
+     * Adds the tokens earned since the last refill, the missing tokens bound the
+     * elapsed time so that the product cannot overflow.
+     *
+     * @return the milli-tokens of the bucket at the given time.
+     */
+    private static long refill(RouteGroup routeGroup, long state, long now) {
+        long last = state >>> tokenBits;
+        long milliTokens = state & tokenMask;
+        if (now <= last)
+            return milliTokens;
+
+        long missing = routeGroup.capacity - milliTokens;
+        long elapsed = now - last;
+        return elapsed >= missing / routeGroup.refillPerMilli + 1
+                ? routeGroup.capacity
+                : milliTokens + elapsed * routeGroup.refillPerMilli;
+    }
+}
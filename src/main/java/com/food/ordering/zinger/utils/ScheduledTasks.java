@@ -1,5 +1,7 @@
 package com.food.ordering.zinger.utils;
 
+import com.food.ordering.zinger.dao.interfaces.AuditLogPartitionDao;
+import com.food.ordering.zinger.dao.interfaces.IdempotencyKeyDao;
 import com.food.ordering.zinger.dao.interfaces.OrderDao;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -11,6 +13,12 @@ public class ScheduledTasks {
     @Autowired
     OrderDao orderDao;
 
+    @Autowired
+    AuditLogPartitionDao auditLogPartitionDao;
+
+    @Autowired
+    IdempotencyKeyDao idempotencyKeyDao;
+
     /**
      * This is a scheduled method used to handle the pending transaction. This method will update the latest
      * transaction status of all pending orders every 2 mins after contacting the payment gateway.
@@ -20,6 +28,15 @@ public class ScheduledTasks {
         orderDao.updatePendingOrder();
     }
 
+    /**
+     * This is a scheduled method used to fail the orders left without a status by an interrupted checkout.
+     * This method will mark them TXN_FAILURE every 5 mins, once they are older than the new order timeout.
+     */
+    @Scheduled(fixedDelay = 300000)
+    public void updateTimedOutNewOrder() {
+        orderDao.updateTimedOutNewOrder();
+    }
+
     /**
      * This is a scheduled method used to handle the refunded transaction . This method will update the latest
      * refund status once every 24 hours after contacting the payment gateway.
@@ -28,4 +45,31 @@ public class ScheduledTasks {
     public void updateRefundedOrder() {
         orderDao.updatedRefundOrder();
     }
+
+    /**
+     * This is a scheduled method used to build the in-memory view of the active orders at startup, and then
+     * to check it against the database and repair it every minute.
+     */
+    @Scheduled(fixedDelayString = "${zinger.order.active-view.repair-ms:60000}")
+    public void repairActiveOrderView() {
+        orderDao.repairActiveOrderView();
+    }
+
+    /**
+     * This is a scheduled method used to roll the daily partitions of the application log. It runs at
+     * startup and then every hour, creating the upcoming partitions and dropping the expired ones.
+     */
+    @Scheduled(fixedDelayString = "${zinger.audit.partition.check-ms:3600000}")
+    public void maintainAuditLogPartitions() {
+        auditLogPartitionDao.maintainPartitions();
+    }
+
+    /**
+     * This is a scheduled method used to purge the idempotency keys of requests older than the retention,
+     * once every hour.
+     */
+    @Scheduled(fixedDelay = 3600000)
+    public void deleteExpiredIdempotencyKeys() {
+        idempotencyKeyDao.deleteExpiredKeys();
+    }
 }
@@ -0,0 +1,73 @@
+package com.food.ordering.zinger.constant;
+
+import com.food.ordering.zinger.constant.Enums.OrderStatus;
+import com.food.ordering.zinger.constant.OrderStateMachine.Guard;
+import com.food.ordering.zinger.constant.OrderStateMachine.Transition;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static com.food.ordering.zinger.constant.Enums.OrderStatus.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderStateMachineTest {
+
+    private static final Map<OrderStatus, Set<OrderStatus>> allowedFrom = new EnumMap<>(OrderStatus.class);
+
+    static {
+        allowedFrom.put(PENDING, set((OrderStatus) null));
+        allowedFrom.put(PLACED, set(null, PENDING));
+        allowedFrom.put(TXN_FAILURE, set(null, PENDING));
+        allowedFrom.put(REFUND_INITIATED, set(PENDING));
+        allowedFrom.put(ACCEPTED, set(PLACED));
+        allowedFrom.put(CANCELLED_BY_USER, set(PLACED));
+        allowedFrom.put(CANCELLED_BY_SELLER, set(PLACED, ACCEPTED));
+        allowedFrom.put(READY, set(ACCEPTED));
+        allowedFrom.put(OUT_FOR_DELIVERY, set(ACCEPTED));
+        allowedFrom.put(COMPLETED, set(READY));
+        allowedFrom.put(DELIVERED, set(OUT_FOR_DELIVERY));
+        allowedFrom.put(REFUND_COMPLETED, set(CANCELLED_BY_USER, CANCELLED_BY_SELLER, REFUND_INITIATED));
+    }
+
+    @Test
+    void everyStatusHasATransition() {
+        for (OrderStatus newStatus : OrderStatus.values()) {
+            Transition transition = OrderStateMachine.getTransition(newStatus);
+            assertNotNull(transition, newStatus.name());
+            assertEquals(newStatus, transition.getNewStatus());
+        }
+        assertNull(OrderStateMachine.getTransition(null));
+    }
+
+    @Test
+    void transitionsMatchTheTable() {
+        Set<OrderStatus> fromStatuses = new HashSet<>(Arrays.asList(OrderStatus.values()));
+        fromStatuses.add(null);
+
+        for (OrderStatus newStatus : OrderStatus.values()) {
+            Transition transition = OrderStateMachine.getTransition(newStatus);
+            for (OrderStatus status : fromStatuses)
+                assertEquals(allowedFrom.get(newStatus).contains(status), transition.isAllowedFrom(status), status + " -> " + newStatus);
+        }
+    }
+
+    @Test
+    void guardsAndSecretKeys() {
+        assertEquals(Guard.PICK_UP, OrderStateMachine.getTransition(READY).getGuard());
+        assertEquals(Guard.DELIVERY, OrderStateMachine.getTransition(OUT_FOR_DELIVERY).getGuard());
+        assertEquals(Guard.SECRET_KEY, OrderStateMachine.getTransition(COMPLETED).getGuard());
+        assertEquals(Guard.SECRET_KEY, OrderStateMachine.getTransition(DELIVERED).getGuard());
+        assertEquals(Guard.NONE, OrderStateMachine.getTransition(ACCEPTED).getGuard());
+
+        for (OrderStatus newStatus : OrderStatus.values())
+            assertEquals(newStatus == READY || newStatus == OUT_FOR_DELIVERY, OrderStateMachine.getTransition(newStatus).isSecretKeyGenerated(), newStatus.name());
+    }
+
+    private static Set<OrderStatus> set(OrderStatus... statuses) {
+        return new HashSet<>(Arrays.asList(statuses));
+    }
+}
@@ -0,0 +1,44 @@
+package com.food.ordering.zinger.constant;
+
+import com.food.ordering.zinger.constant.Query.OrderQuery;
+import org.junit.jupiter.api.Test;
+
+import static com.food.ordering.zinger.constant.Enums.OrderStatus.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class QueryTest {
+
+    @Test
+    void updateOrderStatusChecksThePredecessors() {
+        assertEquals(" UPDATE orders SET status = :status WHERE id = :id AND (status IN ('PLACED'))",
+                OrderQuery.getUpdateOrderStatus(OrderStateMachine.getTransition(ACCEPTED)));
+        assertEquals(" UPDATE orders SET status = :status WHERE id = :id AND (status IN ('CANCELLED_BY_USER', 'CANCELLED_BY_SELLER', 'REFUND_INITIATED'))",
+                OrderQuery.getUpdateOrderStatus(OrderStateMachine.getTransition(REFUND_COMPLETED)));
+    }
+
+    @Test
+    void updateOrderStatusAllowsNewOrders() {
+        assertEquals(" UPDATE orders SET status = :status WHERE id = :id AND (status IS NULL)",
+                OrderQuery.getUpdateOrderStatus(OrderStateMachine.getTransition(PENDING)));
+        assertEquals(" UPDATE orders SET status = :status WHERE id = :id AND (status IN ('PENDING') OR status IS NULL)",
+                OrderQuery.getUpdateOrderStatus(OrderStateMachine.getTransition(TXN_FAILURE)));
+    }
+
+    @Test
+    void updateOrderStatusAppliesTheGuard() {
+        assertEquals(" UPDATE orders SET status = :status, secret_key = :secret_key WHERE id = :id AND (status IN ('ACCEPTED')) AND delivery_location IS NULL",
+                OrderQuery.getUpdateOrderStatus(OrderStateMachine.getTransition(READY)));
+        assertEquals(" UPDATE orders SET status = :status, secret_key = :secret_key WHERE id = :id AND (status IN ('ACCEPTED')) AND delivery_location IS NOT NULL",
+                OrderQuery.getUpdateOrderStatus(OrderStateMachine.getTransition(OUT_FOR_DELIVERY)));
+        assertEquals(" UPDATE orders SET status = :status WHERE id = :id AND (status IN ('READY')) AND secret_key = :secret_key",
+                OrderQuery.getUpdateOrderStatus(OrderStateMachine.getTransition(COMPLETED)));
+    }
+
+    @Test
+    void transitionCarriesItsUpdateQuery() {
+        for (Enums.OrderStatus newStatus : Enums.OrderStatus.values()) {
+            OrderStateMachine.Transition transition = OrderStateMachine.getTransition(newStatus);
+            assertEquals(OrderQuery.getUpdateOrderStatus(transition), transition.getUpdateQuery());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.food.ordering.zinger.dao.impl;
+
+import com.food.ordering.zinger.constant.ErrorLog;
+import com.food.ordering.zinger.model.Response;
+import com.food.ordering.zinger.model.logger.ApplicationLogModel;
+import com.food.ordering.zinger.utils.AuditPayloadCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.ArrayBlockingQueue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class AuditLogDaoImplTest {
+
+    private AuditLogDaoImpl auditLogDao;
+
+    @BeforeEach
+    void setUp() {
+        auditLogDao = new AuditLogDaoImpl();
+        auditLogDao.namedParameterJdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+        auditLogDao.auditPayloadCodec = mock(AuditPayloadCodec.class);
+        ReflectionTestUtils.setField(auditLogDao, "running", true);
+    }
+
+    @Test
+    void logQueuedAsShutdownBeginsIsWrittenByTheCaller() {
+        // shutdown begins, and the writer exits, between the running check and the offer
+        ArrayBlockingQueue<ApplicationLogModel> queue = new ArrayBlockingQueue<ApplicationLogModel>(1) {
+            @Override
+            public boolean offer(ApplicationLogModel applicationLogModel) {
+                ReflectionTestUtils.setField(auditLogDao, "running", false);
+                return super.offer(applicationLogModel);
+            }
+        };
+        ReflectionTestUtils.setField(auditLogDao, "queue", queue);
+
+        Response<String> response = auditLogDao.insertLog(new ApplicationLogModel(HttpMethod.GET, "/order", null, null, null));
+
+        assertEquals(ErrorLog.CodeSuccess, response.getCode());
+        assertTrue(queue.isEmpty());
+        verify(auditLogDao.namedParameterJdbcTemplate).update(anyString(), any(SqlParameterSource.class));
+    }
+
+    @Test
+    void logQueuedWhileRunningIsLeftToTheWriter() {
+        ArrayBlockingQueue<ApplicationLogModel> queue = new ArrayBlockingQueue<>(1);
+        ReflectionTestUtils.setField(auditLogDao, "queue", queue);
+
+        Response<String> response = auditLogDao.insertLog(new ApplicationLogModel(HttpMethod.GET, "/order", null, null, null));
+
+        assertEquals(ErrorLog.CodeSuccess, response.getCode());
+        assertEquals(1, queue.size());
+        verifyNoInteractions(auditLogDao.namedParameterJdbcTemplate);
+    }
+}
@@ -0,0 +1,126 @@
+package com.food.ordering.zinger.dao.impl;
+
+import com.food.ordering.zinger.constant.ErrorLog;
+import com.food.ordering.zinger.constant.Query.IdempotencyKeyQuery;
+import com.food.ordering.zinger.model.Response;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class IdempotencyKeyDaoImplTest {
+
+    private static final Type responseType = Response.class;
+
+    private IdempotencyKeyDaoImpl idempotencyKeyDao;
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        namedParameterJdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+        when(namedParameterJdbcTemplate.update(eq(IdempotencyKeyQuery.insertKey), any(SqlParameterSource.class))).thenReturn(1);
+
+        idempotencyKeyDao = new IdempotencyKeyDaoImpl();
+        idempotencyKeyDao.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        ReflectionTestUtils.setField(idempotencyKeyDao, "ttlSeconds", 600L);
+        ReflectionTestUtils.setField(idempotencyKeyDao, "maxSize", 100);
+        ReflectionTestUtils.setField(idempotencyKeyDao, "waitMs", 100L);
+        ReflectionTestUtils.setField(idempotencyKeyDao, "completeAttempts", 3);
+    }
+
+    @Test
+    void duplicateReturnsTheFirstResponse() {
+        AtomicInteger calls = new AtomicInteger();
+
+        Response<String> first = idempotencyKeyDao.execute("insertOrder:1", "key", responseType, () -> getResponse(ErrorLog.CodeSuccess, calls));
+        Response<String> duplicate = idempotencyKeyDao.execute("insertOrder:1", "key", responseType, () -> getResponse(ErrorLog.CodeSuccess, calls));
+
+        assertEquals(1, calls.get());
+        assertSame(first, duplicate);
+        verify(namedParameterJdbcTemplate).update(eq(IdempotencyKeyQuery.completeKey), any(SqlParameterSource.class));
+    }
+
+    @Test
+    void failedRequestReleasesTheKey() {
+        AtomicInteger calls = new AtomicInteger();
+
+        idempotencyKeyDao.execute("insertOrder:1", "key", responseType, () -> getResponse(ErrorLog.CodeFailure, calls));
+        Response<String> retry = idempotencyKeyDao.execute("insertOrder:1", "key", responseType, () -> getResponse(ErrorLog.CodeSuccess, calls));
+
+        assertEquals(2, calls.get());
+        assertEquals(ErrorLog.CodeSuccess, retry.getCode());
+        verify(namedParameterJdbcTemplate).update(eq(IdempotencyKeyQuery.deleteKey), any(SqlParameterSource.class));
+    }
+
+    @Test
+    void throwingRequestReleasesTheKey() {
+        assertThrows(IllegalStateException.class, () -> idempotencyKeyDao.execute("insertOrder:1", "key", responseType, () -> {
+            throw new IllegalStateException();
+        }));
+
+        verify(namedParameterJdbcTemplate).update(eq(IdempotencyKeyQuery.deleteKey), any(SqlParameterSource.class));
+    }
+
+    @Test
+    void failedClaimDoesNotReleaseTheKey() {
+        when(namedParameterJdbcTemplate.update(eq(IdempotencyKeyQuery.insertKey), any(SqlParameterSource.class))).thenReturn(0);
+        when(namedParameterJdbcTemplate.update(eq(IdempotencyKeyQuery.deleteStaleKey), any(SqlParameterSource.class))).thenThrow(new QueryTimeoutException("timeout"));
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(QueryTimeoutException.class, () -> idempotencyKeyDao.execute("insertOrder:1", "key", responseType, () -> getResponse(ErrorLog.CodeSuccess, calls)));
+
+        assertEquals(0, calls.get());
+        verify(namedParameterJdbcTemplate, never()).update(eq(IdempotencyKeyQuery.deleteKey), any(SqlParameterSource.class));
+    }
+
+    @Test
+    void failedCompletionIsRetried() {
+        when(namedParameterJdbcTemplate.update(eq(IdempotencyKeyQuery.completeKey), any(SqlParameterSource.class)))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(1);
+        AtomicInteger calls = new AtomicInteger();
+
+        Response<String> response = idempotencyKeyDao.execute("insertOrder:1", "key", responseType, () -> getResponse(ErrorLog.CodeSuccess, calls));
+
+        assertEquals(ErrorLog.CodeSuccess, response.getCode());
+        verify(namedParameterJdbcTemplate, times(2)).update(eq(IdempotencyKeyQuery.completeKey), any(SqlParameterSource.class));
+    }
+
+    @Test
+    void failedCompletionIsThrownAndKeepsTheKeyPending() {
+        when(namedParameterJdbcTemplate.update(eq(IdempotencyKeyQuery.completeKey), any(SqlParameterSource.class)))
+                .thenThrow(new QueryTimeoutException("timeout"));
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(QueryTimeoutException.class, () -> idempotencyKeyDao.execute("insertOrder:1", "key", responseType, () -> getResponse(ErrorLog.CodeSuccess, calls)));
+
+        assertEquals(1, calls.get());
+        verify(namedParameterJdbcTemplate, times(3)).update(eq(IdempotencyKeyQuery.completeKey), any(SqlParameterSource.class));
+        verify(namedParameterJdbcTemplate, never()).update(eq(IdempotencyKeyQuery.deleteKey), any(SqlParameterSource.class));
+    }
+
+    @Test
+    void invalidKeyIsRejected() {
+        Response<String> response = idempotencyKeyDao.execute("insertOrder:1", "", responseType, () -> getResponse(ErrorLog.CodeSuccess, new AtomicInteger()));
+
+        assertEquals(ErrorLog.IIK1302, response.getCode());
+        verifyNoInteractions(namedParameterJdbcTemplate);
+    }
+
+    private static Response<String> getResponse(Integer code, AtomicInteger calls) {
+        calls.incrementAndGet();
+        Response<String> response = new Response<>();
+        response.setCode(code);
+        return response;
+    }
+}
@@ -0,0 +1,193 @@
+package com.food.ordering.zinger.dao.impl;
+
+import com.food.ordering.zinger.constant.Constant.PlaceOrderProcedure;
+import com.food.ordering.zinger.constant.ErrorLog;
+import com.food.ordering.zinger.dao.interfaces.PriceBookDao;
+import com.food.ordering.zinger.model.ItemModel;
+import com.food.ordering.zinger.model.OrderItemListModel;
+import com.food.ordering.zinger.model.OrderItemModel;
+import com.food.ordering.zinger.model.OrderModel;
+import com.food.ordering.zinger.model.OrderQuoteModel;
+import com.food.ordering.zinger.model.Response;
+import com.food.ordering.zinger.model.ShopModel;
+import com.food.ordering.zinger.model.TransactionModel;
+import com.food.ordering.zinger.model.UserModel;
+import com.food.ordering.zinger.utils.IdGenerator;
+import com.food.ordering.zinger.utils.JdbcOperationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.core.simple.SimpleJdbcCall;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class OrderBatchDaoImplTest {
+
+    private static final Long orderId = 7L;
+    private static final String merchantId = "merchant";
+
+    private OrderBatchDaoImpl orderBatchDao;
+    private OrderDaoImpl orderDao;
+
+    @BeforeEach
+    void setUp() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        IdGenerator idGenerator = mock(IdGenerator.class);
+        when(idGenerator.nextId()).thenReturn(orderId);
+
+        orderBatchDao = new OrderBatchDaoImpl();
+        orderBatchDao.namedParameterJdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+        orderBatchDao.transactionTemplate = new TransactionTemplate(transactionManager);
+        orderBatchDao.priceBookDao = mock(PriceBookDao.class);
+        orderBatchDao.idGenerator = idGenerator;
+        ReflectionTestUtils.setField(orderBatchDao, "enabled", true);
+        ReflectionTestUtils.setField(orderBatchDao, "batchSize", 50);
+        ReflectionTestUtils.setField(orderBatchDao, "maxWaitMs", 5L);
+        ReflectionTestUtils.setField(orderBatchDao, "queueCapacity", 100);
+        ReflectionTestUtils.setField(orderBatchDao, "shutdownTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(orderBatchDao, "waitTimeoutMs", 1000L);
+
+        orderDao = new OrderDaoImpl();
+        orderDao.jdbcOperationRegistry = mock(JdbcOperationRegistry.class);
+        orderDao.idGenerator = idGenerator;
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        orderBatchDao.stop();
+    }
+
+    @Test
+    void batchedOrderMatchesPlaceOrder() {
+        orderBatchDao.start();
+
+        assertSameOutcome(100, getQuote(ErrorLog.CodeSuccess, null, 100));
+        assertSameOutcome(-1, getQuote(ErrorLog.RNAOC1266, ErrorLog.RestaurantNotAcceptingOrders, null));
+        assertSameOutcome(-2, getQuote(ErrorLog.DONA1263, ErrorLog.DeliveryOptionNotAvailable, null));
+        assertSameOutcome(-3, getQuote(ErrorLog.INA1296, ErrorLog.ItemsNotAvailable, null));
+        assertSameOutcome(-5, getQuote(ErrorLog.CodeSuccess, null, 90));
+    }
+
+    @Test
+    void orderLeftInTheQueueIsWithdrawnAndNeverWritten() {
+        orderBatchDao.transactionTemplate = mock(TransactionTemplate.class);
+        ReflectionTestUtils.setField(orderBatchDao, "queue", new ArrayBlockingQueue<>(1));
+        ReflectionTestUtils.setField(orderBatchDao, "running", true);
+        ReflectionTestUtils.setField(orderBatchDao, "waitTimeoutMs", 10L);
+
+        assertNull(orderBatchDao.insertOrderWithItems(getCart()));
+
+        ReflectionTestUtils.setField(orderBatchDao, "running", false);
+        ReflectionTestUtils.invokeMethod(orderBatchDao, "drain");
+        verifyNoInteractions(orderBatchDao.transactionTemplate);
+    }
+
+    @Test
+    void orderInABatchThatDoesNotCompleteFails() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        orderBatchDao.transactionTemplate = mock(TransactionTemplate.class);
+        when(orderBatchDao.transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            release.await();
+            return null;
+        });
+        ReflectionTestUtils.setField(orderBatchDao, "waitTimeoutMs", 10L);
+        orderBatchDao.start();
+
+        Response<String> response = orderBatchDao.insertOrderWithItems(getCart());
+        release.countDown();
+
+        assertEquals(ErrorLog.ODNU1295, response.getCode());
+    }
+
+    @Test
+    void writerFailureHandsTheOrderBackToTheCaller() {
+        orderBatchDao.transactionTemplate = mock(TransactionTemplate.class);
+        when(orderBatchDao.transactionTemplate.execute(any())).thenThrow(new StackOverflowError());
+        orderBatchDao.start();
+
+        assertNull(orderBatchDao.insertOrderWithItems(getCart()));
+        assertNull(orderBatchDao.insertOrderWithItems(getCart()));
+        verify(orderBatchDao.transactionTemplate, times(1)).execute(any());
+    }
+
+    /**
+     * Places the same cart through "place_order" returning the given total price
+     * and through a batch verified with the given quote.
+     */
+    private void assertSameOutcome(Integer totalPrice, Response<OrderQuoteModel> quoteResponse) {
+        Map<String, Object> out = new HashMap<>();
+        out.put(PlaceOrderProcedure.totalPrice, totalPrice);
+        out.put(PlaceOrderProcedure.merchantId, merchantId);
+        SimpleJdbcCall placeOrderCall = mock(SimpleJdbcCall.class);
+        when(placeOrderCall.execute(any(SqlParameterSource.class))).thenReturn(out);
+        when(orderDao.jdbcOperationRegistry.getPlaceOrderCall()).thenReturn(placeOrderCall);
+        when(orderBatchDao.priceBookDao.getVerifiedQuotes(any())).thenReturn(Collections.singletonList(quoteResponse));
+
+        OrderItemListModel placedCart = getCart();
+        OrderItemListModel batchedCart = getCart();
+        Response<String> placed = ReflectionTestUtils.invokeMethod(orderDao, "insertOrderWithItems", placedCart);
+        Response<String> batched = orderBatchDao.insertOrderWithItems(batchedCart);
+
+        assertEquals(placed.getCode(), batched.getCode());
+        assertEquals(placed.getMessage(), batched.getMessage());
+        assertEquals(placed.getData(), batched.getData());
+        assertEquals(getOrderModel(placedCart).getId(), getOrderModel(batchedCart).getId());
+    }
+
+    private static OrderModel getOrderModel(OrderItemListModel orderItemListModel) {
+        return orderItemListModel.getTransactionModel().getOrderModel();
+    }
+
+    private static OrderItemListModel getCart() {
+        UserModel userModel = new UserModel();
+        userModel.setId(1);
+        ShopModel shopModel = new ShopModel();
+        shopModel.setId(1);
+        OrderModel orderModel = new OrderModel();
+        orderModel.setUserModel(userModel);
+        orderModel.setShopModel(shopModel);
+        orderModel.setPrice(100.0);
+        TransactionModel transactionModel = new TransactionModel();
+        transactionModel.setOrderModel(orderModel);
+
+        ItemModel itemModel = new ItemModel();
+        itemModel.setId(1);
+        OrderItemModel orderItemModel = new OrderItemModel();
+        orderItemModel.setItemModel(itemModel);
+        orderItemModel.setQuantity(2);
+        orderItemModel.setPrice(100.0);
+        List<OrderItemModel> orderItemModelList = Collections.singletonList(orderItemModel);
+
+        OrderItemListModel orderItemListModel = new OrderItemListModel();
+        orderItemListModel.setTransactionModel(transactionModel);
+        orderItemListModel.setOrderItemsList(orderItemModelList);
+        return orderItemListModel;
+    }
+
+    private static Response<OrderQuoteModel> getQuote(Integer code, String message, Integer totalPrice) {
+        OrderQuoteModel orderQuoteModel = new OrderQuoteModel();
+        orderQuoteModel.setTotalPrice(totalPrice);
+        orderQuoteModel.setMerchantId(merchantId);
+        Response<OrderQuoteModel> response = new Response<>();
+        response.setCode(code);
+        response.setMessage(message == null ? ErrorLog.Success : message);
+        response.setData(orderQuoteModel);
+        return response;
+    }
+}
@@ -0,0 +1,238 @@
+package com.food.ordering.zinger.dao.impl;
+
+import com.food.ordering.zinger.constant.Constant.PlaceOrderProcedure;
+import com.food.ordering.zinger.constant.Enums.OrderStatus;
+import com.food.ordering.zinger.constant.ErrorLog;
+import com.food.ordering.zinger.constant.OrderStateMachine;
+import com.food.ordering.zinger.dao.interfaces.OrderBatchDao;
+import com.food.ordering.zinger.dao.interfaces.PriceBookDao;
+import com.food.ordering.zinger.exception.GenericException;
+import com.food.ordering.zinger.model.ItemModel;
+import com.food.ordering.zinger.model.OrderItemListModel;
+import com.food.ordering.zinger.model.OrderItemModel;
+import com.food.ordering.zinger.model.OrderModel;
+import com.food.ordering.zinger.model.OrderQuoteModel;
+import com.food.ordering.zinger.model.OrderStatusResultModel;
+import com.food.ordering.zinger.model.Response;
+import com.food.ordering.zinger.model.ShopModel;
+import com.food.ordering.zinger.model.TransactionModel;
+import com.food.ordering.zinger.model.TransactionTokenModel;
+import com.food.ordering.zinger.model.UserModel;
+import com.food.ordering.zinger.utils.IdGenerator;
+import com.food.ordering.zinger.utils.JdbcOperationRegistry;
+import com.food.ordering.zinger.utils.OrderCache;
+import com.food.ordering.zinger.utils.PaymentResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.core.simple.SimpleJdbcCall;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class OrderDaoImplTest {
+
+    private OrderDaoImpl orderDao;
+    private PlatformTransactionManager transactionManager;
+    private final AtomicInteger openTransactions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            openTransactions.incrementAndGet();
+            return new SimpleTransactionStatus();
+        });
+        doAnswer(invocation -> openTransactions.decrementAndGet()).when(transactionManager).commit(any());
+        doAnswer(invocation -> openTransactions.decrementAndGet()).when(transactionManager).rollback(any());
+
+        orderDao = new OrderDaoImpl();
+        orderDao.namedParameterJdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+        orderDao.transactionTemplate = new TransactionTemplate(transactionManager);
+        orderDao.orderCache = mock(OrderCache.class);
+        orderDao.applicationEventPublisher = mock(ApplicationEventPublisher.class);
+        orderDao.paymentResponse = mock(PaymentResponse.class);
+        orderDao.priceBookDao = mock(PriceBookDao.class);
+        orderDao.orderBatchDao = mock(OrderBatchDao.class);
+        orderDao.idGenerator = mock(IdGenerator.class);
+        orderDao.jdbcOperationRegistry = mock(JdbcOperationRegistry.class);
+    }
+
+    @Test
+    void checkoutDoesNotJoinCallerTransaction() throws NoSuchMethodException {
+        assertEquals(Propagation.NOT_SUPPORTED, OrderDaoImpl.class.getMethod("insertOrder", OrderItemListModel.class)
+                .getAnnotation(Transactional.class).propagation());
+        assertEquals(Propagation.NOT_SUPPORTED, OrderDaoImpl.class.getMethod("placeOrder", Long.class)
+                .getAnnotation(Transactional.class).propagation());
+    }
+
+    @Test
+    void insertOrderCallsTheGatewayAfterTheOrderIsCommitted() throws GenericException {
+        OrderItemListModel orderItemListModel = getCart(100.0);
+        when(orderDao.priceBookDao.getQuote(orderItemListModel)).thenReturn(getQuote(ErrorLog.CodeSuccess, 100));
+        stubPlaceOrder(100);
+        AtomicInteger openTransactionsAtGateway = new AtomicInteger(-1);
+        when(orderDao.paymentResponse.initiateTransaction(any(), eq("merchant"))).thenAnswer(invocation -> {
+            openTransactionsAtGateway.set(openTransactions.get());
+            Response<String> tokenResponse = new Response<>();
+            tokenResponse.setCode(ErrorLog.CodeSuccess);
+            tokenResponse.setData("token");
+            return tokenResponse;
+        });
+
+        Response<TransactionTokenModel> response = orderDao.insertOrder(orderItemListModel);
+
+        assertEquals("token", response.getData().getTransactionToken());
+        assertEquals(0, openTransactionsAtGateway.get());
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    void insertOrderMarksTheCommittedOrderFailedWithoutAToken() {
+        OrderItemListModel orderItemListModel = getCart(100.0);
+        when(orderDao.priceBookDao.getQuote(orderItemListModel)).thenReturn(getQuote(ErrorLog.CodeSuccess, 100));
+        stubPlaceOrder(100);
+        when(orderDao.paymentResponse.initiateTransaction(any(), any())).thenThrow(new IllegalStateException("gateway down"));
+        String failedQuery = OrderStateMachine.getTransition(OrderStatus.TXN_FAILURE).getUpdateQuery();
+        when(orderDao.namedParameterJdbcTemplate.update(eq(failedQuery), any(SqlParameterSource.class))).thenReturn(1);
+
+        GenericException exception = assertThrows(GenericException.class, () -> orderDao.insertOrder(orderItemListModel));
+
+        assertEquals(ErrorLog.TTNA1271, exception.getResponse().getCode());
+        verify(orderDao.namedParameterJdbcTemplate).update(eq(failedQuery), any(SqlParameterSource.class));
+        verify(transactionManager, times(2)).commit(any());
+        verify(transactionManager, never()).rollback(any());
+    }
+
+    @Test
+    void updateOrderStatusBulkDoesNotJoinCallerTransaction() throws NoSuchMethodException {
+        Transactional transactional = OrderDaoImpl.class.getMethod("updateOrderStatusBulk", List.class).getAnnotation(Transactional.class);
+
+        assertEquals(Propagation.NOT_SUPPORTED, transactional.propagation());
+    }
+
+    @Test
+    void updateOrderStatusBulkKeepsOtherBatchesWhenOneFails() {
+        String acceptedQuery = OrderStateMachine.getTransition(OrderStatus.ACCEPTED).getUpdateQuery();
+        String readyQuery = OrderStateMachine.getTransition(OrderStatus.READY).getUpdateQuery();
+        when(orderDao.namedParameterJdbcTemplate.batchUpdate(eq(acceptedQuery), any(SqlParameterSource[].class))).thenReturn(new int[]{1});
+        when(orderDao.namedParameterJdbcTemplate.batchUpdate(eq(readyQuery), any(SqlParameterSource[].class))).thenThrow(new QueryTimeoutException("timeout"));
+
+        Response<List<OrderStatusResultModel>> response = orderDao.updateOrderStatusBulk(Arrays.asList(
+                getOrderModel(1L, OrderStatus.ACCEPTED), getOrderModel(2L, OrderStatus.READY)));
+
+        assertEquals(ErrorLog.CodeSuccess, response.getData().get(0).getCode());
+        assertEquals(ErrorLog.CE1284, response.getData().get(1).getCode());
+        verify(transactionManager, times(1)).commit(any());
+        verify(transactionManager, times(1)).rollback(any());
+        verify(orderDao.orderCache).evictOrder(1L);
+        verify(orderDao.orderCache, never()).evictOrder(2L);
+    }
+
+    @Test
+    void staleCachedQuoteFallsThroughAndEvictsTheShop() {
+        OrderItemListModel orderItemListModel = getCart(100.0);
+        when(orderDao.priceBookDao.getQuote(orderItemListModel)).thenReturn(getQuote(ErrorLog.INA1296, null));
+        when(orderDao.priceBookDao.getVerifiedQuotes(Collections.singletonList(orderItemListModel)))
+                .thenReturn(Collections.singletonList(getQuote(ErrorLog.CodeSuccess, 100)));
+
+        Response<String> response = ReflectionTestUtils.invokeMethod(orderDao, "verifyQuote", orderItemListModel);
+
+        assertNull(response);
+        verify(orderDao.priceBookDao).evictShop(1);
+    }
+
+    @Test
+    void rejectionConfirmedByTheDatabaseIsFinal() {
+        OrderItemListModel orderItemListModel = getCart(100.0);
+        when(orderDao.priceBookDao.getQuote(orderItemListModel)).thenReturn(getQuote(ErrorLog.CodeSuccess, 90));
+        when(orderDao.priceBookDao.getVerifiedQuotes(Collections.singletonList(orderItemListModel)))
+                .thenReturn(Collections.singletonList(getQuote(ErrorLog.CodeSuccess, 90)));
+
+        Response<String> response = ReflectionTestUtils.invokeMethod(orderDao, "verifyQuote", orderItemListModel);
+
+        assertEquals(ErrorLog.OPM1300, response.getCode());
+        verify(orderDao.priceBookDao, never()).evictShop(any());
+    }
+
+    @Test
+    void acceptedCachedQuoteSkipsTheDatabase() {
+        OrderItemListModel orderItemListModel = getCart(100.0);
+        when(orderDao.priceBookDao.getQuote(orderItemListModel)).thenReturn(getQuote(ErrorLog.CodeSuccess, 100));
+
+        Response<String> response = ReflectionTestUtils.invokeMethod(orderDao, "verifyQuote", orderItemListModel);
+
+        assertNull(response);
+        verify(orderDao.priceBookDao, never()).getVerifiedQuotes(any());
+    }
+
+    private static OrderItemListModel getCart(Double price) {
+        UserModel userModel = new UserModel();
+        userModel.setId(1);
+        ShopModel shopModel = new ShopModel();
+        shopModel.setId(1);
+        OrderModel orderModel = new OrderModel();
+        orderModel.setUserModel(userModel);
+        orderModel.setShopModel(shopModel);
+        orderModel.setPrice(price);
+        TransactionModel transactionModel = new TransactionModel();
+        transactionModel.setOrderModel(orderModel);
+
+        ItemModel itemModel = new ItemModel();
+        itemModel.setId(1);
+        OrderItemModel orderItemModel = new OrderItemModel();
+        orderItemModel.setItemModel(itemModel);
+        orderItemModel.setQuantity(1);
+        orderItemModel.setPrice(price);
+
+        OrderItemListModel orderItemListModel = new OrderItemListModel();
+        orderItemListModel.setTransactionModel(transactionModel);
+        orderItemListModel.setOrderItemsList(Collections.singletonList(orderItemModel));
+        return orderItemListModel;
+    }
+
+    private void stubPlaceOrder(Integer totalPrice) {
+        Map<String, Object> out = new HashMap<>();
+        out.put(PlaceOrderProcedure.totalPrice, totalPrice);
+        out.put(PlaceOrderProcedure.merchantId, "merchant");
+        SimpleJdbcCall placeOrderCall = mock(SimpleJdbcCall.class);
+        when(placeOrderCall.execute(any(SqlParameterSource.class))).thenReturn(out);
+        when(orderDao.jdbcOperationRegistry.getPlaceOrderCall()).thenReturn(placeOrderCall);
+    }
+
+    private static Response<OrderQuoteModel> getQuote(Integer code, Integer totalPrice) {
+        OrderQuoteModel orderQuoteModel = new OrderQuoteModel();
+        orderQuoteModel.setTotalPrice(totalPrice);
+        Response<OrderQuoteModel> response = new Response<>();
+        response.setCode(code);
+        response.setData(orderQuoteModel);
+        return response;
+    }
+
+    private static OrderModel getOrderModel(Long orderId, OrderStatus orderStatus) {
+        OrderModel orderModel = new OrderModel();
+        orderModel.setId(orderId);
+        orderModel.setOrderStatus(orderStatus);
+        return orderModel;
+    }
+}
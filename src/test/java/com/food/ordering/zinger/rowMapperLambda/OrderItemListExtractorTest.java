@@ -0,0 +1,207 @@
+package com.food.ordering.zinger.rowMapperLambda;
+
+import com.food.ordering.zinger.constant.Column;
+import com.food.ordering.zinger.constant.Constant.OrderRowType;
+import com.food.ordering.zinger.constant.Enums;
+import com.food.ordering.zinger.model.ItemModel;
+import com.food.ordering.zinger.model.OrderItemListModel;
+import com.food.ordering.zinger.model.OrderItemModel;
+import com.food.ordering.zinger.model.OrderModel;
+import com.food.ordering.zinger.model.OrderStatusModel;
+import org.junit.jupiter.api.Test;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import static com.food.ordering.zinger.constant.Column.OrderColumn.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OrderItemListExtractorTest {
+
+    private static final List<String> orderColumns = Arrays.asList(Column.TransactionColumn.transactionId, Column.TransactionColumn.paymentMode,
+            id, date, price, deliveryPrice, deliveryLocation, cookingInfo, rating, feedback, secretKey,
+            Column.shopName, Column.shopId, Column.ShopColumn.photoUrl, Column.shopMobile,
+            Column.userName, Column.userMobile, Column.UserColumn.notifToken);
+
+    private static final List<String> entryColumns = Arrays.asList(Column.itemName, Column.itemPrice, Column.ItemColumn.isVeg,
+            Column.OrderItemColumn.quantity, Column.orderItemPrice, Column.OrderStatusColumn.status, Column.OrderStatusColumn.updatedTime);
+
+    @Test
+    void extractorMatchesTheGroupConcatRowMapper() throws SQLException {
+        List<OrderItemListModel> extracted = OrderRowMapperLambda.OrderByIdExtractor.extractData(getNormalizedRows(
+                getOrderRow(1L), getItemRow("Dosa", 40.0, 1, 2, 80.0), getItemRow("Coffee", 15.0, 1, 1, 15.0),
+                getStatusRow("PLACED", "2020-01-01 10:00:00"), getStatusRow("ACCEPTED", "2020-01-01 10:01:30"),
+                getOrderRow(2L), getItemRow("Omelette", 30.0, 0, 3, 90.0), getStatusRow("PENDING", "2020-01-01 11:00:00")));
+
+        List<OrderItemListModel> mapped = getGroupConcatOrders(getGroupConcatRows(
+                getGroupConcatRow(1L, "Dosa,Coffee", "40.0,15.0", "1,1", "2,1", "80.0,15.0",
+                        "PLACED,ACCEPTED", "2020-01-01 10:00:00,2020-01-01 10:01:30"),
+                getGroupConcatRow(2L, "Omelette", "30.0", "0", "3", "90.0", "PENDING", "2020-01-01 11:00:00")));
+
+        assertEquals(describe(mapped), describe(extracted));
+    }
+
+    @Test
+    void itemNameWithACommaIsKeptWhole() throws SQLException {
+        List<OrderItemListModel> extracted = OrderRowMapperLambda.OrderByIdExtractor.extractData(getNormalizedRows(
+                getOrderRow(1L), getItemRow("Idli, Vada", 50.0, 1, 1, 50.0), getStatusRow("PLACED", "2020-01-01 10:00:00")));
+
+        assertEquals(Collections.singletonList("1 [Idli, Vada 50.0 1 x1 50.0] [PLACED 2020-01-01 10:00:00.0]"), describe(extracted));
+    }
+
+    private static List<String> describe(List<OrderItemListModel> orderItemListModelList) {
+        List<String> descriptionList = new ArrayList<>();
+        for (OrderItemListModel orderItemListModel : orderItemListModelList) {
+            OrderModel orderModel = orderItemListModel.getTransactionModel().getOrderModel();
+            StringBuilder description = new StringBuilder().append(orderModel.getId());
+            for (OrderItemModel orderItemModel : orderItemListModel.getOrderItemsList()) {
+                ItemModel itemModel = orderItemModel.getItemModel();
+                description.append(" [").append(itemModel.getName()).append(' ').append(itemModel.getPrice()).append(' ')
+                        .append(itemModel.getIsVeg()).append(" x").append(orderItemModel.getQuantity()).append(' ')
+                        .append(orderItemModel.getPrice()).append(']');
+            }
+            for (OrderStatusModel orderStatusModel : orderItemListModel.getOrderStatusModel())
+                description.append(" [").append(orderStatusModel.getOrderStatus()).append(' ').append(orderStatusModel.getUpdatedTime()).append(']');
+            descriptionList.add(description.toString());
+        }
+        return descriptionList;
+    }
+
+    /**
+     * The order list as the row mapper read it before the extractor, one row per order
+     * with the items and the statuses packed into GROUP_CONCAT strings.
+     */
+    private static List<OrderItemListModel> getGroupConcatOrders(ResultSet rs) throws SQLException {
+        List<OrderItemListModel> orderItemListModelList = new ArrayList<>();
+        while (rs.next()) {
+            OrderItemListModel orderItemListModel = OrderRowMapperLambda.OrderByIdRowMapper.mapRow(rs, orderItemListModelList.size());
+
+            ArrayList<OrderItemModel> orderItemModelList = new ArrayList<>();
+            ArrayList<OrderStatusModel> orderStatusModelList = new ArrayList<>();
+            String[] itemNameList = rs.getString(Column.itemName).split(",");
+            String[] itemPriceList = rs.getString(Column.itemPrice).split(",");
+            String[] isVegList = rs.getString(Column.ItemColumn.isVeg).split(",");
+            String[] quantityList = rs.getString(Column.OrderItemColumn.quantity).split(",");
+            String[] orderItemPriceList = rs.getString(Column.orderItemPrice).split(",");
+            String[] orderStatusList = rs.getString(Column.OrderColumn.status).split(",");
+            String[] updatedTimeList = rs.getString(Column.OrderStatusColumn.updatedTime).split(",");
+
+            for (int i = 0; i < itemNameList.length; i++) {
+                ItemModel itemModel = new ItemModel();
+                itemModel.setName(itemNameList[i]);
+                itemModel.setPrice(Double.valueOf(itemPriceList[i]));
+                itemModel.setIsVeg(Integer.valueOf(isVegList[i]));
+
+                OrderItemModel orderItemModel = new OrderItemModel();
+                orderItemModel.setItemModel(itemModel);
+                orderItemModel.setQuantity(Integer.valueOf(quantityList[i]));
+                orderItemModel.setPrice(Double.valueOf(orderItemPriceList[i]));
+                orderItemModelList.add(orderItemModel);
+            }
+
+            for (int i = 0; i < orderStatusList.length; i++) {
+                OrderStatusModel orderStatusModel = new OrderStatusModel();
+                orderStatusModel.setOrderStatus(Enums.OrderStatus.valueOf(orderStatusList[i]));
+
+                DateFormat formatter = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+                try {
+                    orderStatusModel.setUpdatedTime(new Timestamp(formatter.parse(updatedTimeList[i]).getTime()));
+                } catch (ParseException e) {
+                    throw new IllegalStateException(e);
+                }
+                orderStatusModelList.add(orderStatusModel);
+            }
+
+            orderItemListModel.setOrderItemsList(orderItemModelList);
+            orderItemListModel.setOrderStatusModel(orderStatusModelList);
+            orderItemListModelList.add(orderItemListModel);
+        }
+        return orderItemListModelList;
+    }
+
+    private static Object[] getOrderValues(Long orderId) {
+        return new Object[]{"txn" + orderId, "UPI", orderId, Timestamp.valueOf("2020-01-01 10:00:00"), 95.0, 0.0, null, null,
+                0.0, null, "1234", "Shop", 1, "photo", "9000000000", "User", "9111111111", "[\"token\"]"};
+    }
+
+    private static Object[] getOrderRow(Long orderId) {
+        return getRow(OrderRowType.order, getOrderValues(orderId), new Object[entryColumns.size()]);
+    }
+
+    private static Object[] getItemRow(String name, Double itemPrice, Integer isVeg, Integer quantity, Double orderItemPrice) {
+        return getRow(OrderRowType.item, new Object[orderColumns.size()], new Object[]{name, itemPrice, isVeg, quantity, orderItemPrice, null, null});
+    }
+
+    private static Object[] getStatusRow(String status, String updatedTime) {
+        return getRow(OrderRowType.status, new Object[orderColumns.size()],
+                new Object[]{null, null, null, null, null, status, Timestamp.valueOf(updatedTime)});
+    }
+
+    private static Object[] getRow(int rowType, Object[] orderValues, Object[] entryValues) {
+        Object[] row = new Object[1 + orderValues.length + entryValues.length];
+        row[0] = rowType;
+        System.arraycopy(orderValues, 0, row, 1, orderValues.length);
+        System.arraycopy(entryValues, 0, row, 1 + orderValues.length, entryValues.length);
+        return row;
+    }
+
+    private static Object[] getGroupConcatRow(Long orderId, String... groupConcatValues) {
+        Object[] orderValues = getOrderValues(orderId);
+        Object[] row = Arrays.copyOf(orderValues, orderValues.length + groupConcatValues.length);
+        System.arraycopy(groupConcatValues, 0, row, orderValues.length, groupConcatValues.length);
+        return row;
+    }
+
+    private static ResultSet getNormalizedRows(Object[]... rows) throws SQLException {
+        List<String> columns = new ArrayList<>();
+        columns.add(Column.rowType);
+        columns.addAll(orderColumns);
+        columns.addAll(entryColumns);
+        return getResultSet(columns, Arrays.asList(rows));
+    }
+
+    private static ResultSet getGroupConcatRows(Object[]... rows) throws SQLException {
+        List<String> columns = new ArrayList<>(orderColumns);
+        columns.addAll(entryColumns);
+        columns.set(columns.indexOf(Column.OrderStatusColumn.status), Column.OrderColumn.status);
+        return getResultSet(columns, Arrays.asList(rows));
+    }
+
+    /**
+     * A forward only result set over the given rows, read by column label or index.
+     */
+    private static ResultSet getResultSet(List<String> columns, List<Object[]> rows) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        int[] cursor = {-1};
+
+        when(rs.next()).thenAnswer(invocation -> ++cursor[0] < rows.size());
+        when(rs.findColumn(anyString())).thenAnswer(invocation -> columns.indexOf(invocation.<String>getArgument(0)) + 1);
+
+        Function<Object, Object> value = column -> rows.get(cursor[0])[column instanceof String ? columns.indexOf(column) : (Integer) column - 1];
+        Function<Object, Number> number = column -> value.apply(column) == null ? 0 : (Number) value.apply(column);
+
+        when(rs.getString(anyString())).thenAnswer(invocation -> value.apply(invocation.getArgument(0)));
+        when(rs.getString(anyInt())).thenAnswer(invocation -> value.apply(invocation.getArgument(0)));
+        when(rs.getTimestamp(anyString())).thenAnswer(invocation -> value.apply(invocation.getArgument(0)));
+        when(rs.getTimestamp(anyInt())).thenAnswer(invocation -> value.apply(invocation.getArgument(0)));
+        when(rs.getInt(anyString())).thenAnswer(invocation -> number.apply(invocation.getArgument(0)).intValue());
+        when(rs.getInt(anyInt())).thenAnswer(invocation -> number.apply(invocation.getArgument(0)).intValue());
+        when(rs.getLong(anyString())).thenAnswer(invocation -> number.apply(invocation.getArgument(0)).longValue());
+        when(rs.getDouble(anyString())).thenAnswer(invocation -> number.apply(invocation.getArgument(0)).doubleValue());
+        when(rs.getDouble(anyInt())).thenAnswer(invocation -> number.apply(invocation.getArgument(0)).doubleValue());
+        return rs;
+    }
+}
@@ -0,0 +1,126 @@
+package com.food.ordering.zinger.utils;
+
+import com.food.ordering.zinger.constant.Enums.OrderStatus;
+import com.food.ordering.zinger.model.OrderItemListModel;
+import com.food.ordering.zinger.model.OrderModel;
+import com.food.ordering.zinger.model.OrderStatusModel;
+import com.food.ordering.zinger.model.ShopModel;
+import com.food.ordering.zinger.model.TransactionModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActiveOrderViewTest {
+
+    private static final Integer shopId = 1;
+
+    private ActiveOrderView activeOrderView;
+
+    @BeforeEach
+    void setUp() {
+        activeOrderView = new ActiveOrderView();
+        ReflectionTestUtils.setField(activeOrderView, "enabled", true);
+    }
+
+    @Test
+    void notReadyBeforeTheFirstBuild() throws IOException {
+        activeOrderView.putOrder(getOrder(1L, OrderStatus.PLACED));
+
+        assertNull(activeOrderView.getOrderByShopId(shopId));
+        assertNull(activeOrderView.getOrderCountByShopId(shopId));
+    }
+
+    @Test
+    void staleReadIsIgnored() throws IOException {
+        activeOrderView.rebuild(Collections.emptyList(), activeOrderView.getSequence());
+
+        activeOrderView.putOrder(getOrder(1L, OrderStatus.ACCEPTED));
+        activeOrderView.putOrder(getOrder(1L, OrderStatus.PLACED));
+
+        assertEquals(Collections.singletonList(OrderStatus.ACCEPTED), getStatuses());
+        assertEquals(1, activeOrderView.getOrderCountByShopId(shopId).get(OrderStatus.ACCEPTED).intValue());
+        assertEquals(0, activeOrderView.getOrderCountByShopId(shopId).get(OrderStatus.PLACED).intValue());
+    }
+
+    @Test
+    void tombstoneKeepsALeftOrderOut() throws IOException {
+        activeOrderView.rebuild(Collections.emptyList(), activeOrderView.getSequence());
+
+        activeOrderView.putOrder(getOrder(1L, OrderStatus.READY));
+        activeOrderView.putOrder(getOrder(1L, OrderStatus.COMPLETED));
+        activeOrderView.putOrder(getOrder(1L, OrderStatus.READY));
+
+        assertTrue(getStatuses().isEmpty());
+        assertEquals(0, activeOrderView.getOrderCountByShopId(shopId).get(OrderStatus.READY).intValue());
+    }
+
+    @Test
+    void rebuildKeepsTheOrdersPutSinceItsRead() throws IOException {
+        activeOrderView.rebuild(Collections.emptyList(), activeOrderView.getSequence());
+
+        long sequence = activeOrderView.getSequence();
+        activeOrderView.putOrder(getOrder(1L, OrderStatus.ACCEPTED));
+        int driftCount = activeOrderView.rebuild(Arrays.asList(getOrder(1L, OrderStatus.PLACED), getOrder(2L, OrderStatus.PLACED)), sequence);
+
+        assertEquals(Arrays.asList(OrderStatus.ACCEPTED, OrderStatus.PLACED), getStatuses());
+        assertEquals(1, driftCount);
+    }
+
+    @Test
+    void rebuildDropsTheOrdersItDidNotRead() throws IOException {
+        activeOrderView.rebuild(Collections.emptyList(), activeOrderView.getSequence());
+        activeOrderView.putOrder(getOrder(1L, OrderStatus.PLACED));
+
+        int driftCount = activeOrderView.rebuild(Collections.emptyList(), activeOrderView.getSequence());
+
+        assertTrue(getStatuses().isEmpty());
+        assertEquals(1, driftCount);
+    }
+
+    private List<OrderStatus> getStatuses() throws IOException {
+        List<OrderStatus> orderStatusList = new ArrayList<>();
+        for (OrderItemListModel orderItemListModel : activeOrderView.getOrderByShopId(shopId))
+            orderStatusList.add(ActiveOrderView.getOrderStatus(orderItemListModel));
+        return orderStatusList;
+    }
+
+    /**
+     * The order as read from the database, the given status being the furthest of its statuses.
+     */
+    private static OrderItemListModel getOrder(Long orderId, OrderStatus orderStatus) {
+        ShopModel shopModel = new ShopModel();
+        shopModel.setId(shopId);
+
+        OrderModel orderModel = new OrderModel();
+        orderModel.setId(orderId);
+        orderModel.setShopModel(shopModel);
+        orderModel.setDate(new Timestamp(orderId));
+
+        TransactionModel transactionModel = new TransactionModel();
+        transactionModel.setOrderModel(orderModel);
+
+        List<OrderStatusModel> orderStatusModelList = new ArrayList<>();
+        for (OrderStatus status : OrderStatus.values()) {
+            if (status.compareTo(orderStatus) > 0)
+                break;
+            OrderStatusModel orderStatusModel = new OrderStatusModel();
+            orderStatusModel.setOrderId(orderId);
+            orderStatusModel.setOrderStatus(status);
+            orderStatusModelList.add(orderStatusModel);
+        }
+
+        OrderItemListModel orderItemListModel = new OrderItemListModel();
+        orderItemListModel.setTransactionModel(transactionModel);
+        orderItemListModel.setOrderStatusModel(orderStatusModelList);
+        return orderItemListModel;
+    }
+}
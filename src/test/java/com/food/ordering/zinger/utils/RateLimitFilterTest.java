@@ -0,0 +1,73 @@
+package com.food.ordering.zinger.utils;
+
+import com.food.ordering.zinger.constant.ErrorLog;
+import com.food.ordering.zinger.interceptor.RequestHeaderCache;
+import com.food.ordering.zinger.interceptor.SessionTokenCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class RateLimitFilterTest {
+
+    private RateLimitFilter rateLimitFilter;
+    private MockEnvironment environment;
+
+    @BeforeEach
+    void setUp() {
+        environment = new MockEnvironment()
+                .withProperty("zinger.rate-limit.enabled", "true")
+                .withProperty("zinger.rate-limit.default.capacity", "2")
+                .withProperty("zinger.rate-limit.default.refill-per-second", "1")
+                .withProperty("zinger.rate-limit.order-seller.capacity", "1")
+                .withProperty("zinger.rate-limit.order-seller.refill-per-second", "1");
+
+        rateLimitFilter = new RateLimitFilter();
+        rateLimitFilter.environment = environment;
+        rateLimitFilter.sessionTokenCodec = mock(SessionTokenCodec.class);
+        rateLimitFilter.requestHeaderCache = mock(RequestHeaderCache.class);
+    }
+
+    @Test
+    void burstBeyondTheCapacityIsRejected() throws Exception {
+        rateLimitFilter.init();
+
+        assertEquals(HttpStatus.OK.value(), doFilter("/order/seller/1/list", "10.0.0.1").getStatus());
+        MockHttpServletResponse response = doFilter("/order/seller/1/list", "10.0.0.1");
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), response.getStatus());
+        assertTrue(response.getContentAsString().contains("\"code\":" + ErrorLog.TMR1341));
+        assertEquals(HttpStatus.OK.value(), doFilter("/order/seller/2/list", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    void groupWithoutCapacityFallsBackToTheDefaultGroup() throws Exception {
+        environment.setProperty("zinger.rate-limit.order-seller.capacity", "0");
+        rateLimitFilter.init();
+
+        assertEquals(HttpStatus.OK.value(), doFilter("/order/seller/1/list", "10.0.0.1").getStatus());
+        assertEquals(HttpStatus.OK.value(), doFilter("/order/seller/1/list", "10.0.0.1").getStatus());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), doFilter("/order/seller/1/list", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    void capacityThatCannotBeRepresentedIsRejected() {
+        environment.setProperty("zinger.rate-limit.default.capacity", "100000");
+
+        assertThrows(IllegalStateException.class, rateLimitFilter::init);
+    }
+
+    private MockHttpServletResponse doFilter(String url, String remoteAddress) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", url);
+        request.setRemoteAddr(remoteAddress);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        rateLimitFilter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}